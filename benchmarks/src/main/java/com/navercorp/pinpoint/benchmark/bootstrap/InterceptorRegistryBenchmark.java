@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark.bootstrap;
+
+import com.navercorp.pinpoint.bootstrap.interceptor.Interceptor;
+import com.navercorp.pinpoint.bootstrap.interceptor.registry.DefaultInterceptorRegistryAdaptor;
+import com.navercorp.pinpoint.bootstrap.interceptor.registry.InterceptorRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InterceptorRegistry#getInterceptor(int)} is the first call of every instrumented method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterceptorRegistryBenchmark {
+
+    private static final int INTERCEPTOR_SIZE = 1024;
+
+    private final Object lock = new Object();
+    private final int[] interceptorIds = new int[INTERCEPTOR_SIZE];
+    private int index;
+
+    @Setup
+    public void setup() {
+        final DefaultInterceptorRegistryAdaptor registryAdaptor = new DefaultInterceptorRegistryAdaptor(INTERCEPTOR_SIZE * 2);
+        for (int i = 0; i < INTERCEPTOR_SIZE; i++) {
+            interceptorIds[i] = registryAdaptor.addInterceptor(new Interceptor() {
+            });
+        }
+        InterceptorRegistry.bind(registryAdaptor, lock);
+    }
+
+    @TearDown
+    public void tearDown() {
+        InterceptorRegistry.unbind(lock);
+    }
+
+    @Benchmark
+    public Interceptor getInterceptor() {
+        final int interceptorId = interceptorIds[index++ & (INTERCEPTOR_SIZE - 1)];
+        return InterceptorRegistry.getInterceptor(interceptorId);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.benchmark.profiler;
+
+import com.navercorp.pinpoint.bootstrap.context.ParsingResult;
+import com.navercorp.pinpoint.common.util.DefaultSqlParser;
+import com.navercorp.pinpoint.common.util.NormalizedSql;
+import com.navercorp.pinpoint.common.util.SqlParser;
+import com.navercorp.pinpoint.profiler.metadata.DefaultCachingSqlNormalizer;
+import com.navercorp.pinpoint.profiler.metadata.Result;
+import com.navercorp.pinpoint.profiler.metadata.SimpleCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalizing an already known sql.
+ * {@code parseAndCache} is the path taken before the original sql keyed cache existed,
+ * {@code identicalSql} / {@code equalSql} go through {@link DefaultCachingSqlNormalizer}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultCachingSqlNormalizerBenchmark {
+
+    private static final int SQL_SIZE = 64;
+
+    private final SqlParser sqlParser = new DefaultSqlParser();
+    private final SimpleCache<String> sqlCache = new SimpleCache<String>(1024);
+    private final DefaultCachingSqlNormalizer normalizer = new DefaultCachingSqlNormalizer(1024);
+
+    private final String[] sqls = new String[SQL_SIZE];
+    private final String[] equalSqls = new String[SQL_SIZE];
+    private int index;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < SQL_SIZE; i++) {
+            sqls[i] = "SELECT a.id, a.name, b.value FROM table_" + i + " a INNER JOIN detail b ON a.id = b.id WHERE a.id = ? AND b.type = ?";
+            equalSqls[i] = new String(sqls[i]);
+            normalizer.normalizedSql(normalizer.wrapSql(sqls[i]));
+            sqlCache.put(sqlParser.normalizedSql(sqls[i]).getNormalizedSql());
+        }
+    }
+
+    @Benchmark
+    public Result parseAndCache() {
+        final NormalizedSql normalizedSql = sqlParser.normalizedSql(sqls[index++ & (SQL_SIZE - 1)]);
+        return sqlCache.put(normalizedSql.getNormalizedSql());
+    }
+
+    @Benchmark
+    public ParsingResult identicalSql() {
+        final ParsingResult parsingResult = normalizer.wrapSql(sqls[index++ & (SQL_SIZE - 1)]);
+        normalizer.normalizedSql(parsingResult);
+        return parsingResult;
+    }
+
+    @Benchmark
+    public ParsingResult equalSql() {
+        final ParsingResult parsingResult = normalizer.wrapSql(equalSqls[index++ & (SQL_SIZE - 1)]);
+        normalizer.normalizedSql(parsingResult);
+        return parsingResult;
+    }
+}
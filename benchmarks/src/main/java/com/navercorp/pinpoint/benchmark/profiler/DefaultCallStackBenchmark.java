@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark.profiler;
+
+import com.navercorp.pinpoint.profiler.context.CallStack;
+import com.navercorp.pinpoint.profiler.context.DefaultCallStack;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes {@code depth} span events then pops them all.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultCallStackBenchmark {
+
+    @Param({"8", "64"})
+    public int depth;
+
+    private TraceRoot traceRoot;
+    private SpanEvent[] spanEvents;
+
+    @Setup
+    public void setup() {
+        final DefaultTraceId traceId = new DefaultTraceId("agentId", 1L, 1L);
+        this.traceRoot = new DefaultTraceRoot(traceId, "agentId", System.currentTimeMillis(), 1L);
+        this.spanEvents = new SpanEvent[depth];
+        for (int i = 0; i < depth; i++) {
+            spanEvents[i] = new SpanEvent(traceRoot);
+        }
+    }
+
+    @Benchmark
+    public void pushPop(Blackhole blackhole) {
+        final CallStack callStack = new DefaultCallStack(traceRoot, 64);
+        for (SpanEvent spanEvent : spanEvents) {
+            blackhole.consume(callStack.push(spanEvent));
+        }
+        for (int i = 0; i < spanEvents.length; i++) {
+            blackhole.consume(callStack.pop());
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark.profiler;
+
+import com.navercorp.pinpoint.bootstrap.context.AsyncContext;
+import com.navercorp.pinpoint.bootstrap.context.AsyncState;
+import com.navercorp.pinpoint.bootstrap.context.AsyncTraceId;
+import com.navercorp.pinpoint.bootstrap.context.SpanEventRecorder;
+import com.navercorp.pinpoint.bootstrap.context.Trace;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.profiler.context.AsyncContextFactory;
+import com.navercorp.pinpoint.profiler.context.AsyncId;
+import com.navercorp.pinpoint.profiler.context.CallStack;
+import com.navercorp.pinpoint.profiler.context.CallStackFactory;
+import com.navercorp.pinpoint.profiler.context.CallStackFactoryV2;
+import com.navercorp.pinpoint.profiler.context.DefaultSpanEventFactory;
+import com.navercorp.pinpoint.profiler.context.DefaultSpanFactory;
+import com.navercorp.pinpoint.profiler.context.DefaultTrace;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanEventFactory;
+import com.navercorp.pinpoint.profiler.context.SpanEventPool;
+import com.navercorp.pinpoint.profiler.context.SpanFactory;
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceHandle;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTransactionIdEncoder;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.profiler.context.recorder.DefaultSpanRecorder;
+import com.navercorp.pinpoint.profiler.context.recorder.WrappedSpanEventRecorder;
+import com.navercorp.pinpoint.profiler.context.storage.Storage;
+import com.navercorp.pinpoint.profiler.metadata.DefaultSqlMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.DefaultStringMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.SqlMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.StringMetaDataService;
+import com.navercorp.pinpoint.profiler.sender.EnhancedDataSender;
+import com.navercorp.pinpoint.profiler.sender.LoggingDataSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One transaction: new DefaultTrace, {@code spanEventCount} traceBlockBegin/traceBlockEnd pairs, close.
+ * A non zero {@code spanEventPoolSize} runs the same path with {@link SpanEventPool}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultTraceBenchmark {
+
+    private static final String AGENT_ID = "agentId";
+    private static final long AGENT_START_TIME = 1L;
+
+    @Param({"16"})
+    public int spanEventCount;
+
+    @Param({"0", "1024"})
+    public int spanEventPoolSize;
+
+    private final CallStackFactory callStackFactory = new CallStackFactoryV2(64);
+    private final SpanFactory spanFactory = new DefaultSpanFactory("applicationName", AGENT_ID, AGENT_START_TIME, ServiceType.STAND_ALONE,
+            new DefaultTransactionIdEncoder(AGENT_ID, AGENT_START_TIME));
+    private final EnhancedDataSender dataSender = new LoggingDataSender();
+    private final StringMetaDataService stringMetaDataService = new DefaultStringMetaDataService(AGENT_ID, AGENT_START_TIME, dataSender);
+    private final SqlMetaDataService sqlMetaDataService = new DefaultSqlMetaDataService(AGENT_ID, AGENT_START_TIME, dataSender, 1024);
+    private final AsyncContextFactory asyncContextFactory = new UnsupportedAsyncContextFactory();
+
+    private SpanEventFactory spanEventFactory;
+    private long transactionId;
+
+    @Setup
+    public void setup() {
+        if (spanEventPoolSize > 0) {
+            this.spanEventFactory = new SpanEventPool(spanEventPoolSize);
+        } else {
+            this.spanEventFactory = new DefaultSpanEventFactory();
+        }
+    }
+
+    @Benchmark
+    public Span transaction() {
+        final long localTransactionId = transactionId++;
+        final DefaultTraceId traceId = new DefaultTraceId(AGENT_ID, AGENT_START_TIME, localTransactionId);
+        final TraceRoot traceRoot = new DefaultTraceRoot(traceId, AGENT_ID, System.currentTimeMillis(), localTransactionId);
+
+        final Span span = spanFactory.newSpan(traceRoot);
+        final CallStack callStack = callStackFactory.newCallStack(traceRoot);
+        final RecyclingStorage storage = new RecyclingStorage();
+        final DefaultSpanRecorder spanRecorder = new DefaultSpanRecorder(span, true, true, stringMetaDataService, sqlMetaDataService);
+        final WrappedSpanEventRecorder wrappedSpanEventRecorder = new WrappedSpanEventRecorder(asyncContextFactory, stringMetaDataService, sqlMetaDataService, null);
+
+        final Trace trace = new DefaultTrace(span, callStack, storage, asyncContextFactory, true, spanRecorder, wrappedSpanEventRecorder,
+                ActiveTraceHandle.EMPTY_HANDLE, spanEventFactory);
+        for (int i = 0; i < spanEventCount; i++) {
+            final SpanEventRecorder recorder = trace.traceBlockBegin();
+            recorder.recordServiceType(ServiceType.INTERNAL_METHOD);
+            trace.traceBlockEnd();
+        }
+        trace.close();
+        return span;
+    }
+
+    /**
+     * Keeps span events until the span is stored, then recycles them the way the data sender does after serialization.
+     */
+    private static class RecyclingStorage implements Storage {
+
+        private final List<SpanEvent> spanEventList = new ArrayList<SpanEvent>();
+
+        @Override
+        public void store(SpanEvent spanEvent) {
+            spanEventList.add(spanEvent);
+        }
+
+        @Override
+        public void store(Span span) {
+            flush();
+        }
+
+        @Override
+        public void flush() {
+            for (SpanEvent spanEvent : spanEventList) {
+                spanEvent.recycle();
+            }
+            spanEventList.clear();
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+
+    private static class UnsupportedAsyncContextFactory implements AsyncContextFactory {
+        @Override
+        public AsyncId newAsyncId() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AsyncContext newAsyncContext(TraceRoot traceRoot, AsyncId asyncId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AsyncContext newAsyncContext(TraceRoot traceRoot, AsyncId asyncId, AsyncState asyncState) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AsyncTraceId newAsyncTraceId(TraceRoot traceRoot) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark.profiler;
+
+import com.navercorp.pinpoint.bootstrap.config.DefaultProfilerConfig;
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.Matchers;
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.InterfaceInternalNameMatcherOperand;
+import com.navercorp.pinpoint.profiler.instrument.transformer.MatchableTransformerRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transformer lookup for every class of a synthetic 40k class path, as done while an application server starts.
+ * None of the classes is instrumented, so each lookup must be rejected by the class and package indexes
+ * without reading class metadata.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchableTransformerRegistryBenchmark {
+
+    private static final int CLASS_SIZE = 40000;
+    private static final int PACKAGE_MATCHER_SIZE = 64;
+    private static final int CLASS_MATCHER_SIZE = 256;
+
+    private static final ClassFileTransformer TRANSFORMER = new ClassFileTransformer() {
+        @Override
+        public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+            return null;
+        }
+    };
+
+    private final String[] classInternalNames = new String[CLASS_SIZE];
+    private MatchableTransformerRegistry registry;
+
+    @Setup
+    public void setup() {
+        registry = new MatchableTransformerRegistry(new DefaultProfilerConfig());
+        for (int i = 0; i < PACKAGE_MATCHER_SIZE; i++) {
+            registry.addTransformer(Matchers.newPackageBasedMatcher("com.vendor" + i + ".client", new InterfaceInternalNameMatcherOperand("com.vendor" + i + ".Client", true)), TRANSFORMER);
+        }
+        for (int i = 0; i < CLASS_MATCHER_SIZE; i++) {
+            registry.addTransformer(Matchers.newClassBasedMatcher("com.vendor" + i + ".Connection"), TRANSFORMER);
+        }
+
+        final String[] roots = {"java/util/", "javax/servlet/", "org/springframework/", "com/fasterxml/jackson/", "com/example/app/", "com/vendor1/server/"};
+        for (int i = 0; i < CLASS_SIZE; i++) {
+            final String root = roots[i % roots.length];
+            classInternalNames[i] = root + "module" + (i % 97) + "/sub" + (i % 13) + "/Class" + i;
+        }
+    }
+
+    @Benchmark
+    public void findTransformer(Blackhole blackhole) {
+        for (String classInternalName : classInternalNames) {
+            blackhole.consume(registry.findTransformer(null, classInternalName, null));
+        }
+    }
+}
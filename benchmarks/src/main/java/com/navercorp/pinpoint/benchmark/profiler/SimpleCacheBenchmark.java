@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark.profiler;
+
+import com.navercorp.pinpoint.profiler.metadata.Result;
+import com.navercorp.pinpoint.profiler.metadata.SimpleCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SimpleCache#put(Object)} is called for every sql, method descriptor and string recorded by the agent.
+ * Almost every call is a hit, {@code miss} shows the cost of the first registration (key creation included).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimpleCacheBenchmark {
+
+    private static final int KEY_SIZE = 512;
+
+    private final SimpleCache<String> cache = new SimpleCache<String>(1024);
+    private final String[] keys = new String[KEY_SIZE];
+    private int index;
+    private long missSequence;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < KEY_SIZE; i++) {
+            keys[i] = "SELECT * FROM table_" + i + " WHERE id = ?";
+            cache.put(keys[i]);
+        }
+    }
+
+    @Benchmark
+    public Result hit() {
+        final String key = keys[index++ & (KEY_SIZE - 1)];
+        return cache.put(key);
+    }
+
+    @Benchmark
+    public Result miss() {
+        return cache.put("SELECT * FROM miss WHERE id = " + missSequence++);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark.profiler;
+
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.common.util.SpanEventColumnEncoder;
+import com.navercorp.pinpoint.profiler.context.Annotation;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
+import org.apache.thrift.TException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Span serialization with a thrift spanEventList versus spanEventColumns.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpanEventColumnBenchmark {
+
+    @Param({"16", "64", "256"})
+    public int spanEventCount;
+
+    private final HeaderTBaseSerializer serializer = new HeaderTBaseSerializerFactory(false, HeaderTBaseSerializerFactory.DEFAULT_UDP_STREAM_MAX_SIZE, false).createSerializer();
+    private final SpanEventColumnEncoder encoder = new SpanEventColumnEncoder();
+
+    private List<TSpanEvent> spanEventList;
+    private Span listSpan;
+    private Span columnSpan;
+
+    @Setup
+    public void setup() {
+        final String agentId = "agentId";
+        final long agentStartTime = System.currentTimeMillis();
+        final TraceRoot traceRoot = new DefaultTraceRoot(new DefaultTraceId(agentId, agentStartTime, 1L), agentId, agentStartTime, 1L);
+
+        this.spanEventList = new ArrayList<TSpanEvent>(spanEventCount);
+        for (int i = 0; i < spanEventCount; i++) {
+            final SpanEvent spanEvent = new SpanEvent(traceRoot);
+            spanEvent.setSequence((short) i);
+            // compressed depth : set only when changed
+            if (i % 4 == 0) {
+                spanEvent.setDepth(2 + i % 3);
+            }
+            spanEvent.setStartElapsed(i % 5);
+            spanEvent.setEndElapsed(i % 3);
+            if (i % 2 == 0) {
+                spanEvent.setServiceType(ServiceType.INTERNAL_METHOD.getCode());
+                spanEvent.setApiId(10 + i % 8);
+            } else {
+                spanEvent.setServiceType((short) 2101);
+                spanEvent.setApiId(20);
+                spanEvent.setEndPoint("db.example.com:3306");
+                spanEvent.setDestinationId("orders");
+                spanEvent.addAnnotation(new Annotation(AnnotationKey.SQL.getCode(), "SELECT * FROM orders WHERE id = ?"));
+            }
+            spanEventList.add(spanEvent);
+        }
+
+        this.listSpan = new Span(traceRoot);
+        listSpan.setSpanEventList(spanEventList);
+        this.columnSpan = new Span(traceRoot);
+        columnSpan.setSpanEventColumns(encoder.encode(spanEventList));
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws TException {
+        return serializer.serialize(listSpan);
+    }
+
+    @Benchmark
+    public byte[] serializeColumn() throws TException {
+        columnSpan.setSpanEventColumns(encoder.encode(spanEventList));
+        return serializer.serialize(columnSpan);
+    }
+}
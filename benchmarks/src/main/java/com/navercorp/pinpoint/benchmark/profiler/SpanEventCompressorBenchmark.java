@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark.profiler;
+
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.compress.SpanEventCompressor;
+import com.navercorp.pinpoint.profiler.context.compress.SpanEventCompressorV2;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Span events arrive in traceBlockEnd order (deepest first), the compressor sorts them by sequence.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpanEventCompressorBenchmark {
+
+    @Param({"16", "256"})
+    public int spanEventCount;
+
+    private final SpanEventCompressor<Long> compressor = new SpanEventCompressorV2();
+
+    private long keyTime;
+    private List<SpanEvent> storedOrder;
+    private List<SpanEvent> spanEventList;
+
+    @Setup
+    public void setup() {
+        final DefaultTraceId traceId = new DefaultTraceId("agentId", 1L, 1L);
+        final TraceRoot traceRoot = new DefaultTraceRoot(traceId, "agentId", System.currentTimeMillis(), 1L);
+        this.keyTime = traceRoot.getTraceStartTime();
+
+        final SpanEvent[] spanEvents = new SpanEvent[spanEventCount];
+        for (int i = 0; i < spanEventCount; i++) {
+            final SpanEvent spanEvent = new SpanEvent(traceRoot);
+            spanEvent.setSequence((short) i);
+            // nested in pairs: even sequence is the parent of the next one
+            spanEvent.setDepth((i % 2) + 1);
+            spanEvent.markStartTime();
+            spanEvent.markAfterTime();
+            spanEvents[i] = spanEvent;
+        }
+        // stored when the block ends: child first
+        this.storedOrder = new ArrayList<SpanEvent>(spanEventCount);
+        for (int i = 0; i < spanEventCount; i += 2) {
+            if (i + 1 < spanEventCount) {
+                storedOrder.add(spanEvents[i + 1]);
+            }
+            storedOrder.add(spanEvents[i]);
+        }
+        this.spanEventList = new ArrayList<SpanEvent>(Arrays.asList(spanEvents));
+    }
+
+    @Benchmark
+    public List<SpanEvent> compress() {
+        spanEventList.clear();
+        // addAll() would copy through toArray()
+        for (int i = 0; i < storedOrder.size(); i++) {
+            spanEventList.add(storedOrder.get(i));
+        }
+        compressor.compress(spanEventList, keyTime);
+        return spanEventList;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark.profiler;
+
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.profiler.context.Annotation;
+import com.navercorp.pinpoint.profiler.context.DefaultSpanFactory;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanFactory;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTransactionIdEncoder;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
+import org.apache.thrift.TException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a Span the way the span data sender does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpanSerializeBenchmark {
+
+    @Param({"16", "64"})
+    public int spanEventCount;
+
+    private final HeaderTBaseSerializer serializer = new HeaderTBaseSerializerFactory(false, HeaderTBaseSerializerFactory.DEFAULT_UDP_STREAM_MAX_SIZE, false).createSerializer();
+
+    private Span span;
+
+    @Setup
+    public void setup() {
+        final String agentId = "agentId";
+        final long agentStartTime = System.currentTimeMillis();
+        final SpanFactory spanFactory = new DefaultSpanFactory("applicationName", agentId, agentStartTime, ServiceType.STAND_ALONE,
+                new DefaultTransactionIdEncoder(agentId, agentStartTime));
+        final DefaultTraceId traceId = new DefaultTraceId(agentId, agentStartTime, 1L);
+        final TraceRoot traceRoot = new DefaultTraceRoot(traceId, agentId, agentStartTime, 1L);
+
+        this.span = spanFactory.newSpan(traceRoot);
+        span.setRpc("/benchmark/span");
+        span.setEndPoint("localhost:8080");
+        span.setRemoteAddr("127.0.0.1");
+        span.setServiceType(ServiceType.STAND_ALONE.getCode());
+        span.setApiId(1);
+        span.addAnnotation(new Annotation(AnnotationKey.HTTP_URL.getCode(), "/benchmark/span?param=value"));
+
+        final List<TSpanEvent> spanEventList = new ArrayList<TSpanEvent>(spanEventCount);
+        for (int i = 0; i < spanEventCount; i++) {
+            final SpanEvent spanEvent = new SpanEvent(traceRoot);
+            spanEvent.setSequence((short) i);
+            spanEvent.setDepth(i + 1);
+            spanEvent.setStartElapsed(i);
+            spanEvent.setEndElapsed(1);
+            spanEvent.setServiceType(ServiceType.INTERNAL_METHOD.getCode());
+            spanEvent.setApiId(i + 10);
+            spanEvent.addAnnotation(new Annotation(AnnotationKey.ARGS0.getCode(), "argument" + i));
+            spanEventList.add(spanEvent);
+        }
+        span.setSpanEventList(spanEventList);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws TException {
+        return serializer.serialize(span);
+    }
+}
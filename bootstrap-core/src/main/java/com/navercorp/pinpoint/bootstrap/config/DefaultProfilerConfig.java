@@ -114,6 +114,7 @@ public class DefaultProfilerConfig implements ProfilerConfig {
     private int spanDataSenderChunkSize = 1024 * 16;
     private String spanDataSenderTransportType = "UDP";
     private String spanDataSenderSocketType = "OIO";
+    private int spanDataSenderBatchSize = 0;
 
     private int statDataSenderWriteQueueSize = 1024 * 5;
     private int statDataSenderSocketSendBufferSize = 1024 * 64 * 16;
@@ -122,6 +123,10 @@ public class DefaultProfilerConfig implements ProfilerConfig {
     private String statDataSenderTransportType = "UDP";
     private String statDataSenderSocketType = "OIO";
 
+    private String dataSenderWriteQueueType = "LINKED";
+    private String dataSenderWriteQueueWaitStrategy = "BLOCKING";
+    private int dataSenderWriteQueueDrainSize = 10;
+
     private boolean tcpDataSenderCommandAcceptEnable = false;
     private boolean tcpDataSenderCommandActiveThreadEnable = false;
     private boolean tcpDataSenderCommandActiveThreadCountEnable = false;
@@ -137,6 +142,7 @@ public class DefaultProfilerConfig implements ProfilerConfig {
     private long deadlockMonitorInterval = 60000L;
 
     private int callStackMaxDepth = 512;
+    private int spanEventPoolSize = 0;
 
     private int jdbcSqlCacheSize = 1024;
     private boolean traceSqlBindValue = false;
@@ -145,11 +151,21 @@ public class DefaultProfilerConfig implements ProfilerConfig {
     // Sampling
     private boolean samplingEnable = true;
     private int samplingRate = 1;
+    private String samplingType = "COUNTING";
+    private int samplingRateLimitPerSecond = 100;
+    private int samplingAdaptiveMaxRate = 1000;
 
     // span buffering
     private boolean ioBufferingEnable;
     private int ioBufferingBufferSize;
 
+    // slow only span event
+    private boolean spanEventSlowOnlyEnable = false;
+    private int spanEventSlowOnlyThreshold = 10;
+    private int spanEventSlowOnlyBufferSize = 1024;
+
+    private boolean spanEventColumnEncodingEnable = false;
+
     private String profileJvmVendorName;
     private int profileJvmStatCollectIntervalMs = DEFAULT_AGENT_STAT_COLLECTION_INTERVAL_MS;
     private int profileJvmStatBatchSendCount = DEFAULT_NUM_AGENT_STAT_BATCH_SEND;
@@ -164,6 +180,7 @@ public class DefaultProfilerConfig implements ProfilerConfig {
     private List<String> applicationTypeDetectOrder = Collections.emptyList();
     //profiler.plugin.disable禁止某些插件
     private List<String> disabledPlugins = Collections.emptyList();
+    private int pluginLoadConcurrency = 1;
 
     private boolean propagateInterceptorException = false;
     private boolean supportLambdaExpressions = true;
@@ -250,6 +267,21 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return statDataSenderTransportType;
     }
 
+    @Override
+    public String getDataSenderWriteQueueType() {
+        return dataSenderWriteQueueType;
+    }
+
+    @Override
+    public String getDataSenderWriteQueueWaitStrategy() {
+        return dataSenderWriteQueueWaitStrategy;
+    }
+
+    @Override
+    public int getDataSenderWriteQueueDrainSize() {
+        return dataSenderWriteQueueDrainSize;
+    }
+
     @Override
     public int getSpanDataSenderWriteQueueSize() {
         return spanDataSenderWriteQueueSize;
@@ -330,6 +362,11 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return spanDataSenderChunkSize;
     }
 
+    @Override
+    public int getSpanDataSenderBatchSize() {
+        return spanDataSenderBatchSize;
+    }
+
     @Override
     public int getStatDataSenderChunkSize() {
         return statDataSenderChunkSize;
@@ -366,6 +403,21 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return samplingRate;
     }
 
+    @Override
+    public String getSamplingType() {
+        return samplingType;
+    }
+
+    @Override
+    public int getSamplingRateLimitPerSecond() {
+        return samplingRateLimitPerSecond;
+    }
+
+    @Override
+    public int getSamplingAdaptiveMaxRate() {
+        return samplingAdaptiveMaxRate;
+    }
+
     @Override
     public boolean isIoBufferingEnable() {
         return ioBufferingEnable;
@@ -376,6 +428,26 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return ioBufferingBufferSize;
     }
 
+    @Override
+    public boolean isSpanEventSlowOnlyEnable() {
+        return spanEventSlowOnlyEnable;
+    }
+
+    @Override
+    public int getSpanEventSlowOnlyThreshold() {
+        return spanEventSlowOnlyThreshold;
+    }
+
+    @Override
+    public int getSpanEventSlowOnlyBufferSize() {
+        return spanEventSlowOnlyBufferSize;
+    }
+
+    @Override
+    public boolean isSpanEventColumnEncodingEnable() {
+        return spanEventColumnEncodingEnable;
+    }
+
     @Override
     public String getProfilerJvmVendorName() {
         return profileJvmVendorName;
@@ -417,6 +489,11 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return disabledPlugins;
     }
 
+    @Override
+    public int getPluginLoadConcurrency() {
+        return pluginLoadConcurrency;
+    }
+
     @Override
     public String getApplicationServerType() {
         return applicationServerType;
@@ -435,6 +512,11 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         this.callStackMaxDepth = callStackMaxDepth;
     }
 
+    @Override
+    public int getSpanEventPoolSize() {
+        return spanEventPoolSize;
+    }
+
     @Override
     public boolean isPropagateInterceptorException() {
         return propagateInterceptorException;
@@ -510,6 +592,7 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         this.spanDataSenderChunkSize = readInt("profiler.spandatasender.chunk.size", 1024 * 16);
         this.spanDataSenderSocketType = readString("profiler.spandatasender.socket.type", "OIO");
         this.spanDataSenderTransportType = readString("profiler.spandatasender.transport.type", "UDP");
+        this.spanDataSenderBatchSize = readInt("profiler.spandatasender.batch.size", 0);
 
         this.statDataSenderWriteQueueSize = readInt("profiler.statdatasender.write.queue.size", 1024 * 5);
         this.statDataSenderSocketSendBufferSize = readInt("profiler.statdatasender.socket.sendbuffersize", 1024 * 64 * 16);
@@ -518,6 +601,12 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         this.statDataSenderSocketType = readString("profiler.statdatasender.socket.type", "OIO");
         this.statDataSenderTransportType = readString("profiler.statdatasender.transport.type", "UDP");
 
+        // LINKED or RING_BUFFER
+        this.dataSenderWriteQueueType = readString("profiler.datasender.write.queue.type", "LINKED");
+        // BLOCKING, SLEEPING, YIELDING or BUSY_SPIN. only used by RING_BUFFER
+        this.dataSenderWriteQueueWaitStrategy = readString("profiler.datasender.write.queue.waitstrategy", "BLOCKING");
+        this.dataSenderWriteQueueDrainSize = readInt("profiler.datasender.write.queue.drain.size", 10);
+
         this.tcpDataSenderCommandAcceptEnable = readBoolean("profiler.tcpdatasender.command.accept.enable", false);
         this.tcpDataSenderCommandActiveThreadEnable = readBoolean("profiler.tcpdatasender.command.activethread.enable", false);
         this.tcpDataSenderCommandActiveThreadCountEnable = readBoolean("profiler.tcpdatasender.command.activethread.count.enable", false);
@@ -537,6 +626,7 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         if (this.callStackMaxDepth < 2) {
             this.callStackMaxDepth = 2;
         }
+        this.spanEventPoolSize = readInt("profiler.spanevent.pool.size", 0);
 
         // JDBC
         this.jdbcSqlCacheSize = readInt("profiler.jdbc.sqlcachesize", 1024);
@@ -545,6 +635,9 @@ public class DefaultProfilerConfig implements ProfilerConfig {
 
         this.samplingEnable = readBoolean("profiler.sampling.enable", true);
         this.samplingRate = readInt("profiler.sampling.rate", 1);
+        this.samplingType = readString("profiler.sampling.type", "COUNTING");
+        this.samplingRateLimitPerSecond = readInt("profiler.sampling.ratelimit.per.second", 100);
+        this.samplingAdaptiveMaxRate = readInt("profiler.sampling.adaptive.max.rate", 1000);
 
         // configuration for sampling and IO buffer 
         this.ioBufferingEnable = readBoolean("profiler.io.buffering.enable", true);
@@ -552,6 +645,14 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         // it may be a problem to be here.  need to modify(delete or move or .. )  this configuration.
         this.ioBufferingBufferSize = readInt("profiler.io.buffering.buffersize", 20);
 
+        // keep only slow span events. requires io buffering.
+        this.spanEventSlowOnlyEnable = readBoolean("profiler.spanevent.slowonly.enable", false);
+        this.spanEventSlowOnlyThreshold = readInt("profiler.spanevent.slowonly.threshold", 10);
+        this.spanEventSlowOnlyBufferSize = readInt("profiler.spanevent.slowonly.buffersize", 1024);
+
+        // encode span events column by column. (profiler.trace.dataformat.version=v2 only)
+        this.spanEventColumnEncodingEnable = readBoolean("profiler.trace.dataformat.spanevent.column.enable", false);
+
         // JVM
         this.profileJvmVendorName = readString("profiler.jvm.vendor.name", null);
         this.profileJvmStatCollectIntervalMs = readInt("profiler.jvm.stat.collect.interval", DEFAULT_AGENT_STAT_COLLECTION_INTERVAL_MS);
@@ -567,6 +668,7 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         this.applicationTypeDetectOrder = readList("profiler.type.detect.order");
 
         this.disabledPlugins = readList("profiler.plugin.disable");
+        this.pluginLoadConcurrency = readInt("profiler.plugin.load.concurrency", 1);
 
         // TODO have to remove        
         // profile package included in order to test "call stack view".
@@ -709,12 +811,16 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         sb.append(", spanDataSenderChunkSize=").append(spanDataSenderChunkSize);
         sb.append(", spanDataSenderTransportType='").append(spanDataSenderTransportType).append('\'');
         sb.append(", spanDataSenderSocketType='").append(spanDataSenderSocketType).append('\'');
+        sb.append(", spanDataSenderBatchSize=").append(spanDataSenderBatchSize);
         sb.append(", statDataSenderWriteQueueSize=").append(statDataSenderWriteQueueSize);
         sb.append(", statDataSenderSocketSendBufferSize=").append(statDataSenderSocketSendBufferSize);
         sb.append(", statDataSenderSocketTimeout=").append(statDataSenderSocketTimeout);
         sb.append(", statDataSenderChunkSize=").append(statDataSenderChunkSize);
         sb.append(", statDataSenderTransportType='").append(statDataSenderTransportType).append('\'');
         sb.append(", statDataSenderSocketType='").append(statDataSenderSocketType).append('\'');
+        sb.append(", dataSenderWriteQueueType='").append(dataSenderWriteQueueType).append('\'');
+        sb.append(", dataSenderWriteQueueWaitStrategy='").append(dataSenderWriteQueueWaitStrategy).append('\'');
+        sb.append(", dataSenderWriteQueueDrainSize=").append(dataSenderWriteQueueDrainSize);
         sb.append(", tcpDataSenderCommandAcceptEnable=").append(tcpDataSenderCommandAcceptEnable);
         sb.append(", tcpDataSenderCommandActiveThreadEnable=").append(tcpDataSenderCommandActiveThreadEnable);
         sb.append(", tcpDataSenderCommandActiveThreadCountEnable=").append(tcpDataSenderCommandActiveThreadCountEnable);
@@ -726,13 +832,21 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         sb.append(", deadlockMonitorEnable=").append(deadlockMonitorEnable);
         sb.append(", deadlockMonitorInterval=").append(deadlockMonitorInterval);
         sb.append(", callStackMaxDepth=").append(callStackMaxDepth);
+        sb.append(", spanEventPoolSize=").append(spanEventPoolSize);
         sb.append(", jdbcSqlCacheSize=").append(jdbcSqlCacheSize);
         sb.append(", traceSqlBindValue=").append(traceSqlBindValue);
         sb.append(", maxSqlBindValueSize=").append(maxSqlBindValueSize);
         sb.append(", samplingEnable=").append(samplingEnable);
         sb.append(", samplingRate=").append(samplingRate);
+        sb.append(", samplingType='").append(samplingType).append('\'');
+        sb.append(", samplingRateLimitPerSecond=").append(samplingRateLimitPerSecond);
+        sb.append(", samplingAdaptiveMaxRate=").append(samplingAdaptiveMaxRate);
         sb.append(", ioBufferingEnable=").append(ioBufferingEnable);
         sb.append(", ioBufferingBufferSize=").append(ioBufferingBufferSize);
+        sb.append(", spanEventSlowOnlyEnable=").append(spanEventSlowOnlyEnable);
+        sb.append(", spanEventSlowOnlyThreshold=").append(spanEventSlowOnlyThreshold);
+        sb.append(", spanEventSlowOnlyBufferSize=").append(spanEventSlowOnlyBufferSize);
+        sb.append(", spanEventColumnEncodingEnable=").append(spanEventColumnEncodingEnable);
         sb.append(", profileJvmVendorName='").append(profileJvmVendorName).append('\'');
         sb.append(", profileJvmStatCollectIntervalMs=").append(profileJvmStatCollectIntervalMs);
         sb.append(", profileJvmStatBatchSendCount=").append(profileJvmStatBatchSendCount);
@@ -743,6 +857,7 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         sb.append(", applicationServerType='").append(applicationServerType).append('\'');
         sb.append(", applicationTypeDetectOrder=").append(applicationTypeDetectOrder);
         sb.append(", disabledPlugins=").append(disabledPlugins);
+        sb.append(", pluginLoadConcurrency=").append(pluginLoadConcurrency);
         sb.append(", propagateInterceptorException=").append(propagateInterceptorException);
         sb.append(", supportLambdaExpressions=").append(supportLambdaExpressions);
         sb.append(", proxyHttpHeaderEnable=").append(proxyHttpHeaderEnable);
@@ -114,8 +114,16 @@ public interface ProfilerConfig {
 
     int getSpanDataSenderChunkSize();
 
+    int getSpanDataSenderBatchSize();
+
     int getStatDataSenderChunkSize();
 
+    String getDataSenderWriteQueueType();
+
+    String getDataSenderWriteQueueWaitStrategy();
+
+    int getDataSenderWriteQueueDrainSize();
+
     boolean isProfileEnable();
 
     int getJdbcSqlCacheSize();
@@ -128,10 +136,24 @@ public interface ProfilerConfig {
 
     int getSamplingRate();
 
+    String getSamplingType();
+
+    int getSamplingRateLimitPerSecond();
+
+    int getSamplingAdaptiveMaxRate();
+
     boolean isIoBufferingEnable();
 
     int getIoBufferingBufferSize();
 
+    boolean isSpanEventSlowOnlyEnable();
+
+    int getSpanEventSlowOnlyThreshold();
+
+    int getSpanEventSlowOnlyBufferSize();
+
+    boolean isSpanEventColumnEncodingEnable();
+
     String getProfilerJvmVendorName();
 
     int getProfileJvmStatCollectIntervalMs();
@@ -149,10 +171,14 @@ public interface ProfilerConfig {
 
     List<String> getDisabledPlugins();
 
+    int getPluginLoadConcurrency();
+
     String getApplicationServerType();
 
     int getCallStackMaxDepth();
 
+    int getSpanEventPoolSize();
+
     boolean isPropagateInterceptorException();
 
     String getProfileInstrumentEngine();
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.bootstrap.plugin.jdbc.bindvalue;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bind values of a PreparedStatement kept as the raw setXxx arguments.
+ * The values are converted to strings only when the statement is recorded,
+ * the arrays are reused across executions of the same statement.
+ */
+public class LazyBindValueMap extends AbstractMap<Integer, String> {
+
+    public static final String LAZY_ENABLE = "profiler.jdbc.sqlbindvalue.lazy";
+    // elapsed time (ms) of the execution above which bind values are recorded.
+    public static final String LAZY_THRESHOLD = "profiler.jdbc.sqlbindvalue.lazy.threshold";
+    public static final String LAZY_MAX_PARAMETER_INDEX = "profiler.jdbc.sqlbindvalue.lazy.maxparameterindex";
+    public static final int DEFAULT_MAX_PARAMETER_INDEX = 256;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // max parameter index kept. PreparedStatement first parameterIndex is 1
+    private final int maxParameterIndex;
+
+    private String[] methodNames = new String[0];
+    private Object[][] arguments = new Object[0][];
+    private String[] values = new String[0];
+    private int maxIndex;
+
+    private long executeStartTime;
+
+    public LazyBindValueMap(int maxParameterIndex) {
+        if (maxParameterIndex <= 0) {
+            throw new IllegalArgumentException("maxParameterIndex must be greater than 0");
+        }
+        this.maxParameterIndex = maxParameterIndex;
+    }
+
+    public void putRaw(int parameterIndex, String methodName, Object[] args) {
+        if (!ensureCapacity(parameterIndex)) {
+            return;
+        }
+        final int index = parameterIndex - 1;
+        methodNames[index] = methodName;
+        arguments[index] = args;
+        values[index] = null;
+        maxIndex = Math.max(maxIndex, parameterIndex);
+    }
+
+    @Override
+    public String put(Integer parameterIndex, String value) {
+        if (parameterIndex == null || !ensureCapacity(parameterIndex)) {
+            return null;
+        }
+        final int index = parameterIndex - 1;
+        final String prev = get0(index);
+        methodNames[index] = null;
+        arguments[index] = null;
+        values[index] = value;
+        maxIndex = Math.max(maxIndex, parameterIndex);
+        return prev;
+    }
+
+    private boolean ensureCapacity(int parameterIndex) {
+        if (parameterIndex <= 0 || parameterIndex > maxParameterIndex) {
+            return false;
+        }
+        if (parameterIndex <= values.length) {
+            return true;
+        }
+        int newLength = Math.max(values.length, INITIAL_CAPACITY);
+        while (newLength < parameterIndex) {
+            newLength = newLength << 1;
+        }
+        newLength = Math.min(newLength, maxParameterIndex);
+
+        final String[] newMethodNames = new String[newLength];
+        final Object[][] newArguments = new Object[newLength][];
+        final String[] newValues = new String[newLength];
+        System.arraycopy(methodNames, 0, newMethodNames, 0, maxIndex);
+        System.arraycopy(arguments, 0, newArguments, 0, maxIndex);
+        System.arraycopy(values, 0, newValues, 0, maxIndex);
+        this.methodNames = newMethodNames;
+        this.arguments = newArguments;
+        this.values = newValues;
+        return true;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof Integer)) {
+            return null;
+        }
+        final int index = (Integer) key - 1;
+        if (index < 0 || index >= maxIndex) {
+            return null;
+        }
+        return get0(index);
+    }
+
+    private String get0(int index) {
+        if (index >= maxIndex) {
+            return null;
+        }
+        final String value = values[index];
+        if (value != null) {
+            return value;
+        }
+        final String methodName = methodNames[index];
+        if (methodName == null) {
+            return null;
+        }
+        final String converted = BindValueConverter.convert(methodName, arguments[index]);
+        values[index] = converted;
+        return converted;
+    }
+
+    private boolean isSet(int index) {
+        return values[index] != null || methodNames[index] != null;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < maxIndex; i++) {
+            if (isSet(i)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return maxIndex == 0;
+    }
+
+    @Override
+    public Set<Entry<Integer, String>> entrySet() {
+        final Map<Integer, String> converted = new LinkedHashMap<Integer, String>();
+        for (int i = 0; i < maxIndex; i++) {
+            if (isSet(i)) {
+                converted.put(i + 1, get0(i));
+            }
+        }
+        return converted.entrySet();
+    }
+
+    /**
+     * @see BindValueUtils#bindValueToString(String[], int)
+     */
+    public String toBindValueString(int limit) {
+        if (maxIndex == 0) {
+            return "";
+        }
+        final String[] temp = new String[maxIndex];
+        for (int i = 0; i < maxIndex; i++) {
+            temp[i] = get0(i);
+        }
+        return BindValueUtils.bindValueToString(temp, limit);
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < maxIndex; i++) {
+            methodNames[i] = null;
+            arguments[i] = null;
+            values[i] = null;
+        }
+        maxIndex = 0;
+        executeStartTime = 0;
+    }
+
+    public long getExecuteStartTime() {
+        return executeStartTime;
+    }
+
+    public void setExecuteStartTime(long executeStartTime) {
+        this.executeStartTime = executeStartTime;
+    }
+}
@@ -19,6 +19,7 @@ package com.navercorp.pinpoint.bootstrap.plugin.jdbc.interceptor;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.bootstrap.context.Trace;
 import com.navercorp.pinpoint.bootstrap.context.TraceContext;
 import com.navercorp.pinpoint.bootstrap.interceptor.StaticAroundInterceptor;
@@ -26,6 +27,7 @@ import com.navercorp.pinpoint.bootstrap.logging.PLogger;
 import com.navercorp.pinpoint.bootstrap.logging.PLoggerFactory;
 import com.navercorp.pinpoint.bootstrap.plugin.jdbc.BindValueAccessor;
 import com.navercorp.pinpoint.bootstrap.plugin.jdbc.bindvalue.BindValueConverter;
+import com.navercorp.pinpoint.bootstrap.plugin.jdbc.bindvalue.LazyBindValueMap;
 import com.navercorp.pinpoint.bootstrap.util.NumberUtils;
 
 /**
@@ -41,9 +43,14 @@ public class PreparedStatementBindVariableInterceptor implements StaticAroundInt
     private final boolean isDebug = logger.isDebugEnabled();
 
     private final TraceContext traceContext;
+    private final boolean lazyBindValue;
+    private final int maxParameterIndex;
 
     public PreparedStatementBindVariableInterceptor(TraceContext traceContext) {
         this.traceContext = traceContext;
+        final ProfilerConfig profilerConfig = traceContext.getProfilerConfig();
+        this.lazyBindValue = profilerConfig.readBoolean(LazyBindValueMap.LAZY_ENABLE, false);
+        this.maxParameterIndex = profilerConfig.readInt(LazyBindValueMap.LAZY_MAX_PARAMETER_INDEX, LazyBindValueMap.DEFAULT_MAX_PARAMETER_INDEX);
     }
 
     @Override
@@ -72,6 +79,11 @@ public class PreparedStatementBindVariableInterceptor implements StaticAroundInt
             return;
         }
 
+        if (lazyBindValue) {
+            putRaw((BindValueAccessor) target, index, methodName, args);
+            return;
+        }
+
         Map<Integer, String> bindList = ((BindValueAccessor) target)._$PINPOINT$_getBindValue();
         if (bindList == null) {
             bindList = new HashMap<Integer, String>();
@@ -81,4 +93,17 @@ public class PreparedStatementBindVariableInterceptor implements StaticAroundInt
         final String value = BindValueConverter.convert(methodName, args);
         bindList.put(index, value);
     }
-}
\ No newline at end of file
+
+    private void putRaw(BindValueAccessor target, int index, String methodName, Object[] args) {
+        final Map<Integer, String> bindList = target._$PINPOINT$_getBindValue();
+        final LazyBindValueMap lazyBindList;
+        if (bindList instanceof LazyBindValueMap) {
+            lazyBindList = (LazyBindValueMap) bindList;
+        } else {
+            lazyBindList = new LazyBindValueMap(maxParameterIndex);
+            target._$PINPOINT$_setBindValue(lazyBindList);
+        }
+        // converted to string when the statement is recorded.
+        lazyBindList.putRaw(index, methodName, args);
+    }
+}
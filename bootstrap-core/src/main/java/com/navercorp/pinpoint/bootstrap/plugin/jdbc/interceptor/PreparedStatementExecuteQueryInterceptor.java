@@ -33,6 +33,7 @@ import com.navercorp.pinpoint.bootstrap.plugin.jdbc.DatabaseInfoAccessor;
 import com.navercorp.pinpoint.bootstrap.plugin.jdbc.ParsingResultAccessor;
 import com.navercorp.pinpoint.bootstrap.plugin.jdbc.UnKnownDatabaseInfo;
 import com.navercorp.pinpoint.bootstrap.plugin.jdbc.bindvalue.BindValueUtils;
+import com.navercorp.pinpoint.bootstrap.plugin.jdbc.bindvalue.LazyBindValueMap;
 
 /**
  * @author emeroad
@@ -54,6 +55,7 @@ public class PreparedStatementExecuteQueryInterceptor implements AroundIntercept
     private final MethodDescriptor descriptor;
     private final TraceContext traceContext;
     private final int maxSqlBindValueLength;
+    private final int lazyBindValueThreshold;
     
     
     public PreparedStatementExecuteQueryInterceptor(TraceContext traceContext, MethodDescriptor descriptor) {
@@ -64,6 +66,7 @@ public class PreparedStatementExecuteQueryInterceptor implements AroundIntercept
         this.traceContext = traceContext;
         this.descriptor = descriptor;
         this.maxSqlBindValueLength = maxSqlBindValueLength;
+        this.lazyBindValueThreshold = traceContext.getProfilerConfig().readInt(LazyBindValueMap.LAZY_THRESHOLD, 0);
     }
 
     @Override
@@ -97,7 +100,10 @@ public class PreparedStatementExecuteQueryInterceptor implements AroundIntercept
             if (target instanceof BindValueAccessor) {
                 bindValue = ((BindValueAccessor)target)._$PINPOINT$_getBindValue();
             }
-            if (bindValue != null) {
+            if (bindValue instanceof LazyBindValueMap) {
+                // recorded in after() once the elapsed time is known.
+                ((LazyBindValueMap) bindValue).setExecuteStartTime(System.currentTimeMillis());
+            } else if (bindValue != null) {
                 String bindString = toBindVariable(bindValue);
                 recorder.recordSqlParsingResult(parsingResult, bindString);
             } else {
@@ -110,7 +116,9 @@ public class PreparedStatementExecuteQueryInterceptor implements AroundIntercept
             // Need to change where to invoke clean().
             // There is cleanParameters method but it's not necessary to intercept that method.
             // iBatis intentionally does not invoke it in most cases. 
-            clean(target);
+            if (!(bindValue instanceof LazyBindValueMap)) {
+                clean(target);
+            }
 
 
         } catch (Exception e) {
@@ -127,6 +135,52 @@ public class PreparedStatementExecuteQueryInterceptor implements AroundIntercept
         }
     }
 
+    private LazyBindValueMap getLazyBindValue(Object target) {
+        if (!(target instanceof BindValueAccessor)) {
+            return null;
+        }
+        final Map<Integer, String> bindValue = ((BindValueAccessor) target)._$PINPOINT$_getBindValue();
+        if (bindValue instanceof LazyBindValueMap) {
+            return (LazyBindValueMap) bindValue;
+        }
+        return null;
+    }
+
+    private void clearLazyBindValue(Object target) {
+        final LazyBindValueMap lazyBindValue = getLazyBindValue(target);
+        if (lazyBindValue != null) {
+            lazyBindValue.clear();
+        }
+    }
+
+    private void recordLazyBindValue(SpanEventRecorder recorder, Object target) {
+        final LazyBindValueMap lazyBindValue = getLazyBindValue(target);
+        if (lazyBindValue == null) {
+            return;
+        }
+
+        final long executeStartTime = lazyBindValue.getExecuteStartTime();
+        try {
+            if (executeStartTime == 0) {
+                // before() was not traced
+                return;
+            }
+            ParsingResult parsingResult = null;
+            if (target instanceof ParsingResultAccessor) {
+                parsingResult = ((ParsingResultAccessor) target)._$PINPOINT$_getParsingResult();
+            }
+            final long elapsedTime = System.currentTimeMillis() - executeStartTime;
+            if (elapsedTime >= lazyBindValueThreshold) {
+                recorder.recordSqlParsingResult(parsingResult, lazyBindValue.toBindValueString(maxSqlBindValueLength));
+            } else {
+                recorder.recordSqlParsingResult(parsingResult);
+            }
+        } finally {
+            // reuse for the next execution.
+            lazyBindValue.clear();
+        }
+    }
+
     private String toBindVariable(Map<Integer, String> bindValue) {
         return BindValueUtils.bindValueToString(bindValue, maxSqlBindValueLength);
     }
@@ -139,12 +193,15 @@ public class PreparedStatementExecuteQueryInterceptor implements AroundIntercept
 
         Trace trace = traceContext.currentTraceObject();
         if (trace == null) {
+            // bind values of untraced executions would otherwise pile up until the next traced one.
+            clearLazyBindValue(target);
             return;
         }
 
         
         try {
             SpanEventRecorder recorder = trace.currentSpanEventRecorder();
+            recordLazyBindValue(recorder, target);
             // TODO Test if it's success. if failed terminate. else calculate resultset fetch too. we'd better make resultset fetch optional.
             recorder.recordException(throwable);
         } finally {
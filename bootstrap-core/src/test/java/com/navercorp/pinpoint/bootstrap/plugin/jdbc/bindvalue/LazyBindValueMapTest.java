@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.bootstrap.plugin.jdbc.bindvalue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class LazyBindValueMapTest {
+
+    @Test
+    public void toBindValueString() {
+        LazyBindValueMap bindValue = new LazyBindValueMap(256);
+        bindValue.putRaw(2, "setString", new Object[]{2, "b"});
+        bindValue.putRaw(1, "setInt", new Object[]{1, 10});
+
+        Assert.assertEquals(2, bindValue.size());
+        Assert.assertEquals("10", bindValue.get(1));
+        Assert.assertEquals("10, b", bindValue.toBindValueString(1024));
+    }
+
+    @Test
+    public void bindValueUtils() {
+        LazyBindValueMap bindValue = new LazyBindValueMap(256);
+        bindValue.putRaw(1, "setString", new Object[]{1, "a"});
+        bindValue.put(3, "c");
+
+        Map<Integer, String> expected = new HashMap<Integer, String>();
+        expected.put(1, "a");
+        expected.put(3, "c");
+        Assert.assertEquals(expected, bindValue);
+        Assert.assertEquals(BindValueUtils.bindValueToString(expected, 1024), BindValueUtils.bindValueToString(bindValue, 1024));
+        Assert.assertEquals("a, , c", bindValue.toBindValueString(1024));
+    }
+
+    @Test
+    public void maxParameterIndex() {
+        LazyBindValueMap bindValue = new LazyBindValueMap(2);
+        bindValue.putRaw(0, "setString", new Object[]{0, "invalid"});
+        bindValue.putRaw(1, "setString", new Object[]{1, "a"});
+        bindValue.putRaw(3, "setString", new Object[]{3, "dropped"});
+
+        Assert.assertEquals(1, bindValue.size());
+        Assert.assertEquals("a", bindValue.toBindValueString(1024));
+    }
+
+    @Test
+    public void grow() {
+        LazyBindValueMap bindValue = new LazyBindValueMap(100);
+        for (int i = 1; i <= 100; i++) {
+            bindValue.putRaw(i, "setInt", new Object[]{i, i});
+        }
+        Assert.assertEquals(100, bindValue.size());
+        Assert.assertEquals("100", bindValue.get(100));
+    }
+
+    @Test
+    public void clear() {
+        LazyBindValueMap bindValue = new LazyBindValueMap(256);
+        bindValue.putRaw(1, "setString", new Object[]{1, "a"});
+        bindValue.setExecuteStartTime(1000);
+        bindValue.clear();
+
+        Assert.assertTrue(bindValue.isEmpty());
+        Assert.assertEquals(0, bindValue.getExecuteStartTime());
+        Assert.assertEquals("", bindValue.toBindValueString(1024));
+        Assert.assertNull(bindValue.get(1));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.bootstrap.plugin.jdbc.interceptor;
+
+import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
+import com.navercorp.pinpoint.bootstrap.context.MethodDescriptor;
+import com.navercorp.pinpoint.bootstrap.context.ParsingResult;
+import com.navercorp.pinpoint.bootstrap.context.SpanEventRecorder;
+import com.navercorp.pinpoint.bootstrap.context.Trace;
+import com.navercorp.pinpoint.bootstrap.context.TraceContext;
+import com.navercorp.pinpoint.bootstrap.plugin.jdbc.BindValueAccessor;
+import com.navercorp.pinpoint.bootstrap.plugin.jdbc.ParsingResultAccessor;
+import com.navercorp.pinpoint.bootstrap.plugin.jdbc.bindvalue.LazyBindValueMap;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+public class PreparedStatementExecuteQueryInterceptorTest {
+
+    private TraceContext traceContext;
+    private MethodDescriptor methodDescriptor;
+
+    @Before
+    public void setUp() {
+        ProfilerConfig profilerConfig = mock(ProfilerConfig.class);
+        when(profilerConfig.readInt(LazyBindValueMap.LAZY_THRESHOLD, 0)).thenReturn(0);
+
+        traceContext = mock(TraceContext.class);
+        when(traceContext.getProfilerConfig()).thenReturn(profilerConfig);
+        methodDescriptor = mock(MethodDescriptor.class);
+    }
+
+    @Test
+    public void lazyBindValue_traced() {
+        Trace trace = mock(Trace.class);
+        SpanEventRecorder recorder = mock(SpanEventRecorder.class);
+        when(trace.traceBlockBegin()).thenReturn(recorder);
+        when(trace.currentSpanEventRecorder()).thenReturn(recorder);
+        when(traceContext.currentTraceObject()).thenReturn(trace);
+
+        ParsingResult parsingResult = mock(ParsingResult.class);
+        LazyBindValueMap bindValue = new LazyBindValueMap(256);
+        TestStatement statement = new TestStatement(bindValue, parsingResult);
+        bindValue.putRaw(1, "setInt", new Object[]{1, 10});
+        bindValue.putRaw(2, "setString", new Object[]{2, "b"});
+
+        PreparedStatementExecuteQueryInterceptor interceptor = new PreparedStatementExecuteQueryInterceptor(traceContext, methodDescriptor);
+        interceptor.before(statement, null);
+        interceptor.after(statement, null, null, null);
+
+        verify(recorder).recordSqlParsingResult(parsingResult, "10, b");
+        verify(trace).traceBlockEnd();
+        Assert.assertTrue(bindValue.isEmpty());
+        Assert.assertSame(bindValue, statement._$PINPOINT$_getBindValue());
+    }
+
+    @Test
+    public void lazyBindValue_untraced() {
+        when(traceContext.currentTraceObject()).thenReturn(null);
+
+        LazyBindValueMap bindValue = new LazyBindValueMap(256);
+        TestStatement statement = new TestStatement(bindValue, null);
+        bindValue.putRaw(1, "setString", new Object[]{1, "a"});
+
+        PreparedStatementExecuteQueryInterceptor interceptor = new PreparedStatementExecuteQueryInterceptor(traceContext, methodDescriptor);
+        interceptor.before(statement, null);
+        interceptor.after(statement, null, null, null);
+
+        Assert.assertTrue(bindValue.isEmpty());
+    }
+
+    @Test
+    public void lazyBindValue_traceStartedAfterExecute() {
+        Trace trace = mock(Trace.class);
+        SpanEventRecorder recorder = mock(SpanEventRecorder.class);
+        when(trace.currentSpanEventRecorder()).thenReturn(recorder);
+        // no trace in before(), trace in after()
+        when(traceContext.currentTraceObject()).thenReturn(null, trace);
+
+        LazyBindValueMap bindValue = new LazyBindValueMap(256);
+        TestStatement statement = new TestStatement(bindValue, null);
+        bindValue.putRaw(1, "setString", new Object[]{1, "a"});
+
+        PreparedStatementExecuteQueryInterceptor interceptor = new PreparedStatementExecuteQueryInterceptor(traceContext, methodDescriptor);
+        interceptor.before(statement, null);
+        interceptor.after(statement, null, null, null);
+
+        verify(recorder, never()).recordSqlParsingResult(any(ParsingResult.class), anyString());
+        Assert.assertTrue(bindValue.isEmpty());
+    }
+
+    private static class TestStatement implements BindValueAccessor, ParsingResultAccessor {
+        private Map<Integer, String> bindValue;
+        private ParsingResult parsingResult;
+
+        private TestStatement(Map<Integer, String> bindValue, ParsingResult parsingResult) {
+            this.bindValue = bindValue;
+            this.parsingResult = parsingResult;
+        }
+
+        @Override
+        public void _$PINPOINT$_setBindValue(Map<Integer, String> map) {
+            this.bindValue = map;
+        }
+
+        @Override
+        public Map<Integer, String> _$PINPOINT$_getBindValue() {
+            return bindValue;
+        }
+
+        @Override
+        public void _$PINPOINT$_setParsingResult(ParsingResult result) {
+            this.parsingResult = result;
+        }
+
+        @Override
+        public ParsingResult _$PINPOINT$_getParsingResult() {
+            return parsingResult;
+        }
+    }
+}
@@ -35,6 +35,12 @@ public interface DataReceiverGroupConfiguration {
 
     int getUdpReceiveBufferSize();
 
+    boolean isUdpNioEnable();
+
+    int getUdpNioChannelSize();
+
+    int getUdpNioBatchSize();
+
     int getWorkerThreadSize();
 
     int getWorkerQueueSize();
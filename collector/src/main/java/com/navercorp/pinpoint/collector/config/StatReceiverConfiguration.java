@@ -43,6 +43,12 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
     private final int udpBindPort;
     private static final String UDP_RECEIVE_BUFFER_SIZE = PREFIX + ".udp.receiveBufferSize";
     private final int udpReceiveBufferSize;
+    private static final String UDP_NIO_ENABLE = PREFIX + ".udp.nio";
+    private final boolean isUdpNioEnable;
+    private static final String UDP_NIO_CHANNEL_SIZE = PREFIX + ".udp.nio.channelSize";
+    private final int udpNioChannelSize;
+    private static final String UDP_NIO_BATCH_SIZE = PREFIX + ".udp.nio.batchSize";
+    private final int udpNioBatchSize;
 
     private static final String WORKER_THREAD_SIZE = PREFIX + ".worker.threadSize";
     private final int workerThreadSize;
@@ -65,6 +71,9 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
         this.udpBindIp = getUdpBindIp(properties, deprecatedConfiguration, CollectorConfiguration.DEFAULT_LISTEN_IP);
         this.udpBindPort = getUdpBindPort(properties, deprecatedConfiguration, 9995);
         this.udpReceiveBufferSize = getUdpReceiveBufferSize(properties, deprecatedConfiguration, 1024 * 4096);
+        this.isUdpNioEnable = CollectorConfiguration.readBoolean(properties, UDP_NIO_ENABLE);
+        this.udpNioChannelSize = CollectorConfiguration.readInt(properties, UDP_NIO_CHANNEL_SIZE, 1);
+        this.udpNioBatchSize = CollectorConfiguration.readInt(properties, UDP_NIO_BATCH_SIZE, 16);
 
         this.workerThreadSize = getWorkerThreadSize(properties, deprecatedConfiguration, 128);
         Assert.isTrue(workerThreadSize > 0, "workerThreadSize must be greater than 0");
@@ -88,6 +97,10 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
             Objects.requireNonNull(udpBindIp, "udpBindIp must not be null");
             Assert.isTrue(udpBindPort > 0, "udpBindPort must be greater than 0");
             Assert.isTrue(udpReceiveBufferSize > 0, "udpReceiveBufferSize must be greater than 0");
+            if (isUdpNioEnable) {
+                Assert.isTrue(udpNioChannelSize > 0, "udpNioChannelSize must be greater than 0");
+                Assert.isTrue(udpNioBatchSize > 0, "udpNioBatchSize must be greater than 0");
+            }
         }
     }
 
@@ -207,6 +220,21 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
         return udpReceiveBufferSize;
     }
 
+    @Override
+    public boolean isUdpNioEnable() {
+        return isUdpNioEnable;
+    }
+
+    @Override
+    public int getUdpNioChannelSize() {
+        return udpNioChannelSize;
+    }
+
+    @Override
+    public int getUdpNioBatchSize() {
+        return udpNioBatchSize;
+    }
+
     @Override
     public int getWorkerThreadSize() {
         return workerThreadSize;
@@ -232,6 +260,9 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
         sb.append(", udpBindIp='").append(udpBindIp).append('\'');
         sb.append(", udpBindPort=").append(udpBindPort);
         sb.append(", udpReceiveBufferSize=").append(udpReceiveBufferSize);
+        sb.append(", isUdpNioEnable=").append(isUdpNioEnable);
+        sb.append(", udpNioChannelSize=").append(udpNioChannelSize);
+        sb.append(", udpNioBatchSize=").append(udpNioBatchSize);
         sb.append(", workerThreadSize=").append(workerThreadSize);
         sb.append(", workerQueueSize=").append(workerQueueSize);
         sb.append(", workerMonitorEnable=").append(workerMonitorEnable);
@@ -19,6 +19,7 @@ package com.navercorp.pinpoint.collector.dao.hbase;
 import com.navercorp.pinpoint.collector.dao.MapResponseTimeDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
 import com.navercorp.pinpoint.common.hbase.TableNameProvider;
+import com.navercorp.pinpoint.common.hbase.statistics.MapStatisticsResolution;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.trace.ServiceType;
@@ -68,6 +69,10 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
     @Qualifier("selfBulkIncrementer")
     private BulkIncrementer bulkIncrementer;
 
+    @Autowired
+    @Qualifier("selfRollupBulkIncrementer")
+    private RollupBulkIncrementer rollupBulkIncrementer;
+
     @Autowired
     @Qualifier("statisticsSelfRowKeyDistributor")
     private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
@@ -105,15 +110,20 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
         if (useBulk) {
             TableName mapStatisticsSelfTableName = tableNameProvider.getTableName(MAP_STATISTICS_SELF_VER2_STR);
             bulkIncrementer.increment(mapStatisticsSelfTableName, selfRowKey, selfColumnName);
+            rollupBulkIncrementer.increment(mapStatisticsSelfTableName, applicationName, applicationServiceType.getCode(), acceptedTime, selfColumnName);
         } else {
             final byte[] rowKey = getDistributedKey(selfRowKey.getRowKey());
             // column name is the name of caller app.
             byte[] columnName = selfColumnName.getColumnName();
-            increment(rowKey, columnName, 1L);
+            increment(rowKey, MAP_STATISTICS_SELF_VER2_CF_COUNTER, columnName, 1L);
+            for (MapStatisticsResolution resolution : rollupBulkIncrementer.getResolutions()) {
+                final RowKey rollupRowKey = new CallRowKey(applicationName, applicationServiceType.getCode(), resolution.getTimeSlot(acceptedTime));
+                increment(getDistributedKey(rollupRowKey.getRowKey()), resolution.getFamily(), columnName, 1L);
+            }
         }
     }
 
-    private void increment(byte[] rowKey, byte[] columnName, long increment) {
+    private void increment(byte[] rowKey, byte[] family, byte[] columnName, long increment) {
         if (rowKey == null) {
             throw new NullPointerException("rowKey must not be null");
         }
@@ -121,7 +131,7 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
             throw new NullPointerException("columnName must not be null");
         }
         TableName mapStatisticsSelfTableName = tableNameProvider.getTableName(MAP_STATISTICS_SELF_VER2_STR);
-        hbaseTemplate.incrementColumnValue(mapStatisticsSelfTableName, rowKey, MAP_STATISTICS_SELF_VER2_CF_COUNTER, columnName, increment);
+        hbaseTemplate.incrementColumnValue(mapStatisticsSelfTableName, rowKey, family, columnName, increment);
     }
 
 
@@ -131,7 +141,11 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
             throw new IllegalStateException("useBulk is " + useBulk);
         }
 
-        Map<TableName, List<Increment>> incrementMap = bulkIncrementer.getIncrements(rowKeyDistributorByHashPrefix);
+        flush(bulkIncrementer.getIncrements(rowKeyDistributorByHashPrefix));
+        flush(rollupBulkIncrementer.getIncrements(rowKeyDistributorByHashPrefix));
+    }
+
+    private void flush(Map<TableName, List<Increment>> incrementMap) {
         for (Map.Entry<TableName, List<Increment>> e : incrementMap.entrySet()) {
             TableName tableName = e.getKey();
             List<Increment> increments = e.getValue();
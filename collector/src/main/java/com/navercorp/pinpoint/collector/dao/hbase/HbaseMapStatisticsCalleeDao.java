@@ -21,6 +21,7 @@ import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 import com.navercorp.pinpoint.collector.dao.MapStatisticsCalleeDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
 import com.navercorp.pinpoint.common.hbase.TableNameProvider;
+import com.navercorp.pinpoint.common.hbase.statistics.MapStatisticsResolution;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.trace.ServiceType;
@@ -68,6 +69,10 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
     @Qualifier("calleeBulkIncrementer")
     private BulkIncrementer bulkIncrementer;
 
+    @Autowired
+    @Qualifier("calleeRollupBulkIncrementer")
+    private RollupBulkIncrementer rollupBulkIncrementer;
+
     @Autowired
     @Qualifier("statisticsCalleeRowKeyDistributor")
     private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
@@ -110,16 +115,21 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
         if (useBulk) {
             TableName mapStatisticsCallerTableName = tableNameProvider.getTableName(MAP_STATISTICS_CALLER_VER2_STR);
             bulkIncrementer.increment(mapStatisticsCallerTableName, calleeRowKey, callerColumnName);
+            rollupBulkIncrementer.increment(mapStatisticsCallerTableName, calleeApplicationName, calleeServiceType.getCode(), acceptedTime, callerColumnName);
         } else {
             final byte[] rowKey = getDistributedKey(calleeRowKey.getRowKey());
 
             // column name is the name of caller app.
             byte[] columnName = callerColumnName.getColumnName();
-            increment(rowKey, columnName, 1L);
+            increment(rowKey, MAP_STATISTICS_CALLER_VER2_CF_COUNTER, columnName, 1L);
+            for (MapStatisticsResolution resolution : rollupBulkIncrementer.getResolutions()) {
+                final RowKey rollupRowKey = new CallRowKey(calleeApplicationName, calleeServiceType.getCode(), resolution.getTimeSlot(acceptedTime));
+                increment(getDistributedKey(rollupRowKey.getRowKey()), resolution.getFamily(), columnName, 1L);
+            }
         }
     }
 
-    private void increment(byte[] rowKey, byte[] columnName, long increment) {
+    private void increment(byte[] rowKey, byte[] family, byte[] columnName, long increment) {
         if (rowKey == null) {
             throw new NullPointerException("rowKey must not be null");
         }
@@ -127,7 +137,7 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
             throw new NullPointerException("columnName must not be null");
         }
         TableName mapStatisticsCallerTableName = tableNameProvider.getTableName(MAP_STATISTICS_CALLER_VER2_STR);
-        hbaseTemplate.incrementColumnValue(mapStatisticsCallerTableName, rowKey, MAP_STATISTICS_CALLER_VER2_CF_COUNTER, columnName, increment);
+        hbaseTemplate.incrementColumnValue(mapStatisticsCallerTableName, rowKey, family, columnName, increment);
     }
 
     @Override
@@ -136,8 +146,11 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
             throw new IllegalStateException();
         }
 
-        Map<TableName, List<Increment>> incrementMap = bulkIncrementer.getIncrements(rowKeyDistributorByHashPrefix);
+        flush(bulkIncrementer.getIncrements(rowKeyDistributorByHashPrefix));
+        flush(rollupBulkIncrementer.getIncrements(rowKeyDistributorByHashPrefix));
+    }
 
+    private void flush(Map<TableName, List<Increment>> incrementMap) {
         for (Map.Entry<TableName, List<Increment>> e : incrementMap.entrySet()) {
             TableName tableName = e.getKey();
             List<Increment> increments = e.getValue();
@@ -146,7 +159,6 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
             }
             hbaseTemplate.increment(tableName, increments);
         }
-
     }
 
     private byte[] getDistributedKey(byte[] rowKey) {
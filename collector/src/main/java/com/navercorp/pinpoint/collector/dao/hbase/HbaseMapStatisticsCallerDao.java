@@ -21,6 +21,7 @@ import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 import com.navercorp.pinpoint.collector.dao.MapStatisticsCallerDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
 import com.navercorp.pinpoint.common.hbase.TableNameProvider;
+import com.navercorp.pinpoint.common.hbase.statistics.MapStatisticsResolution;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.trace.ServiceType;
@@ -68,6 +69,10 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
     @Qualifier("callerBulkIncrementer")
     private BulkIncrementer bulkIncrementer;
 
+    @Autowired
+    @Qualifier("callerRollupBulkIncrementer")
+    private RollupBulkIncrementer rollupBulkIncrementer;
+
     @Autowired
     @Qualifier("statisticsCallerRowKeyDistributor")
     private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
@@ -109,15 +114,20 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
         if (useBulk) {
             TableName mapStatisticsCalleeTableName = tableNameProvider.getTableName(MAP_STATISTICS_CALLEE_VER2_STR);
             bulkIncrementer.increment(mapStatisticsCalleeTableName, callerRowKey, calleeColumnName);
+            rollupBulkIncrementer.increment(mapStatisticsCalleeTableName, callerApplicationName, callerServiceType.getCode(), acceptedTime, calleeColumnName);
         } else {
             final byte[] rowKey = getDistributedKey(callerRowKey.getRowKey());
             // column name is the name of caller app.
             byte[] columnName = calleeColumnName.getColumnName();
-            increment(rowKey, columnName, 1L);
+            increment(rowKey, MAP_STATISTICS_CALLEE_VER2_CF_COUNTER, columnName, 1L);
+            for (MapStatisticsResolution resolution : rollupBulkIncrementer.getResolutions()) {
+                final RowKey rollupRowKey = new CallRowKey(callerApplicationName, callerServiceType.getCode(), resolution.getTimeSlot(acceptedTime));
+                increment(getDistributedKey(rollupRowKey.getRowKey()), resolution.getFamily(), columnName, 1L);
+            }
         }
     }
 
-    private void increment(byte[] rowKey, byte[] columnName, long increment) {
+    private void increment(byte[] rowKey, byte[] family, byte[] columnName, long increment) {
         if (rowKey == null) {
             throw new NullPointerException("rowKey must not be null");
         }
@@ -125,7 +135,7 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
             throw new NullPointerException("columnName must not be null");
         }
         TableName mapStatisticsCalleeTableName = tableNameProvider.getTableName(MAP_STATISTICS_CALLEE_VER2_STR);
-        hbaseTemplate.incrementColumnValue(mapStatisticsCalleeTableName, rowKey, MAP_STATISTICS_CALLEE_VER2_CF_COUNTER, columnName, increment);
+        hbaseTemplate.incrementColumnValue(mapStatisticsCalleeTableName, rowKey, family, columnName, increment);
     }
 
     @Override
@@ -134,8 +144,11 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
             throw new IllegalStateException();
         }
         // update statistics by rowkey and column for now. need to update it by rowkey later.
-        Map<TableName, List<Increment>> incrementMap = bulkIncrementer.getIncrements(rowKeyDistributorByHashPrefix);
+        flush(bulkIncrementer.getIncrements(rowKeyDistributorByHashPrefix));
+        flush(rollupBulkIncrementer.getIncrements(rowKeyDistributorByHashPrefix));
+    }
 
+    private void flush(Map<TableName, List<Increment>> incrementMap) {
         for (Map.Entry<TableName, List<Increment>> e : incrementMap.entrySet()) {
             TableName tableName = e.getKey();
             List<Increment> increments = e.getValue();
@@ -16,36 +16,183 @@
 
 package com.navercorp.pinpoint.collector.dao.hbase.statistics;
 
-import com.google.common.util.concurrent.AtomicLongMap;
-import com.navercorp.pinpoint.collector.util.AtomicLongMapUtils;
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Increment;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Counts increments in a set of independent stripes, each holding one interned {@link Counter} per distinct
+ * table/row/column. Repeated keys reuse their counter (and its encoded row/column bytes) so a steady-state
+ * increment is a lookup and a CAS. Flushing drains the counters stripe by stripe instead of copying the whole map,
+ * and retires counters that stayed idle for a full flush interval.
+ *
  * @author HyunGil Jeong
  */
 public class BulkIncrementer {
 
+    private static final int MAX_STRIPES = 1 << 16;
+
     private final RowKeyMerge rowKeyMerge;
 
-    private final AtomicLongMap<RowInfo> counter = AtomicLongMap.create();
+    private final ConcurrentMap<RowInfo, Counter>[] stripes;
+    private final int stripeMask;
 
     public BulkIncrementer(RowKeyMerge rowKeyMerge) {
+        this(rowKeyMerge, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    public BulkIncrementer(RowKeyMerge rowKeyMerge, int stripeCount) {
         this.rowKeyMerge = Objects.requireNonNull(rowKeyMerge, "rowKeyMerge must not be null");
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripeCount must be positive:" + stripeCount);
+        }
+        final int size = tableSizeFor(stripeCount);
+        this.stripes = new ConcurrentMap[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.stripeMask = size - 1;
+    }
+
+    private static int tableSizeFor(int stripeCount) {
+        if (stripeCount >= MAX_STRIPES) {
+            return MAX_STRIPES;
+        }
+        final int highestOneBit = Integer.highestOneBit(stripeCount);
+        return highestOneBit == stripeCount ? stripeCount : highestOneBit << 1;
     }
 
     public void increment(TableName tableName, RowKey rowKey, ColumnName columnName) {
-        RowInfo rowInfo = new DefaultRowInfo(tableName, rowKey, columnName);
-        counter.incrementAndGet(rowInfo);
+        final RowInfo rowInfo = new DefaultRowInfo(tableName, rowKey, columnName);
+        final ConcurrentMap<RowInfo, Counter> stripe = stripes[spread(rowInfo.hashCode()) & stripeMask];
+        while (true) {
+            Counter counter = stripe.get(rowInfo);
+            if (counter == null) {
+                final Counter newCounter = new Counter(rowInfo);
+                final Counter oldCounter = stripe.putIfAbsent(rowInfo, newCounter);
+                counter = oldCounter != null ? oldCounter : newCounter;
+            }
+            if (counter.tryIncrement()) {
+                return;
+            }
+            // retired by a concurrent flush - unlink it and register a fresh counter
+            stripe.remove(rowInfo, counter);
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
     }
 
     public Map<TableName, List<Increment>> getIncrements(RowKeyDistributorByHashPrefix rowKeyDistributor) {
-        final Map<RowInfo, Long> snapshot = AtomicLongMapUtils.remove(counter);
-        return rowKeyMerge.createBulkIncrement(snapshot, rowKeyDistributor);
+        final Map<TableName, Map<RowKey, Increment>> tableRowMap = new HashMap<>();
+        for (ConcurrentMap<RowInfo, Counter> stripe : stripes) {
+            drain(stripe, tableRowMap, rowKeyDistributor);
+        }
+        if (tableRowMap.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<TableName, List<Increment>> tableIncrementMap = new HashMap<>(tableRowMap.size());
+        for (Map.Entry<TableName, Map<RowKey, Increment>> entry : tableRowMap.entrySet()) {
+            tableIncrementMap.put(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+        }
+        return tableIncrementMap;
+    }
+
+    private void drain(ConcurrentMap<RowInfo, Counter> stripe, Map<TableName, Map<RowKey, Increment>> tableRowMap, RowKeyDistributorByHashPrefix rowKeyDistributor) {
+        for (Map.Entry<RowInfo, Counter> entry : stripe.entrySet()) {
+            final Counter counter = entry.getValue();
+            final long callCount = counter.drain();
+            if (callCount == 0) {
+                // conditional remove - an incrementer may already have replaced the retired counter
+                if (counter.retire()) {
+                    stripe.remove(entry.getKey(), counter);
+                }
+                continue;
+            }
+            final Map<RowKey, Increment> rows = tableRowMap.computeIfAbsent(counter.getTableName(), k -> new HashMap<>());
+            Increment increment = rows.get(counter.getRowKey());
+            if (increment == null) {
+                increment = rowKeyMerge.createIncrement(counter.getEncodedRowKey(), rowKeyDistributor);
+                rows.put(counter.getRowKey(), increment);
+            }
+            rowKeyMerge.addColumn(increment, counter.getEncodedColumnName(), callCount);
+        }
+    }
+
+    private static class Counter extends AtomicLong {
+
+        private static final long RETIRED = Long.MIN_VALUE;
+
+        private final RowInfo rowInfo;
+
+        // encoded once on the flushing thread and reused for as long as the key stays active
+        private byte[] encodedRowKey;
+        private byte[] encodedColumnName;
+
+        private Counter(RowInfo rowInfo) {
+            this.rowInfo = rowInfo;
+        }
+
+        private boolean tryIncrement() {
+            while (true) {
+                final long current = get();
+                if (current == RETIRED) {
+                    return false;
+                }
+                if (compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private long drain() {
+            while (true) {
+                final long current = get();
+                if (current == RETIRED || current == 0) {
+                    return 0;
+                }
+                if (compareAndSet(current, 0)) {
+                    return current;
+                }
+            }
+        }
+
+        private boolean retire() {
+            return compareAndSet(0, RETIRED);
+        }
+
+        private TableName getTableName() {
+            return rowInfo.getTableName();
+        }
+
+        private RowKey getRowKey() {
+            return rowInfo.getRowKey();
+        }
+
+        private byte[] getEncodedRowKey() {
+            if (encodedRowKey == null) {
+                encodedRowKey = rowInfo.getRowKey().getRowKey();
+            }
+            return encodedRowKey;
+        }
+
+        private byte[] getEncodedColumnName() {
+            if (encodedColumnName == null) {
+                encodedColumnName = rowInfo.getColumnName().getColumnName();
+            }
+            return encodedColumnName;
+        }
     }
 }
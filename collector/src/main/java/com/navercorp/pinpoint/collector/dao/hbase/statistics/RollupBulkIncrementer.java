@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.navercorp.pinpoint.common.hbase.statistics.MapStatisticsResolution;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Increment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the 5-minute/1-hour rollup rows of the map statistics tables alongside the one-minute rows.
+ * Each rollup resolution counts into its own {@link BulkIncrementer} writing to the resolution's column family.
+ */
+public class RollupBulkIncrementer {
+
+    private final MapStatisticsResolution[] resolutions;
+    private final BulkIncrementer[] bulkIncrementers;
+
+    public RollupBulkIncrementer(boolean enable) {
+        this(enable ? MapStatisticsResolution.getRollups() : new MapStatisticsResolution[0]);
+    }
+
+    public RollupBulkIncrementer(MapStatisticsResolution... resolutions) {
+        if (resolutions == null) {
+            throw new NullPointerException("resolutions must not be null");
+        }
+        this.resolutions = resolutions.clone();
+        this.bulkIncrementers = new BulkIncrementer[resolutions.length];
+        for (int i = 0; i < resolutions.length; i++) {
+            if (!resolutions[i].isRollup()) {
+                throw new IllegalArgumentException("not a rollup resolution:" + resolutions[i]);
+            }
+            this.bulkIncrementers[i] = new BulkIncrementer(new RowKeyMerge(resolutions[i].getFamily()));
+        }
+    }
+
+    public boolean isEnable() {
+        return resolutions.length > 0;
+    }
+
+    public MapStatisticsResolution[] getResolutions() {
+        return resolutions.clone();
+    }
+
+    public void increment(TableName tableName, String applicationName, short serviceType, long acceptedTime, ColumnName columnName) {
+        for (int i = 0; i < resolutions.length; i++) {
+            final long rowTimeSlot = resolutions[i].getTimeSlot(acceptedTime);
+            final RowKey rowKey = new CallRowKey(applicationName, serviceType, rowTimeSlot);
+            bulkIncrementers[i].increment(tableName, rowKey, columnName);
+        }
+    }
+
+    public Map<TableName, List<Increment>> getIncrements(RowKeyDistributorByHashPrefix rowKeyDistributor) {
+        Map<TableName, List<Increment>> result = null;
+        for (BulkIncrementer bulkIncrementer : bulkIncrementers) {
+            final Map<TableName, List<Increment>> incrementMap = bulkIncrementer.getIncrements(rowKeyDistributor);
+            if (incrementMap.isEmpty()) {
+                continue;
+            }
+            if (result == null) {
+                result = new HashMap<>();
+            }
+            for (Map.Entry<TableName, List<Increment>> entry : incrementMap.entrySet()) {
+                result.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).addAll(entry.getValue());
+            }
+        }
+        if (result == null) {
+            return Collections.emptyMap();
+        }
+        return result;
+    }
+}
@@ -17,24 +17,15 @@
 package com.navercorp.pinpoint.collector.dao.hbase.statistics;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
-import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Increment;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 /**
  * @author emeroad
  * @author HyunGil Jeong
  */
 public class RowKeyMerge {
-    private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final byte[] family;
 
     public RowKeyMerge(byte[] family) {
@@ -44,58 +35,14 @@ public class RowKeyMerge {
         this.family = Arrays.copyOf(family, family.length);
     }
 
-    public Map<TableName, List<Increment>> createBulkIncrement(Map<RowInfo, Long> data, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
-        if (data.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        final Map<TableName, List<Increment>> tableIncrementMap = new HashMap<>();
-        final Map<TableName, Map<RowKey, List<ColumnName>>> tableRowKeyMap = mergeRowKeys(data);
-
-        for (Map.Entry<TableName, Map<RowKey, List<ColumnName>>> tableRowKeys : tableRowKeyMap.entrySet()) {
-            final TableName tableName = tableRowKeys.getKey();
-            final List<Increment> incrementList = new ArrayList<>();
-            for (Map.Entry<RowKey, List<ColumnName>> rowKeyEntry : tableRowKeys.getValue().entrySet()) {
-                Increment increment = createIncrement(rowKeyEntry, rowKeyDistributorByHashPrefix);
-                incrementList.add(increment);
-            }
-            tableIncrementMap.put(tableName, incrementList);
-        }
-        return tableIncrementMap;
-    }
-
-    private Increment createIncrement(Map.Entry<RowKey, List<ColumnName>> rowKeyEntry, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
-        RowKey rowKey = rowKeyEntry.getKey();
-        byte[] key = null;
+    Increment createIncrement(byte[] rowKey, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
         if (rowKeyDistributorByHashPrefix == null) {
-            key = rowKey.getRowKey();
-        } else {
-            key = rowKeyDistributorByHashPrefix.getDistributedKey(rowKey.getRowKey());
+            return new Increment(rowKey);
         }
-        final Increment increment = new Increment(key);
-        for (ColumnName columnName : rowKeyEntry.getValue()) {
-            increment.addColumn(family, columnName.getColumnName(), columnName.getCallCount());
-        }
-        logger.trace("create increment row:{}, column:{}", rowKey, rowKeyEntry.getValue());
-        return increment;
+        return new Increment(rowKeyDistributorByHashPrefix.getDistributedKey(rowKey));
     }
 
-    private Map<TableName, Map<RowKey, List<ColumnName>>> mergeRowKeys(Map<RowInfo, Long> data) {
-        final Map<TableName, Map<RowKey, List<ColumnName>>> tables = new HashMap<>();
-
-        for (Map.Entry<RowInfo, Long> entry : data.entrySet()) {
-            final RowInfo rowInfo = entry.getKey();
-            // write callCount to columnName and throw away
-            long callCount = entry.getValue();
-            rowInfo.getColumnName().setCallCount(callCount);
-
-            final TableName tableName = rowInfo.getTableName();
-            final RowKey rowKey = rowInfo.getRowKey();
-
-            Map<RowKey, List<ColumnName>> rows = tables.computeIfAbsent(tableName, k -> new HashMap<>());
-            List<ColumnName> columnNames = rows.computeIfAbsent(rowKey, k -> new ArrayList<>());
-            columnNames.add(rowInfo.getColumnName());
-        }
-        return tables;
+    void addColumn(Increment increment, byte[] columnName, long callCount) {
+        increment.addColumn(family, columnName, callCount);
     }
 }
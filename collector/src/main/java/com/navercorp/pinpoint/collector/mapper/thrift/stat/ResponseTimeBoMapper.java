@@ -32,6 +32,9 @@ public class ResponseTimeBoMapper implements ThriftBoMapper<ResponseTimeBo, TRes
         ResponseTimeBo responseTimeBo = new ResponseTimeBo();
         responseTimeBo.setAvg(tResponseTime.getAvg());
         responseTimeBo.setMax(tResponseTime.getMax());
+        if (tResponseTime.isSetHistogram()) {
+            responseTimeBo.setHistogram(tResponseTime.getHistogram());
+        }
         return responseTimeBo;
     }
 
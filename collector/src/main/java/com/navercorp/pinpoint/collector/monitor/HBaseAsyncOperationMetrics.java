@@ -37,6 +37,7 @@ public class HBaseAsyncOperationMetrics implements MetricSet {
     private static final String FAILED_COUNT = HBASE_ASYNC_OPS + ".failed.count";
     private static final String WAITING_COUNT = HBASE_ASYNC_OPS + ".waiting.count";
     private static final String AVERAGE_LATENCY = HBASE_ASYNC_OPS + ".latency.value";
+    private static final String SPILLED_COUNT = HBASE_ASYNC_OPS + ".spilled.count";
 
     private final HBaseAsyncOperation hBaseAsyncOperation;
 
@@ -84,6 +85,12 @@ public class HBaseAsyncOperationMetrics implements MetricSet {
                 return hBaseAsyncOperation.getOpsAverageLatency();
             }
         });
+        gauges.put(SPILLED_COUNT, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return hBaseAsyncOperation.getCurrentSpilledCount();
+            }
+        });
 
         return Collections.unmodifiableMap(gauges);
     }
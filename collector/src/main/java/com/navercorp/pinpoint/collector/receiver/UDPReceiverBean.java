@@ -18,6 +18,8 @@ package com.navercorp.pinpoint.collector.receiver;
 
 import com.navercorp.pinpoint.collector.receiver.udp.BaseUDPHandlerFactory;
 import com.navercorp.pinpoint.collector.receiver.udp.NetworkAvailabilityCheckPacketFilter;
+import com.navercorp.pinpoint.collector.receiver.udp.NioUDPReceiver;
+import com.navercorp.pinpoint.collector.receiver.udp.PacketReceiver;
 import com.navercorp.pinpoint.collector.receiver.udp.PacketHandlerFactory;
 import com.navercorp.pinpoint.collector.receiver.udp.TBaseFilter;
 import com.navercorp.pinpoint.collector.receiver.udp.TBaseFilterChain;
@@ -51,13 +53,17 @@ public class UDPReceiverBean implements InitializingBean, DisposableBean, BeanNa
     private int bindPort;
     private int udpBufferSize;
 
-    private UDPReceiver udpReceiver;
+    private PacketReceiver udpReceiver;
     private Executor executor;
 
     private DispatchHandler dispatchHandler;
     private AddressFilter addressFilter;
     private int datagramPoolSize = 1024*4;
 
+    private boolean nioEnable = false;
+    private int nioChannelSize = 1;
+    private int nioBatchSize = 16;
+
 
     @Override
     public void afterPropertiesSet() throws Exception {
@@ -75,7 +81,7 @@ public class UDPReceiverBean implements InitializingBean, DisposableBean, BeanNa
     }
 
 
-    private UDPReceiver createUdpReceiver(String name, String bindIp, int port, int udpBufferSize, Executor executor, DispatchHandler dispatchHandler, AddressFilter ignoreAddressFilter) {
+    private PacketReceiver createUdpReceiver(String name, String bindIp, int port, int udpBufferSize, Executor executor, DispatchHandler dispatchHandler, AddressFilter ignoreAddressFilter) {
         TBaseFilterChain filterChain = newTBaseFilterChain();
         @SuppressWarnings("unchecked")
         PacketHandlerFactory<DatagramPacket> packetHandlerFactory = new BaseUDPHandlerFactory<DatagramPacket>(dispatchHandler, filterChain, ignoreAddressFilter);
@@ -84,6 +90,9 @@ public class UDPReceiverBean implements InitializingBean, DisposableBean, BeanNa
 
         ObjectPoolFactory<DatagramPacket> packetFactory = new DatagramPacketFactory();
         ObjectPool<DatagramPacket> pool = new DefaultObjectPool<>(packetFactory, datagramPoolSize);
+        if (nioEnable) {
+            return new NioUDPReceiver(name, packetHandlerFactory, executor, udpBufferSize, bindAddress, pool, nioChannelSize, nioBatchSize);
+        }
         return new UDPReceiver(name, packetHandlerFactory, executor, udpBufferSize, bindAddress, pool);
     }
 
@@ -133,6 +142,18 @@ public class UDPReceiverBean implements InitializingBean, DisposableBean, BeanNa
         this.datagramPoolSize = datagramPoolSize;
     }
 
+    public void setNioEnable(boolean nioEnable) {
+        this.nioEnable = nioEnable;
+    }
+
+    public void setNioChannelSize(int nioChannelSize) {
+        this.nioChannelSize = nioChannelSize;
+    }
+
+    public void setNioBatchSize(int nioBatchSize) {
+        this.nioBatchSize = nioBatchSize;
+    }
+
     @Override
     public void setBeanName(String name) {
         this.beanName = name;
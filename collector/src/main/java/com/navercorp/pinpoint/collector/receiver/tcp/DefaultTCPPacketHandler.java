@@ -33,6 +33,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.SocketAddress;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -63,7 +64,16 @@ public class DefaultTCPPacketHandler implements TCPPacketHandler {
         final byte[] payload = getPayload(packet);
         SocketAddress remoteAddress = pinpointSocket.getRemoteAddress();
         try {
-            TBase<?, ?> tBase = SerializationUtils.deserialize(payload, deserializerFactory);
+            final HeaderTBaseDeserializer deserializer = deserializerFactory.createDeserializer();
+            if (deserializer.isChunk(payload, 0, payload.length)) {
+                // several TBase packed into one packet
+                final List<TBase<?, ?>> tBaseList = deserializer.deserializeChunk(payload, 0, payload.length);
+                for (TBase<?, ?> tBase : tBaseList) {
+                    dispatchHandler.dispatchSendMessage(tBase);
+                }
+                return;
+            }
+            TBase<?, ?> tBase = SerializationUtils.deserialize(payload, deserializer);
             dispatchHandler.dispatchSendMessage(tBase);
         } catch (TException e) {
             handleTException(payload, remoteAddress, e);
@@ -32,6 +32,7 @@ import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.SocketAddress;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -81,6 +82,18 @@ public class BaseUDPHandlerFactory<T extends DatagramPacket> implements PacketHa
             TBase<?, ?> tBase = null;
             
             try {
+                if (deserializer.isChunk(packet.getData(), packet.getOffset(), packet.getLength())) {
+                    // several TBase packed into one packet
+                    final List<TBase<?, ?>> tBaseList = deserializer.deserializeChunk(packet.getData(), packet.getOffset(), packet.getLength());
+                    for (TBase<?, ?> chunkedTBase : tBaseList) {
+                        tBase = chunkedTBase;
+                        if (filter.filter(localSocket, tBase, socketAddress) == TBaseFilter.BREAK) {
+                            return;
+                        }
+                        dispatchHandler.dispatchSendMessage(tBase);
+                    }
+                    return;
+                }
                 tBase = deserializer.deserialize(packet.getData());
                 if (filter.filter(localSocket, tBase, socketAddress) == TBaseFilter.BREAK) {
                     return;
@@ -0,0 +1,615 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.receiver.udp;
+
+import com.navercorp.pinpoint.collector.util.DatagramPacketFactory;
+import com.navercorp.pinpoint.collector.util.ObjectPool;
+import com.navercorp.pinpoint.collector.util.PacketUtils;
+import com.navercorp.pinpoint.collector.util.PooledObject;
+import com.navercorp.pinpoint.common.annotations.VisibleForTesting;
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.DatagramSocketImpl;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link DatagramChannel} based receiver.
+ * Each io thread owns one non-blocking channel and drains every datagram that is ready into a batch,
+ * so the worker executor is handed one task per batch instead of one task per packet.
+ * When more than one channel is configured the channels share the port through SO_REUSEPORT, letting the kernel spread packets across io threads.
+ */
+public class NioUDPReceiver implements PacketReceiver {
+
+    private static final String SO_REUSEPORT = "SO_REUSEPORT";
+    private static final long SELECT_TIMEOUT = 1000;
+    private static final long POOL_EMPTY_LOG_INTERVAL = 5000;
+
+    private final Logger logger;
+
+    private final String name;
+
+    private final InetSocketAddress bindAddress;
+
+    private final int receiveBufferSize;
+
+    private final int channelSize;
+
+    private final int batchSize;
+
+    private final Executor worker;
+
+    private final ObjectPool<DatagramPacket> datagramPacketPool;
+
+    private final PacketHandlerFactory<DatagramPacket> packetHandlerFactory;
+
+    private final List<ChannelReader> readers = new ArrayList<>();
+
+    private ExecutorService ioExecutor;
+
+    private final AtomicBoolean state = new AtomicBoolean(true);
+
+    public NioUDPReceiver(String name, PacketHandlerFactory<DatagramPacket> packetHandlerFactory, Executor worker, int receiveBufferSize,
+                          InetSocketAddress bindAddress, ObjectPool<DatagramPacket> datagramPacketPool, int channelSize, int batchSize) {
+        this.name = Objects.requireNonNull(name, "name must not be null");
+        this.logger = LoggerFactory.getLogger(name);
+
+        this.bindAddress = Objects.requireNonNull(bindAddress, "bindAddress must not be null");
+        this.packetHandlerFactory = Objects.requireNonNull(packetHandlerFactory, "packetHandlerFactory must not be null");
+        this.worker = Objects.requireNonNull(worker, "worker must not be null");
+        this.datagramPacketPool = Objects.requireNonNull(datagramPacketPool, "datagramPacketPool must not be null");
+
+        Assert.isTrue(receiveBufferSize > 0, "receiveBufferSize must be greater than 0");
+        Assert.isTrue(channelSize > 0, "channelSize must be greater than 0");
+        Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+        this.receiveBufferSize = receiveBufferSize;
+        this.channelSize = channelSize;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void start() {
+        if (logger.isInfoEnabled()) {
+            logger.info("{} start() started", name);
+        }
+
+        final DatagramChannel firstChannel = openChannel();
+        final SocketOption<Boolean> reusePort = findReusePortOption(firstChannel);
+        int channelSize = this.channelSize;
+        if (channelSize > 1 && reusePort == null) {
+            logger.warn("{} is not supported. channelSize:{} -> 1", SO_REUSEPORT, channelSize);
+            channelSize = 1;
+        }
+
+        try {
+            readers.add(bindReader(firstChannel, channelSize > 1 ? reusePort : null));
+            for (int i = 1; i < channelSize; i++) {
+                readers.add(bindReader(openChannel(), reusePort));
+            }
+        } catch (RuntimeException e) {
+            closeReaders();
+            throw e;
+        }
+
+        this.ioExecutor = newThreadPoolExecutor();
+        logger.info("UDP channel reader:{} batchSize:{} started.", readers.size(), batchSize);
+        for (final ChannelReader reader : readers) {
+            ioExecutor.execute(reader);
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info("{} start() completed", name);
+        }
+    }
+
+    private DatagramChannel openChannel() {
+        try {
+            final DatagramChannel channel = DatagramChannel.open();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferSize);
+            if (logger.isWarnEnabled()) {
+                final int checkReceiveBufferSize = channel.getOption(StandardSocketOptions.SO_RCVBUF);
+                if (receiveBufferSize != checkReceiveBufferSize) {
+                    logger.warn("DatagramChannel.setOption(SO_RCVBUF) error. {}!={}", receiveBufferSize, checkReceiveBufferSize);
+                }
+            }
+            return channel;
+        } catch (IOException ex) {
+            throw new RuntimeException("DatagramChannel create Fail. Caused:" + ex.getMessage(), ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SocketOption<Boolean> findReusePortOption(DatagramChannel channel) {
+        // StandardSocketOptions.SO_REUSEPORT only exists on jdk9+
+        for (SocketOption<?> socketOption : channel.supportedOptions()) {
+            if (SO_REUSEPORT.equals(socketOption.name())) {
+                return (SocketOption<Boolean>) socketOption;
+            }
+        }
+        return null;
+    }
+
+    private ChannelReader bindReader(DatagramChannel channel, SocketOption<Boolean> reusePort) {
+        try {
+            if (reusePort != null) {
+                channel.setOption(reusePort, Boolean.TRUE);
+            }
+            logger.info("DatagramChannel.bind() {}/{}", bindAddress.getHostString(), bindAddress.getPort());
+            channel.bind(bindAddress);
+            final Selector selector = Selector.open();
+            channel.register(selector, SelectionKey.OP_READ);
+            return new ChannelReader(channel, selector);
+        } catch (IOException ex) {
+            closeQuietly(channel);
+            throw new IllegalStateException("DatagramChannel bind Fail. port:" + bindAddress.getPort() + " Caused:" + ex.getMessage(), ex);
+        }
+    }
+
+    private ExecutorService newThreadPoolExecutor() {
+        final ThreadFactory threadFactory = new PinpointThreadFactory(name + "-Io", true);
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    @VisibleForTesting
+    boolean validatePacket(DatagramPacket packet) {
+        // L4 health check packet
+        if (packet.getLength() == 0) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("length is 0 ip:{}, port:{}", packet.getAddress(), packet.getPort());
+            }
+            return false;
+        }
+
+        return true;
+    }
+
+    private void dispatch(PacketBatch batch) {
+        try {
+            worker.execute(batch);
+        } catch (RejectedExecutionException e) {
+            logger.warn("packet batch rejected. size:{} Caused:{}", batch.size(), e.getMessage());
+            batch.release();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (logger.isInfoEnabled()) {
+            logger.info("{} shutdown() started", this.name);
+        }
+
+        state.set(false);
+        for (ChannelReader reader : readers) {
+            reader.wakeup();
+        }
+        if (ioExecutor != null) {
+            shutdownExecutor(ioExecutor, name);
+        }
+        closeReaders();
+
+        if (logger.isInfoEnabled()) {
+            logger.info("{} shutdown() completed", this.name);
+        }
+    }
+
+    private void closeReaders() {
+        for (ChannelReader reader : readers) {
+            reader.close();
+        }
+        readers.clear();
+    }
+
+    private void shutdownExecutor(ExecutorService executor, String executorName) {
+        logger.info("{} shutdown.", executorName);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1000 * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            logger.info("{}.shutdown() Interrupted", executorName, e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignore) {
+            // skip
+        }
+    }
+
+    private class ChannelReader implements Runnable {
+
+        private final DatagramChannel channel;
+        private final Selector selector;
+        private final DatagramSocket localSocket;
+
+        // batches come back here once the worker has handled them
+        private final Queue<PacketBatch> batchPool = new ConcurrentLinkedQueue<>();
+
+        private long poolEmptyCount;
+        private long lastPoolEmptyLogTime;
+
+        // one direct buffer per io thread. the kernel copies straight into it, and we copy once into the pooled packet.
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(DatagramPacketFactory.UDP_MAX_PACKET_LENGTH);
+
+        private ChannelReader(DatagramChannel channel, Selector selector) {
+            this.channel = channel;
+            this.selector = selector;
+            this.localSocket = new ChannelDatagramSocket(channel);
+        }
+
+        @Override
+        public void run() {
+            if (logger.isInfoEnabled()) {
+                logger.info("start ioThread localAddress:{}, IoThread:{}", localSocket.getLocalSocketAddress(), Thread.currentThread().getName());
+            }
+
+            while (state.get()) {
+                try {
+                    if (selector.select(SELECT_TIMEOUT) == 0) {
+                        continue;
+                    }
+                    selector.selectedKeys().clear();
+                    drain();
+                } catch (ClosedSelectorException e) {
+                    break;
+                } catch (IOException e) {
+                    if (state.get()) {
+                        logger.error("IoError, Caused:{}", e.getMessage(), e);
+                    }
+                }
+            }
+
+            if (logger.isInfoEnabled()) {
+                logger.info("stop ioThread localAddress:{}, IoThread:{}", localSocket.getLocalSocketAddress(), Thread.currentThread().getName());
+            }
+        }
+
+        private void drain() throws IOException {
+            PacketBatch batch = null;
+            try {
+                while (true) {
+                    final PooledObject<DatagramPacket> pooledPacket = read0();
+                    if (pooledPacket == null) {
+                        break;
+                    }
+                    if (pooledPacket == EMPTY) {
+                        continue;
+                    }
+                    if (batch == null) {
+                        batch = acquireBatch();
+                    }
+                    batch.add(pooledPacket);
+                    if (batch.isFull()) {
+                        dispatch(batch);
+                        batch = null;
+                    }
+                }
+            } finally {
+                if (batch != null) {
+                    dispatch(batch);
+                }
+            }
+        }
+
+        private PacketBatch acquireBatch() {
+            final PacketBatch batch = batchPool.poll();
+            if (batch != null) {
+                return batch;
+            }
+            return new PacketBatch(this, batchSize);
+        }
+
+        private void recycle(PacketBatch batch) {
+            batchPool.offer(batch);
+        }
+
+        private void poolEmpty() {
+            // logged periodically, the pool runs dry under exactly the load this receiver has to survive
+            poolEmptyCount++;
+            final long currentTime = System.currentTimeMillis();
+            if (currentTime - lastPoolEmptyLogTime >= POOL_EMPTY_LOG_INTERVAL) {
+                logger.error("datagramPacketPool is empty. dropped packets:{}", poolEmptyCount);
+                this.poolEmptyCount = 0;
+                this.lastPoolEmptyLogTime = currentTime;
+            }
+        }
+
+        private PooledObject<DatagramPacket> read0() throws IOException {
+            final ByteBuffer readBuffer = this.readBuffer;
+            readBuffer.clear();
+            final SocketAddress remoteAddress = channel.receive(readBuffer);
+            if (remoteAddress == null) {
+                // nothing left to read
+                return null;
+            }
+            readBuffer.flip();
+
+            final PooledObject<DatagramPacket> pooledObject = datagramPacketPool.getObject();
+            if (pooledObject == null) {
+                poolEmpty();
+                return EMPTY;
+            }
+            final DatagramPacket packet = pooledObject.getObject();
+            final byte[] data = packet.getData();
+            final int length = Math.min(readBuffer.remaining(), data.length);
+            readBuffer.get(data, 0, length);
+            packet.setLength(length);
+            packet.setSocketAddress(remoteAddress);
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("DatagramPacket SocketAddress:{} read size:{}", remoteAddress, length);
+                if (logger.isTraceEnabled()) {
+                    // use trace as packet dump may be large
+                    logger.trace("dump packet:{}", PacketUtils.dumpDatagramPacket(packet));
+                }
+            }
+            if (!validatePacket(packet)) {
+                pooledObject.returnObject();
+                return EMPTY;
+            }
+            return pooledObject;
+        }
+
+        private void wakeup() {
+            selector.wakeup();
+        }
+
+        private void close() {
+            closeQuietly(selector);
+            closeQuietly(channel);
+            localSocket.close();
+        }
+    }
+
+    private static final PooledObject<DatagramPacket> EMPTY = new PooledObject<DatagramPacket>() {
+        @Override
+        public DatagramPacket getObject() {
+            return null;
+        }
+
+        @Override
+        public void returnObject() {
+        }
+    };
+
+    private class PacketBatch implements Runnable {
+
+        private final ChannelReader owner;
+        private final PooledObject<DatagramPacket>[] packets;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        private PacketBatch(ChannelReader owner, int batchSize) {
+            this.owner = owner;
+            this.packets = new PooledObject[batchSize];
+        }
+
+        private void add(PooledObject<DatagramPacket> packet) {
+            packets[size++] = packet;
+        }
+
+        private boolean isFull() {
+            return size == packets.length;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        @Override
+        public void run() {
+            final PacketHandler<DatagramPacket> packetHandler = packetHandlerFactory.createPacketHandler();
+            for (int i = 0; i < size; i++) {
+                final PooledObject<DatagramPacket> pooledObject = packets[i];
+                packets[i] = null;
+                try {
+                    packetHandler.receive(owner.localSocket, pooledObject.getObject());
+                } catch (RuntimeException e) {
+                    // keep going, the remaining packets of the batch are unrelated
+                    logger.warn("packet handle failed. Caused:{}", e.getMessage(), e);
+                } finally {
+                    pooledObject.returnObject();
+                }
+            }
+            size = 0;
+            owner.recycle(this);
+        }
+
+        private void release() {
+            for (int i = 0; i < size; i++) {
+                packets[i].returnObject();
+                packets[i] = null;
+            }
+            size = 0;
+            owner.recycle(this);
+        }
+    }
+
+    /**
+     * Lets {@link TBaseFilter}s answer through the channel.
+     * The socket adaptor of a non-blocking channel refuses to send, so sends are redirected to the channel itself.
+     * Backed by {@link UnconnectedDatagramSocketImpl} so no extra OS socket is opened.
+     */
+    private static class ChannelDatagramSocket extends DatagramSocket {
+
+        private final DatagramChannel channel;
+
+        private ChannelDatagramSocket(DatagramChannel channel) {
+            super(new UnconnectedDatagramSocketImpl());
+            this.channel = channel;
+        }
+
+        @Override
+        public void send(DatagramPacket packet) throws IOException {
+            final ByteBuffer buffer = ByteBuffer.wrap(packet.getData(), packet.getOffset(), packet.getLength());
+            channel.send(buffer, packet.getSocketAddress());
+        }
+
+        @Override
+        public SocketAddress getLocalSocketAddress() {
+            try {
+                return channel.getLocalAddress();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public InetAddress getLocalAddress() {
+            final SocketAddress localSocketAddress = getLocalSocketAddress();
+            if (localSocketAddress instanceof InetSocketAddress) {
+                return ((InetSocketAddress) localSocketAddress).getAddress();
+            }
+            return null;
+        }
+
+        @Override
+        public int getLocalPort() {
+            final SocketAddress localSocketAddress = getLocalSocketAddress();
+            if (localSocketAddress instanceof InetSocketAddress) {
+                return ((InetSocketAddress) localSocketAddress).getPort();
+            }
+            return -1;
+        }
+
+        @Override
+        public String toString() {
+            return "ChannelDatagramSocket{" + getLocalSocketAddress() + '}';
+        }
+    }
+
+    /**
+     * Never creates a native socket. Every operation that would need one fails.
+     */
+    private static class UnconnectedDatagramSocketImpl extends DatagramSocketImpl {
+
+        @Override
+        protected void create() throws SocketException {
+        }
+
+        @Override
+        protected void bind(int lport, InetAddress laddr) throws SocketException {
+            throw new SocketException("not supported");
+        }
+
+        @Override
+        protected void send(DatagramPacket p) throws IOException {
+            throw new SocketException("not supported");
+        }
+
+        @Override
+        protected int peek(InetAddress i) throws IOException {
+            throw new SocketException("not supported");
+        }
+
+        @Override
+        protected int peekData(DatagramPacket p) throws IOException {
+            throw new SocketException("not supported");
+        }
+
+        @Override
+        protected void receive(DatagramPacket p) throws IOException {
+            throw new SocketException("not supported");
+        }
+
+        @Deprecated
+        protected void setTTL(byte ttl) throws IOException {
+            throw new SocketException("not supported");
+        }
+
+        @Deprecated
+        protected byte getTTL() throws IOException {
+            throw new SocketException("not supported");
+        }
+
+        @Override
+        protected void setTimeToLive(int ttl) throws IOException {
+            throw new SocketException("not supported");
+        }
+
+        @Override
+        protected int getTimeToLive() throws IOException {
+            throw new SocketException("not supported");
+        }
+
+        @Override
+        protected void join(InetAddress inetaddr) throws IOException {
+            throw new SocketException("not supported");
+        }
+
+        @Override
+        protected void leave(InetAddress inetaddr) throws IOException {
+            throw new SocketException("not supported");
+        }
+
+        @Override
+        protected void joinGroup(SocketAddress mcastaddr, NetworkInterface netIf) throws IOException {
+            throw new SocketException("not supported");
+        }
+
+        @Override
+        protected void leaveGroup(SocketAddress mcastaddr, NetworkInterface netIf) throws IOException {
+            throw new SocketException("not supported");
+        }
+
+        @Override
+        protected void close() {
+        }
+
+        @Override
+        public void setOption(int optID, Object value) throws SocketException {
+            throw new SocketException("not supported");
+        }
+
+        @Override
+        public Object getOption(int optID) throws SocketException {
+            throw new SocketException("not supported");
+        }
+    }
+}
@@ -47,7 +47,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @author netspider
  * @author jaehong.kim
  */
-public class UDPReceiver {
+public class UDPReceiver implements PacketReceiver {
 
     private final Logger logger;
 
@@ -200,6 +200,7 @@ public class UDPReceiver {
         return Executors.newCachedThreadPool(threadFactory);
     }
 
+    @Override
     public void start() {
         if (logger.isInfoEnabled()) {
             logger.info("{} start() started", name);
@@ -227,6 +228,7 @@ public class UDPReceiver {
         }
     }
 
+    @Override
     public void shutdown() {
         if (logger.isInfoEnabled()) {
             logger.info("{} shutdown() started", this.name);
@@ -133,6 +133,32 @@ public class BulkIncrementerTest {
         verifier.verify(testDataSetB_1_1);
     }
 
+    @Test
+    public void incrementAfterIdleFlush() {
+        // Given
+        TableName tableA = TableName.valueOf("A");
+        TestDataSet testDataSetA_0_0 = new TestDataSet(tableA, 0, 0, 10);
+        TestDataSet testDataSetA_0_0_next = new TestDataSet(tableA, 0, 0, 20);
+
+        // When
+        for (TestData testData : testDataSetA_0_0.getTestDatas()) {
+            bulkIncrementer.increment(testData.getTableName(), testData.getRowKey(), testData.getColumnName());
+        }
+        Map<TableName, List<Increment>> firstFlush = bulkIncrementer.getIncrements(rowKeyDistributor);
+        // idle flush retires the counter
+        Map<TableName, List<Increment>> idleFlush = bulkIncrementer.getIncrements(rowKeyDistributor);
+        for (TestData testData : testDataSetA_0_0_next.getTestDatas()) {
+            bulkIncrementer.increment(testData.getTableName(), testData.getRowKey(), testData.getColumnName());
+        }
+        Map<TableName, List<Increment>> secondFlush = bulkIncrementer.getIncrements(rowKeyDistributor);
+
+        // Then
+        new TestVerifier(firstFlush).verify(testDataSetA_0_0);
+        Assert.assertTrue(idleFlush.isEmpty());
+        new TestVerifier(secondFlush).verify(testDataSetA_0_0_next);
+        Assert.assertTrue(bulkIncrementer.getIncrements(rowKeyDistributor).isEmpty());
+    }
+
     @Test
     public void singleTableConcurrent() throws Exception {
         // Given
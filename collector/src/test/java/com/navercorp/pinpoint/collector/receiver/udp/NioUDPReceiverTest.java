@@ -0,0 +1,200 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.receiver.udp;
+
+import com.navercorp.pinpoint.collector.util.DatagramPacketFactory;
+import com.navercorp.pinpoint.collector.util.DefaultObjectPool;
+import com.navercorp.pinpoint.collector.util.ObjectPool;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.SocketUtils;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class NioUDPReceiverTest {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private static final String ADDRESS = "127.0.0.1";
+
+    private final AtomicInteger receivedPacketCount = new AtomicInteger();
+    private final AtomicInteger receivedByteCount = new AtomicInteger();
+    private final AtomicInteger taskCount = new AtomicInteger();
+
+    // holds the io thread in its first task, so the following packets pile up in the socket buffer
+    private final CountDownLatch firstTaskGate = new CountDownLatch(1);
+
+    private final PacketHandlerFactory<DatagramPacket> countingHandlerFactory = new PacketHandlerFactory<DatagramPacket>() {
+        @Override
+        public PacketHandler<DatagramPacket> createPacketHandler() {
+            return new PacketHandler<DatagramPacket>() {
+                @Override
+                public void receive(DatagramSocket localSocket, DatagramPacket packet) {
+                    receivedPacketCount.incrementAndGet();
+                    receivedByteCount.addAndGet(packet.getLength());
+                }
+            };
+        }
+    };
+
+    private final Executor countingExecutor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            if (taskCount.incrementAndGet() == 1) {
+                awaitGate();
+            }
+            command.run();
+        }
+    };
+
+    @Test
+    public void receive() throws Exception {
+        final int port = SocketUtils.findAvailableUdpPort(11999);
+        final int batchSize = 16;
+        final NioUDPReceiver receiver = newReceiver(port, 1, batchSize);
+        receiver.start();
+        DatagramSocket sender = new DatagramSocket();
+        try {
+            sender.connect(new InetSocketAddress(ADDRESS, port));
+            // L4 health check packet
+            sender.send(new DatagramPacket(new byte[0], 0));
+            final int packetCount = 100;
+            for (int i = 0; i < packetCount; i++) {
+                sender.send(new DatagramPacket(new byte[10], 10));
+            }
+            firstTaskGate.countDown();
+
+            Assert.assertTrue(awaitPacketCount(packetCount, 5000));
+            Assert.assertEquals(packetCount * 10, receivedByteCount.get());
+            // everything after the first task was already queued, so it must be read in full batches
+            final int maxTaskCount = 1 + (packetCount + batchSize - 1) / batchSize;
+            Assert.assertTrue("packets must be batched. tasks:" + taskCount.get(), taskCount.get() <= maxTaskCount);
+        } finally {
+            firstTaskGate.countDown();
+            sender.close();
+            receiver.shutdown();
+        }
+    }
+
+    @Test
+    public void floodThroughput() throws Exception {
+        final int port = SocketUtils.findAvailableUdpPort(12999);
+        final NioUDPReceiver receiver = newReceiver(port, 2, 32);
+        // measure the receiver as it is, without holding the io thread
+        firstTaskGate.countDown();
+        receiver.start();
+
+        final int senderCount = 4;
+        final int packetsPerSender = 20000;
+        final Thread[] senders = new Thread[senderCount];
+        for (int i = 0; i < senderCount; i++) {
+            senders[i] = new Thread(new FloodGenerator(port, packetsPerSender), "FloodGenerator-" + i);
+        }
+        try {
+            final long startTime = System.nanoTime();
+            for (Thread sender : senders) {
+                sender.start();
+            }
+            for (Thread sender : senders) {
+                sender.join(TimeUnit.SECONDS.toMillis(30));
+            }
+            // udp may drop under flood, wait until the receiver goes quiet
+            int lastCount = -1;
+            while (lastCount != receivedPacketCount.get()) {
+                lastCount = receivedPacketCount.get();
+                Thread.sleep(200);
+            }
+            final long elapsed = System.nanoTime() - startTime;
+
+            final int received = receivedPacketCount.get();
+            final int sent = senderCount * packetsPerSender;
+            logger.info("flood sent:{} received:{} tasks:{} elapsed:{}ms throughput:{} packets/s",
+                    sent, received, taskCount.get(), TimeUnit.NANOSECONDS.toMillis(elapsed), (long) (received / (elapsed / 1e9)));
+            Assert.assertTrue(received > 0);
+            Assert.assertTrue(received <= sent);
+            final double averageBatchSize = received / (double) taskCount.get();
+            Assert.assertTrue("packets must be batched. average batch size:" + averageBatchSize, averageBatchSize >= 2);
+        } finally {
+            receiver.shutdown();
+        }
+    }
+
+    private NioUDPReceiver newReceiver(int port, int channelSize, int batchSize) {
+        InetSocketAddress bindAddress = new InetSocketAddress(ADDRESS, port);
+        ObjectPool<DatagramPacket> pool = new DefaultObjectPool<>(new DatagramPacketFactory(), 128);
+        return new NioUDPReceiver("test", countingHandlerFactory, countingExecutor, 1024 * 4096, bindAddress, pool, channelSize, batchSize);
+    }
+
+    private void awaitGate() {
+        try {
+            firstTaskGate.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean awaitPacketCount(int expected, long timeoutMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (receivedPacketCount.get() < expected) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    private static class FloodGenerator implements Runnable {
+
+        private final int port;
+        private final int packetCount;
+
+        private FloodGenerator(int port, int packetCount) {
+            this.port = port;
+            this.packetCount = packetCount;
+        }
+
+        @Override
+        public void run() {
+            final byte[] payload = new byte[512];
+            DatagramSocket socket = null;
+            try {
+                socket = new DatagramSocket();
+                socket.connect(new InetSocketAddress(ADDRESS, port));
+                final DatagramPacket packet = new DatagramPacket(payload, payload.length);
+                for (int i = 0; i < packetCount; i++) {
+                    socket.send(packet);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            } finally {
+                if (socket != null) {
+                    socket.close();
+                }
+            }
+        }
+    }
+}
@@ -71,6 +71,11 @@ public class DisabledHBaseAsyncOperation implements HBaseAsyncOperation {
         return -1L;
     }
 
+    @Override
+    public Long getCurrentSpilledCount() {
+        return -1L;
+    }
+
     @Override
     public Map<String, Long> getCurrentOpsCountForEachRegionServer() {
         return Collections.emptyMap();
@@ -44,6 +44,8 @@ public interface HBaseAsyncOperation {
 
     Long getOpsAverageLatency();
 
+    Long getCurrentSpilledCount();
+
     Map<String, Long> getCurrentOpsCountForEachRegionServer();
 
     Map<String, Long> getOpsFailedCountForEachRegionServer();
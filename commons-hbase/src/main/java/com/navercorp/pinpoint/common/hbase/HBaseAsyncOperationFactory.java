@@ -17,11 +17,14 @@
 
 package com.navercorp.pinpoint.common.hbase;
 
+import com.navercorp.pinpoint.common.hbase.spill.SpillJournal;
+import com.navercorp.pinpoint.common.hbase.spill.SpillableHBaseAsyncOperation;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.client.Connection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -43,6 +46,29 @@ public class HBaseAsyncOperationFactory {
     public static final String ASYNC_RETRY_COUNT = "hbase.client.max.retries.in.queue";
     public static final int DEFAULT_ASYNC_RETRY_COUNT = 10;
 
+    public static final String ENABLE_SPILL = "hbase.client.async.spill.enable";
+    public static final boolean DEFAULT_ENABLE_SPILL = false;
+
+    public static final String SPILL_DIRECTORY = "hbase.client.async.spill.dir";
+
+    public static final String SPILL_SEGMENT_SIZE = "hbase.client.async.spill.segment.size";
+    public static final int DEFAULT_SPILL_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    public static final String SPILL_MAX_SEGMENTS = "hbase.client.async.spill.max.segments";
+    public static final int DEFAULT_SPILL_MAX_SEGMENTS = 16;
+
+    public static final String SPILL_REPLAY_BATCH_SIZE = "hbase.client.async.spill.replay.batch.size";
+    public static final int DEFAULT_SPILL_REPLAY_BATCH_SIZE = 500;
+
+    public static final String SPILL_REPLAY_INTERVAL = "hbase.client.async.spill.replay.interval.ms";
+    public static final long DEFAULT_SPILL_REPLAY_INTERVAL = 100L;
+
+    public static final String SPILL_FORCE_RECORD_COUNT = "hbase.client.async.spill.force.record.count";
+    public static final int DEFAULT_SPILL_FORCE_RECORD_COUNT = SpillJournal.DEFAULT_FORCE_RECORD_COUNT;
+
+    public static final String SPILL_FORCE_INTERVAL = "hbase.client.async.spill.force.interval.ms";
+    public static final long DEFAULT_SPILL_FORCE_INTERVAL = SpillJournal.DEFAULT_FORCE_INTERVAL_MILLIS;
+
     public static HBaseAsyncOperation create(Configuration configuration) throws IOException {
         boolean enableAsyncMethod = configuration.getBoolean(ENABLE_ASYNC_METHOD, DEFAULT_ENABLE_ASYNC_METHOD);
         if (!enableAsyncMethod) {
@@ -59,7 +85,7 @@ public class HBaseAsyncOperationFactory {
             configuration.setInt(ASYNC_RETRY_COUNT, DEFAULT_ASYNC_RETRY_COUNT);
         }
 
-        return new HBaseAsyncTemplate(configuration, queueSize);
+        return spillable(new HBaseAsyncTemplate(configuration, queueSize), configuration, queueSize);
     }
 
     public static HBaseAsyncOperation create(Connection connection, Configuration configuration) throws IOException {
@@ -78,7 +104,32 @@ public class HBaseAsyncOperationFactory {
             configuration.setInt(ASYNC_RETRY_COUNT, DEFAULT_ASYNC_RETRY_COUNT);
         }
 
-        return new HBaseAsyncTemplate(connection, configuration, queueSize);
+        return spillable(new HBaseAsyncTemplate(connection, configuration, queueSize), configuration, queueSize);
+    }
+
+    private static HBaseAsyncOperation spillable(HBaseAsyncOperation asyncOperation, Configuration configuration, int queueSize) throws IOException {
+        boolean enableSpill = configuration.getBoolean(ENABLE_SPILL, DEFAULT_ENABLE_SPILL);
+        if (!enableSpill) {
+            return asyncOperation;
+        }
+
+        String directoryName = configuration.getTrimmed(SPILL_DIRECTORY);
+        if (directoryName == null || directoryName.isEmpty()) {
+            // temp directories are often cleared on reboot, which would lose the spilled puts
+            throw new IllegalArgumentException(SPILL_DIRECTORY + " must be set when " + ENABLE_SPILL + " is true");
+        }
+        File directory = new File(directoryName);
+        int segmentSize = configuration.getInt(SPILL_SEGMENT_SIZE, DEFAULT_SPILL_SEGMENT_SIZE);
+        int maxSegments = configuration.getInt(SPILL_MAX_SEGMENTS, DEFAULT_SPILL_MAX_SEGMENTS);
+        int replayBatchSize = configuration.getInt(SPILL_REPLAY_BATCH_SIZE, DEFAULT_SPILL_REPLAY_BATCH_SIZE);
+        long replayInterval = configuration.getLong(SPILL_REPLAY_INTERVAL, DEFAULT_SPILL_REPLAY_INTERVAL);
+        int forceRecordCount = configuration.getInt(SPILL_FORCE_RECORD_COUNT, DEFAULT_SPILL_FORCE_RECORD_COUNT);
+        long forceInterval = configuration.getLong(SPILL_FORCE_INTERVAL, DEFAULT_SPILL_FORCE_INTERVAL);
+
+        SpillJournal spillJournal = new SpillJournal(directory, segmentSize, maxSegments, forceRecordCount, forceInterval);
+        LOGGER.info("hbase async spill enabled. {}", spillJournal);
+        // replay only once the multiplexer buffer has drained below one region server queue
+        return new SpillableHBaseAsyncOperation(asyncOperation, spillJournal, replayBatchSize, queueSize, replayInterval);
     }
 
 }
\ No newline at end of file
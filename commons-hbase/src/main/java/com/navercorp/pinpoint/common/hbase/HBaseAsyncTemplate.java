@@ -97,6 +97,11 @@ public class HBaseAsyncTemplate implements HBaseAsyncOperation {
         return hTableMultiplexer.getHTableMultiplexerStatus().getOverallAverageLatency();
     }
 
+    @Override
+    public Long getCurrentSpilledCount() {
+        return 0L;
+    }
+
     @Override
     public Map<String, Long> getCurrentOpsCountForEachRegionServer() {
         return hTableMultiplexer.getHTableMultiplexerStatus().getBufferedCounterForEachRegionServer();
@@ -106,6 +106,10 @@ public final class HBaseTables {
     public static final TableName MAP_STATISTICS_SELF_VER2 = TableName.valueOf(MAP_STATISTICS_SELF_VER2_STR);
     public static final byte[] MAP_STATISTICS_SELF_VER2_CF_COUNTER = Bytes.toBytes("C");
 
+    // rollup families shared by the ApplicationMapStatistics*_Ver2 tables, rows are keyed by the rolled-up timeslot
+    public static final byte[] MAP_STATISTICS_CF_ROLLUP_FIVE_MINUTES = Bytes.toBytes("F");
+    public static final byte[] MAP_STATISTICS_CF_ROLLUP_ONE_HOUR = Bytes.toBytes("H");
+
     public static final String HOST_APPLICATION_MAP_VER2_STR = "HostApplicationMap_Ver2";
     @Deprecated
     public static final TableName HOST_APPLICATION_MAP_VER2 = TableName.valueOf(HOST_APPLICATION_MAP_VER2_STR);
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.spill;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Durability;
+import org.apache.hadoop.hbase.client.Put;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary form of a {@link Put} in the spill journal.
+ * <pre>
+ * tableName | row | timestamp | durability | cellCount | (family | qualifier | timestamp | value)*
+ * </pre>
+ * byte arrays are written as int length + bytes. Attributes and cell tags are not kept, pinpoint does not use them.
+ */
+final class PutCodec {
+
+    private PutCodec() {
+    }
+
+    static byte[] encode(TableName tableName, Put put) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        writeBytes(out, tableName.getName());
+        writeBytes(out, put.getRow());
+        out.writeLong(put.getTimeStamp());
+        out.writeByte(put.getDurability().ordinal());
+
+        out.writeInt(put.size());
+        for (Map.Entry<byte[], List<Cell>> entry : put.getFamilyCellMap().entrySet()) {
+            for (Cell cell : entry.getValue()) {
+                writeBytes(out, CellUtil.cloneFamily(cell));
+                writeBytes(out, CellUtil.cloneQualifier(cell));
+                out.writeLong(cell.getTimestamp());
+                writeBytes(out, CellUtil.cloneValue(cell));
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    static SpilledPut decode(ByteBuffer buffer) {
+        final TableName tableName = TableName.valueOf(readBytes(buffer));
+        final byte[] row = readBytes(buffer);
+        final long timestamp = buffer.getLong();
+        final Durability durability = Durability.values()[buffer.get()];
+
+        final Put put = new Put(row, timestamp);
+        put.setDurability(durability);
+
+        final int cellCount = buffer.getInt();
+        for (int i = 0; i < cellCount; i++) {
+            final byte[] family = readBytes(buffer);
+            final byte[] qualifier = readBytes(buffer);
+            final long cellTimestamp = buffer.getLong();
+            final byte[] value = readBytes(buffer);
+            put.addColumn(family, qualifier, cellTimestamp, value);
+        }
+        return new SpilledPut(tableName, put);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        final byte[] value = new byte[length];
+        buffer.get(value);
+        return value;
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.spill;
+
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Append-only journal of Puts, stored in memory-mapped segment files.
+ * <p>
+ * Each segment holds records of {@code int length | payload}. A length of 0 marks the end of the written data,
+ * {@link #SEGMENT_END} means the writer moved to the next segment.
+ * A length that does not fit in the rest of the segment, e.g. torn by a power loss, is treated as the end of the segment.
+ * The read position is kept in a checkpoint file so pending Puts are replayed after a restart.
+ * Segments are deleted once they have been read completely.
+ * Written records are forced to disk every {@code forceRecordCount} appends or {@code forceIntervalMillis},
+ * whichever comes first, and whenever a segment is rolled.
+ */
+public class SpillJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpillJournal.class);
+
+    private static final String SEGMENT_PREFIX = "spill-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE_NAME = "spill.checkpoint";
+
+    private static final int LENGTH_SIZE = 4;
+    private static final int SEGMENT_END = -1;
+    // segment sequence(long) + read position(int)
+    private static final int CHECKPOINT_SIZE = 12;
+
+    public static final int DEFAULT_FORCE_RECORD_COUNT = 1000;
+    public static final long DEFAULT_FORCE_INTERVAL_MILLIS = 1000L;
+
+    private final File directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int forceRecordCount;
+    private final long forceIntervalMillis;
+
+    private final MappedByteBuffer checkpoint;
+
+    private long writeSegment;
+    private MappedByteBuffer writeBuffer;
+    private int writePosition;
+
+    private long readSegment;
+    private MappedByteBuffer readBuffer;
+    private int readPosition;
+
+    private long size;
+    private boolean closed;
+
+    private int unforcedCount;
+    private long lastForceTime;
+
+    public SpillJournal(File directory, int segmentSize, int maxSegments) throws IOException {
+        this(directory, segmentSize, maxSegments, DEFAULT_FORCE_RECORD_COUNT, DEFAULT_FORCE_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param forceRecordCount   appends between two forces, 1 forces every append
+     * @param forceIntervalMillis max time a written record may stay unforced
+     */
+    public SpillJournal(File directory, int segmentSize, int maxSegments, int forceRecordCount, long forceIntervalMillis) throws IOException {
+        if (directory == null) {
+            throw new NullPointerException("directory must not be null");
+        }
+        if (segmentSize <= LENGTH_SIZE * 2) {
+            throw new IllegalArgumentException("segmentSize too small:" + segmentSize);
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("maxSegments must be positive:" + maxSegments);
+        }
+        if (forceRecordCount < 1) {
+            throw new IllegalArgumentException("forceRecordCount must be positive:" + forceRecordCount);
+        }
+        if (forceIntervalMillis < 0) {
+            throw new IllegalArgumentException("negative forceIntervalMillis:" + forceIntervalMillis);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("can not create spill directory:" + directory);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.forceRecordCount = forceRecordCount;
+        this.forceIntervalMillis = forceIntervalMillis;
+
+        this.checkpoint = map(new File(directory, CHECKPOINT_FILE_NAME), CHECKPOINT_SIZE);
+        recover();
+    }
+
+    private void recover() throws IOException {
+        final List<Long> segments = listSegments();
+        long checkpointSegment = checkpoint.getLong(0);
+        int checkpointPosition = checkpoint.getInt(8);
+
+        if (segments.isEmpty()) {
+            this.readSegment = checkpointSegment;
+            this.readPosition = 0;
+            this.writeSegment = checkpointSegment;
+            this.writeBuffer = mapSegment(writeSegment);
+            this.writePosition = 0;
+            this.readBuffer = writeBuffer;
+            this.lastForceTime = System.currentTimeMillis();
+            writeCheckpoint();
+            return;
+        }
+
+        if (!segments.contains(checkpointSegment) || checkpointPosition < 0 || checkpointPosition > segmentSize) {
+            // checkpoint is missing, stale or broken, replay everything that is left
+            checkpointSegment = segments.get(0);
+            checkpointPosition = 0;
+        }
+        for (Long segment : segments) {
+            if (segment < checkpointSegment) {
+                deleteSegment(segment);
+            }
+        }
+
+        this.readSegment = checkpointSegment;
+        this.readPosition = checkpointPosition;
+
+        long pending = 0;
+        long segment = checkpointSegment;
+        int position = checkpointPosition;
+        final long lastSegment = segments.get(segments.size() - 1);
+        while (true) {
+            final MappedByteBuffer buffer = mapSegment(segment);
+            while (true) {
+                final int length = readLength(segment, buffer, position);
+                if (length <= 0) {
+                    break;
+                }
+                position += LENGTH_SIZE + length;
+                pending++;
+            }
+            if (segment == lastSegment) {
+                this.writeSegment = segment;
+                this.writeBuffer = buffer;
+                this.writePosition = position;
+                break;
+            }
+            segment++;
+            position = 0;
+        }
+        this.size = pending;
+        this.lastForceTime = System.currentTimeMillis();
+        this.readBuffer = (readSegment == writeSegment) ? writeBuffer : mapSegment(readSegment);
+        writeCheckpoint();
+
+        if (pending > 0) {
+            logger.info("spill journal recovered. directory:{} pending:{}", directory, pending);
+        }
+    }
+
+    private List<Long> listSegments() {
+        final String[] names = directory.list(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }
+        });
+        final List<Long> segments = new ArrayList<Long>();
+        if (names == null) {
+            return segments;
+        }
+        for (String name : names) {
+            final String sequence = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+            try {
+                segments.add(Long.parseLong(sequence));
+            } catch (NumberFormatException e) {
+                logger.warn("invalid spill segment name:{}", name);
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * @return false if the journal is full or closed, the caller has to write the Put by itself.
+     */
+    public synchronized boolean append(TableName tableName, Put put) {
+        if (closed) {
+            return false;
+        }
+        final byte[] payload;
+        try {
+            payload = PutCodec.encode(tableName, put);
+        } catch (IOException e) {
+            logger.warn("Put encode failed. Caused:{}", e.getMessage(), e);
+            return false;
+        }
+        final int recordSize = LENGTH_SIZE + payload.length;
+        // keep room for the segment end marker
+        if (recordSize > segmentSize - LENGTH_SIZE) {
+            return false;
+        }
+        if (writePosition + recordSize > segmentSize - LENGTH_SIZE) {
+            if (!nextWriteSegment()) {
+                return false;
+            }
+        }
+
+        final ByteBuffer buffer = writeBuffer.duplicate();
+        buffer.position(writePosition + LENGTH_SIZE);
+        buffer.put(payload);
+        // length is written last, a record is visible only when complete
+        writeBuffer.putInt(writePosition, payload.length);
+        writePosition += recordSize;
+        size++;
+        unforcedCount++;
+        forceIfNeeded();
+        return true;
+    }
+
+    private void forceIfNeeded() {
+        if (unforcedCount >= forceRecordCount) {
+            force();
+            return;
+        }
+        final long currentTime = System.currentTimeMillis();
+        if (currentTime - lastForceTime >= forceIntervalMillis) {
+            force();
+        }
+    }
+
+    private void force() {
+        writeBuffer.force();
+        checkpoint.force();
+        this.unforcedCount = 0;
+        this.lastForceTime = System.currentTimeMillis();
+    }
+
+    private boolean nextWriteSegment() {
+        if (writeSegment - readSegment + 1 >= maxSegments) {
+            return false;
+        }
+        final MappedByteBuffer next;
+        try {
+            next = mapSegment(writeSegment + 1);
+        } catch (IOException e) {
+            logger.warn("spill segment create failed. Caused:{}", e.getMessage(), e);
+            return false;
+        }
+        writeBuffer.putInt(writePosition, SEGMENT_END);
+        force();
+
+        this.writeSegment++;
+        this.writeBuffer = next;
+        this.writePosition = 0;
+        return true;
+    }
+
+    /**
+     * Removes up to {@code maxCount} Puts from the head of the journal.
+     */
+    public synchronized List<SpilledPut> poll(int maxCount) {
+        if (closed || size == 0) {
+            return Collections.emptyList();
+        }
+        final List<SpilledPut> result = new ArrayList<SpilledPut>(Math.min(maxCount, (int) Math.min(size, Integer.MAX_VALUE)));
+        while (result.size() < maxCount) {
+            if (readSegment == writeSegment && readPosition >= writePosition) {
+                break;
+            }
+            final int length = readLength(readSegment, readBuffer, readPosition);
+            if (length <= 0) {
+                if (readSegment == writeSegment) {
+                    break;
+                }
+                if (!nextReadSegment()) {
+                    break;
+                }
+                continue;
+            }
+
+            final ByteBuffer record = readBuffer.duplicate();
+            record.position(readPosition + LENGTH_SIZE);
+            record.limit(readPosition + LENGTH_SIZE + length);
+            readPosition += LENGTH_SIZE + length;
+            size--;
+            try {
+                result.add(PutCodec.decode(record.slice()));
+            } catch (RuntimeException e) {
+                logger.warn("broken spill record. segment:{} Caused:{}", readSegment, e.getMessage(), e);
+            }
+        }
+        writeCheckpoint();
+        return result;
+    }
+
+    /**
+     * @return length of the record at {@code position}, 0 or negative at the end of the segment
+     */
+    private int readLength(long segment, ByteBuffer buffer, int position) {
+        if (position + LENGTH_SIZE > segmentSize) {
+            return SEGMENT_END;
+        }
+        final int length = buffer.getInt(position);
+        if (length > segmentSize - position - LENGTH_SIZE) {
+            logger.warn("broken spill record length. segment:{} position:{} length:{}", segment, position, length);
+            return SEGMENT_END;
+        }
+        return length;
+    }
+
+    private boolean nextReadSegment() {
+        final long finished = readSegment;
+        final MappedByteBuffer next;
+        try {
+            next = (finished + 1 == writeSegment) ? writeBuffer : mapSegment(finished + 1);
+        } catch (IOException e) {
+            logger.warn("spill segment open failed. Caused:{}", e.getMessage(), e);
+            return false;
+        }
+        this.readSegment = finished + 1;
+        this.readBuffer = next;
+        this.readPosition = 0;
+        writeCheckpoint();
+        deleteSegment(finished);
+        return true;
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    private void writeCheckpoint() {
+        checkpoint.putLong(0, readSegment);
+        checkpoint.putInt(8, readPosition);
+    }
+
+    private MappedByteBuffer mapSegment(long segment) throws IOException {
+        return map(segmentFile(segment), segmentSize);
+    }
+
+    private File segmentFile(long segment) {
+        return new File(directory, String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private void deleteSegment(long segment) {
+        final File file = segmentFile(segment);
+        if (file.exists() && !file.delete()) {
+            logger.warn("spill segment delete failed. file:{}", file);
+        }
+    }
+
+    private static MappedByteBuffer map(File file, int size) throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            final FileChannel channel = randomAccessFile.getChannel();
+            // mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        this.closed = true;
+        force();
+    }
+
+    @Override
+    public String toString() {
+        return "SpillJournal{" +
+                "directory=" + directory +
+                ", segmentSize=" + segmentSize +
+                ", maxSegments=" + maxSegments +
+                ", forceRecordCount=" + forceRecordCount +
+                ", forceIntervalMillis=" + forceIntervalMillis +
+                '}';
+    }
+}
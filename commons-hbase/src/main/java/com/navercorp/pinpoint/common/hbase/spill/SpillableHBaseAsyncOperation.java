@@ -0,0 +1,232 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.spill;
+
+import com.navercorp.pinpoint.common.hbase.HBaseAsyncOperation;
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Puts rejected by the delegate (HTableMultiplexer buffer full) are written to a {@link SpillJournal}
+ * instead of being returned to the caller, which would otherwise fall back to a synchronous put.
+ * A background thread replays the journal in batches while the delegate has room.
+ */
+public class SpillableHBaseAsyncOperation implements HBaseAsyncOperation, Closeable {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final HBaseAsyncOperation delegate;
+    private final SpillJournal spillJournal;
+    private final int replayBatchSize;
+    private final long replayThreshold;
+
+    private final ScheduledExecutorService replayExecutor;
+
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong replayedCount = new AtomicLong();
+
+    public SpillableHBaseAsyncOperation(HBaseAsyncOperation delegate, SpillJournal spillJournal, int replayBatchSize, long replayThreshold, long replayIntervalMillis) {
+        if (delegate == null) {
+            throw new NullPointerException("delegate must not be null");
+        }
+        if (spillJournal == null) {
+            throw new NullPointerException("spillJournal must not be null");
+        }
+        if (replayBatchSize <= 0) {
+            throw new IllegalArgumentException("replayBatchSize must be positive:" + replayBatchSize);
+        }
+        this.delegate = delegate;
+        this.spillJournal = spillJournal;
+        this.replayBatchSize = replayBatchSize;
+        this.replayThreshold = replayThreshold;
+
+        this.replayExecutor = Executors.newSingleThreadScheduledExecutor(PinpointThreadFactory.createThreadFactory("Pinpoint-HBaseSpillReplay", true));
+        this.replayExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    replay();
+                } catch (Throwable th) {
+                    logger.warn("spill replay failed. Caused:{}", th.getMessage(), th);
+                }
+            }
+        }, replayIntervalMillis, replayIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    @Override
+    public boolean put(TableName tableName, Put put) {
+        if (delegate.put(tableName, put)) {
+            return true;
+        }
+        return spill(tableName, put);
+    }
+
+    @Override
+    public List<Put> put(TableName tableName, List<Put> puts) {
+        final List<Put> rejectedPuts = delegate.put(tableName, puts);
+        if (rejectedPuts == null || rejectedPuts.isEmpty()) {
+            return rejectedPuts;
+        }
+        List<Put> notSpilled = null;
+        for (Put rejectedPut : rejectedPuts) {
+            if (!spill(tableName, rejectedPut)) {
+                if (notSpilled == null) {
+                    notSpilled = new ArrayList<Put>();
+                }
+                notSpilled.add(rejectedPut);
+            }
+        }
+        if (notSpilled == null) {
+            return Collections.emptyList();
+        }
+        return notSpilled;
+    }
+
+    private boolean spill(TableName tableName, Put put) {
+        final boolean spilled = spillJournal.append(tableName, put);
+        if (spilled) {
+            spilledCount.incrementAndGet();
+        }
+        return spilled;
+    }
+
+    void replay() {
+        while (spillJournal.size() > 0) {
+            final Long bufferedCount = delegate.getCurrentOpsCount();
+            if (bufferedCount != null && bufferedCount > replayThreshold) {
+                // multiplexer has not drained yet
+                return;
+            }
+
+            final List<SpilledPut> spilledPuts = spillJournal.poll(replayBatchSize);
+            if (spilledPuts.isEmpty()) {
+                return;
+            }
+            final Map<TableName, List<Put>> putsByTable = new LinkedHashMap<TableName, List<Put>>();
+            for (SpilledPut spilledPut : spilledPuts) {
+                List<Put> puts = putsByTable.get(spilledPut.getTableName());
+                if (puts == null) {
+                    puts = new ArrayList<Put>();
+                    putsByTable.put(spilledPut.getTableName(), puts);
+                }
+                puts.add(spilledPut.getPut());
+            }
+
+            int rejected = 0;
+            for (Map.Entry<TableName, List<Put>> entry : putsByTable.entrySet()) {
+                final TableName tableName = entry.getKey();
+                final List<Put> rejectedPuts = delegate.put(tableName, entry.getValue());
+                if (rejectedPuts == null) {
+                    continue;
+                }
+                for (Put rejectedPut : rejectedPuts) {
+                    rejected++;
+                    if (!spillJournal.append(tableName, rejectedPut)) {
+                        logger.warn("spill journal full, drop replayed put. table:{}", tableName);
+                    }
+                }
+            }
+            replayedCount.addAndGet(spilledPuts.size() - rejected);
+            if (rejected > 0) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public Long getOpsCount() {
+        return delegate.getOpsCount();
+    }
+
+    @Override
+    public Long getOpsRejectedCount() {
+        return delegate.getOpsRejectedCount();
+    }
+
+    @Override
+    public Long getCurrentOpsCount() {
+        return delegate.getCurrentOpsCount();
+    }
+
+    @Override
+    public Long getOpsFailedCount() {
+        return delegate.getOpsFailedCount();
+    }
+
+    @Override
+    public Long getOpsAverageLatency() {
+        return delegate.getOpsAverageLatency();
+    }
+
+    @Override
+    public Long getCurrentSpilledCount() {
+        return spillJournal.size();
+    }
+
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    public long getReplayedCount() {
+        return replayedCount.get();
+    }
+
+    @Override
+    public Map<String, Long> getCurrentOpsCountForEachRegionServer() {
+        return delegate.getCurrentOpsCountForEachRegionServer();
+    }
+
+    @Override
+    public Map<String, Long> getOpsFailedCountForEachRegionServer() {
+        return delegate.getOpsFailedCountForEachRegionServer();
+    }
+
+    @Override
+    public Map<String, Long> getOpsAverageLatencyForEachRegionServer() {
+        return delegate.getOpsAverageLatencyForEachRegionServer();
+    }
+
+    @Override
+    public void close() {
+        replayExecutor.shutdown();
+        try {
+            replayExecutor.awaitTermination(3000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        spillJournal.close();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.spill;
+
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+
+public class SpilledPut {
+
+    private final TableName tableName;
+    private final Put put;
+
+    public SpilledPut(TableName tableName, Put put) {
+        if (tableName == null) {
+            throw new NullPointerException("tableName must not be null");
+        }
+        if (put == null) {
+            throw new NullPointerException("put must not be null");
+        }
+        this.tableName = tableName;
+        this.put = put;
+    }
+
+    public TableName getTableName() {
+        return tableName;
+    }
+
+    public Put getPut() {
+        return put;
+    }
+
+    @Override
+    public String toString() {
+        return "SpilledPut{" +
+                "tableName=" + tableName +
+                ", put=" + put +
+                '}';
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.hbase.statistics;
+
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.util.TimeSlot;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timeslot resolutions kept in the ApplicationMapStatistics tables.
+ * The one-minute rows live in the counter family, coarser rollups are written to their own family
+ * so that long range scans only touch the rollup store files.
+ */
+public enum MapStatisticsResolution implements TimeSlot {
+
+    ONE_MINUTE(TimeUnit.MINUTES.toMillis(1), HBaseTables.MAP_STATISTICS_CALLER_VER2_CF_COUNTER),
+    FIVE_MINUTES(TimeUnit.MINUTES.toMillis(5), HBaseTables.MAP_STATISTICS_CF_ROLLUP_FIVE_MINUTES),
+    ONE_HOUR(TimeUnit.HOURS.toMillis(1), HBaseTables.MAP_STATISTICS_CF_ROLLUP_ONE_HOUR);
+
+    private static final MapStatisticsResolution[] ROLLUPS = {FIVE_MINUTES, ONE_HOUR};
+
+    private final long resolution;
+    private final byte[] family;
+
+    MapStatisticsResolution(long resolution, byte[] family) {
+        this.resolution = resolution;
+        this.family = family;
+    }
+
+    public long getResolution() {
+        return resolution;
+    }
+
+    public byte[] getFamily() {
+        return family;
+    }
+
+    public boolean isRollup() {
+        return this != ONE_MINUTE;
+    }
+
+    @Override
+    public long getTimeSlot(long time) {
+        return (time / resolution) * resolution;
+    }
+
+    public static MapStatisticsResolution[] getRollups() {
+        return ROLLUPS.clone();
+    }
+
+    /**
+     * Returns the coarsest resolution whose timeslots line up with the given window slot size,
+     * so that reducing the rows into the window gives the same result as reducing one-minute rows.
+     */
+    public static MapStatisticsResolution getResolution(long windowSlotSize) {
+        MapStatisticsResolution result = ONE_MINUTE;
+        for (MapStatisticsResolution resolution : values()) {
+            if (windowSlotSize % resolution.resolution == 0) {
+                result = resolution;
+            }
+        }
+        return result;
+    }
+}
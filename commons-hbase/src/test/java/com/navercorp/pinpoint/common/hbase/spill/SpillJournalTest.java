@@ -0,0 +1,254 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.spill;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+
+public class SpillJournalTest {
+
+    private static final TableName TABLE_NAME = TableName.valueOf("TraceV2");
+    private static final byte[] FAMILY = Bytes.toBytes("S");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Put newPut(int index) {
+        Put put = new Put(Bytes.toBytes("row" + index), 100L);
+        put.addColumn(FAMILY, Bytes.toBytes("q" + index), 100L, Bytes.toBytes("value" + index));
+        return put;
+    }
+
+    private void assertPut(int index, SpilledPut spilledPut) {
+        Assert.assertEquals(TABLE_NAME, spilledPut.getTableName());
+        Put put = spilledPut.getPut();
+        Assert.assertArrayEquals(Bytes.toBytes("row" + index), put.getRow());
+        Assert.assertEquals(100L, put.getTimeStamp());
+
+        List<Cell> cells = put.get(FAMILY, Bytes.toBytes("q" + index));
+        Assert.assertEquals(1, cells.size());
+        Assert.assertArrayEquals(Bytes.toBytes("value" + index), CellUtil.cloneValue(cells.get(0)));
+        Assert.assertEquals(100L, cells.get(0).getTimestamp());
+    }
+
+    @Test
+    public void appendAndPoll() throws Exception {
+        SpillJournal journal = new SpillJournal(temporaryFolder.newFolder(), 1024 * 1024, 2);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(journal.append(TABLE_NAME, newPut(i)));
+        }
+        Assert.assertEquals(10, journal.size());
+
+        List<SpilledPut> first = journal.poll(4);
+        Assert.assertEquals(4, first.size());
+        for (int i = 0; i < 4; i++) {
+            assertPut(i, first.get(i));
+        }
+
+        List<SpilledPut> rest = journal.poll(100);
+        Assert.assertEquals(6, rest.size());
+        for (int i = 0; i < 6; i++) {
+            assertPut(i + 4, rest.get(i));
+        }
+        Assert.assertEquals(0, journal.size());
+        Assert.assertTrue(journal.poll(100).isEmpty());
+        journal.close();
+    }
+
+    @Test
+    public void rollSegment() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        // a few records per segment
+        SpillJournal journal = new SpillJournal(directory, 256, 100);
+        for (int i = 0; i < 50; i++) {
+            Assert.assertTrue(journal.append(TABLE_NAME, newPut(i)));
+        }
+
+        List<SpilledPut> spilledPuts = journal.poll(50);
+        Assert.assertEquals(50, spilledPuts.size());
+        for (int i = 0; i < 50; i++) {
+            assertPut(i, spilledPuts.get(i));
+        }
+        journal.close();
+
+        // read segments are deleted, only the checkpoint and the current segment remain
+        Assert.assertEquals(2, directory.list().length);
+    }
+
+    @Test
+    public void full() throws Exception {
+        SpillJournal journal = new SpillJournal(temporaryFolder.newFolder(), 256, 2);
+        int appended = 0;
+        while (journal.append(TABLE_NAME, newPut(appended))) {
+            appended++;
+        }
+        Assert.assertTrue(appended > 0);
+        Assert.assertEquals(appended, journal.size());
+
+        // room again once the first segment is consumed
+        Assert.assertEquals(appended, journal.poll(appended).size());
+        Assert.assertTrue(journal.append(TABLE_NAME, newPut(0)));
+        journal.close();
+    }
+
+    @Test
+    public void recover() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        SpillJournal journal = new SpillJournal(directory, 256, 100);
+        for (int i = 0; i < 20; i++) {
+            Assert.assertTrue(journal.append(TABLE_NAME, newPut(i)));
+        }
+        Assert.assertEquals(5, journal.poll(5).size());
+        journal.close();
+
+        SpillJournal recovered = new SpillJournal(directory, 256, 100);
+        Assert.assertEquals(15, recovered.size());
+        Assert.assertTrue(recovered.append(TABLE_NAME, newPut(20)));
+
+        List<SpilledPut> spilledPuts = recovered.poll(100);
+        Assert.assertEquals(16, spilledPuts.size());
+        for (int i = 0; i < 16; i++) {
+            assertPut(i + 5, spilledPuts.get(i));
+        }
+        recovered.close();
+    }
+
+    @Test
+    public void recoverCorruptLengthInLastSegment() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        SpillJournal journal = new SpillJournal(directory, 1024 * 1024, 2);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(journal.append(TABLE_NAME, newPut(i)));
+        }
+        journal.close();
+
+        File segment = segmentFiles(directory)[0];
+        corruptLength(segment, recordPosition(segment, 1), Integer.MAX_VALUE - 1);
+
+        SpillJournal recovered = new SpillJournal(directory, 1024 * 1024, 2);
+        Assert.assertEquals(1, recovered.size());
+        // the broken tail is overwritten by new appends
+        Assert.assertTrue(recovered.append(TABLE_NAME, newPut(3)));
+
+        List<SpilledPut> spilledPuts = recovered.poll(100);
+        Assert.assertEquals(2, spilledPuts.size());
+        assertPut(0, spilledPuts.get(0));
+        assertPut(3, spilledPuts.get(1));
+        Assert.assertEquals(0, recovered.size());
+        recovered.close();
+    }
+
+    @Test
+    public void recoverCorruptLengthInFullSegment() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        SpillJournal journal = new SpillJournal(directory, 256, 100);
+        for (int i = 0; i < 20; i++) {
+            Assert.assertTrue(journal.append(TABLE_NAME, newPut(i)));
+        }
+        journal.close();
+
+        File[] segments = segmentFiles(directory);
+        Assert.assertTrue(segments.length > 1);
+        int firstSegmentRecords = recordCount(segments[0]);
+        Assert.assertTrue(firstSegmentRecords > 1);
+        // points just past the end of the segment
+        int position = recordPosition(segments[0], 1);
+        corruptLength(segments[0], position, 256 - position - 3);
+
+        SpillJournal recovered = new SpillJournal(directory, 256, 100);
+        int expected = 20 - firstSegmentRecords + 1;
+        Assert.assertEquals(expected, recovered.size());
+
+        List<SpilledPut> spilledPuts = recovered.poll(100);
+        Assert.assertEquals(expected, spilledPuts.size());
+        assertPut(0, spilledPuts.get(0));
+        for (int i = 1; i < expected; i++) {
+            assertPut(firstSegmentRecords + i - 1, spilledPuts.get(i));
+        }
+        Assert.assertEquals(0, recovered.size());
+        recovered.close();
+    }
+
+    private File[] segmentFiles(File directory) {
+        File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(".journal");
+            }
+        });
+        Arrays.sort(files);
+        return files;
+    }
+
+    private int recordPosition(File segment, int index) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(segment, "r");
+        try {
+            int position = 0;
+            for (int i = 0; i < index; i++) {
+                file.seek(position);
+                position += 4 + file.readInt();
+            }
+            return position;
+        } finally {
+            file.close();
+        }
+    }
+
+    private int recordCount(File segment) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(segment, "r");
+        try {
+            int count = 0;
+            int position = 0;
+            while (position + 4 <= file.length()) {
+                file.seek(position);
+                int length = file.readInt();
+                if (length <= 0) {
+                    break;
+                }
+                position += 4 + length;
+                count++;
+            }
+            return count;
+        } finally {
+            file.close();
+        }
+    }
+
+    private void corruptLength(File segment, int position, int length) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        try {
+            file.seek(position);
+            file.writeInt(length);
+        } finally {
+            file.close();
+        }
+    }
+}
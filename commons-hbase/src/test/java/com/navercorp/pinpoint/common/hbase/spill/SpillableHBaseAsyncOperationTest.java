@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.hbase.spill;
+
+import com.navercorp.pinpoint.common.hbase.HBaseAsyncOperation;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SpillableHBaseAsyncOperationTest {
+
+    private static final TableName TABLE_NAME = TableName.valueOf("TraceV2");
+    private static final byte[] FAMILY = Bytes.toBytes("S");
+
+    // replay is called directly by the test
+    private static final long REPLAY_INTERVAL = 60 * 60 * 1000L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Put newPut(int index) {
+        Put put = new Put(Bytes.toBytes("row" + index), 100L);
+        put.addColumn(FAMILY, Bytes.toBytes("q" + index), 100L, Bytes.toBytes("value" + index));
+        return put;
+    }
+
+    @Test
+    public void spillAndReplayAfterReopen() throws Exception {
+        final File directory = temporaryFolder.newFolder();
+
+        HBaseAsyncOperation rejectingDelegate = mock(HBaseAsyncOperation.class);
+        when(rejectingDelegate.put(any(TableName.class), any(Put.class))).thenReturn(false);
+
+        SpillableHBaseAsyncOperation operation = new SpillableHBaseAsyncOperation(rejectingDelegate, new SpillJournal(directory, 1024 * 1024, 2), 100, 0, REPLAY_INTERVAL);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(operation.put(TABLE_NAME, newPut(i)));
+        }
+        Assert.assertEquals(5, operation.getSpilledCount());
+        Assert.assertEquals(Long.valueOf(5), operation.getCurrentSpilledCount());
+        operation.close();
+
+        HBaseAsyncOperation delegate = mock(HBaseAsyncOperation.class);
+        when(delegate.getCurrentOpsCount()).thenReturn(0L);
+        when(delegate.put(eq(TABLE_NAME), anyList())).thenReturn(Collections.<Put>emptyList());
+
+        SpillableHBaseAsyncOperation reopened = new SpillableHBaseAsyncOperation(delegate, new SpillJournal(directory, 1024 * 1024, 2), 100, 0, REPLAY_INTERVAL);
+        Assert.assertEquals(Long.valueOf(5), reopened.getCurrentSpilledCount());
+
+        reopened.replay();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Put>> captor = ArgumentCaptor.forClass(List.class);
+        verify(delegate).put(eq(TABLE_NAME), captor.capture());
+        List<Put> replayed = captor.getValue();
+        Assert.assertEquals(5, replayed.size());
+        for (int i = 0; i < 5; i++) {
+            Assert.assertArrayEquals(Bytes.toBytes("row" + i), replayed.get(i).getRow());
+        }
+        Assert.assertEquals(5, reopened.getReplayedCount());
+        Assert.assertEquals(Long.valueOf(0), reopened.getCurrentSpilledCount());
+        reopened.close();
+    }
+
+    @Test
+    public void replayWaitsForDrainedBuffer() throws Exception {
+        HBaseAsyncOperation delegate = mock(HBaseAsyncOperation.class);
+        when(delegate.put(any(TableName.class), any(Put.class))).thenReturn(false);
+        when(delegate.getCurrentOpsCount()).thenReturn(10L);
+
+        SpillableHBaseAsyncOperation operation = new SpillableHBaseAsyncOperation(delegate, new SpillJournal(temporaryFolder.newFolder(), 1024 * 1024, 2), 100, 5, REPLAY_INTERVAL);
+        Assert.assertTrue(operation.put(TABLE_NAME, newPut(0)));
+
+        operation.replay();
+
+        verify(delegate, never()).put(eq(TABLE_NAME), anyList());
+        Assert.assertEquals(Long.valueOf(1), operation.getCurrentSpilledCount());
+        operation.close();
+    }
+
+    @Test
+    public void rejectedReplayIsSpilledAgain() throws Exception {
+        HBaseAsyncOperation delegate = mock(HBaseAsyncOperation.class);
+        when(delegate.put(any(TableName.class), any(Put.class))).thenReturn(false);
+        when(delegate.getCurrentOpsCount()).thenReturn(0L);
+
+        SpillableHBaseAsyncOperation operation = new SpillableHBaseAsyncOperation(delegate, new SpillJournal(temporaryFolder.newFolder(), 1024 * 1024, 2), 100, 0, REPLAY_INTERVAL);
+        Assert.assertTrue(operation.put(TABLE_NAME, newPut(0)));
+        Assert.assertTrue(operation.put(TABLE_NAME, newPut(1)));
+
+        final Put rejected = newPut(1);
+        when(delegate.put(eq(TABLE_NAME), anyList())).thenReturn(Collections.singletonList(rejected));
+
+        operation.replay();
+
+        Assert.assertEquals(1, operation.getReplayedCount());
+        Assert.assertEquals(Long.valueOf(1), operation.getCurrentSpilledCount());
+        operation.close();
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.util.AnnotationTranscoder;
+import com.navercorp.pinpoint.common.util.SpanEventColumnEncoder;
+import com.navercorp.pinpoint.thrift.dto.TAnnotationValue;
+import org.apache.thrift.TDeserializer;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TCompactProtocol;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.navercorp.pinpoint.common.util.SpanEventColumnEncoder.*;
+
+/**
+ * Decodes span events written by {@link SpanEventColumnEncoder} straight into {@link SpanEventBo}.
+ */
+public class SpanEventColumnDecoder {
+
+    private static final TCompactProtocol.Factory PROTOCOL_FACTORY = new TCompactProtocol.Factory();
+
+    private final AnnotationTranscoder transcoder = new AnnotationTranscoder();
+
+    public List<SpanEventBo> decode(byte[] columns) {
+        if (columns == null) {
+            throw new NullPointerException("columns must not be null");
+        }
+        final Buffer buffer = new FixedBuffer(columns);
+        final byte version = buffer.readByte();
+        if (version != SpanEventColumnEncoder.VERSION) {
+            throw new IllegalStateException("unsupported span event column version:" + version);
+        }
+        final int size = buffer.readVInt();
+
+        final String[] strings = new String[buffer.readVInt() + 1];
+        for (int i = 1; i < strings.length; i++) {
+            strings[i] = buffer.readPrefixedString();
+        }
+        final int annotationSize = buffer.readVInt();
+        final int[] annotationKeys = new int[annotationSize + 1];
+        final Object[] annotationValues = new Object[annotationSize + 1];
+        for (int i = 1; i <= annotationSize; i++) {
+            annotationKeys[i] = buffer.readSVInt();
+            final byte typeCode = buffer.readByte();
+            final byte[] value = buffer.readPrefixedBytes();
+            annotationValues[i] = decodeAnnotationValue(typeCode, value);
+        }
+
+        final int[] flags = new int[size];
+        for (int i = 0; i < size; i++) {
+            flags[i] = buffer.readVInt();
+        }
+
+        final List<SpanEventBo> spanEventBoList = new ArrayList<SpanEventBo>(size);
+        short sequence = 0;
+        for (int i = 0; i < size; i++) {
+            final SpanEventBo spanEventBo = new SpanEventBo();
+            sequence += buffer.readSVInt();
+            spanEventBo.setSequence(sequence);
+            spanEventBoList.add(spanEventBo);
+        }
+        for (SpanEventBo spanEventBo : spanEventBoList) {
+            spanEventBo.setStartElapsed(buffer.readSVInt());
+        }
+        for (SpanEventBo spanEventBo : spanEventBoList) {
+            spanEventBo.setServiceType((short) buffer.readSVInt());
+        }
+
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_END_ELAPSED) != 0) {
+                spanEventBoList.get(i).setEndElapsed(buffer.readSVInt());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_RPC) != 0) {
+                spanEventBoList.get(i).setRpc(strings[buffer.readVInt()]);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_END_POINT) != 0) {
+                spanEventBoList.get(i).setEndPoint(strings[buffer.readVInt()]);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_DESTINATION_ID) != 0) {
+                spanEventBoList.get(i).setDestinationId(strings[buffer.readVInt()]);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_DEPTH) != 0) {
+                spanEventBoList.get(i).setDepth(buffer.readSVInt());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_NEXT_SPAN_ID) != 0) {
+                spanEventBoList.get(i).setNextSpanId(buffer.readLong());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_API_ID) != 0) {
+                spanEventBoList.get(i).setApiId(buffer.readSVInt());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_EXCEPTION_INFO) != 0) {
+                final int exceptionId = buffer.readSVInt();
+                final String exceptionMessage = strings[buffer.readVInt()];
+                spanEventBoList.get(i).setExceptionInfo(exceptionId, exceptionMessage);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_ASYNC_ID) != 0) {
+                spanEventBoList.get(i).setAsyncId(buffer.readSVInt());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_NEXT_ASYNC_ID) != 0) {
+                spanEventBoList.get(i).setNextAsyncId(buffer.readSVInt());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_ASYNC_SEQUENCE) != 0) {
+                spanEventBoList.get(i).setAsyncSequence((short) buffer.readSVInt());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            final List<AnnotationBo> annotationBoList;
+            if ((flags[i] & FLAG_ANNOTATIONS) != 0) {
+                final int annotationCount = buffer.readVInt();
+                annotationBoList = new ArrayList<AnnotationBo>(annotationCount);
+                for (int j = 0; j < annotationCount; j++) {
+                    final int index = buffer.readVInt();
+                    final AnnotationBo annotationBo = new AnnotationBo();
+                    annotationBo.setKey(annotationKeys[index]);
+                    annotationBo.setValue(annotationValues[index]);
+                    annotationBoList.add(annotationBo);
+                }
+                Collections.sort(annotationBoList, AnnotationComparator.INSTANCE);
+            } else {
+                annotationBoList = new ArrayList<AnnotationBo>();
+            }
+            spanEventBoList.get(i).setAnnotationBoList(annotationBoList);
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_SPAN_ID) != 0) {
+                // deprecated field, skip
+                buffer.readLong();
+            }
+        }
+        return spanEventBoList;
+    }
+
+    private Object decodeAnnotationValue(byte typeCode, byte[] value) {
+        if (typeCode != CODE_THRIFT) {
+            return transcoder.decode(typeCode, value);
+        }
+        final TAnnotationValue annotationValue = new TAnnotationValue();
+        try {
+            new TDeserializer(PROTOCOL_FACTORY).deserialize(annotationValue, value);
+        } catch (TException e) {
+            throw new IllegalStateException("annotation value deserialize fail", e);
+        }
+        return annotationValue.getFieldValue();
+    }
+}
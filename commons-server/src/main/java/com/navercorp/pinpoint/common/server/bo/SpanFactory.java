@@ -35,6 +35,8 @@ public class SpanFactory {
 
     private static final AnnotationTranscoder transcoder = new AnnotationTranscoder();
 
+    private final SpanEventColumnDecoder spanEventColumnDecoder = new SpanEventColumnDecoder();
+
     public SpanFactory() {
     }
 
@@ -52,8 +54,12 @@ public class SpanFactory {
 
         final SpanBo spanBo = newSpanBo(tSpan);
 
-        List<TSpanEvent> spanEventList = tSpan.getSpanEventList();
-        List<SpanEventBo> spanEventBoList = buildSpanEventBoList(spanEventList);
+        final List<SpanEventBo> spanEventBoList;
+        if (tSpan.isSetSpanEventColumns()) {
+            spanEventBoList = buildSpanEventBoList(tSpan.getSpanEventColumns());
+        } else {
+            spanEventBoList = buildSpanEventBoList(tSpan.getSpanEventList());
+        }
         spanBo.addSpanEventBoList(spanEventBoList);
 
         long acceptedTime = acceptedTimeService.getAcceptedTime();
@@ -167,8 +173,12 @@ public class SpanFactory {
     public SpanChunkBo buildSpanChunkBo(TSpanChunk tSpanChunk) {
         final SpanChunkBo spanChunkBo = newSpanChunkBo(tSpanChunk);
 
-        List<TSpanEvent> spanEventList = tSpanChunk.getSpanEventList();
-        List<SpanEventBo> spanEventBoList = buildSpanEventBoList(spanEventList);
+        final List<SpanEventBo> spanEventBoList;
+        if (tSpanChunk.isSetSpanEventColumns()) {
+            spanEventBoList = buildSpanEventBoList(tSpanChunk.getSpanEventColumns());
+        } else {
+            spanEventBoList = buildSpanEventBoList(tSpanChunk.getSpanEventList());
+        }
         spanChunkBo.addSpanEventBoList(spanEventBoList);
 
 
@@ -228,6 +238,20 @@ public class SpanFactory {
         return spanEventBoList;
     }
 
+    private List<SpanEventBo> buildSpanEventBoList(byte[] spanEventColumns) {
+        final List<SpanEventBo> decodedList = spanEventColumnDecoder.decode(spanEventColumns);
+        final List<SpanEventBo> spanEventBoList = new ArrayList<SpanEventBo>(decodedList.size());
+        for (SpanEventBo spanEventBo : decodedList) {
+            if (!spanEventFilter.filter(spanEventBo)) {
+                continue;
+            }
+            spanEventBoList.add(spanEventBo);
+        }
+
+        Collections.sort(spanEventBoList, SpanEventComparator.INSTANCE);
+        return spanEventBoList;
+    }
+
     private List<AnnotationBo> buildAnnotationList(List<TAnnotation> tAnnotationList) {
         if (tAnnotationList == null) {
             return new ArrayList<AnnotationBo>();
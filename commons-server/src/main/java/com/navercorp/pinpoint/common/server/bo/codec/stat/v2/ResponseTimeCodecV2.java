@@ -31,6 +31,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -74,6 +75,8 @@ public class ResponseTimeCodecV2 extends AgentStatCodecV2<ResponseTimeBo> {
         private final AgentStatDataPointCodec codec;
         private final UnsignedLongEncodingStrategy.Analyzer.Builder avgAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         private final UnsignedLongEncodingStrategy.Analyzer.Builder maxAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
+        private final List<byte[]> histograms = new ArrayList<>();
+        private boolean hasHistogram = false;
 
         public ResponseTimeCodecEncoder(AgentStatDataPointCodec codec) {
             Assert.notNull(codec, "codec must not be null");
@@ -84,6 +87,11 @@ public class ResponseTimeCodecV2 extends AgentStatCodecV2<ResponseTimeBo> {
         public void addValue(ResponseTimeBo agentStatDataPoint) {
             avgAnalyzerBuilder.addValue(agentStatDataPoint.getAvg());
             maxAnalyzerBuilder.addValue(agentStatDataPoint.getMax());
+            final byte[] histogram = agentStatDataPoint.getHistogram();
+            histograms.add(histogram);
+            if (histogram != null) {
+                hasHistogram = true;
+            }
         }
 
         @Override
@@ -101,6 +109,12 @@ public class ResponseTimeCodecV2 extends AgentStatCodecV2<ResponseTimeBo> {
             // encode values
             codec.encodeValues(valueBuffer, avgStrategyAnalyzer.getBestStrategy(), avgStrategyAnalyzer.getValues());
             codec.encodeValues(valueBuffer, maxStrategyAnalyzer.getBestStrategy(), maxStrategyAnalyzer.getValues());
+            // appended last so that older decoders can skip it
+            if (hasHistogram) {
+                for (byte[] histogram : histograms) {
+                    valueBuffer.putPrefixedBytes(histogram);
+                }
+            }
         }
 
     }
@@ -110,6 +124,7 @@ public class ResponseTimeCodecV2 extends AgentStatCodecV2<ResponseTimeBo> {
         private final AgentStatDataPointCodec codec;
         private List<Long> avgs;
         private List<Long> maxs;
+        private List<byte[]> histograms;
 
         public ResponseTimeCodecDecoder(AgentStatDataPointCodec codec) {
             Assert.notNull(codec, "codec must not be null");
@@ -125,6 +140,12 @@ public class ResponseTimeCodecV2 extends AgentStatCodecV2<ResponseTimeBo> {
             if (valueBuffer.hasRemaining()) {
                 this.maxs = codec.decodeValues(valueBuffer, maxEncodingStrategy, valueSize);
             }
+            if (valueBuffer.hasRemaining()) {
+                this.histograms = new ArrayList<>(valueSize);
+                for (int i = 0; i < valueSize; i++) {
+                    this.histograms.add(valueBuffer.readPrefixedBytes());
+                }
+            }
         }
 
         @Override
@@ -134,6 +155,9 @@ public class ResponseTimeCodecV2 extends AgentStatCodecV2<ResponseTimeBo> {
             if (maxs != null) {
                 responseTimeBo.setMax(maxs.get(index));
             }
+            if (histograms != null) {
+                responseTimeBo.setHistogram(histograms.get(index));
+            }
             return responseTimeBo;
         }
 
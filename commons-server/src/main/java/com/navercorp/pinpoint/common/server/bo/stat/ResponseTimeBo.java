@@ -16,6 +16,8 @@
 
 package com.navercorp.pinpoint.common.server.bo.stat;
 
+import java.util.Arrays;
+
 /**
  * @author Taejin Koo
  */
@@ -28,6 +30,8 @@ public class ResponseTimeBo implements AgentStatDataPoint {
     private long timestamp;
     private long avg = 0;
     private long max = 0;
+    // encoded LogBucketHistogram, null if not sent by the agent
+    private byte[] histogram;
 
     @Override
     public String getAgentId() {
@@ -80,6 +84,14 @@ public class ResponseTimeBo implements AgentStatDataPoint {
         this.max = max;
     }
 
+    public byte[] getHistogram() {
+        return histogram;
+    }
+
+    public void setHistogram(byte[] histogram) {
+        this.histogram = histogram;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -91,6 +103,7 @@ public class ResponseTimeBo implements AgentStatDataPoint {
         if (timestamp != that.timestamp) return false;
         if (avg != that.avg) return false;
         if (max != that.max) return false;
+        if (!Arrays.equals(histogram, that.histogram)) return false;
         return agentId != null ? agentId.equals(that.agentId) : that.agentId == null;
 
     }
@@ -102,6 +115,7 @@ public class ResponseTimeBo implements AgentStatDataPoint {
         result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
         result = 31 * result + (int) (avg ^ (avg >>> 32));
         result = 31 * result + (int) (max ^ (max >>> 32));
+        result = 31 * result + Arrays.hashCode(histogram);
         return result;
     }
 
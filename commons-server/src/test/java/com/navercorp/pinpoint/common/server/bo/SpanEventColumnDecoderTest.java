@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo;
+
+import com.google.common.collect.Lists;
+import com.navercorp.pinpoint.common.util.SpanEventColumnEncoder;
+import com.navercorp.pinpoint.thrift.dto.TAnnotation;
+import com.navercorp.pinpoint.thrift.dto.TAnnotationValue;
+import com.navercorp.pinpoint.thrift.dto.TIntStringValue;
+import com.navercorp.pinpoint.thrift.dto.TSpan;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SpanEventColumnDecoderTest {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final SpanEventColumnEncoder encoder = new SpanEventColumnEncoder();
+    private final SpanEventColumnDecoder decoder = new SpanEventColumnDecoder();
+
+    private final RandomTSpan random = new RandomTSpan();
+    private final SpanFactoryAssert spanFactoryAssert = new SpanFactoryAssert();
+
+    @Test
+    public void encodeDecode() {
+        List<TSpanEvent> spanEventList = new ArrayList<TSpanEvent>();
+        for (int i = 0; i < 20; i++) {
+            spanEventList.add(random.randomTSpanEvent((short) i));
+        }
+
+        List<SpanEventBo> spanEventBoList = decoder.decode(encoder.encode(spanEventList));
+
+        Assert.assertEquals(spanEventList.size(), spanEventBoList.size());
+        for (int i = 0; i < spanEventList.size(); i++) {
+            spanFactoryAssert.assertSpanEvent(spanEventList.get(i), spanEventBoList.get(i));
+        }
+    }
+
+    @Test
+    public void unsetFields() {
+        TSpanEvent spanEvent = new TSpanEvent();
+        spanEvent.setSequence((short) 3);
+        spanEvent.setStartElapsed(10);
+        spanEvent.setServiceType((short) 1010);
+
+        List<SpanEventBo> spanEventBoList = decoder.decode(encoder.encode(Lists.newArrayList(spanEvent)));
+
+        SpanEventBo spanEventBo = spanEventBoList.get(0);
+        Assert.assertEquals(3, spanEventBo.getSequence());
+        Assert.assertEquals(10, spanEventBo.getStartElapsed());
+        Assert.assertEquals(1010, spanEventBo.getServiceType());
+        Assert.assertNull(spanEventBo.getRpc());
+        Assert.assertFalse(spanEventBo.hasException());
+        Assert.assertEquals(-1, spanEventBo.getAsyncId());
+        Assert.assertEquals(-1, spanEventBo.getDepth());
+        Assert.assertEquals(-1, spanEventBo.getNextSpanId());
+        Assert.assertTrue(spanEventBo.getAnnotationBoList().isEmpty());
+    }
+
+    @Test
+    public void annotationValue() {
+        TSpanEvent spanEvent = random.randomTSpanEvent((short) 0);
+        List<TAnnotation> annotations = new ArrayList<TAnnotation>();
+        annotations.add(newAnnotation(1, TAnnotationValue.intValue(-5)));
+        annotations.add(newAnnotation(2, TAnnotationValue.longValue(Long.MAX_VALUE)));
+        annotations.add(newAnnotation(3, TAnnotationValue.boolValue(false)));
+        annotations.add(newAnnotation(4, TAnnotationValue.binaryValue(new byte[]{1, 2, 3})));
+        annotations.add(newAnnotation(5, TAnnotationValue.intStringValue(new TIntStringValue(7))));
+        annotations.add(newAnnotation(6, TAnnotationValue.doubleValue(1.5)));
+        annotations.add(new TAnnotation(7));
+        spanEvent.setAnnotations(annotations);
+
+        SpanEventBo spanEventBo = decoder.decode(encoder.encode(Lists.newArrayList(spanEvent))).get(0);
+
+        List<AnnotationBo> annotationBoList = spanEventBo.getAnnotationBoList();
+        Assert.assertEquals(annotations.size(), annotationBoList.size());
+        Assert.assertEquals(-5, annotationBoList.get(0).getValue());
+        Assert.assertEquals(Long.MAX_VALUE, annotationBoList.get(1).getValue());
+        Assert.assertEquals(Boolean.FALSE, annotationBoList.get(2).getValue());
+        Assert.assertEquals(ByteBuffer.wrap(new byte[]{1, 2, 3}), annotationBoList.get(3).getValue());
+        Assert.assertEquals(new TIntStringValue(7), annotationBoList.get(4).getValue());
+        Assert.assertEquals(1.5, annotationBoList.get(5).getValue());
+        Assert.assertNull(annotationBoList.get(6).getValue());
+    }
+
+    @Test
+    public void buildSpanBo() {
+        SpanFactory spanFactory = new SpanFactory();
+        TSpan tSpan = random.randomTSpan();
+        TSpanEvent tSpanEvent1 = random.randomTSpanEvent((short) 0);
+        TSpanEvent tSpanEvent2 = random.randomTSpanEvent((short) 1);
+        TSpanEvent tSpanEvent3 = random.randomTSpanEvent((short) 5);
+        TSpanEvent tSpanEvent4 = random.randomTSpanEvent((short) 2);
+        tSpan.setSpanEventColumns(encoder.encode(Lists.newArrayList(tSpanEvent1, tSpanEvent2, tSpanEvent3, tSpanEvent4)));
+
+        SpanBo spanBo = spanFactory.buildSpanBo(tSpan);
+
+        List<SpanEventBo> spanEventBoList = spanBo.getSpanEventBoList();
+        Assert.assertEquals(4, spanEventBoList.size());
+        spanFactoryAssert.assertSpanEvent(tSpanEvent1, spanEventBoList.get(0));
+        spanFactoryAssert.assertSpanEvent(tSpanEvent2, spanEventBoList.get(1));
+        spanFactoryAssert.assertSpanEvent(tSpanEvent4, spanEventBoList.get(2));
+        spanFactoryAssert.assertSpanEvent(tSpanEvent3, spanEventBoList.get(3));
+    }
+
+    @Test
+    public void encodedSize() throws Exception {
+        List<TSpanEvent> spanEventList = new ArrayList<TSpanEvent>();
+        for (int i = 0; i < 100; i++) {
+            TSpanEvent spanEvent = new TSpanEvent((short) i, i % 3, (short) 2101);
+            spanEvent.setEndElapsed(i % 7);
+            spanEvent.setDepth(2);
+            spanEvent.setApiId(100 + i % 5);
+            spanEvent.setEndPoint("localhost:3306");
+            spanEvent.setDestinationId("mysql");
+            spanEvent.addToAnnotations(newAnnotation(20, TAnnotationValue.stringValue("select * from test")));
+            spanEventList.add(spanEvent);
+        }
+        TSpan thriftSpan = new TSpan();
+        thriftSpan.setSpanEventList(spanEventList);
+        TSpan columnSpan = new TSpan();
+        columnSpan.setSpanEventColumns(encoder.encode(spanEventList));
+
+        TSerializer serializer = new TSerializer(new TCompactProtocol.Factory());
+        int thriftSize = serializer.serialize(thriftSpan).length;
+        int columnSize = serializer.serialize(columnSpan).length;
+        logger.debug("span event list thrift:{} column:{}", thriftSize, columnSize);
+
+        Assert.assertTrue(columnSize < thriftSize);
+    }
+
+    private TAnnotation newAnnotation(int key, TAnnotationValue value) {
+        TAnnotation annotation = new TAnnotation(key);
+        annotation.setValue(value);
+        return annotation;
+    }
+}
@@ -27,6 +27,7 @@ import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcDetailedBo;
 import com.navercorp.pinpoint.common.server.bo.stat.ResponseTimeBo;
 import com.navercorp.pinpoint.common.server.bo.stat.TransactionBo;
+import com.navercorp.pinpoint.common.trace.LogBucketHistogram;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import org.apache.commons.lang3.RandomUtils;
 
@@ -280,11 +281,21 @@ public class TestAgentStatFactory {
             responseTimeBo.setStartTimestamp(startTimestamps.get(i));
             responseTimeBo.setTimestamp(timestamps.get(i));
             responseTimeBo.setAvg(avgs.get(i));
+            if (i % 2 == 0) {
+                responseTimeBo.setHistogram(createResponseTimeHistogram(avgs.get(i)));
+            }
             responseTimeBos.add(responseTimeBo);
         }
         return responseTimeBos;
     }
 
+    private static byte[] createResponseTimeHistogram(long avg) {
+        long[] counts = new long[LogBucketHistogram.BUCKET_COUNT];
+        counts[LogBucketHistogram.bucketIndex(avg)] = RandomUtils.nextInt(1, 100);
+        counts[LogBucketHistogram.bucketIndex(avg * 10)] = RandomUtils.nextInt(1, 10);
+        return LogBucketHistogram.encode(counts);
+    }
+
     public static List<DeadlockBo> createDeadlockBos(String agentId, long startTimestamp, long initialTimestamp) {
         final int numValues = RandomUtils.nextInt(1, MAX_NUM_TEST_VALUES);
         return createDeadlockBos(agentId, startTimestamp, initialTimestamp, numValues);
@@ -54,6 +54,7 @@ public class ResponseTimeCodecV2Test extends AgentStatCodecTestBase<ResponseTime
         Assert.assertEquals("startTimestamp", expected.getStartTimestamp(), actual.getStartTimestamp());
         Assert.assertEquals("timestamp", expected.getTimestamp(), actual.getTimestamp());
         Assert.assertEquals("avg", expected.getAvg(), actual.getAvg());
+        Assert.assertArrayEquals("histogram", expected.getHistogram(), actual.getHistogram());
     }
 
 }
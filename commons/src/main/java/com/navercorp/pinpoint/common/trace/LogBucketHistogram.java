@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.trace;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+
+/**
+ * Log bucketed response time (ms) histogram shared by the agent, collector and web.
+ * Values below 16 have a bucket of their own, every following power of two is split into 16 buckets,
+ * so the value reported for a bucket is at most 1/16 (6.25%) above the recorded value.
+ * Values above {@link #MAX_VALUE} are counted in the last bucket.
+ */
+public final class LogBucketHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    public static final long MAX_VALUE = Integer.MAX_VALUE;
+
+    public static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+
+    private static final byte VERSION = 0;
+
+    private LogBucketHistogram() {
+    }
+
+    public static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return value < 0 ? 0 : (int) value;
+        }
+        if (value > MAX_VALUE) {
+            value = MAX_VALUE;
+        }
+        final int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    public static long lowestValue(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+        final int shift = bucketIndex / SUB_BUCKET_COUNT - 1;
+        final long subBucket = SUB_BUCKET_COUNT + bucketIndex % SUB_BUCKET_COUNT;
+        return subBucket << shift;
+    }
+
+    public static long highestValue(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+        final int shift = bucketIndex / SUB_BUCKET_COUNT - 1;
+        return lowestValue(bucketIndex) + (1L << shift) - 1;
+    }
+
+    /**
+     * @return highest value of the bucket containing the given percentile, -1 if counts is empty
+     */
+    public static long percentile(long[] counts, double percentile) {
+        if (counts == null) {
+            return -1;
+        }
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return -1;
+        }
+        final double ratio = Math.min(Math.max(percentile, 0.0), 100.0) / 100.0;
+        final long rank = Math.max(1, (long) Math.ceil(ratio * total));
+        long accumulated = 0;
+        for (int i = 0; i < counts.length; i++) {
+            accumulated += counts[i];
+            if (accumulated >= rank) {
+                return highestValue(i);
+            }
+        }
+        return highestValue(counts.length - 1);
+    }
+
+    public static void merge(long[] to, long[] from) {
+        if (to == null) {
+            throw new NullPointerException("to must not be null");
+        }
+        if (from == null) {
+            return;
+        }
+        final int length = Math.min(to.length, from.length);
+        for (int i = 0; i < length; i++) {
+            to[i] += from[i];
+        }
+    }
+
+    /**
+     * sparse encoding : version, number of non empty buckets, (bucket index delta, count)*
+     */
+    public static byte[] encode(long[] counts) {
+        if (counts == null) {
+            throw new NullPointerException("counts must not be null");
+        }
+        int nonEmpty = 0;
+        for (long count : counts) {
+            if (count != 0) {
+                nonEmpty++;
+            }
+        }
+        final Buffer buffer = new AutomaticBuffer(2 + nonEmpty * 3);
+        buffer.putByte(VERSION);
+        buffer.putVInt(nonEmpty);
+        int previous = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                buffer.putVInt(i - previous);
+                buffer.putVLong(counts[i]);
+                previous = i;
+            }
+        }
+        return buffer.getBuffer();
+    }
+
+    public static long[] decode(byte[] bytes) {
+        if (bytes == null) {
+            throw new NullPointerException("bytes must not be null");
+        }
+        final Buffer buffer = new FixedBuffer(bytes);
+        final byte version = buffer.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unknown version:" + version);
+        }
+        final long[] counts = new long[BUCKET_COUNT];
+        final int nonEmpty = buffer.readVInt();
+        int index = 0;
+        for (int i = 0; i < nonEmpty; i++) {
+            index += buffer.readVInt();
+            final long count = buffer.readVLong();
+            if (index < BUCKET_COUNT) {
+                counts[index] += count;
+            }
+        }
+        return counts;
+    }
+}
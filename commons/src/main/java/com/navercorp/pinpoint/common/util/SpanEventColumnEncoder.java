@@ -0,0 +1,351 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.util;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.thrift.dto.TAnnotation;
+import com.navercorp.pinpoint.thrift.dto.TAnnotationValue;
+import com.navercorp.pinpoint.thrift.dto.TIntStringValue;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TCompactProtocol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes a span event list column by column instead of event by event.
+ * <pre>
+ * byte    version
+ * vint    event count
+ * vint    string dictionary size, prefixed strings          (rpc, endPoint, destinationId, exception message)
+ * vint    annotation dictionary size, (svint key, byte type, prefixed bytes)
+ * vint[]  presence flags of the optional fields
+ * svint[] sequence, delta of the previous event
+ * svint[] startElapsed
+ * svint[] serviceType
+ * columns of the optional fields, present values only, in FLAG order
+ * </pre>
+ * Strings are written as dictionary index + 1, 0 for null.
+ * Annotations are written as a count followed by annotation dictionary indexes.
+ * The encoder keeps no state, one instance can be shared between threads.
+ */
+public class SpanEventColumnEncoder {
+
+    public static final byte VERSION = 1;
+
+    public static final int FLAG_END_ELAPSED = 1;
+    public static final int FLAG_RPC = 1 << 1;
+    public static final int FLAG_END_POINT = 1 << 2;
+    public static final int FLAG_DESTINATION_ID = 1 << 3;
+    public static final int FLAG_DEPTH = 1 << 4;
+    public static final int FLAG_NEXT_SPAN_ID = 1 << 5;
+    public static final int FLAG_API_ID = 1 << 6;
+    public static final int FLAG_EXCEPTION_INFO = 1 << 7;
+    public static final int FLAG_ASYNC_ID = 1 << 8;
+    public static final int FLAG_NEXT_ASYNC_ID = 1 << 9;
+    public static final int FLAG_ASYNC_SEQUENCE = 1 << 10;
+    public static final int FLAG_ANNOTATIONS = 1 << 11;
+    public static final int FLAG_SPAN_ID = 1 << 12;
+
+    /**
+     * annotation value serialized as a {@link TAnnotationValue} with {@link TCompactProtocol}.
+     * used for values that {@link AnnotationTranscoder} does not give back as the same type. (binary, thrift struct)
+     */
+    public static final byte CODE_THRIFT = -1;
+
+    private static final TCompactProtocol.Factory PROTOCOL_FACTORY = new TCompactProtocol.Factory();
+
+    private final AnnotationTranscoder transcoder = new AnnotationTranscoder();
+
+    public byte[] encode(List<? extends TSpanEvent> spanEventList) {
+        if (spanEventList == null) {
+            throw new NullPointerException("spanEventList must not be null");
+        }
+        final int size = spanEventList.size();
+
+        final Dictionary<String> stringDictionary = new Dictionary<String>();
+        final Dictionary<AnnotationEntry> annotationDictionary = new Dictionary<AnnotationEntry>();
+        final int[] flags = new int[size];
+        final int[][] annotationIndex = new int[size][];
+        for (int i = 0; i < size; i++) {
+            final TSpanEvent spanEvent = spanEventList.get(i);
+            flags[i] = flags(spanEvent);
+            if (spanEvent.isSetRpc()) {
+                stringDictionary.add(spanEvent.getRpc());
+            }
+            if (spanEvent.isSetEndPoint()) {
+                stringDictionary.add(spanEvent.getEndPoint());
+            }
+            if (spanEvent.isSetDestinationId()) {
+                stringDictionary.add(spanEvent.getDestinationId());
+            }
+            if (spanEvent.isSetExceptionInfo()) {
+                stringDictionary.add(spanEvent.getExceptionInfo().getStringValue());
+            }
+            if (spanEvent.isSetAnnotations()) {
+                final List<TAnnotation> annotationList = spanEvent.getAnnotations();
+                final int[] indexes = new int[annotationList.size()];
+                for (int j = 0; j < indexes.length; j++) {
+                    indexes[j] = annotationDictionary.add(newAnnotationEntry(annotationList.get(j)));
+                }
+                annotationIndex[i] = indexes;
+            }
+        }
+
+        final Buffer buffer = new AutomaticBuffer(64 + size * 16);
+        buffer.putByte(VERSION);
+        buffer.putVInt(size);
+
+        final List<String> strings = stringDictionary.values();
+        buffer.putVInt(strings.size());
+        for (String string : strings) {
+            buffer.putPrefixedString(string);
+        }
+        final List<AnnotationEntry> annotations = annotationDictionary.values();
+        buffer.putVInt(annotations.size());
+        for (AnnotationEntry annotation : annotations) {
+            buffer.putSVInt(annotation.key);
+            buffer.putByte(annotation.typeCode);
+            buffer.putPrefixedBytes(annotation.value);
+        }
+
+        for (int flag : flags) {
+            buffer.putVInt(flag);
+        }
+        short prevSequence = 0;
+        for (TSpanEvent spanEvent : spanEventList) {
+            buffer.putSVInt(spanEvent.getSequence() - prevSequence);
+            prevSequence = spanEvent.getSequence();
+        }
+        for (TSpanEvent spanEvent : spanEventList) {
+            buffer.putSVInt(spanEvent.getStartElapsed());
+        }
+        for (TSpanEvent spanEvent : spanEventList) {
+            buffer.putSVInt(spanEvent.getServiceType());
+        }
+
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_END_ELAPSED) != 0) {
+                buffer.putSVInt(spanEventList.get(i).getEndElapsed());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_RPC) != 0) {
+                buffer.putVInt(stringDictionary.indexOf(spanEventList.get(i).getRpc()));
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_END_POINT) != 0) {
+                buffer.putVInt(stringDictionary.indexOf(spanEventList.get(i).getEndPoint()));
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_DESTINATION_ID) != 0) {
+                buffer.putVInt(stringDictionary.indexOf(spanEventList.get(i).getDestinationId()));
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_DEPTH) != 0) {
+                buffer.putSVInt(spanEventList.get(i).getDepth());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_NEXT_SPAN_ID) != 0) {
+                buffer.putLong(spanEventList.get(i).getNextSpanId());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_API_ID) != 0) {
+                buffer.putSVInt(spanEventList.get(i).getApiId());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_EXCEPTION_INFO) != 0) {
+                final TIntStringValue exceptionInfo = spanEventList.get(i).getExceptionInfo();
+                buffer.putSVInt(exceptionInfo.getIntValue());
+                buffer.putVInt(stringDictionary.indexOf(exceptionInfo.getStringValue()));
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_ASYNC_ID) != 0) {
+                buffer.putSVInt(spanEventList.get(i).getAsyncId());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_NEXT_ASYNC_ID) != 0) {
+                buffer.putSVInt(spanEventList.get(i).getNextAsyncId());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_ASYNC_SEQUENCE) != 0) {
+                buffer.putSVInt(spanEventList.get(i).getAsyncSequence());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_ANNOTATIONS) != 0) {
+                final int[] indexes = annotationIndex[i];
+                buffer.putVInt(indexes.length);
+                for (int index : indexes) {
+                    buffer.putVInt(index);
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & FLAG_SPAN_ID) != 0) {
+                buffer.putLong(spanEventList.get(i).getSpanId());
+            }
+        }
+        return buffer.getBuffer();
+    }
+
+    private int flags(TSpanEvent spanEvent) {
+        int flags = 0;
+        if (spanEvent.isSetEndElapsed()) {
+            flags |= FLAG_END_ELAPSED;
+        }
+        if (spanEvent.isSetRpc()) {
+            flags |= FLAG_RPC;
+        }
+        if (spanEvent.isSetEndPoint()) {
+            flags |= FLAG_END_POINT;
+        }
+        if (spanEvent.isSetDestinationId()) {
+            flags |= FLAG_DESTINATION_ID;
+        }
+        if (spanEvent.isSetDepth()) {
+            flags |= FLAG_DEPTH;
+        }
+        if (spanEvent.isSetNextSpanId()) {
+            flags |= FLAG_NEXT_SPAN_ID;
+        }
+        if (spanEvent.isSetApiId()) {
+            flags |= FLAG_API_ID;
+        }
+        if (spanEvent.isSetExceptionInfo()) {
+            flags |= FLAG_EXCEPTION_INFO;
+        }
+        if (spanEvent.isSetAsyncId()) {
+            flags |= FLAG_ASYNC_ID;
+        }
+        if (spanEvent.isSetNextAsyncId()) {
+            flags |= FLAG_NEXT_ASYNC_ID;
+        }
+        if (spanEvent.isSetAsyncSequence()) {
+            flags |= FLAG_ASYNC_SEQUENCE;
+        }
+        if (spanEvent.isSetAnnotations()) {
+            flags |= FLAG_ANNOTATIONS;
+        }
+        if (spanEvent.isSetSpanId()) {
+            flags |= FLAG_SPAN_ID;
+        }
+        return flags;
+    }
+
+    private AnnotationEntry newAnnotationEntry(TAnnotation annotation) {
+        final TAnnotationValue annotationValue = annotation.getValue();
+        final Object value = transcoder.getMappingValue(annotation);
+        final byte typeCode = transcoder.getTypeCode(value);
+        switch (typeCode) {
+            case AnnotationTranscoder.CODE_STRING:
+            case AnnotationTranscoder.CODE_NULL:
+            case AnnotationTranscoder.CODE_INT:
+            case AnnotationTranscoder.CODE_LONG:
+            case AnnotationTranscoder.CODE_BOOLEAN_TRUE:
+            case AnnotationTranscoder.CODE_BOOLEAN_FALSE:
+            case AnnotationTranscoder.CODE_BYTE:
+            case AnnotationTranscoder.CODE_SHORT:
+            case AnnotationTranscoder.CODE_DOUBLE:
+                return new AnnotationEntry(annotation.getKey(), typeCode, transcoder.encode(value, typeCode));
+            default:
+                return new AnnotationEntry(annotation.getKey(), CODE_THRIFT, serialize(annotationValue));
+        }
+    }
+
+    private byte[] serialize(TAnnotationValue annotationValue) {
+        final TSerializer serializer = new TSerializer(PROTOCOL_FACTORY);
+        try {
+            return serializer.serialize(annotationValue);
+        } catch (TException e) {
+            throw new IllegalStateException("annotation value serialize fail. value:" + annotationValue, e);
+        }
+    }
+
+    private static class Dictionary<T> {
+        private final Map<T, Integer> index = new HashMap<T, Integer>();
+        private final List<T> values = new ArrayList<T>();
+
+        int add(T value) {
+            if (value == null) {
+                return 0;
+            }
+            final Integer exist = index.get(value);
+            if (exist != null) {
+                return exist;
+            }
+            final int newIndex = values.size() + 1;
+            index.put(value, newIndex);
+            values.add(value);
+            return newIndex;
+        }
+
+        int indexOf(T value) {
+            if (value == null) {
+                return 0;
+            }
+            return index.get(value);
+        }
+
+        List<T> values() {
+            return values;
+        }
+    }
+
+    private static class AnnotationEntry {
+        private final int key;
+        private final byte typeCode;
+        private final byte[] value;
+        private final int hashCode;
+
+        private AnnotationEntry(int key, byte typeCode, byte[] value) {
+            this.key = key;
+            this.typeCode = typeCode;
+            this.value = value;
+            this.hashCode = 31 * (31 * key + typeCode) + Arrays.hashCode(value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof AnnotationEntry)) return false;
+
+            final AnnotationEntry that = (AnnotationEntry) o;
+            return key == that.key && typeCode == that.typeCode && Arrays.equals(value, that.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
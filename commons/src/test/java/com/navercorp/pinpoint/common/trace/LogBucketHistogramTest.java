@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.trace;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LogBucketHistogramTest {
+
+    @Test
+    public void bucketIndex() {
+        for (int i = 0; i < 32; i++) {
+            Assert.assertEquals(i, LogBucketHistogram.bucketIndex(i));
+        }
+        Assert.assertEquals(0, LogBucketHistogram.bucketIndex(-1));
+        Assert.assertEquals(LogBucketHistogram.BUCKET_COUNT - 1, LogBucketHistogram.bucketIndex(LogBucketHistogram.MAX_VALUE));
+        Assert.assertEquals(LogBucketHistogram.BUCKET_COUNT - 1, LogBucketHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void bucketBoundary() {
+        for (int i = 0; i < LogBucketHistogram.BUCKET_COUNT; i++) {
+            final long lowest = LogBucketHistogram.lowestValue(i);
+            final long highest = LogBucketHistogram.highestValue(i);
+            Assert.assertEquals(i, LogBucketHistogram.bucketIndex(lowest));
+            Assert.assertEquals(i, LogBucketHistogram.bucketIndex(highest));
+            if (i + 1 < LogBucketHistogram.BUCKET_COUNT) {
+                Assert.assertEquals(highest + 1, LogBucketHistogram.lowestValue(i + 1));
+            }
+            // relative error at most 1/16
+            Assert.assertTrue(highest - lowest <= lowest / 16);
+        }
+    }
+
+    @Test
+    public void percentile() {
+        long[] counts = new long[LogBucketHistogram.BUCKET_COUNT];
+        for (int i = 1; i <= 100; i++) {
+            counts[LogBucketHistogram.bucketIndex(i)]++;
+        }
+        Assert.assertEquals(LogBucketHistogram.highestValue(LogBucketHistogram.bucketIndex(50)), LogBucketHistogram.percentile(counts, 50));
+        Assert.assertEquals(LogBucketHistogram.highestValue(LogBucketHistogram.bucketIndex(99)), LogBucketHistogram.percentile(counts, 99));
+        Assert.assertEquals(LogBucketHistogram.highestValue(LogBucketHistogram.bucketIndex(100)), LogBucketHistogram.percentile(counts, 100));
+        Assert.assertEquals(1, LogBucketHistogram.percentile(counts, 0));
+
+        Assert.assertEquals(-1, LogBucketHistogram.percentile(new long[LogBucketHistogram.BUCKET_COUNT], 99));
+        Assert.assertEquals(-1, LogBucketHistogram.percentile(null, 99));
+    }
+
+    @Test
+    public void encodeAndDecode() {
+        long[] counts = new long[LogBucketHistogram.BUCKET_COUNT];
+        counts[0] = 3;
+        counts[LogBucketHistogram.bucketIndex(1000)] = 1000000L;
+        counts[LogBucketHistogram.BUCKET_COUNT - 1] = 1;
+
+        byte[] encoded = LogBucketHistogram.encode(counts);
+        Assert.assertTrue(encoded.length < 16);
+        Assert.assertArrayEquals(counts, LogBucketHistogram.decode(encoded));
+
+        long[] empty = new long[LogBucketHistogram.BUCKET_COUNT];
+        Assert.assertArrayEquals(empty, LogBucketHistogram.decode(LogBucketHistogram.encode(empty)));
+    }
+
+    @Test
+    public void merge() {
+        long[] to = new long[LogBucketHistogram.BUCKET_COUNT];
+        long[] from = new long[LogBucketHistogram.BUCKET_COUNT];
+        to[1] = 1;
+        from[1] = 2;
+        from[2] = 3;
+        LogBucketHistogram.merge(to, from);
+        Assert.assertEquals(3, to[1]);
+        Assert.assertEquals(3, to[2]);
+    }
+}
@@ -53,8 +53,11 @@ public class AsyncChildTrace implements Trace {
     private final int asyncId;
     private final short asyncSequence;
 
+    private final SpanEventFactory spanEventFactory;
+
     public AsyncChildTrace(final TraceRoot traceRoot, CallStack callStack, Storage storage, AsyncContextFactory asyncContextFactory, boolean sampling,
-                             SpanRecorder spanRecorder, WrappedSpanEventRecorder wrappedSpanEventRecorder, final int asyncId, final short asyncSequence) {
+                             SpanRecorder spanRecorder, WrappedSpanEventRecorder wrappedSpanEventRecorder, final int asyncId, final short asyncSequence,
+                             SpanEventFactory spanEventFactory) {
 
         this.traceRoot = Assert.requireNonNull(traceRoot, "traceRoot must not be null");
         this.callStack = Assert.requireNonNull(callStack, "callStack must not be null");
@@ -65,6 +68,7 @@ public class AsyncChildTrace implements Trace {
         this.wrappedSpanEventRecorder = Assert.requireNonNull(wrappedSpanEventRecorder, "wrappedSpanEventRecorder must not be null");
         this.asyncId = asyncId;
         this.asyncSequence = asyncSequence;
+        this.spanEventFactory = Assert.requireNonNull(spanEventFactory, "spanEventFactory must not be null");
 
         traceBlockBegin(ASYNC_BEGIN_STACK_ID);
     }
@@ -130,7 +134,7 @@ public class AsyncChildTrace implements Trace {
     }
 
     private SpanEvent newSpanEvent(int stackId) {
-        final SpanEvent spanEvent = new SpanEvent(traceRoot);
+        final SpanEvent spanEvent = spanEventFactory.newSpanEvent(traceRoot);
         spanEvent.markStartTime();
         spanEvent.setStackId(stackId);
         return spanEvent;
@@ -20,6 +20,7 @@ import com.navercorp.pinpoint.bootstrap.context.TraceId;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.common.util.Assert;
 import com.navercorp.pinpoint.common.util.CollectionUtils;
+import com.navercorp.pinpoint.common.util.SpanEventColumnEncoder;
 import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
 import com.navercorp.pinpoint.profiler.context.compress.SpanEventCompressor;
 import com.navercorp.pinpoint.profiler.context.compress.SpanEventCompressorV2;
@@ -43,15 +44,23 @@ public class SpanChunkFactoryV2 implements SpanChunkFactory {
 
     private final SpanEventCompressor<Long> spanEventCompressor = new SpanEventCompressorV2();
 
+    // null : send spanEventList
+    private final SpanEventColumnEncoder spanEventColumnEncoder;
+
 
     public SpanChunkFactoryV2(String applicationName, String agentId, long agentStartTime, ServiceType applicationServiceType, TransactionIdEncoder transactionIdEncoder) {
+        this(applicationName, agentId, agentStartTime, applicationServiceType, transactionIdEncoder, null);
+    }
+
+    public SpanChunkFactoryV2(String applicationName, String agentId, long agentStartTime, ServiceType applicationServiceType, TransactionIdEncoder transactionIdEncoder,
+                              SpanEventColumnEncoder spanEventColumnEncoder) {
 
         this.applicationName = Assert.requireNonNull(applicationName, "applicationName must not be null");
         this.agentId = Assert.requireNonNull(agentId, "agentId must not be null");
         this.agentStartTime = agentStartTime;
         this.applicationServiceType = Assert.requireNonNull(applicationServiceType, "applicationServiceType must not be null");
         this.transactionIdEncoder = Assert.requireNonNull(transactionIdEncoder, "transactionIdEncoder must not be null");
-
+        this.spanEventColumnEncoder = spanEventColumnEncoder;
     }
 
 
@@ -80,6 +89,14 @@ public class SpanChunkFactoryV2 implements SpanChunkFactory {
         spanChunk.setKeyTime(keyTime);
         // TODO change data compression timing to another thread  eg: DataSender thread
         spanEventCompressor.compress(spanEventList, keyTime);
+        if (spanEventColumnEncoder != null) {
+            spanChunk.setSpanEventColumns(spanEventColumnEncoder.encode(spanEventList));
+            spanChunk.unsetSpanEventList();
+            // every value has been copied into the columns
+            for (SpanEvent spanEvent : spanEventList) {
+                spanEvent.recycle();
+            }
+        }
 
         final TraceId traceId = traceRoot.getTraceId();
         final ByteBuffer transactionId = transactionIdEncoder.encodeTransactionId(traceId);
@@ -20,9 +20,12 @@ import com.navercorp.pinpoint.bootstrap.context.FrameAttachment;
 import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
 
 import com.navercorp.pinpoint.common.util.StringUtils;
+import com.navercorp.pinpoint.thrift.dto.TAnnotation;
 import com.navercorp.pinpoint.thrift.dto.TIntStringValue;
 import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
 
+import java.util.List;
+
 /**
  * Span represent RPC
  *
@@ -31,7 +34,7 @@ import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
  */
 public class SpanEvent extends TSpanEvent implements FrameAttachment {
 
-    private final TraceRoot traceRoot;
+    private TraceRoot traceRoot;
     private int stackId;
     private boolean timeRecording = true;
     private Object frameObject;
@@ -40,18 +43,68 @@ public class SpanEvent extends TSpanEvent implements FrameAttachment {
 
     private AsyncId asyncIdObject;
 
+    // only set on pooled instances
+    private final SpanEventPool pool;
+    private List<TAnnotation> recycledAnnotations;
+
     public SpanEvent(TraceRoot traceRoot) {
+        this(traceRoot, null);
+    }
+
+    SpanEvent(TraceRoot traceRoot, SpanEventPool pool) {
+        if (traceRoot == null) {
+            throw new NullPointerException("traceRoot must not be null");
+        }
+        this.traceRoot = traceRoot;
+        this.pool = pool;
+    }
+
+    void reuse(TraceRoot traceRoot) {
         if (traceRoot == null) {
             throw new NullPointerException("traceRoot must not be null");
         }
         this.traceRoot = traceRoot;
     }
 
+    /**
+     * Hands this event back to the pool it was borrowed from. No-op for unpooled events.
+     * Must only be called once the event has been serialized and is no longer referenced.
+     */
+    public void recycle() {
+        if (pool != null) {
+            pool.release(this);
+        }
+    }
+
+    void reset() {
+        final List<TAnnotation> annotations = getAnnotations();
+        clear();
+        // clear() leaves the isset bits of fields with default values untouched
+        setEndElapsedIsSet(false);
+        setDepthIsSet(false);
+        setNextSpanIdIsSet(false);
+        if (annotations != null) {
+            annotations.clear();
+            this.recycledAnnotations = annotations;
+        }
+        this.traceRoot = null;
+        this.stackId = 0;
+        this.timeRecording = true;
+        this.frameObject = null;
+        this.startTime = 0;
+        this.afterTime = 0;
+        this.asyncIdObject = null;
+    }
+
     public TraceRoot getTraceRoot() {
         return traceRoot;
     }
 
     public void addAnnotation(Annotation annotation) {
+        if (this.recycledAnnotations != null && getAnnotations() == null) {
+            setAnnotations(this.recycledAnnotations);
+            this.recycledAnnotations = null;
+        }
         this.addToAnnotations(annotation);
     }
 
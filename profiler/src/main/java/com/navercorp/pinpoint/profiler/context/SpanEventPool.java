@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context;
+
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free pool of {@link SpanEvent}.
+ * Application threads borrow events while tracing, the data sender thread returns them once they have been serialized.
+ * Both sides only probe a few slots; when nothing is found a new event is allocated (or the returned one is dropped),
+ * so the pool never blocks and never grows.
+ */
+public class SpanEventPool implements SpanEventFactory {
+
+    private static final int MAX_PROBE = 16;
+
+    private final AtomicReferenceArray<SpanEvent> slots;
+    private final int mask;
+
+    // racy hints, only used to pick the first slot to probe
+    private volatile int takeIndex;
+    private volatile int putIndex;
+
+    public SpanEventPool(int poolSize) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("poolSize must be positive:" + poolSize);
+        }
+        final int capacity = roundUpToPowerOfTwo(poolSize);
+        this.slots = new AtomicReferenceArray<SpanEvent>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    private static int roundUpToPowerOfTwo(int value) {
+        if (value >= (1 << 30)) {
+            return 1 << 30;
+        }
+        int capacity = 1;
+        while (capacity < value) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    @Override
+    public SpanEvent newSpanEvent(TraceRoot traceRoot) {
+        final int start = takeIndex;
+        final int probe = Math.min(MAX_PROBE, slots.length());
+        for (int i = 0; i < probe; i++) {
+            final int index = (start + i) & mask;
+            final SpanEvent spanEvent = slots.get(index);
+            if (spanEvent != null && slots.compareAndSet(index, spanEvent, null)) {
+                this.takeIndex = index + 1;
+                spanEvent.reuse(traceRoot);
+                return spanEvent;
+            }
+        }
+        return new SpanEvent(traceRoot, this);
+    }
+
+    void release(SpanEvent spanEvent) {
+        spanEvent.reset();
+        final int start = putIndex;
+        final int probe = Math.min(MAX_PROBE, slots.length());
+        for (int i = 0; i < probe; i++) {
+            final int index = (start + i) & mask;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, spanEvent)) {
+                this.putIndex = index + 1;
+                return;
+            }
+        }
+        // pool is full, let gc collect it
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "SpanEventPool{" +
+                "capacity=" + slots.length() +
+                '}';
+    }
+}
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.profiler.context;
 
 import com.navercorp.pinpoint.common.util.CollectionUtils;
+import com.navercorp.pinpoint.common.util.SpanEventColumnEncoder;
 import com.navercorp.pinpoint.profiler.context.compress.SpanEventCompressor;
 import com.navercorp.pinpoint.profiler.context.compress.SpanEventCompressorV2;
 
@@ -32,6 +33,20 @@ public class SpanPostProcessorV2 implements SpanPostProcessor {
     // TODO refactor injector
     private final SpanEventCompressor<Long> spanEventCompressor = new SpanEventCompressorV2();
 
+    // null : send spanEventList
+    private final SpanEventColumnEncoder spanEventColumnEncoder;
+
+    public SpanPostProcessorV2() {
+        this.spanEventColumnEncoder = null;
+    }
+
+    public SpanPostProcessorV2(SpanEventColumnEncoder spanEventColumnEncoder) {
+        if (spanEventColumnEncoder == null) {
+            throw new NullPointerException("spanEventColumnEncoder must not be null");
+        }
+        this.spanEventColumnEncoder = spanEventColumnEncoder;
+    }
+
     @Override
     public Span postProcess(Span span, List<SpanEvent> spanEventList) {
         span.setVersion(V2.getVersion());
@@ -39,8 +54,20 @@ public class SpanPostProcessorV2 implements SpanPostProcessor {
         if (CollectionUtils.hasLength(spanEventList)) {
             long spanStartTime = span.getStartTime();
             spanEventCompressor.compress(spanEventList, spanStartTime);
-            span.setSpanEventList((List) spanEventList);
+            if (spanEventColumnEncoder != null) {
+                span.setSpanEventColumns(spanEventColumnEncoder.encode(spanEventList));
+                // every value has been copied into the columns
+                recycle(spanEventList);
+            } else {
+                span.setSpanEventList((List) spanEventList);
+            }
         }
         return span;
     }
+
+    private void recycle(List<SpanEvent> spanEventList) {
+        for (SpanEvent spanEvent : spanEventList) {
+            spanEvent.recycle();
+        }
+    }
 }
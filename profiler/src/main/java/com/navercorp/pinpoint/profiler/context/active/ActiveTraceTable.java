@@ -0,0 +1,254 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context.active;
+
+import java.util.List;
+
+/**
+ * Lock striped open addressing table of in-flight {@link ActiveTrace}s keyed by their long id.
+ * Each segment holds at most maxSize / segmentCount traces; when a segment is full the trace
+ * with the oldest start time is evicted, so traces that are never purged can not leak.
+ */
+final class ActiveTraceTable {
+
+    private static final int DEFAULT_SEGMENT_COUNT = 16;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    ActiveTraceTable(int maxSize) {
+        this(maxSize, DEFAULT_SEGMENT_COUNT);
+    }
+
+    ActiveTraceTable(int maxSize, int segmentCount) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive. maxSize:" + maxSize);
+        }
+        if (segmentCount <= 0) {
+            throw new IllegalArgumentException("segmentCount must be positive. segmentCount:" + segmentCount);
+        }
+        final int count = Math.min(nextPowerOfTwo(segmentCount), nextPowerOfTwo(maxSize));
+        final int maxSegmentSize = (maxSize + count - 1) / count;
+        final int segmentShift = Integer.numberOfTrailingZeros(count);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment(maxSegmentSize, segmentShift);
+        }
+        this.segmentMask = count - 1;
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        final int highestOneBit = Integer.highestOneBit(value);
+        if (highestOneBit == value) {
+            return value;
+        }
+        return highestOneBit << 1;
+    }
+
+    private static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * @return the trace previously registered with the same id, or the trace evicted to make room
+     */
+    ActiveTrace put(long key, ActiveTrace activeTrace) {
+        if (activeTrace == null) {
+            throw new NullPointerException("activeTrace must not be null");
+        }
+        return segmentFor(key).put(key, activeTrace);
+    }
+
+    /**
+     * removes the mapping only if the key is still mapped to the given trace.
+     */
+    boolean remove(long key, ActiveTrace activeTrace) {
+        return segmentFor(key).remove(key, activeTrace);
+    }
+
+    private Segment segmentFor(long key) {
+        return segments[hash(key) & segmentMask];
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    boolean isEmpty() {
+        for (Segment segment : segments) {
+            if (segment.size() != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * copies every registered trace into the given list. Each segment is locked only while it is copied.
+     */
+    void collect(List<ActiveTrace> to) {
+        for (Segment segment : segments) {
+            segment.collect(to);
+        }
+    }
+
+    private static final class Segment {
+
+        private final int maxSize;
+        private final int maxCapacity;
+        // low hash bits select the segment, the remaining bits select the slot
+        private final int shift;
+
+        private long[] keys;
+        private ActiveTrace[] values;
+        private volatile int size;
+
+        private Segment(int maxSize, int shift) {
+            this.maxSize = maxSize;
+            this.shift = shift;
+            this.maxCapacity = nextPowerOfTwo(maxSize * 2);
+            final int capacity = Math.min(MIN_SEGMENT_CAPACITY, maxCapacity);
+            this.keys = new long[capacity];
+            this.values = new ActiveTrace[capacity];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int homeIndex(long key, int mask) {
+            return (hash(key) >>> shift) & mask;
+        }
+
+        private synchronized ActiveTrace put(long key, ActiveTrace activeTrace) {
+            final int mask = keys.length - 1;
+            int index = homeIndex(key, mask);
+            while (values[index] != null) {
+                if (keys[index] == key) {
+                    final ActiveTrace old = values[index];
+                    values[index] = activeTrace;
+                    return old;
+                }
+                index = (index + 1) & mask;
+            }
+
+            ActiveTrace evicted = null;
+            if (size >= maxSize) {
+                evicted = evictOldest();
+            } else if ((size + 1) * 2 > keys.length && keys.length < maxCapacity) {
+                resize(keys.length * 2);
+            }
+            insert(key, activeTrace);
+            return evicted;
+        }
+
+        private void insert(long key, ActiveTrace activeTrace) {
+            final int mask = keys.length - 1;
+            int index = homeIndex(key, mask);
+            while (values[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = activeTrace;
+            size++;
+        }
+
+        private void resize(int newCapacity) {
+            final long[] oldKeys = this.keys;
+            final ActiveTrace[] oldValues = this.values;
+            this.keys = new long[newCapacity];
+            this.values = new ActiveTrace[newCapacity];
+            this.size = 0;
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != null) {
+                    insert(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private ActiveTrace evictOldest() {
+            int oldestIndex = -1;
+            long oldestStartTime = Long.MAX_VALUE;
+            for (int i = 0; i < values.length; i++) {
+                final ActiveTrace activeTrace = values[i];
+                if (activeTrace != null && activeTrace.getStartTime() < oldestStartTime) {
+                    oldestStartTime = activeTrace.getStartTime();
+                    oldestIndex = i;
+                }
+            }
+            if (oldestIndex == -1) {
+                return null;
+            }
+            final ActiveTrace evicted = values[oldestIndex];
+            delete(oldestIndex);
+            return evicted;
+        }
+
+        private synchronized boolean remove(long key, ActiveTrace activeTrace) {
+            final int mask = keys.length - 1;
+            int index = homeIndex(key, mask);
+            while (values[index] != null) {
+                if (keys[index] == key) {
+                    if (values[index] != activeTrace) {
+                        return false;
+                    }
+                    delete(index);
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        }
+
+        // backward shift deletion, keeps probe sequences intact without tombstones
+        private void delete(int index) {
+            final int mask = keys.length - 1;
+            int hole = index;
+            int next = (hole + 1) & mask;
+            while (values[next] != null) {
+                final int home = homeIndex(keys[next], mask);
+                // move the entry into the hole unless its home lies cyclically in (hole, next]
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            values[hole] = null;
+            size--;
+        }
+
+        private synchronized void collect(List<ActiveTrace> to) {
+            if (size == 0) {
+                return;
+            }
+            for (ActiveTrace activeTrace : values) {
+                if (activeTrace != null) {
+                    to.add(activeTrace);
+                }
+            }
+        }
+    }
+}
@@ -16,8 +16,6 @@
 
 package com.navercorp.pinpoint.profiler.context.active;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.navercorp.pinpoint.common.trace.BaseHistogramSchema;
 import com.navercorp.pinpoint.common.trace.HistogramSchema;
 import com.navercorp.pinpoint.common.trace.HistogramSlot;
@@ -28,10 +26,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Taejin Koo
@@ -44,8 +40,8 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final boolean isDebug = logger.isDebugEnabled();
 
-    // oom safe cache
-    private final ConcurrentMap<ActiveTraceHandle, ActiveTrace> activeTraceInfoMap;
+    // oom safe table
+    private final ActiveTraceTable activeTraceTable;
 
     private final ResponseTimeCollector responseTimeCollector;
 
@@ -58,26 +54,16 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
 
     public DefaultActiveTraceRepository(ResponseTimeCollector responseTimeCollector, int maxActiveTraceSize) {
         this.responseTimeCollector = Assert.requireNonNull(responseTimeCollector, "responseTimeCollector must not be null");
-        this.activeTraceInfoMap = createCache(maxActiveTraceSize);
+        this.activeTraceTable = new ActiveTraceTable(maxActiveTraceSize);
     }
 
-    private ConcurrentMap<ActiveTraceHandle, ActiveTrace> createCache(int maxActiveTraceSize) {
-        final CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
-        cacheBuilder.concurrencyLevel(64);
-        cacheBuilder.initialCapacity(maxActiveTraceSize);
-        cacheBuilder.maximumSize(maxActiveTraceSize);
 
-        final Cache<ActiveTraceHandle, ActiveTrace> localCache = cacheBuilder.build();
-        return localCache.asMap();
-    }
-
-
-    private void remove(ActiveTraceHandle key, long purgeTime) {
+    private void remove(ActiveTrace activeTrace, long purgeTime) {
         if (isDebug) {
-            logger.debug("remove ActiveTrace key:{}", key);
+            logger.debug("remove ActiveTrace key:{}", activeTrace.getId());
         }
-        final ActiveTrace activeTrace = this.activeTraceInfoMap.remove(key);
-        if (activeTrace != null) {
+        final boolean removed = this.activeTraceTable.remove(activeTrace.getId(), activeTrace);
+        if (removed) {
             final long responseTime = purgeTime - activeTrace.getStartTime();
             responseTimeCollector.add(responseTime);
         }
@@ -109,24 +95,29 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
         }
 
         final long id = activeTrace.getId();
-        final ActiveTraceHandle handle = new DefaultActiveTraceHandle(id);
-        final ActiveTrace old = this.activeTraceInfoMap.put(handle, activeTrace);
+        final ActiveTrace old = this.activeTraceTable.put(id, activeTrace);
         if (old != null) {
             if (logger.isWarnEnabled()) {
-                logger.warn("old activeTrace exist:{}", old);
+                logger.warn("old activeTrace exist or evicted:{}", old);
             }
         }
-        return handle;
+        return new DefaultActiveTraceHandle(activeTrace);
+    }
+
+    private List<ActiveTrace> collect() {
+        final List<ActiveTrace> activeTraceList = new ArrayList<ActiveTrace>(this.activeTraceTable.size() + 16);
+        this.activeTraceTable.collect(activeTraceList);
+        return activeTraceList;
     }
 
 
     // @ThreadSafe
     @Override
     public List<ActiveTraceSnapshot> snapshot() {
-        if (this.activeTraceInfoMap.isEmpty()) {
+        if (this.activeTraceTable.isEmpty()) {
             return Collections.emptyList();
         }
-        final Collection<ActiveTrace> activeTraceCollection = this.activeTraceInfoMap.values();
+        final List<ActiveTrace> activeTraceCollection = collect();
         final List<ActiveTraceSnapshot> collectData = new ArrayList<ActiveTraceSnapshot>(activeTraceCollection.size());
 
         for (ActiveTrace trace : activeTraceCollection) {
@@ -148,10 +139,10 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
     // @ThreadSafe
     @Override
     public List<Long> getThreadIdList() {
-        if (this.activeTraceInfoMap.isEmpty()) {
+        if (this.activeTraceTable.isEmpty()) {
             return Collections.emptyList();
         }
-        final Collection<ActiveTrace> activeTraceCollection = this.activeTraceInfoMap.values();
+        final List<ActiveTrace> activeTraceCollection = collect();
         final List<Long> collectData = new ArrayList<Long>(activeTraceCollection.size());
 
         for (ActiveTrace trace : activeTraceCollection) {
@@ -172,10 +163,10 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
     // @ThreadSafe
     @Override
     public ActiveTraceHistogram getActiveTraceHistogram(long currentTime) {
-        if (this.activeTraceInfoMap.isEmpty()) {
+        if (this.activeTraceTable.isEmpty()) {
             return emptyActiveTraceHistogram;
         }
-        final Collection<ActiveTrace> activeTraceCollection = this.activeTraceInfoMap.values();
+        final List<ActiveTrace> activeTraceCollection = collect();
 
 
         final DefaultActiveTraceHistogram histogram = new DefaultActiveTraceHistogram(histogramSchema);
@@ -198,36 +189,21 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
 
 
     private class DefaultActiveTraceHandle implements ActiveTraceHandle {
-        private final long id;
+        private final ActiveTrace activeTrace;
 
-        DefaultActiveTraceHandle(long id) {
-            this.id = id;
+        DefaultActiveTraceHandle(ActiveTrace activeTrace) {
+            this.activeTrace = activeTrace;
         }
 
         @Override
         public void purge(long purgeTime) {
-            remove(this, purgeTime);
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-
-            DefaultActiveTraceHandle that = (DefaultActiveTraceHandle) o;
-
-            return id == that.id;
-        }
-
-        @Override
-        public int hashCode() {
-            return (int) (id ^ (id >>> 32));
+            remove(activeTrace, purgeTime);
         }
 
         @Override
         public String toString() {
             return "DefaultActiveTraceHandle{" +
-                    "id=" + id +
+                    "id=" + activeTrace.getId() +
                     '}';
         }
     }
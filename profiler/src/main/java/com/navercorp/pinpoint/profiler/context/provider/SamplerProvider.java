@@ -20,7 +20,14 @@ import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import com.navercorp.pinpoint.profiler.context.module.SpanDataSender;
 import com.navercorp.pinpoint.profiler.sampler.SamplerFactory;
+import com.navercorp.pinpoint.profiler.sampler.SamplerType;
+import com.navercorp.pinpoint.profiler.sender.AbstractDataSender;
+import com.navercorp.pinpoint.profiler.sender.DataSender;
+import com.navercorp.pinpoint.profiler.sender.SendQueueStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * 采用提供器
@@ -28,11 +35,21 @@ import com.navercorp.pinpoint.profiler.sampler.SamplerFactory;
  */
 public class SamplerProvider implements Provider<Sampler> {
 
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     private final ProfilerConfig profilerConfig;
+    private final Provider<DataSender> spanDataSenderProvider;
 
     @Inject
-    public SamplerProvider(ProfilerConfig profilerConfig) {
+    public SamplerProvider(ProfilerConfig profilerConfig, @SpanDataSender Provider<DataSender> spanDataSenderProvider) {
+        if (profilerConfig == null) {
+            throw new NullPointerException("profilerConfig must not be null");
+        }
+        if (spanDataSenderProvider == null) {
+            throw new NullPointerException("spanDataSenderProvider must not be null");
+        }
         this.profilerConfig = profilerConfig;
+        this.spanDataSenderProvider = spanDataSenderProvider;
     }
 
     @Override
@@ -42,7 +59,27 @@ public class SamplerProvider implements Provider<Sampler> {
         //采样速率
         int samplingRate = profilerConfig.getSamplingRate();
         SamplerFactory samplerFactory = new SamplerFactory();
+        //采样策略类型
+        SamplerType samplerType = SamplerType.of(profilerConfig.getSamplingType(), SamplerType.COUNTING);
+        if (samplerType == SamplerType.RATE_LIMIT) {
+            return samplerFactory.createRateLimitSampler(samplingEnable, profilerConfig.getSamplingRateLimitPerSecond());
+        }
+        if (samplerType == SamplerType.ADAPTIVE) {
+            SendQueueStatus sendQueueStatus = getSpanSendQueueStatus();
+            if (sendQueueStatus == null) {
+                logger.warn("span send queue status not available, fall back to {} sampler", SamplerType.COUNTING);
+            }
+            return samplerFactory.createAdaptiveSampler(samplingEnable, samplingRate, profilerConfig.getSamplingAdaptiveMaxRate(), sendQueueStatus);
+        }
         //获得采样策略
         return samplerFactory.createSampler(samplingEnable, samplingRate);
     }
+
+    private SendQueueStatus getSpanSendQueueStatus() {
+        DataSender spanDataSender = spanDataSenderProvider.get();
+        if (spanDataSender instanceof AbstractDataSender) {
+            return ((AbstractDataSender) spanDataSender).getSendQueueStatus();
+        }
+        return null;
+    }
 }
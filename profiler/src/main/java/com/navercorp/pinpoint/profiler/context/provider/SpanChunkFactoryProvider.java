@@ -21,6 +21,7 @@ import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.common.util.SpanEventColumnEncoder;
 import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
 import com.navercorp.pinpoint.profiler.context.SpanChunkFactoryV1;
 import com.navercorp.pinpoint.profiler.context.SpanChunkFactoryV2;
@@ -42,6 +43,7 @@ public class SpanChunkFactoryProvider implements Provider<SpanChunkFactory> {
     private final ServiceType applicationServiceType;
     private final TraceDataFormatVersion version;
     private final TransactionIdEncoder transactionIdEncoder;
+    private final boolean spanEventColumnEncodingEnable;
 
 
     @Inject
@@ -57,12 +59,16 @@ public class SpanChunkFactoryProvider implements Provider<SpanChunkFactory> {
 
 
         this.version = TraceDataFormatVersion.getTraceDataFormatVersion(profilerConfig);
+        this.spanEventColumnEncodingEnable = profilerConfig.isSpanEventColumnEncodingEnable();
     }
 
 
     @Override
     public SpanChunkFactory get() {
         if (this.version == TraceDataFormatVersion.V2) {
+            if (spanEventColumnEncodingEnable) {
+                return new SpanChunkFactoryV2(applicationName, agentId, agentStartTime, applicationServiceType, transactionIdEncoder, new SpanEventColumnEncoder());
+            }
             return new SpanChunkFactoryV2(applicationName, agentId, agentStartTime, applicationServiceType, transactionIdEncoder);
         }
         if (this.version == TraceDataFormatVersion.V1) {
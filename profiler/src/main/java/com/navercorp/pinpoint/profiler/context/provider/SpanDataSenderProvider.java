@@ -21,6 +21,7 @@ import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.profiler.context.module.SpanStatClientFactory;
 import com.navercorp.pinpoint.profiler.sender.DataSender;
+import com.navercorp.pinpoint.profiler.sender.SendQueueFactory;
 import com.navercorp.pinpoint.profiler.sender.TcpDataSender;
 import com.navercorp.pinpoint.profiler.sender.UdpDataSenderFactory;
 import com.navercorp.pinpoint.rpc.client.PinpointClientFactory;
@@ -46,6 +47,8 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
     private final int sendBufferSize;
     private final String ioType;
     private final String transportType;
+    private final SendQueueFactory sendQueueFactory;
+    private final int batchSize;
 
 
     /**
@@ -79,6 +82,10 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
         this.ioType = profilerConfig.getSpanDataSenderSocketType();
         //传输类型 TCP or UDP
         this.transportType = profilerConfig.getSpanDataSenderTransportType();
+        this.sendQueueFactory = SendQueueFactory.of(profilerConfig.getDataSenderWriteQueueType(),
+                profilerConfig.getDataSenderWriteQueueWaitStrategy(), profilerConfig.getDataSenderWriteQueueDrainSize());
+        //多条span合并成一个packet发送的最大字节数，0表示不合并
+        this.batchSize = profilerConfig.getSpanDataSenderBatchSize();
     }
 
     @Override
@@ -88,9 +95,9 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
                 logger.warn("TCP transport not support OIO type.(only support NIO)");
             }
             PinpointClientFactory pinpointClientFactory = clientFactoryProvider.get();
-            return new TcpDataSender("SpanDataSender", ip, port, pinpointClientFactory);
+            return new TcpDataSender("SpanDataSender", ip, port, pinpointClientFactory, sendQueueFactory, batchSize);
         } else {
-            UdpDataSenderFactory factory = new UdpDataSenderFactory(ip, port, UDP_EXECUTOR_NAME, writeQueueSize, timeout, sendBufferSize);
+            UdpDataSenderFactory factory = new UdpDataSenderFactory(ip, port, UDP_EXECUTOR_NAME, writeQueueSize, timeout, sendBufferSize, sendQueueFactory, batchSize);
             return factory.create(ioType);
         }
     }
@@ -105,6 +112,8 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
         sb.append(", sendBufferSize=").append(sendBufferSize);
         sb.append(", ioType='").append(ioType).append('\'');
         sb.append(", transportType='").append(transportType).append('\'');
+        sb.append(", sendQueueFactory=").append(sendQueueFactory);
+        sb.append(", batchSize=").append(batchSize);
         sb.append('}');
         return sb.toString();
     }
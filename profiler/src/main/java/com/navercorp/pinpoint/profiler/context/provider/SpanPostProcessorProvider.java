@@ -19,6 +19,7 @@ package com.navercorp.pinpoint.profiler.context.provider;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
+import com.navercorp.pinpoint.common.util.SpanEventColumnEncoder;
 import com.navercorp.pinpoint.profiler.context.SpanPostProcessor;
 import com.navercorp.pinpoint.profiler.context.SpanPostProcessorV1;
 import com.navercorp.pinpoint.profiler.context.SpanPostProcessorV2;
@@ -30,6 +31,7 @@ import com.navercorp.pinpoint.profiler.context.TraceDataFormatVersion;
 public class SpanPostProcessorProvider implements Provider<SpanPostProcessor> {
 
     private final TraceDataFormatVersion version;
+    private final boolean spanEventColumnEncodingEnable;
 
     @Inject
     public SpanPostProcessorProvider(ProfilerConfig profilerConfig) {
@@ -38,11 +40,15 @@ public class SpanPostProcessorProvider implements Provider<SpanPostProcessor> {
         }
 
         this.version = TraceDataFormatVersion.getTraceDataFormatVersion(profilerConfig);
+        this.spanEventColumnEncodingEnable = profilerConfig.isSpanEventColumnEncodingEnable();
     }
 
     @Override
     public SpanPostProcessor get() {
         if (version == TraceDataFormatVersion.V2) {
+            if (spanEventColumnEncodingEnable) {
+                return new SpanPostProcessorV2(new SpanEventColumnEncoder());
+            }
             return new SpanPostProcessorV2();
         }
         if (version == TraceDataFormatVersion.V1) {
@@ -21,6 +21,7 @@ import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.profiler.context.module.SpanStatClientFactory;
 import com.navercorp.pinpoint.profiler.sender.DataSender;
+import com.navercorp.pinpoint.profiler.sender.SendQueueFactory;
 import com.navercorp.pinpoint.profiler.sender.TcpDataSender;
 import com.navercorp.pinpoint.profiler.sender.UdpDataSenderFactory;
 import com.navercorp.pinpoint.rpc.client.PinpointClientFactory;
@@ -45,6 +46,7 @@ public class StatDataSenderProvider implements Provider<DataSender> {
     private final int sendBufferSize;
     private final String ioType;
     private final String transportType;
+    private final SendQueueFactory sendQueueFactory;
 
     @Inject
     public StatDataSenderProvider(ProfilerConfig profilerConfig, @SpanStatClientFactory Provider<PinpointClientFactory> clientFactoryProvider) {
@@ -64,6 +66,8 @@ public class StatDataSenderProvider implements Provider<DataSender> {
         this.sendBufferSize = profilerConfig.getStatDataSenderSocketSendBufferSize();
         this.ioType = profilerConfig.getStatDataSenderSocketType();
         this.transportType = profilerConfig.getStatDataSenderTransportType();
+        this.sendQueueFactory = SendQueueFactory.of(profilerConfig.getDataSenderWriteQueueType(),
+                profilerConfig.getDataSenderWriteQueueWaitStrategy(), profilerConfig.getDataSenderWriteQueueDrainSize());
     }
 
     @Override
@@ -74,9 +78,9 @@ public class StatDataSenderProvider implements Provider<DataSender> {
             }
 
             PinpointClientFactory pinpointClientFactory = clientFactoryProvider.get();
-            return new TcpDataSender("StatDataSender", ip, port, pinpointClientFactory);
+            return new TcpDataSender("StatDataSender", ip, port, pinpointClientFactory, sendQueueFactory);
         } else {
-            UdpDataSenderFactory factory = new UdpDataSenderFactory(ip, port, UDP_EXECUTOR_NAME, writeQueueSize, timeout, sendBufferSize);
+            UdpDataSenderFactory factory = new UdpDataSenderFactory(ip, port, UDP_EXECUTOR_NAME, writeQueueSize, timeout, sendBufferSize, sendQueueFactory);
             return factory.create(ioType);
         }
     }
@@ -91,6 +95,7 @@ public class StatDataSenderProvider implements Provider<DataSender> {
         sb.append(", sendBufferSize=").append(sendBufferSize);
         sb.append(", ioType='").append(ioType).append('\'');
         sb.append(", transportType='").append(transportType).append('\'');
+        sb.append(", sendQueueFactory=").append(sendQueueFactory);
         sb.append('}');
         return sb.toString();
     }
@@ -23,6 +23,7 @@ import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
 import com.navercorp.pinpoint.profiler.context.SpanPostProcessor;
 import com.navercorp.pinpoint.profiler.context.module.SpanDataSender;
 import com.navercorp.pinpoint.profiler.context.storage.BufferedStorageFactory;
+import com.navercorp.pinpoint.profiler.context.storage.SlowOnlyStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.SpanStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.StorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.TraceLogDelegateStorage;
@@ -77,6 +78,11 @@ public class StorageFactoryProvider implements Provider<StorageFactory> {
     private StorageFactory newStorageFactory() {
         if (profilerConfig.isIoBufferingEnable()) {
             int ioBufferingBufferSize = this.profilerConfig.getIoBufferingBufferSize();
+            if (profilerConfig.isSpanEventSlowOnlyEnable()) {
+                int threshold = this.profilerConfig.getSpanEventSlowOnlyThreshold();
+                int bufferSize = this.profilerConfig.getSpanEventSlowOnlyBufferSize();
+                return new SlowOnlyStorageFactory(threshold, bufferSize, ioBufferingBufferSize, this.spanDataSender, this.spanPostProcessor, this.spanChunkFactory);
+            }
             return new BufferedStorageFactory(ioBufferingBufferSize, this.spanDataSender, this.spanPostProcessor, this.spanChunkFactory);
         } else {
             return new SpanStorageFactory(spanDataSender);
@@ -21,6 +21,7 @@ import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.profiler.context.module.DefaultClientFactory;
 import com.navercorp.pinpoint.profiler.sender.EnhancedDataSender;
+import com.navercorp.pinpoint.profiler.sender.SendQueueFactory;
 import com.navercorp.pinpoint.profiler.sender.TcpDataSender;
 import com.navercorp.pinpoint.rpc.client.PinpointClientFactory;
 
@@ -58,7 +59,9 @@ public class TcpDataSenderProvider implements Provider<EnhancedDataSender> {
         String collectorTcpServerIp = profilerConfig.getCollectorTcpServerIp();
         //获得collector组件Tcp服务端port
         int collectorTcpServerPort = profilerConfig.getCollectorTcpServerPort();
+        SendQueueFactory sendQueueFactory = SendQueueFactory.of(profilerConfig.getDataSenderWriteQueueType(),
+                profilerConfig.getDataSenderWriteQueueWaitStrategy(), profilerConfig.getDataSenderWriteQueueDrainSize());
         //新建TCP数据发送器
-        return new TcpDataSender("Default", collectorTcpServerIp, collectorTcpServerPort, clientFactory);
+        return new TcpDataSender("Default", collectorTcpServerIp, collectorTcpServerPort, clientFactory, sendQueueFactory);
     }
 }
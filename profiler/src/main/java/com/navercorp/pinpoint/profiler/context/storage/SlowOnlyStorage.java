@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.common.util.CollectionUtils;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanChunk;
+import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanPostProcessor;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.profiler.sender.DataSender;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds every span event of the trace until the span ends and sends only the slow ones.
+ * When more than bufferSize events arrive the trace falls back to {@link BufferedStorage} behaviour.
+ * Async traces have no span to close with, so {@link #flush()} sends unfiltered chunks.
+ */
+public class SlowOnlyStorage implements Storage {
+    private static final Logger logger = LoggerFactory.getLogger(SlowOnlyStorage.class);
+    private static final boolean isDebug = logger.isDebugEnabled();
+
+    private final TraceRoot traceRoot;
+    private final DataSender dataSender;
+    private final SpanPostProcessor spanPostProcessor;
+    private final SpanChunkFactory spanChunkFactory;
+    private final SlowSpanEventFilter spanEventFilter;
+
+    private final int bufferSize;
+    private final int chunkSize;
+
+    private List<SpanEvent> storage;
+    private boolean overflow = false;
+
+    SlowOnlyStorage(TraceRoot traceRoot, DataSender dataSender, SpanPostProcessor spanPostProcessor, SpanChunkFactory spanChunkFactory,
+                    SlowSpanEventFilter spanEventFilter, int bufferSize, int chunkSize) {
+        this.traceRoot = Assert.requireNonNull(traceRoot, "traceRoot must not be null");
+        this.dataSender = Assert.requireNonNull(dataSender, "dataSender must not be null");
+        this.spanPostProcessor = Assert.requireNonNull(spanPostProcessor, "spanPostProcessor must not be null");
+        this.spanChunkFactory = Assert.requireNonNull(spanChunkFactory, "spanChunkFactory must not be null");
+        this.spanEventFilter = Assert.requireNonNull(spanEventFilter, "spanEventFilter must not be null");
+        this.bufferSize = bufferSize;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void store(SpanEvent spanEvent) {
+        List<SpanEvent> storage = this.storage;
+        if (storage == null) {
+            storage = new ArrayList<SpanEvent>(overflow ? chunkSize : Math.min(bufferSize, 32));
+            this.storage = storage;
+        }
+        storage.add(spanEvent);
+
+        final int limit = overflow ? chunkSize : bufferSize;
+        if (storage.size() >= limit) {
+            if (!overflow && isDebug) {
+                logger.debug("[SlowOnlyStorage] buffer overflow. bufferSize:{}", bufferSize);
+            }
+            this.overflow = true;
+            flush();
+        }
+    }
+
+    @Override
+    public void store(Span span) {
+        List<SpanEvent> storage = clearBuffer();
+        if (!overflow) {
+            storage = spanEventFilter.filter(span, storage);
+        }
+        span = spanPostProcessor.postProcess(span, storage);
+        dataSender.send(span);
+
+        if (isDebug) {
+            logger.debug("[SlowOnlyStorage] Flush span {}", span);
+        }
+    }
+
+    private List<SpanEvent> clearBuffer() {
+        final List<SpanEvent> copy = this.storage;
+        this.storage = null;
+        return copy;
+    }
+
+    @Override
+    public void flush() {
+        final List<SpanEvent> storage = clearBuffer();
+        if (CollectionUtils.hasLength(storage)) {
+            final SpanChunk spanChunk = spanChunkFactory.create(traceRoot, storage);
+            dataSender.send(spanChunk);
+            if (isDebug) {
+                logger.debug("[SlowOnlyStorage] Flush span chunk {}", spanChunk);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+        return "SlowOnlyStorage{" +
+                "bufferSize=" + bufferSize +
+                ", chunkSize=" + chunkSize +
+                ", spanEventFilter=" + spanEventFilter +
+                ", dataSender=" + dataSender +
+                '}';
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
+import com.navercorp.pinpoint.profiler.context.SpanPostProcessor;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.profiler.sender.DataSender;
+
+public class SlowOnlyStorageFactory implements StorageFactory {
+
+    private final DataSender dataSender;
+    private final SpanPostProcessor spanPostProcessor;
+    private final SpanChunkFactory spanChunkFactory;
+    private final SlowSpanEventFilter spanEventFilter;
+    private final int bufferSize;
+    private final int ioBufferingBufferSize;
+
+    public SlowOnlyStorageFactory(int threshold, int bufferSize, int ioBufferingBufferSize, DataSender dataSender, SpanPostProcessor spanPostProcessor, SpanChunkFactory spanChunkFactory) {
+        if (dataSender == null) {
+            throw new NullPointerException("dataSender must not be null");
+        }
+        if (spanPostProcessor == null) {
+            throw new NullPointerException("spanPostProcessor must not be null");
+        }
+        if (spanChunkFactory == null) {
+            throw new NullPointerException("spanChunkFactory must not be null");
+        }
+        this.dataSender = dataSender;
+        this.spanPostProcessor = spanPostProcessor;
+        this.spanChunkFactory = spanChunkFactory;
+        this.spanEventFilter = new SlowSpanEventFilter(threshold);
+        this.bufferSize = bufferSize;
+        this.ioBufferingBufferSize = ioBufferingBufferSize;
+    }
+
+    @Override
+    public Storage createStorage(TraceRoot traceRoot) {
+        return new SlowOnlyStorage(traceRoot, dataSender, spanPostProcessor, spanChunkFactory, spanEventFilter, bufferSize, ioBufferingBufferSize);
+    }
+
+    @Override
+    public String toString() {
+        return "SlowOnlyStorageFactory{" +
+                "dataSender=" + dataSender +
+                ", spanEventFilter=" + spanEventFilter +
+                ", bufferSize=" + bufferSize +
+                ", ioBufferingBufferSize=" + ioBufferingBufferSize +
+                ", spanChunkFactory=" + spanChunkFactory +
+                '}';
+    }
+}
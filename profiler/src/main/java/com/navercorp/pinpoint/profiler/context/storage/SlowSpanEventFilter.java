@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.profiler.context.Annotation;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.compress.SpanEventSequenceComparator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drops span events faster than the threshold.
+ * Slow, error, remote and async events are kept together with their whole call path.
+ * Dropped events are summarized per apiId in a {@link AnnotationKey#DROPPED_SPAN_EVENT} annotation of the span.
+ */
+class SlowSpanEventFilter {
+
+    static final int MAX_SUMMARY_API = 32;
+
+    private static final int ROOT_DEPTH = 1;
+
+    private final long threshold;
+
+    SlowSpanEventFilter(long threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("negative threshold:" + threshold);
+        }
+        this.threshold = threshold;
+    }
+
+    List<SpanEvent> filter(Span span, List<SpanEvent> spanEventList) {
+        if (span == null) {
+            throw new NullPointerException("span must not be null");
+        }
+        if (spanEventList == null || spanEventList.isEmpty()) {
+            return spanEventList;
+        }
+        final List<SpanEvent> sorted = new ArrayList<SpanEvent>(spanEventList);
+        Collections.sort(sorted, SpanEventSequenceComparator.INSTANCE);
+
+        final int size = sorted.size();
+        final int[] depth = resolveDepth(sorted);
+        final boolean[] keep = new boolean[size];
+        // index of the latest event per depth. events are in pre-order so path[1..d-1] are the ancestors of an event at depth d.
+        int[] path = new int[16];
+        for (int i = 0; i < size; i++) {
+            final int currentDepth = depth[i];
+            if (currentDepth >= path.length) {
+                path = Arrays.copyOf(path, Math.max(path.length * 2, currentDepth + 1));
+            }
+            path[currentDepth] = i;
+            if (isImportant(sorted.get(i))) {
+                for (int d = currentDepth; d >= ROOT_DEPTH; d--) {
+                    final int index = path[d];
+                    if (keep[index]) {
+                        break;
+                    }
+                    keep[index] = true;
+                }
+            }
+        }
+
+        final List<SpanEvent> result = new ArrayList<SpanEvent>(size);
+        Map<Integer, long[]> dropped = null;
+        int droppedCount = 0;
+        for (int i = 0; i < size; i++) {
+            final SpanEvent spanEvent = sorted.get(i);
+            if (keep[i]) {
+                // dropped neighbours break depth compression, so always write the resolved depth
+                spanEvent.setDepth(depth[i]);
+                result.add(spanEvent);
+                continue;
+            }
+            if (dropped == null) {
+                dropped = new LinkedHashMap<Integer, long[]>();
+            }
+            final Integer apiId = spanEvent.getApiId();
+            long[] summary = dropped.get(apiId);
+            if (summary == null) {
+                summary = new long[2];
+                dropped.put(apiId, summary);
+            }
+            summary[0]++;
+            summary[1] += elapsed(spanEvent);
+            droppedCount++;
+            spanEvent.recycle();
+        }
+        if (dropped != null) {
+            span.addAnnotation(new Annotation(AnnotationKey.DROPPED_SPAN_EVENT.getCode(), toSummary(droppedCount, dropped)));
+        }
+        return result;
+    }
+
+    /**
+     * DepthCompressCallStack leaves the depth unset when it is the same as the previous event.
+     */
+    private int[] resolveDepth(List<SpanEvent> sorted) {
+        final int[] depth = new int[sorted.size()];
+        int prevDepth = ROOT_DEPTH;
+        for (int i = 0; i < depth.length; i++) {
+            final SpanEvent spanEvent = sorted.get(i);
+            if (spanEvent.isSetDepth() && spanEvent.getDepth() >= ROOT_DEPTH) {
+                prevDepth = spanEvent.getDepth();
+            }
+            depth[i] = prevDepth;
+        }
+        return depth;
+    }
+
+    boolean isImportant(SpanEvent spanEvent) {
+        if (elapsed(spanEvent) >= threshold) {
+            return true;
+        }
+        if (spanEvent.isSetExceptionInfo()) {
+            return true;
+        }
+        // remote call or async invocation. the linked span must be reachable from the call tree
+        if (spanEvent.isSetNextSpanId() || spanEvent.isSetNextAsyncId() || spanEvent.getAsyncIdObject() != null) {
+            return true;
+        }
+        return false;
+    }
+
+    private long elapsed(SpanEvent spanEvent) {
+        return spanEvent.getAfterTime() - spanEvent.getStartTime();
+    }
+
+    private String toSummary(int droppedCount, Map<Integer, long[]> dropped) {
+        final StringBuilder sb = new StringBuilder(32 + dropped.size() * 24);
+        sb.append("count=").append(droppedCount);
+        int apiCount = 0;
+        for (Map.Entry<Integer, long[]> entry : dropped.entrySet()) {
+            if (apiCount++ >= MAX_SUMMARY_API) {
+                sb.append(", ...");
+                break;
+            }
+            final long[] summary = entry.getValue();
+            sb.append(", apiId:").append(entry.getKey());
+            sb.append('=').append(summary[0]).append('/').append(summary[1]).append("ms");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "SlowSpanEventFilter{" +
+                "threshold=" + threshold +
+                '}';
+    }
+}
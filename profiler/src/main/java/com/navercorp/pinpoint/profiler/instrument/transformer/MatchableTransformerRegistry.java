@@ -28,13 +28,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.instrument.ClassFileTransformer;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -50,20 +46,12 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
     // class matcher operand.
     private final Map<String, IndexValue> classNameBasedIndex = new HashMap<String, IndexValue>(64);
     // package matcher operand.
-    private final Map<String, Set<IndexValue>> packageNameBasedIndex;
+    private final PackageNameIndex<IndexValue> packageNameBasedIndex = new PackageNameIndex<IndexValue>();
 
     private final TransformerMatcherExecutionPlanner executionPlanner = new TransformerMatcherExecutionPlanner();
     private final TransformerMatcher transformerMatcher;
 
     public MatchableTransformerRegistry(final ProfilerConfig profilerConfig) {
-        // sorted by package name length.
-        this.packageNameBasedIndex = new TreeMap<String, Set<IndexValue>>(new Comparator<String>() {
-            @Override
-            public int compare(String key1, String key2) {
-                return key1.length() - key2.length();
-            }
-        });
-
         this.transformerMatcher = new DefaultTransformerMatcher(profilerConfig.getInstrumentMatcherCacheConfig());
     }
 
@@ -80,18 +68,25 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
             return transformer;
         }
 
+        final IndexValue classIndexValue = this.classNameBasedIndex.get(classInternalName);
+        final List<IndexValue> packageIndexValues = this.packageNameBasedIndex.find(classInternalName);
+        if (classIndexValue == null && packageIndexValues.isEmpty()) {
+            // not indexed, skip reading metadata.
+            return null;
+        }
+
         ClassMetadataWrapper classMetadataWrapper = new ClassMetadataWrapper(classFileBuffer, classMetadata);
         // find class name based.
-        if (!this.classNameBasedIndex.isEmpty()) {
-            transformer = findClassBasedTransformer(classLoader, classInternalName, classMetadataWrapper);
+        if (classIndexValue != null) {
+            transformer = findClassBasedTransformer(classLoader, classIndexValue, classMetadataWrapper);
             if (transformer != null) {
                 return transformer;
             }
         }
 
-        // find package name based.
-        if (!this.packageNameBasedIndex.isEmpty()) {
-            transformer = findPackageBasedTransformer(classLoader, classInternalName, classMetadataWrapper);
+        // find package name based. shorter package first.
+        for (IndexValue value : packageIndexValues) {
+            transformer = match(classLoader, value, classMetadataWrapper);
             if (transformer != null) {
                 return transformer;
             }
@@ -101,37 +96,13 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
         return null;
     }
 
-    private ClassFileTransformer findClassBasedTransformer(final ClassLoader classLoader, final String classInternalName, final ClassMetadataWrapper classMetadataWrapper) {
-        IndexValue indexValue = this.classNameBasedIndex.get(classInternalName);
-        if (indexValue != null) {
-            if (indexValue.operand instanceof ClassInternalNameMatcherOperand) {
-                // single operand.
-                return indexValue.transformer;
-            }
-
-            ClassFileTransformer transformer = match(classLoader, indexValue, classMetadataWrapper);
-            if (transformer != null) {
-                return transformer;
-            }
-        }
-
-        return null;
-    }
-
-    private ClassFileTransformer findPackageBasedTransformer(final ClassLoader classLoader, final String classInternalName, final ClassMetadataWrapper classMetadataWrapper) {
-        for (Map.Entry<String, Set<IndexValue>> entry : this.packageNameBasedIndex.entrySet()) {
-            final String packageInternalName = entry.getKey();
-            if (classInternalName.startsWith(packageInternalName)) {
-                for (IndexValue value : entry.getValue()) {
-                    ClassFileTransformer transformer = match(classLoader, value, classMetadataWrapper);
-                    if (transformer != null) {
-                        return transformer;
-                    }
-                }
-            }
+    private ClassFileTransformer findClassBasedTransformer(final ClassLoader classLoader, final IndexValue indexValue, final ClassMetadataWrapper classMetadataWrapper) {
+        if (indexValue.operand instanceof ClassInternalNameMatcherOperand) {
+            // single operand.
+            return indexValue.transformer;
         }
 
-        return null;
+        return match(classLoader, indexValue, classMetadataWrapper);
     }
 
     private ClassFileTransformer match(final ClassLoader classLoader, final IndexValue indexValue, final ClassMetadataWrapper classMetadataWrapper) {
@@ -179,7 +150,7 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
                 indexed = true;
             } else if (operand instanceof PackageInternalNameMatcherOperand) {
                 PackageInternalNameMatcherOperand packageInternalNameMatcherOperand = (PackageInternalNameMatcherOperand) operand;
-                addIndexData(packageInternalNameMatcherOperand.getPackageInternalName(), indexValue, this.packageNameBasedIndex);
+                this.packageNameBasedIndex.put(packageInternalNameMatcherOperand.getPackageInternalName(), indexValue);
                 indexed = true;
             } else {
                 throw new IllegalArgumentException("invalid matcher or execution planner - unknown operand. condition=" + condition + ", unknown operand=" + operand);
@@ -191,15 +162,6 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
         }
     }
 
-    private void addIndexData(final String key, final IndexValue indexValue, final Map<String, Set<IndexValue>> index) {
-        Set<IndexValue> indexValueSet = index.get(key);
-        if (indexValueSet == null) {
-            indexValueSet = new HashSet<IndexValue>();
-            index.put(key, indexValueSet);
-        }
-        indexValueSet.add(indexValue);
-    }
-
     static class IndexValue {
         private final MatcherOperand operand;
         private final ClassFileTransformer transformer;
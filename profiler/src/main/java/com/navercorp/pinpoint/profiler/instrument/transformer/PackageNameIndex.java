@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.instrument.transformer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Character trie of package internal names.
+ * A lookup walks the class internal name once and stops at the first character no package starts with,
+ * so classes outside every registered package are rejected without reading their metadata.
+ */
+class PackageNameIndex<V> {
+
+    private static final char[] EMPTY_KEYS = new char[0];
+
+    private final Node<V> root = new Node<V>();
+    private int size;
+
+    public void put(final String packageInternalName, final V value) {
+        if (packageInternalName == null) {
+            throw new NullPointerException("packageInternalName must not be null");
+        }
+        if (value == null) {
+            throw new NullPointerException("value must not be null");
+        }
+
+        Node<V> node = root;
+        for (int i = 0; i < packageInternalName.length(); i++) {
+            node = node.getOrCreateChild(packageInternalName.charAt(i));
+        }
+        if (node.values == null) {
+            node.values = new ArrayList<V>(2);
+        }
+        if (!node.values.contains(value)) {
+            node.values.add(value);
+            size++;
+        }
+    }
+
+    /**
+     * @return values of every package the class name starts with, shorter package first.
+     */
+    public List<V> find(final String classInternalName) {
+        if (classInternalName == null) {
+            return Collections.emptyList();
+        }
+
+        Node<V> node = root;
+        List<V> result = collect(node, null);
+        for (int i = 0; i < classInternalName.length(); i++) {
+            node = node.getChild(classInternalName.charAt(i));
+            if (node == null) {
+                break;
+            }
+            result = collect(node, result);
+        }
+
+        if (result == null) {
+            return Collections.emptyList();
+        }
+        return result;
+    }
+
+    private List<V> collect(final Node<V> node, List<V> result) {
+        if (node.values == null) {
+            return result;
+        }
+        if (result == null) {
+            result = new ArrayList<V>(node.values.size());
+        }
+        result.addAll(node.values);
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static class Node<V> {
+        // sorted.
+        private char[] keys = EMPTY_KEYS;
+        private Node<V>[] children = newArray(0);
+        private List<V> values;
+
+        private Node<V> getChild(final char key) {
+            final int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                return null;
+            }
+            return children[index];
+        }
+
+        private Node<V> getOrCreateChild(final char key) {
+            final int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            final int insertIndex = -(index + 1);
+            final char[] newKeys = new char[keys.length + 1];
+            final Node<V>[] newChildren = newArray(children.length + 1);
+            System.arraycopy(keys, 0, newKeys, 0, insertIndex);
+            System.arraycopy(children, 0, newChildren, 0, insertIndex);
+            System.arraycopy(keys, insertIndex, newKeys, insertIndex + 1, keys.length - insertIndex);
+            System.arraycopy(children, insertIndex, newChildren, insertIndex + 1, children.length - insertIndex);
+
+            final Node<V> child = new Node<V>();
+            newKeys[insertIndex] = key;
+            newChildren[insertIndex] = child;
+            this.keys = newKeys;
+            this.children = newChildren;
+            return child;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> Node<V>[] newArray(int size) {
+            return new Node[size];
+        }
+    }
+}
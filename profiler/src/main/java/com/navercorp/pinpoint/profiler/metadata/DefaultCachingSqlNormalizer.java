@@ -16,11 +16,15 @@
 
 package com.navercorp.pinpoint.profiler.metadata;
 
+import com.google.common.cache.CacheBuilder;
 import com.navercorp.pinpoint.bootstrap.context.ParsingResult;
 import com.navercorp.pinpoint.common.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * @author emeroad
  */
@@ -30,12 +34,30 @@ public class DefaultCachingSqlNormalizer implements CachingSqlNormalizer {
 
     private static final DefaultParsingResult EMPTY_OBJECT = new DefaultParsingResult("");
 
+    private static final int IDENTITY_CACHE_SIZE = 256;
+
     private final SimpleCache<String> sqlCache;
     private final SqlParser sqlParser;
 
+    // original sql -> parse result, skips DefaultSqlParser for statements seen before
+    private final ConcurrentMap<String, ParsedSql> parsedSqlCache;
+    // direct mapped by identity, most prepared statements reuse the same sql instance
+    private final ParsedSql[] identityCache = new ParsedSql[IDENTITY_CACHE_SIZE];
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
     public DefaultCachingSqlNormalizer(int cacheSize) {
         this.sqlCache = new SimpleCache<String>(cacheSize);
         this.sqlParser = new DefaultSqlParser();
+        this.parsedSqlCache = createParsedSqlCache(cacheSize);
+    }
+
+    private ConcurrentMap<String, ParsedSql> createParsedSqlCache(int cacheSize) {
+        final CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+        cacheBuilder.concurrencyLevel(64);
+        cacheBuilder.maximumSize(cacheSize);
+        return cacheBuilder.<String, ParsedSql>build().asMap();
     }
 
     @Override
@@ -69,23 +91,86 @@ public class DefaultCachingSqlNormalizer implements CachingSqlNormalizer {
         final ParsingResultInternal parsingResultInternal = (ParsingResultInternal) parsingResult;
 
         final String originalSql = parsingResultInternal.getOriginalSql();
+        final ParsedSql cached = getParsedSql(originalSql);
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            setParsedSql(parsingResultInternal, cached);
+            // the sql metadata has been sent when it was first parsed
+            return false;
+        }
+        missCount.incrementAndGet();
+
         final NormalizedSql normalizedSql = this.sqlParser.normalizedSql(originalSql);
 
         final Result cachingResult = this.sqlCache.put(normalizedSql.getNormalizedSql());
 
+        final ParsedSql parsedSql = new ParsedSql(originalSql, normalizedSql.getNormalizedSql(), normalizedSql.getParseParameter(), cachingResult.getId());
+        this.parsedSqlCache.put(originalSql, parsedSql);
+        this.identityCache[identitySlot(originalSql)] = parsedSql;
+
         // set normalizedSql
         // set sqlId
-        final boolean success = parsingResultInternal.setId(cachingResult.getId());
+        setParsedSql(parsingResultInternal, parsedSql);
+
+        return cachingResult.isNewValue();
+    }
+
+    private ParsedSql getParsedSql(String originalSql) {
+        final int slot = identitySlot(originalSql);
+        final ParsedSql identityMatch = identityCache[slot];
+        if (identityMatch != null && identityMatch.originalSql == originalSql) {
+            return identityMatch;
+        }
+        final ParsedSql parsedSql = parsedSqlCache.get(originalSql);
+        if (parsedSql != null) {
+            identityCache[slot] = parsedSql;
+        }
+        return parsedSql;
+    }
+
+    private static int identitySlot(String sql) {
+        return System.identityHashCode(sql) & (IDENTITY_CACHE_SIZE - 1);
+    }
+
+    private void setParsedSql(ParsingResultInternal parsingResultInternal, ParsedSql parsedSql) {
+        final boolean success = parsingResultInternal.setId(parsedSql.id);
         if (!success) {
             if (logger.isWarnEnabled()) {
-                logger.warn("invalid state. setSqlId fail setId:{}, ParsingResultInternal:{}", cachingResult.getId(), parsingResultInternal);
+                logger.warn("invalid state. setSqlId fail setId:{}, ParsingResultInternal:{}", parsedSql.id, parsingResultInternal);
             }
         }
 
-        parsingResultInternal.setSql(normalizedSql.getNormalizedSql());
-        parsingResultInternal.setOutput(normalizedSql.getParseParameter());
+        parsingResultInternal.setSql(parsedSql.normalizedSql);
+        parsingResultInternal.setOutput(parsedSql.parseParameter);
+    }
 
-        return cachingResult.isNewValue();
+    /**
+     * @return number of sql served without parsing
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return number of sql parsed by {@link SqlParser}
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private static class ParsedSql {
+        // fields are final so that entries can be shared through the identity cache without locking
+        private final String originalSql;
+        private final String normalizedSql;
+        private final String parseParameter;
+        private final int id;
+
+        private ParsedSql(String originalSql, String normalizedSql, String parseParameter, int id) {
+            this.originalSql = originalSql;
+            this.normalizedSql = normalizedSql;
+            this.parseParameter = parseParameter;
+            this.id = id;
+        }
     }
 
 
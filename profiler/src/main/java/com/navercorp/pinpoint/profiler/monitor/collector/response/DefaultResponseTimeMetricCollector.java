@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.profiler.monitor.collector.response;
 
+import com.navercorp.pinpoint.common.trace.LogBucketHistogram;
 import com.navercorp.pinpoint.profiler.monitor.metric.response.ResponseTimeValue;
 import com.navercorp.pinpoint.profiler.monitor.metric.response.ResponseTimeMetric;
 import com.navercorp.pinpoint.thrift.dto.TResponseTime;
@@ -47,6 +48,10 @@ public class DefaultResponseTimeMetricCollector implements ResponseTimeMetricCol
         if (max != 0) {
             tResponseTime.setMax(max);
         }
+        long[] histogram = responseTimeValue.getHistogram();
+        if (histogram != null) {
+            tResponseTime.setHistogram(LogBucketHistogram.encode(histogram));
+        }
         return tResponseTime;
     }
 
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.metric.response;
+
+import com.navercorp.pinpoint.common.trace.LogBucketHistogram;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free {@link LogBucketHistogram} recorder.
+ * Writers increment the active bucket array, {@link #swapAndGet()} flips the active array and drains the other one,
+ * so nothing is allocated while recording.
+ * A writer racing with the swap lands in the drained array and is reported by the swap after next.
+ */
+public class ResponseTimeHistogramRecorder {
+
+    private final AtomicLongArray[] buckets = {
+            new AtomicLongArray(LogBucketHistogram.BUCKET_COUNT),
+            new AtomicLongArray(LogBucketHistogram.BUCKET_COUNT)
+    };
+    private volatile int active = 0;
+
+    public void record(long value) {
+        final int index = LogBucketHistogram.bucketIndex(value);
+        buckets[active].incrementAndGet(index);
+    }
+
+    /**
+     * @return bucket counts recorded since the last call, null if nothing was recorded
+     */
+    public synchronized long[] swapAndGet() {
+        final int drain = active;
+        this.active = drain ^ 1;
+
+        final AtomicLongArray drainBuckets = buckets[drain];
+        long[] counts = null;
+        for (int i = 0; i < LogBucketHistogram.BUCKET_COUNT; i++) {
+            if (drainBuckets.get(i) == 0) {
+                continue;
+            }
+            final long count = drainBuckets.getAndSet(i, 0);
+            if (counts == null) {
+                counts = new long[LogBucketHistogram.BUCKET_COUNT];
+            }
+            counts[i] = count;
+        }
+        return counts;
+    }
+}
@@ -29,4 +29,9 @@ public interface ResponseTimeValue {
 
     long getTransactionCount();
 
+    /**
+     * @return bucket counts of {@link com.navercorp.pinpoint.common.trace.LogBucketHistogram}, null if nothing was recorded
+     */
+    long[] getHistogram();
+
 }
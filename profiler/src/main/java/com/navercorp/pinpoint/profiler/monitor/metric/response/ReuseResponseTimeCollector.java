@@ -27,6 +27,7 @@ import java.util.concurrent.atomic.AtomicLong;
 public class ReuseResponseTimeCollector implements ResponseTimeCollector {
 
     private volatile ResponseTimeCollector currentResponseTimeCollector;
+    private final ResponseTimeHistogramRecorder histogramRecorder = new ResponseTimeHistogramRecorder();
 
     @Inject
     public ReuseResponseTimeCollector() {
@@ -36,6 +37,7 @@ public class ReuseResponseTimeCollector implements ResponseTimeCollector {
     @Override
     public void add(long value) {
         this.currentResponseTimeCollector.add(value);
+        this.histogramRecorder.record(value);
     }
 
     @Override
@@ -45,7 +47,8 @@ public class ReuseResponseTimeCollector implements ResponseTimeCollector {
         final long totalValue = reset.getTotalValue();
         final long maxValue = reset.getMaxValue();
         final long transactionCount = reset.getTransactionCount();
-        ResponseTimeValue result = new ResponseTimeValue0(totalValue, maxValue, transactionCount);
+        final long[] histogram = histogramRecorder.swapAndGet();
+        ResponseTimeValue result = new ResponseTimeValue0(totalValue, maxValue, transactionCount, histogram);
         return result;
     }
 
@@ -103,11 +106,13 @@ public class ReuseResponseTimeCollector implements ResponseTimeCollector {
         private final long totalResponseTime;
         private final long maxResponseTime;
         private final long transactionCount;
+        private final long[] histogram;
 
-        private ResponseTimeValue0(long totalResponseTime, long maxResponseTime, long transactionCount) {
+        private ResponseTimeValue0(long totalResponseTime, long maxResponseTime, long transactionCount, long[] histogram) {
             this.totalResponseTime = totalResponseTime;
             this.maxResponseTime = maxResponseTime;
             this.transactionCount = transactionCount;
+            this.histogram = histogram;
         }
 
         @Override
@@ -134,6 +139,11 @@ public class ReuseResponseTimeCollector implements ResponseTimeCollector {
             return transactionCount;
         }
 
+        @Override
+        public long[] getHistogram() {
+            return histogram;
+        }
+
         @Override
         public String toString() {
             final StringBuilder sb = new StringBuilder("ResponseTimeValue0{");
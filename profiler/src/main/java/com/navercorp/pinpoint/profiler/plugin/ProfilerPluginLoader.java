@@ -22,11 +22,16 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
+import com.navercorp.pinpoint.common.util.ExecutorFactory;
 import com.navercorp.pinpoint.common.util.StringUtils;
 import com.navercorp.pinpoint.profiler.instrument.InstrumentEngine;
 import org.slf4j.Logger;
@@ -68,48 +73,116 @@ public class ProfilerPluginLoader {
 
     /**
      * 加载插件
+     * plugin jars are loaded concurrently when profiler.plugin.load.concurrency is greater than 1,
+     * the results are merged in the order of the pluginJars.
      * @param pluginJars
      * @return
      */
     public List<SetupResult> load(URL[] pluginJars) {
+        final long startTime = System.currentTimeMillis();
+        final int concurrency = Math.min(profilerConfig.getPluginLoadConcurrency(), pluginJars.length);
+
+        final List<SetupResult> pluginContexts;
+        if (concurrency <= 1) {
+            pluginContexts = new ArrayList<SetupResult>(pluginJars.length);
+            for (URL pluginJar : pluginJars) {
+                pluginContexts.addAll(loadPluginJar(pluginJar));
+            }
+        } else {
+            pluginContexts = concurrentLoad(pluginJars, concurrency);
+        }
 
-        List<SetupResult> pluginContexts = new ArrayList<SetupResult>(pluginJars.length);
+        if (logger.isInfoEnabled()) {
+            logger.info("Plugin load completed. pluginJar:{} plugin:{} concurrency:{} elapsed:{}ms", pluginJars.length, pluginContexts.size(), Math.max(concurrency, 1), System.currentTimeMillis() - startTime);
+        }
+        return pluginContexts;
+    }
 
-        for (URL pluginJar : pluginJars) {
+    private List<SetupResult> concurrentLoad(URL[] pluginJars, int concurrency) {
+        final ExecutorService executor = ExecutorFactory.newFixedThreadPool(concurrency, pluginJars.length, "Pinpoint-plugin-loader", true);
+        try {
+            final List<Future<List<SetupResult>>> futures = new ArrayList<Future<List<SetupResult>>>(pluginJars.length);
+            for (final URL pluginJar : pluginJars) {
+                final Future<List<SetupResult>> future = executor.submit(new Callable<List<SetupResult>>() {
+                    @Override
+                    public List<SetupResult> call() {
+                        return loadPluginJar(pluginJar);
+                    }
+                });
+                futures.add(future);
+            }
 
-            //加载jar
-            final JarFile pluginJarFile = createJarFile(pluginJar);
-            //获得jar中的各类包名
-            final List<String> pluginPackageList = getPluginPackage(pluginJarFile);
+            // merge in pluginJar order.
+            final List<SetupResult> pluginContexts = new ArrayList<SetupResult>(pluginJars.length);
+            for (int i = 0; i < futures.size(); i++) {
+                pluginContexts.addAll(getResult(futures.get(i), pluginJars[i]));
+            }
+            return pluginContexts;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-            //创建过滤链
-            final ClassNameFilter pluginFilterChain = createPluginFilterChain(pluginPackageList);
+    private List<SetupResult> getResult(Future<List<SetupResult>> future, URL pluginJar) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("plugin load interrupted. pluginJar:" + pluginJar, e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("plugin load failed. pluginJar:" + pluginJar, cause);
+        }
+    }
+
+    private List<SetupResult> loadPluginJar(URL pluginJar) {
+        final long startTime = System.currentTimeMillis();
 
-            //spi加载插件**ProfilerPlugin**
-            final List<ProfilerPlugin> original = PluginLoader.load(ProfilerPlugin.class, new URL[] { pluginJar });
+        //加载jar
+        final JarFile pluginJarFile = createJarFile(pluginJar);
+        //获得jar中的各类包名
+        final List<String> pluginPackageList = getPluginPackage(pluginJarFile);
 
-            //过滤掉被禁止的插件
-            List<ProfilerPlugin> plugins = filterDisablePlugin(original);
+        //创建过滤链
+        final ClassNameFilter pluginFilterChain = createPluginFilterChain(pluginPackageList);
+        final long scanTime = System.currentTimeMillis();
 
-            for (ProfilerPlugin plugin : plugins) {
-                 if (logger.isInfoEnabled()) {
-                    logger.info("{} Plugin {}:{}", plugin.getClass(), PluginConfig.PINPOINT_PLUGIN_PACKAGE, pluginPackageList);
-                }
-                
-                logger.info("Loading plugin:{} pluginPackage:{}", plugin.getClass().getName(), plugin);
+        //spi加载插件**ProfilerPlugin**
+        final List<ProfilerPlugin> original = PluginLoader.load(ProfilerPlugin.class, new URL[] { pluginJar });
 
-                //构建插件的配置对象
-                PluginConfig pluginConfig = new PluginConfig(pluginJar, pluginFilterChain);
-                //构建PluginClassInjector
-                final ClassInjector classInjector = new JarProfilerPluginClassInjector(pluginConfig, instrumentEngine);
-                //设置插件获得结果
-                final SetupResult result = pluginSetup.setupPlugin(plugin, classInjector);
-                //插件上下文中添加相关result
-                pluginContexts.add(result);
+        //过滤掉被禁止的插件
+        List<ProfilerPlugin> plugins = filterDisablePlugin(original);
+        final long discoveryTime = System.currentTimeMillis();
+
+        List<SetupResult> pluginContexts = new ArrayList<SetupResult>(plugins.size());
+        for (ProfilerPlugin plugin : plugins) {
+             if (logger.isInfoEnabled()) {
+                logger.info("{} Plugin {}:{}", plugin.getClass(), PluginConfig.PINPOINT_PLUGIN_PACKAGE, pluginPackageList);
             }
-        }
-        
 
+            logger.info("Loading plugin:{} pluginPackage:{}", plugin.getClass().getName(), plugin);
+
+            final long setupStartTime = System.currentTimeMillis();
+            //构建插件的配置对象
+            PluginConfig pluginConfig = new PluginConfig(pluginJar, pluginFilterChain);
+            //构建PluginClassInjector
+            final ClassInjector classInjector = new JarProfilerPluginClassInjector(pluginConfig, instrumentEngine);
+            //设置插件获得结果
+            final SetupResult result = pluginSetup.setupPlugin(plugin, classInjector);
+            //插件上下文中添加相关result
+            pluginContexts.add(result);
+
+            if (logger.isInfoEnabled()) {
+                logger.info("Plugin setup time. plugin:{} scan:{}ms discovery:{}ms setup:{}ms transformer:{}", plugin.getClass().getName(),
+                        scanTime - startTime, discoveryTime - scanTime, System.currentTimeMillis() - setupStartTime, result.getClassTransformerList().size());
+            }
+        }
         return pluginContexts;
     }
 
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import com.navercorp.pinpoint.common.util.Clock;
+import com.navercorp.pinpoint.common.util.MathUtils;
+import com.navercorp.pinpoint.common.util.SystemClock;
+import com.navercorp.pinpoint.profiler.sender.SendQueueStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 1 out of n sampler whose n follows the span send queue.
+ * n is doubled (up to maxSamplingRate) while data is dropped or the queue is mostly full,
+ * and halved back toward samplingRate once the queue has drained.
+ */
+public class AdaptiveSampler implements Sampler {
+
+    static final long ADJUST_INTERVAL = 1000;
+
+    private static final int HIGH_WATER_MARK_PERCENT = 70;
+    private static final int LOW_WATER_MARK_PERCENT = 30;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final int samplingRate;
+    private final int maxSamplingRate;
+    private final SendQueueStatus sendQueueStatus;
+    private final Clock clock;
+
+    private final AtomicInteger counter = new AtomicInteger(0);
+    private final AtomicLong nextAdjustTime;
+    private volatile int currentSamplingRate;
+    // only touched by the thread winning nextAdjustTime
+    private long lastDroppedCount;
+
+    public AdaptiveSampler(int samplingRate, int maxSamplingRate, SendQueueStatus sendQueueStatus) {
+        this(samplingRate, maxSamplingRate, sendQueueStatus, SystemClock.INSTANCE);
+    }
+
+    AdaptiveSampler(int samplingRate, int maxSamplingRate, SendQueueStatus sendQueueStatus, Clock clock) {
+        if (samplingRate <= 0) {
+            throw new IllegalArgumentException("Invalid samplingRate " + samplingRate);
+        }
+        if (maxSamplingRate < samplingRate) {
+            throw new IllegalArgumentException("maxSamplingRate must be greater than or equal to samplingRate. maxSamplingRate:" + maxSamplingRate);
+        }
+        if (sendQueueStatus == null) {
+            throw new NullPointerException("sendQueueStatus must not be null");
+        }
+        if (clock == null) {
+            throw new NullPointerException("clock must not be null");
+        }
+        this.samplingRate = samplingRate;
+        this.maxSamplingRate = maxSamplingRate;
+        this.sendQueueStatus = sendQueueStatus;
+        this.clock = clock;
+        this.currentSamplingRate = samplingRate;
+        this.lastDroppedCount = sendQueueStatus.getDroppedCount();
+        this.nextAdjustTime = new AtomicLong(clock.getTime() + ADJUST_INTERVAL);
+    }
+
+    @Override
+    public boolean isSampling() {
+        final long now = clock.getTime();
+        final long adjustTime = nextAdjustTime.get();
+        if (now >= adjustTime && nextAdjustTime.compareAndSet(adjustTime, now + ADJUST_INTERVAL)) {
+            adjustSamplingRate();
+        }
+
+        final int rate = currentSamplingRate;
+        if (rate == 1) {
+            return true;
+        }
+        final int samplingCount = MathUtils.fastAbs(counter.getAndIncrement());
+        return samplingCount % rate == 0;
+    }
+
+    private void adjustSamplingRate() {
+        final long droppedCount = sendQueueStatus.getDroppedCount();
+        final long dropped = droppedCount - lastDroppedCount;
+        this.lastDroppedCount = droppedCount;
+
+        final int queueUsage = getQueueUsagePercent();
+        final int oldRate = currentSamplingRate;
+        int newRate = oldRate;
+        if (dropped > 0 || queueUsage >= HIGH_WATER_MARK_PERCENT) {
+            newRate = (int) Math.min((long) oldRate * 2, maxSamplingRate);
+        } else if (queueUsage < LOW_WATER_MARK_PERCENT) {
+            newRate = Math.max(oldRate / 2, samplingRate);
+        }
+
+        if (newRate != oldRate) {
+            this.currentSamplingRate = newRate;
+            if (logger.isInfoEnabled()) {
+                logger.info("samplingRate changed {} -> {}. queueUsage:{}%, dropped:{}", oldRate, newRate, queueUsage, dropped);
+            }
+        }
+    }
+
+    private int getQueueUsagePercent() {
+        final int capacity = sendQueueStatus.getQueueCapacity();
+        if (capacity <= 0) {
+            return 0;
+        }
+        return (int) ((long) sendQueueStatus.getQueueSize() * 100 / capacity);
+    }
+
+    /**
+     * @return effective 1 out of n sampling rate
+     */
+    public int getCurrentSamplingRate() {
+        return currentSamplingRate;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveSampler{" +
+                "samplingRate=" + samplingRate +
+                ", maxSamplingRate=" + maxSamplingRate +
+                ", currentSamplingRate=" + currentSamplingRate +
+                '}';
+    }
+}
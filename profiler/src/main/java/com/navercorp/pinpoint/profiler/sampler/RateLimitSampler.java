@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import com.navercorp.pinpoint.common.util.Clock;
+import com.navercorp.pinpoint.common.util.SystemClock;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sampler allowing at most permitsPerSecond new traces per second.
+ * Unused permits are kept for up to one second, so short bursts after an idle period are still sampled.
+ */
+public class RateLimitSampler implements Sampler {
+
+    private static final long NANOS_PER_MILLIS = 1000L * 1000L;
+    private static final long NANOS_PER_SECOND = 1000L * NANOS_PER_MILLIS;
+
+    private final int permitsPerSecond;
+    private final long permitIntervalNanos;
+    private final Clock clock;
+
+    // time up to which permits have been handed out
+    private final AtomicLong allocatedUntil;
+
+    public RateLimitSampler(int permitsPerSecond) {
+        this(permitsPerSecond, SystemClock.INSTANCE);
+    }
+
+    RateLimitSampler(int permitsPerSecond, Clock clock) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid permitsPerSecond " + permitsPerSecond);
+        }
+        if (clock == null) {
+            throw new NullPointerException("clock must not be null");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.permitIntervalNanos = NANOS_PER_SECOND / permitsPerSecond;
+        this.clock = clock;
+        this.allocatedUntil = new AtomicLong(currentNanos());
+    }
+
+    @Override
+    public boolean isSampling() {
+        final long now = currentNanos();
+        while (true) {
+            final long current = allocatedUntil.get();
+            // permits older than one second are dropped
+            final long base = Math.max(current, now - NANOS_PER_SECOND);
+            final long next = base + permitIntervalNanos;
+            if (next > now) {
+                return false;
+            }
+            if (allocatedUntil.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    private long currentNanos() {
+        return clock.getTime() * NANOS_PER_MILLIS;
+    }
+
+    public int getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitSampler{" +
+                "permitsPerSecond=" + permitsPerSecond +
+                '}';
+    }
+}
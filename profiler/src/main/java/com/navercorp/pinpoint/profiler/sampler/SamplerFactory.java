@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.profiler.sampler;
 
 import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import com.navercorp.pinpoint.profiler.sender.SendQueueStatus;
 
 /**
  * 采样工厂
@@ -42,4 +43,35 @@ public class SamplerFactory {
         //按比率采样
         return new SamplingRateSampler(samplingRate);
     }
+
+    /**
+     * 按每秒最多采样数采样
+     * @param sampling
+     * @param permitsPerSecond
+     * @return
+     */
+    public Sampler createRateLimitSampler(boolean sampling, int permitsPerSecond) {
+        if (!sampling || permitsPerSecond <= 0) {
+            return new FalseSampler();
+        }
+        return new RateLimitSampler(permitsPerSecond);
+    }
+
+    /**
+     * 根据发送队列状态自动调整采样速率
+     * @param sampling
+     * @param samplingRate
+     * @param maxSamplingRate
+     * @param sendQueueStatus
+     * @return
+     */
+    public Sampler createAdaptiveSampler(boolean sampling, int samplingRate, int maxSamplingRate, SendQueueStatus sendQueueStatus) {
+        if (!sampling || samplingRate <= 0) {
+            return new FalseSampler();
+        }
+        if (sendQueueStatus == null) {
+            return createSampler(sampling, samplingRate);
+        }
+        return new AdaptiveSampler(samplingRate, Math.max(samplingRate, maxSamplingRate), sendQueueStatus);
+    }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+public enum SamplerType {
+    /**
+     * 1 out of n transactions (profiler.sampling.rate)
+     */
+    COUNTING,
+    /**
+     * at most n transactions per second (profiler.sampling.ratelimit.per.second)
+     */
+    RATE_LIMIT,
+    /**
+     * counting sampler whose rate backs off while the span send queue is congested
+     */
+    ADAPTIVE;
+
+    public static SamplerType of(String name, SamplerType defaultType) {
+        if (name == null) {
+            return defaultType;
+        }
+        for (SamplerType samplerType : values()) {
+            if (samplerType.name().equalsIgnoreCase(name.trim())) {
+                return samplerType;
+            }
+        }
+        return defaultType;
+    }
+}
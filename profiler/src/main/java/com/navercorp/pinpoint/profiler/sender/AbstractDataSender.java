@@ -17,14 +17,19 @@
 package com.navercorp.pinpoint.profiler.sender;
 
 import java.util.Collection;
+import java.util.List;
 
 import org.apache.thrift.TBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanChunk;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
 import com.navercorp.pinpoint.rpc.FutureListener;
 import com.navercorp.pinpoint.rpc.ResponseMessage;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
 import com.navercorp.pinpoint.thrift.util.SerializationUtils;
 
@@ -36,6 +41,8 @@ public abstract class AbstractDataSender implements DataSender {
 
     private Logger logger = LoggerFactory.getLogger(this.getClass());
 
+    private volatile SendQueueStatus sendQueueStatus;
+
     abstract protected void sendPacket(Object dto);
 
     protected void sendPacketN(Collection<Object> messageList) {
@@ -56,21 +63,57 @@ public abstract class AbstractDataSender implements DataSender {
     }
 
     protected AsyncQueueingExecutor<Object> createAsyncQueueingExecutor(int queueSize, String executorName) {
-        final AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(queueSize, executorName);
+        return createAsyncQueueingExecutor(queueSize, executorName, SendQueueFactory.DEFAULT);
+    }
+
+    protected AsyncQueueingExecutor<Object> createAsyncQueueingExecutor(int queueSize, String executorName, SendQueueFactory sendQueueFactory) {
+        final AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(queueSize, executorName, sendQueueFactory);
         executor.setListener(new AsyncQueueingExecutorListener<Object>() {
             @Override
             public void execute(Collection<Object> messageList) {
                 sendPacketN(messageList);
+                for (Object message : messageList) {
+                    recycle(message);
+                }
             }
 
             @Override
             public void execute(Object message) {
                 sendPacket(message);
+                recycle(message);
             }
         });
+        this.sendQueueStatus = executor;
         return executor;
     }
 
+    /**
+     * @return status of the send queue, or null if this sender has not created one
+     */
+    public SendQueueStatus getSendQueueStatus() {
+        return sendQueueStatus;
+    }
+
+    // the message has been serialized, pooled span events can be reused
+    private void recycle(Object message) {
+        if (message instanceof Span) {
+            recycle(((Span) message).getSpanEventList());
+        } else if (message instanceof SpanChunk) {
+            recycle(((SpanChunk) message).getSpanEventList());
+        }
+    }
+
+    private void recycle(List<TSpanEvent> spanEventList) {
+        if (spanEventList == null) {
+            return;
+        }
+        for (TSpanEvent spanEvent : spanEventList) {
+            if (spanEvent instanceof SpanEvent) {
+                ((SpanEvent) spanEvent).recycle();
+            }
+        }
+    }
+
     protected byte[] serialize(HeaderTBaseSerializer serializer, TBase tBase) {
         return SerializationUtils.serialize(tBase, serializer, null);
     }
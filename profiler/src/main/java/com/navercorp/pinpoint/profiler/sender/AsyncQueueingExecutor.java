@@ -17,10 +17,10 @@
 package com.navercorp.pinpoint.profiler.sender;
 
 import java.util.Collection;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,14 +32,15 @@ import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
  * 异步队列发送器，用于发送消息
  * @author emeroad
  */
-public class AsyncQueueingExecutor<T> implements Runnable {
+public class AsyncQueueingExecutor<T> implements Runnable, SendQueueStatus {
 
     private static final AsyncQueueingExecutorListener EMPTY_LISTENER = new EmptyAsyncQueueingExecutorListener();
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final boolean isWarn = logger.isWarnEnabled();
 
-    private final LinkedBlockingQueue<T> queue;
+    private final SendQueue<T> queue;
+    private final AtomicLong droppedCount = new AtomicLong();
     private final AtomicBoolean isRun = new AtomicBoolean(true);
     private final Thread executeThread;
     private final String executorName;
@@ -56,13 +57,20 @@ public class AsyncQueueingExecutor<T> implements Runnable {
     }
 
     public AsyncQueueingExecutor(int queueSize, String executorName) {
+        this(queueSize, executorName, SendQueueFactory.DEFAULT);
+    }
+
+    public AsyncQueueingExecutor(int queueSize, String executorName, SendQueueFactory sendQueueFactory) {
         if (executorName == null) {
             throw new NullPointerException("executorName must not be null");
         }
+        if (sendQueueFactory == null) {
+            throw new NullPointerException("sendQueueFactory must not be null");
+        }
         // BEFORE executeThread start
-        this.maxDrainSize = 10;
+        this.maxDrainSize = sendQueueFactory.getMaxDrainSize();
         this.drain = new UnsafeArrayCollection<T>(maxDrainSize);
-        this.queue = new LinkedBlockingQueue<T>(queueSize);
+        this.queue = sendQueueFactory.createQueue(queueSize);
 
         this.executeThread = this.createExecuteThread(executorName);
         this.executorName = executeThread.getName();
@@ -152,8 +160,9 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         }
         boolean offer = queue.offer(data);
         if (!offer) {
+            final long dropped = droppedCount.incrementAndGet();
             if (isWarn) {
-                logger.warn("{} Drop data. queue is full. size:{}", executorName, queue.size());
+                logger.warn("{} Drop data. queue is full. size:{} dropped:{}", executorName, queue.size(), dropped);
             }
         }
         return offer;
@@ -178,6 +187,24 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         return queue.isEmpty();
     }
 
+    @Override
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return queue.capacity();
+    }
+
+    /**
+     * @return number of data discarded because the queue was full
+     */
+    @Override
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
     public boolean isRun() {
         return isRun.get();
     }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
+
+/**
+ * Packs several TBase into one packet. chunk header + (header + TBase)*
+ * The collector unpacks it with HeaderTBaseDeserializer.deserializeChunk().
+ *
+ * Caution. not thread safe
+ */
+class BatchPacketSerializer {
+
+    private final HeaderTBaseSerializer serializer;
+    private final int maxPacketSize;
+
+    private byte[] buffer;
+    private int count = 0;
+
+    BatchPacketSerializer(int maxPacketSize) {
+        if (maxPacketSize <= 0) {
+            throw new IllegalArgumentException("maxPacketSize must be positive");
+        }
+        this.maxPacketSize = maxPacketSize;
+        // autoExpand. a message larger than maxPacketSize is rolled back instead of failing in the middle of the stream
+        this.serializer = new HeaderTBaseSerializerFactory(false, maxPacketSize, true).createSerializer();
+    }
+
+    void reset() throws TException {
+        this.serializer.reset();
+        this.buffer = serializer.continueSerializeChunkHeader();
+        this.count = 0;
+    }
+
+    /**
+     * @return false if tBase does not fit into the remaining packet budget. the packet is left unchanged.
+     */
+    boolean add(TBase<?, ?> tBase) throws TException {
+        if (this.buffer == null) {
+            reset();
+        }
+        final int mark = serializer.getInterBufferSize();
+        final byte[] newBuffer;
+        try {
+            newBuffer = serializer.continueSerialize(tBase);
+        } catch (TException e) {
+            serializer.reset(mark);
+            throw e;
+        }
+        if (serializer.getInterBufferSize() > maxPacketSize) {
+            serializer.reset(mark);
+            return false;
+        }
+        this.buffer = newBuffer;
+        this.count++;
+        return true;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * internal buffer. valid until the next reset()
+     */
+    byte[] getBuffer() {
+        return buffer;
+    }
+
+    int getSize() {
+        return serializer.getInterBufferSize();
+    }
+
+    int getMaxPacketSize() {
+        return maxPacketSize;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import com.navercorp.pinpoint.rpc.buffer.ByteBufferFactory;
+import com.navercorp.pinpoint.rpc.buffer.ByteBufferFactoryLocator;
+import com.navercorp.pinpoint.rpc.buffer.ByteBufferType;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of direct buffers with a cap on the direct memory held by the buffers it hands out.
+ * Allocating a direct buffer is expensive, and netty releases them on its own io thread.
+ * Buffers of bufferSize are pooled, other sizes are allocated to fit and left to the gc on release.
+ * acquire returns null once maxDirectBytes is reached, the caller falls back to a heap buffer.
+ */
+class DirectByteBufferPool {
+
+    private final ByteBufferFactory bufferFactory = ByteBufferFactoryLocator.getFactory(ByteBufferType.DIRECT);
+
+    private final BlockingQueue<ByteBuffer> pool;
+    private final int bufferSize;
+    private final long maxDirectBytes;
+
+    // capacity of the buffers in the pool and in flight
+    private final AtomicLong directBytes = new AtomicLong();
+
+    DirectByteBufferPool(int poolSize, int bufferSize, long maxDirectBytes) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("poolSize must be positive");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        if (maxDirectBytes < bufferSize) {
+            throw new IllegalArgumentException("maxDirectBytes must not be less than bufferSize");
+        }
+        this.pool = new ArrayBlockingQueue<ByteBuffer>(poolSize);
+        this.bufferSize = bufferSize;
+        this.maxDirectBytes = maxDirectBytes;
+    }
+
+    /**
+     * @return cleared buffer of bufferSize, null if maxDirectBytes is reached
+     */
+    ByteBuffer acquire() {
+        final ByteBuffer byteBuffer = pool.poll();
+        if (byteBuffer != null) {
+            byteBuffer.clear();
+            return byteBuffer;
+        }
+        return allocate(bufferSize);
+    }
+
+    /**
+     * @return cleared buffer of at least size bytes, null if maxDirectBytes is reached
+     */
+    ByteBuffer acquire(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+        if (size <= bufferSize) {
+            final ByteBuffer byteBuffer = pool.poll();
+            if (byteBuffer != null) {
+                byteBuffer.clear();
+                return byteBuffer;
+            }
+        }
+        return allocate(size);
+    }
+
+    private ByteBuffer allocate(int size) {
+        if (!reserve(size)) {
+            return null;
+        }
+        try {
+            return bufferFactory.getBuffer(size);
+        } catch (OutOfMemoryError e) {
+            directBytes.addAndGet(-size);
+            return null;
+        }
+    }
+
+    private boolean reserve(int size) {
+        while (true) {
+            final long current = directBytes.get();
+            final long next = current + size;
+            if (next > maxDirectBytes) {
+                return false;
+            }
+            if (directBytes.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * thread safe. only buffers from acquire may be released, each one once.
+     */
+    void release(ByteBuffer byteBuffer) {
+        if (byteBuffer == null) {
+            return;
+        }
+        if (byteBuffer.capacity() == bufferSize && pool.offer(byteBuffer)) {
+            return;
+        }
+        // left to the gc
+        directBytes.addAndGet(-byteBuffer.capacity());
+    }
+
+    int getBufferSize() {
+        return bufferSize;
+    }
+
+    long getDirectBytes() {
+        return directBytes.get();
+    }
+
+    int size() {
+        return pool.size();
+    }
+}
@@ -60,6 +60,10 @@ public class NioUDPDataSender extends AbstractDataSender implements DataSender {
     }
 
     public NioUDPDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, SendQueueFactory.DEFAULT);
+    }
+
+    public NioUDPDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, SendQueueFactory sendQueueFactory) {
         if (host == null ) {
             throw new NullPointerException("host must not be null");
         }
@@ -87,7 +91,7 @@ public class NioUDPDataSender extends AbstractDataSender implements DataSender {
         ByteBuffer byteBuffer = bufferFactory.getBuffer(UDP_MAX_PACKET_LENGTH);
         this.byteBufferOutputStream = new ByteBufferOutputStream(byteBuffer);
 
-        this.executor = createAsyncQueueingExecutor(queueSize, threadName);
+        this.executor = createAsyncQueueingExecutor(queueSize, threadName, sendQueueFactory);
     }
 
     private DatagramChannel createChannel(String host, int port, int timeout, int sendBufferSize) {
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import com.navercorp.pinpoint.common.util.Assert;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer single-consumer ring buffer.
+ * All slots are allocated up front, so offer() does not allocate.
+ * The capacity is rounded up to the next power of two.
+ *
+ * Caution. poll() and drainTo() must be called by a single consumer thread.
+ */
+public class RingBufferSendQueue<T> implements SendQueue<T> {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final Object[] buffer;
+    // per slot sequence. slot is writable when sequence == producerIndex, readable when sequence == consumerIndex + 1
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+    // written by the consumer thread only
+    private volatile long consumerIndex = 0;
+
+    private final RingBufferWaitStrategy waitStrategy;
+    private volatile Thread waitingConsumer;
+
+    public RingBufferSendQueue(int capacity) {
+        this(capacity, RingBufferWaitStrategy.BLOCKING);
+    }
+
+    public RingBufferSendQueue(int capacity, RingBufferWaitStrategy waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.waitStrategy = Assert.requireNonNull(waitStrategy, "waitStrategy must not be null");
+
+        final int size = roundUpToPowerOfTwo(capacity);
+        this.buffer = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+    }
+
+    static int roundUpToPowerOfTwo(int value) {
+        if (value > (1 << 30)) {
+            throw new IllegalArgumentException("capacity too large:" + value);
+        }
+        int size = 1;
+        while (size < value) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean offer(T data) {
+        if (data == null) {
+            throw new NullPointerException("data must not be null");
+        }
+        while (true) {
+            final long index = producerIndex.get();
+            final int slot = (int) (index & mask);
+            final long sequence = sequences.get(slot);
+            final long diff = sequence - index;
+            if (diff == 0) {
+                if (producerIndex.compareAndSet(index, index + 1)) {
+                    buffer[slot] = data;
+                    sequences.set(slot, index + 1);
+                    signalConsumer();
+                    return true;
+                }
+            } else if (diff < 0) {
+                // full
+                return false;
+            }
+            // another producer claimed the slot. retry
+        }
+    }
+
+    private void signalConsumer() {
+        final Thread consumer = this.waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T poll() {
+        final long index = this.consumerIndex;
+        final int slot = (int) (index & mask);
+        final long sequence = sequences.get(slot);
+        if (sequence != index + 1) {
+            // empty or producer has not finished writing yet
+            return null;
+        }
+        final T data = (T) buffer[slot];
+        buffer[slot] = null;
+        sequences.lazySet(slot, index + buffer.length);
+        this.consumerIndex = index + 1;
+        return data;
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        T data = poll();
+        if (data != null) {
+            return data;
+        }
+
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idleCount = 0;
+        while (true) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            idle(idleCount++, remaining);
+
+            data = poll();
+            if (data != null) {
+                return data;
+            }
+        }
+    }
+
+    private void idle(int idleCount, long remainingNanos) {
+        switch (waitStrategy) {
+            case BLOCKING:
+                if (idleCount < SPIN_TRIES) {
+                    return;
+                }
+                this.waitingConsumer = Thread.currentThread();
+                try {
+                    // re-check after publishing the waiting thread to avoid a lost wakeup
+                    if (isEmpty()) {
+                        LockSupport.parkNanos(this, remainingNanos);
+                    }
+                } finally {
+                    this.waitingConsumer = null;
+                }
+                return;
+            case SLEEPING:
+                if (idleCount < SPIN_TRIES) {
+                    return;
+                }
+                if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+                    Thread.yield();
+                    return;
+                }
+                LockSupport.parkNanos(this, Math.min(SLEEP_NANOS, remainingNanos));
+                return;
+            case YIELDING:
+                if (idleCount < SPIN_TRIES) {
+                    return;
+                }
+                Thread.yield();
+                return;
+            case BUSY_SPIN:
+            default:
+                return;
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> drain, int maxDrainSize) {
+        int count = 0;
+        while (count < maxDrainSize) {
+            final T data = poll();
+            if (data == null) {
+                break;
+            }
+            drain.add(data);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        final long index = this.consumerIndex;
+        final int slot = (int) (index & mask);
+        return sequences.get(slot) != index + 1;
+    }
+
+    @Override
+    public int size() {
+        final long size = producerIndex.get() - consumerIndex;
+        if (size < 0) {
+            return 0;
+        }
+        return (int) Math.min(size, buffer.length);
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public String toString() {
+        return "RingBufferSendQueue{capacity=" + buffer.length + ", waitStrategy=" + waitStrategy + '}';
+    }
+}
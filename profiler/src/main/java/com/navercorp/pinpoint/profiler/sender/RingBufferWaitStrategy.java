@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+/**
+ * How the consumer of {@link RingBufferSendQueue} waits for new data.
+ */
+public enum RingBufferWaitStrategy {
+
+    /**
+     * park until a producer signals. lowest cpu usage, producers pay a volatile read per offer.
+     */
+    BLOCKING,
+    /**
+     * spin, yield and then park for a short time.
+     */
+    SLEEPING,
+    /**
+     * spin and then yield.
+     */
+    YIELDING,
+    /**
+     * spin only. dedicates a core to the executor thread.
+     */
+    BUSY_SPIN
+
+}
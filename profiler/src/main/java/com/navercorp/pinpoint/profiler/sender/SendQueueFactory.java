@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import com.navercorp.pinpoint.common.util.Assert;
+
+public final class SendQueueFactory {
+
+    public static final int DEFAULT_MAX_DRAIN_SIZE = 10;
+
+    public static final SendQueueFactory DEFAULT = new SendQueueFactory(SendQueueType.LINKED, RingBufferWaitStrategy.BLOCKING, DEFAULT_MAX_DRAIN_SIZE);
+
+    private final SendQueueType queueType;
+    private final RingBufferWaitStrategy waitStrategy;
+    private final int maxDrainSize;
+
+    public SendQueueFactory(SendQueueType queueType, RingBufferWaitStrategy waitStrategy, int maxDrainSize) {
+        this.queueType = Assert.requireNonNull(queueType, "queueType must not be null");
+        this.waitStrategy = Assert.requireNonNull(waitStrategy, "waitStrategy must not be null");
+        if (maxDrainSize <= 0) {
+            throw new IllegalArgumentException("maxDrainSize must be positive");
+        }
+        this.maxDrainSize = maxDrainSize;
+    }
+
+    public static SendQueueFactory of(String queueTypeName, String waitStrategyName, int maxDrainSize) {
+        final SendQueueType queueType = valueOf(SendQueueType.class, queueTypeName, SendQueueType.LINKED);
+        final RingBufferWaitStrategy waitStrategy = valueOf(RingBufferWaitStrategy.class, waitStrategyName, RingBufferWaitStrategy.BLOCKING);
+        if (maxDrainSize <= 0) {
+            maxDrainSize = DEFAULT_MAX_DRAIN_SIZE;
+        }
+        return new SendQueueFactory(queueType, waitStrategy, maxDrainSize);
+    }
+
+    private static <E extends Enum<E>> E valueOf(Class<E> enumType, String name, E defaultValue) {
+        if (name == null) {
+            return defaultValue;
+        }
+        final String trimName = name.trim();
+        for (E constant : enumType.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(trimName)) {
+                return constant;
+            }
+        }
+        return defaultValue;
+    }
+
+    public <T> SendQueue<T> createQueue(int queueSize) {
+        if (queueType == SendQueueType.RING_BUFFER) {
+            return new RingBufferSendQueue<T>(queueSize, waitStrategy);
+        }
+        return new LinkedBlockingSendQueue<T>(queueSize);
+    }
+
+    public SendQueueType getQueueType() {
+        return queueType;
+    }
+
+    public RingBufferWaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public int getMaxDrainSize() {
+        return maxDrainSize;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SendQueueFactory{");
+        sb.append("queueType=").append(queueType);
+        sb.append(", waitStrategy=").append(waitStrategy);
+        sb.append(", maxDrainSize=").append(maxDrainSize);
+        sb.append('}');
+        return sb.toString();
+    }
+}
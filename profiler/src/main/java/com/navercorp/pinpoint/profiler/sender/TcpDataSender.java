@@ -27,11 +27,14 @@ import com.navercorp.pinpoint.rpc.client.PinpointClientReconnectEventListener;
 import com.navercorp.pinpoint.rpc.util.ClientFactoryUtils;
 import com.navercorp.pinpoint.rpc.util.TimerFactory;
 import com.navercorp.pinpoint.thrift.dto.TResult;
+import com.navercorp.pinpoint.thrift.io.ByteBufferHeaderTBaseSerializer;
+import com.navercorp.pinpoint.thrift.io.ByteBufferHeaderTBaseSerializerFactory;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
 import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
 import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.util.HashedWheelTimer;
 import org.jboss.netty.util.Timeout;
@@ -41,6 +44,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -68,8 +74,22 @@ public class TcpDataSender extends AbstractDataSender implements EnhancedDataSen
 
     private final HeaderTBaseSerializer serializer;
 
+    private static final int DIRECT_BUFFER_POOL_SIZE = 8;
+    private static final int DIRECT_BUFFER_SIZE = 1024 * 64;
+    // pooled buffers included. over the limit messages are sent from heap buffers
+    private static final long MAX_DIRECT_BUFFER_BYTES = 1024 * 1024;
+
+    // Caution. not thread safe. null if a custom serializer is given
+    private final ByteBufferHeaderTBaseSerializer directSerializer;
+    private final DirectByteBufferPool bufferPool;
+    // sendPacket thread only
+    private long directBufferLimitCount;
+
     private final RetryQueue retryQueue = new RetryQueue();
 
+    // Caution. not thread safe. null if batch mode is disabled
+    private final BatchPacketSerializer batchSerializer;
+
     private AsyncQueueingExecutor<Object> executor;
 
     /**
@@ -102,7 +122,7 @@ public class TcpDataSender extends AbstractDataSender implements EnhancedDataSen
     }
 
     public TcpDataSender(String name, String host, int port, PinpointClientFactory clientFactory) {
-        this(name, ClientFactoryUtils.newPinpointClientProvider(host, port, clientFactory), HeaderTBaseSerializerFactory.DEFAULT_FACTORY.createSerializer());
+        this(name, host, port, clientFactory, SendQueueFactory.DEFAULT);
     }
 
 
@@ -110,6 +130,18 @@ public class TcpDataSender extends AbstractDataSender implements EnhancedDataSen
         this(name, ClientFactoryUtils.newPinpointClientProvider(host, port, clientFactory), serializer);
     }
 
+    public TcpDataSender(String name, String host, int port, PinpointClientFactory clientFactory, SendQueueFactory sendQueueFactory) {
+        this(name, host, port, clientFactory, sendQueueFactory, 0);
+    }
+
+    /**
+     * @param batchSize max bytes of a packet packing several messages. 0 sends one message per packet.
+     */
+    public TcpDataSender(String name, String host, int port, PinpointClientFactory clientFactory, SendQueueFactory sendQueueFactory, int batchSize) {
+        this(name, ClientFactoryUtils.newPinpointClientProvider(host, port, clientFactory), HeaderTBaseSerializerFactory.DEFAULT_FACTORY.createSerializer(),
+                new ByteBufferHeaderTBaseSerializerFactory().createSerializer(), sendQueueFactory, batchSize);
+    }
+
     /**
      * TCP数据发送器核心构造函数
      * @param name
@@ -117,6 +149,11 @@ public class TcpDataSender extends AbstractDataSender implements EnhancedDataSen
      * @param serializer
      */
     private TcpDataSender(String name, ClientFactoryUtils.PinpointClientProvider clientProvider, HeaderTBaseSerializer serializer) {
+        this(name, clientProvider, serializer, null, SendQueueFactory.DEFAULT, 0);
+    }
+
+    private TcpDataSender(String name, ClientFactoryUtils.PinpointClientProvider clientProvider, HeaderTBaseSerializer serializer,
+                          ByteBufferHeaderTBaseSerializer directSerializer, SendQueueFactory sendQueueFactory, int batchSize) {
         String executorName = "Pinpoint-TcpDataSender-Executor";
         if (name != null) {
             logger = LoggerFactory.getLogger(this.getClass().getName() + "@" + name);
@@ -128,9 +165,21 @@ public class TcpDataSender extends AbstractDataSender implements EnhancedDataSen
         //获得客户端
         this.client = clientProvider.get();
         this.serializer = Assert.requireNonNull(serializer, "serializer must not be null");
+        this.directSerializer = directSerializer;
+        this.bufferPool = new DirectByteBufferPool(DIRECT_BUFFER_POOL_SIZE, DIRECT_BUFFER_SIZE, MAX_DIRECT_BUFFER_BYTES);
         this.timer = createTimer(name);
         writeFailFutureListener = new WriteFailFutureListener(logger, "io write fail.", "host", -1);
-        this.executor = createAsyncQueueingExecutor(1024 * 5, executorName);
+        if (batchSize < 0) {
+            logger.warn("invalid batchSize:{}, batch mode disabled", batchSize);
+            batchSize = 0;
+        }
+        if (batchSize > 0) {
+            logger.info("TcpDataSender batch mode. batchSize={}", batchSize);
+            this.batchSerializer = new BatchPacketSerializer(batchSize);
+        } else {
+            this.batchSerializer = null;
+        }
+        this.executor = createAsyncQueueingExecutor(1024 * 5, executorName, sendQueueFactory);
     }
 
 
@@ -184,6 +233,9 @@ public class TcpDataSender extends AbstractDataSender implements EnhancedDataSen
     @Override
     public void stop() {
         executor.stop();
+        if (directBufferLimitCount > 0) {
+            logger.info("direct buffer limit reached. heap fallback count:{}", directBufferLimitCount);
+        }
 
         Set<Timeout> stop = timer.stop();
         if (!stop.isEmpty()) {
@@ -199,6 +251,9 @@ public class TcpDataSender extends AbstractDataSender implements EnhancedDataSen
     protected void sendPacket(Object message) {
         try {
             if (message instanceof TBase) {
+                if (directSerializer != null && sendDirect((TBase) message)) {
+                    return;
+                }
                 byte[] copy = serialize(serializer, (TBase) message);
                 if (copy == null) {
                     return;
@@ -229,11 +284,127 @@ public class TcpDataSender extends AbstractDataSender implements EnhancedDataSen
         }
     }
 
+    @Override
+    protected void sendPacketN(Collection<Object> messageList) {
+        if (batchSerializer == null) {
+            super.sendPacketN(messageList);
+            return;
+        }
+        // Cannot use toArray(T[] array) because passed messageList doesn't implement it properly.
+        final Object[] dataList = messageList.toArray();
+        final int size = messageList.size();
+        try {
+            batchSerializer.reset();
+        } catch (Throwable th) {
+            logger.warn("batch reset fail. Caused:{}", th.getMessage(), th);
+            super.sendPacketN(messageList);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            final Object message = dataList[i];
+            try {
+                if (!(message instanceof TBase)) {
+                    // keep request order
+                    flushBatch();
+                    sendPacket(message);
+                    continue;
+                }
+                if (batchSerializer.add((TBase<?, ?>) message)) {
+                    continue;
+                }
+                if (batchSerializer.getCount() > 0) {
+                    flushBatch();
+                    if (batchSerializer.add((TBase<?, ?>) message)) {
+                        continue;
+                    }
+                }
+                // larger than batchSize
+                sendPacket(message);
+            } catch (Throwable th) {
+                logger.warn("tcp send fail. Caused:{}", th.getMessage(), th);
+            }
+        }
+        try {
+            flushBatch();
+        } catch (Throwable th) {
+            logger.warn("tcp send fail. Caused:{}", th.getMessage(), th);
+        }
+    }
+
+    private void flushBatch() throws TException {
+        if (batchSerializer.getCount() == 0) {
+            return;
+        }
+        final int size = batchSerializer.getSize();
+        // sendAsync() keeps a reference to the bytes. copy the internal buffer
+        final ByteBuffer byteBuffer = bufferPool.acquire(size);
+        if (byteBuffer != null) {
+            byteBuffer.put(batchSerializer.getBuffer(), 0, size);
+            byteBuffer.flip();
+            batchSerializer.reset();
+            doSend(byteBuffer);
+            return;
+        }
+        directBufferLimitCount++;
+        final byte[] copy = Arrays.copyOf(batchSerializer.getBuffer(), size);
+        batchSerializer.reset();
+        doSend(copy);
+    }
+
+    /**
+     * serialize straight into a pooled direct buffer, netty writes it without a heap copy.
+     * @return false if tBase does not fit into a pooled buffer or the direct buffer limit is reached
+     */
+    private boolean sendDirect(TBase<?, ?> tBase) {
+        final ByteBuffer byteBuffer = bufferPool.acquire();
+        if (byteBuffer == null) {
+            directBufferLimitCount++;
+            return false;
+        }
+        try {
+            directSerializer.serialize(tBase, byteBuffer);
+        } catch (Exception e) {
+            // BufferOverflowException. retry with the heap serializer
+            bufferPool.release(byteBuffer);
+            return false;
+        }
+        byteBuffer.flip();
+        doSend(byteBuffer);
+        return true;
+    }
+
     private void doSend(byte[] copy) {
         Future write = this.client.sendAsync(copy);
         write.setListener(writeFailFutureListener);
     }
 
+    private void doSend(ByteBuffer byteBuffer) {
+        final Future write;
+        try {
+            write = this.client.sendAsync(byteBuffer);
+        } catch (RuntimeException e) {
+            bufferPool.release(byteBuffer);
+            throw e;
+        }
+        write.setListener(new ReleaseBufferFutureListener(byteBuffer));
+    }
+
+    // the buffer can be reused once netty has written it
+    private class ReleaseBufferFutureListener implements FutureListener {
+
+        private final ByteBuffer byteBuffer;
+
+        private ReleaseBufferFutureListener(ByteBuffer byteBuffer) {
+            this.byteBuffer = byteBuffer;
+        }
+
+        @Override
+        public void onComplete(Future future) {
+            bufferPool.release(byteBuffer);
+            writeFailFutureListener.onComplete(future);
+        }
+    }
+
     // Separate doRequest method to avoid creating unnecessary objects. (Generally, sending message is successed when firt attempt.)
     private void doRequest(final byte[] requestPacket, final int maxRetryCount, final Object targetClass) {
         FutureListener futureListener = (new FutureListener<ResponseMessage>() {
@@ -19,11 +19,15 @@ package com.navercorp.pinpoint.profiler.sender;
 import com.navercorp.pinpoint.common.annotations.VisibleForTesting;
 import com.navercorp.pinpoint.common.plugin.util.HostAndPort;
 import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.rpc.buffer.ByteBufferFactoryLocator;
+import com.navercorp.pinpoint.rpc.buffer.ByteBufferType;
 import com.navercorp.pinpoint.rpc.client.DnsSocketAddressProvider;
 import com.navercorp.pinpoint.rpc.client.SocketAddressProvider;
-import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
-import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
+import com.navercorp.pinpoint.thrift.io.BufferOverflowException;
+import com.navercorp.pinpoint.thrift.io.ByteBufferHeaderTBaseSerializer;
+import com.navercorp.pinpoint.thrift.io.ByteBufferHeaderTBaseSerializerFactory;
 import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,7 +36,9 @@ import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetSocketAddress;
 import java.net.PortUnreachableException;
-import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Collection;
 
 /**
  * @author netspider
@@ -51,10 +57,17 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
     // Caution. not thread safe
     protected final DatagramPacket reusePacket = new DatagramPacket(new byte[1], 1);
 
+    private final DatagramChannel datagramChannel;
+    // socket adaptor of datagramChannel
     protected final DatagramSocket udpSocket;
 
     // Caution. not thread safe
-    private final HeaderTBaseSerializer serializer = new HeaderTBaseSerializerFactory(false, UDP_MAX_PACKET_LENGTH, false).createSerializer();
+    private final ByteBufferHeaderTBaseSerializer serializer = new ByteBufferHeaderTBaseSerializerFactory().createSerializer();
+    // Caution. not thread safe. serialized straight into a direct buffer, the channel sends it without a heap copy
+    private final ByteBuffer sendBuffer = ByteBufferFactoryLocator.getFactory(ByteBufferType.DIRECT).getBuffer(UDP_MAX_PACKET_LENGTH);
+
+    // Caution. not thread safe. null if batch mode is disabled
+    private final BatchPacketSerializer batchSerializer;
 
     private final AsyncQueueingExecutor<Object> executor;
 
@@ -65,6 +78,17 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
     }
 
     public UdpDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, SendQueueFactory.DEFAULT);
+    }
+
+    public UdpDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, SendQueueFactory sendQueueFactory) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, sendQueueFactory, 0);
+    }
+
+    /**
+     * @param batchSize max bytes of a datagram packing several messages. 0 sends one message per datagram.
+     */
+    public UdpDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, SendQueueFactory sendQueueFactory, int batchSize) {
         Assert.requireNonNull(host, "host must not be null");
         if (!HostAndPort.isValidPort(port)) {
             throw new IllegalArgumentException("port out of range:" + port);
@@ -79,15 +103,30 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
         if (sendBufferSize <= 0) {
             throw new IllegalArgumentException("sendBufferSize");
         }
+        if (batchSize < 0) {
+            logger.warn("invalid batchSize:{}, batch mode disabled", batchSize);
+            batchSize = 0;
+        } else if (batchSize > UDP_MAX_PACKET_LENGTH) {
+            logger.warn("batchSize:{} exceeds udp max packet length, use {}", batchSize, UDP_MAX_PACKET_LENGTH);
+            batchSize = UDP_MAX_PACKET_LENGTH;
+        }
 
         final SocketAddressProvider socketAddressProvider = new DnsSocketAddressProvider(host, port);
         this.socketAddressProvider = new RefreshStrategy(socketAddressProvider);
         final InetSocketAddress currentAddress = this.socketAddressProvider.resolve();
         logger.info("UdpDataSender initialized. host={}", currentAddress);
         // TODO If fail to create socket, stop agent start
-        this.udpSocket = createSocket(timeout, sendBufferSize);
+        this.datagramChannel = createChannel();
+        this.udpSocket = createSocket(datagramChannel, timeout, sendBufferSize);
+
+        if (batchSize > 0) {
+            logger.info("UdpDataSender batch mode. batchSize={}", batchSize);
+            this.batchSerializer = new BatchPacketSerializer(batchSize);
+        } else {
+            this.batchSerializer = null;
+        }
 
-        this.executor = createAsyncQueueingExecutor(queueSize, threadName);
+        this.executor = createAsyncQueueingExecutor(queueSize, threadName, sendQueueFactory);
     }
 
     @Override
@@ -100,9 +139,17 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
         executor.stop();
     }
 
-    private DatagramSocket createSocket(int timeout, int sendBufferSize) {
+    private DatagramChannel createChannel() {
         try {
-            final DatagramSocket datagramSocket = new DatagramSocket();
+            return DatagramChannel.open();
+        } catch (IOException e) {
+            throw new IllegalStateException("DatagramChannel create fail. Cause" + e.getMessage(), e);
+        }
+    }
+
+    private DatagramSocket createSocket(DatagramChannel datagramChannel, int timeout, int sendBufferSize) {
+        try {
+            final DatagramSocket datagramSocket = datagramChannel.socket();
 
             datagramSocket.setSoTimeout(timeout);
             datagramSocket.setSendBufferSize(sendBufferSize);
@@ -114,7 +161,12 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
             }
 
             return datagramSocket;
-        } catch (SocketException e) {
+        } catch (IOException e) {
+            try {
+                datagramChannel.close();
+            } catch (IOException ignore) {
+                // skip
+            }
             throw new IllegalStateException("DatagramSocket create fail. Cause" + e.getMessage(), e);
         }
     }
@@ -131,35 +183,121 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
         }
 
         final TBase dto = (TBase) message;
-        // do not copy bytes because it's single threaded
-        final byte[] internalBufferData = serialize(this.serializer, dto);
-        if (internalBufferData == null) {
-            logger.warn("interBufferData is null");
+        // reuse the buffer because it's single threaded
+        final ByteBuffer sendBuffer = this.sendBuffer;
+        sendBuffer.clear();
+        try {
+            serializer.serialize(dto, sendBuffer);
+        } catch (BufferOverflowException e) {
+            // When packet size is greater than UDP packet size limit, it's better to discard packet than let the socket API fails.
+            logger.warn("discard packet. Caused:too large message. {}", dto);
+            return;
+        } catch (TException e) {
+            logger.warn("Serialize fail. Caused:{}", e.getMessage(), e);
             return;
         }
 
-        final int internalBufferSize = this.serializer.getInterBufferSize();
+        final int internalBufferSize = sendBuffer.position();
         if (isLimit(internalBufferSize)) {
-            // When packet size is greater than UDP packet size limit, it's better to discard packet than let the socket API fails.
             logger.warn("discard packet. Caused:too large message. size:{}, {}", internalBufferSize, dto);
             return;
         }
+        sendBuffer.flip();
+        sendData(inetSocketAddress, sendBuffer, dto);
+    }
+
+    @Override
+    protected void sendPacketN(Collection<Object> messageList) {
+        if (batchSerializer == null) {
+            super.sendPacketN(messageList);
+            return;
+        }
+        // Cannot use toArray(T[] array) because passed messageList doesn't implement it properly.
+        final Object[] dataList = messageList.toArray();
+        final int size = messageList.size();
+        try {
+            batchSerializer.reset();
+        } catch (Throwable th) {
+            logger.warn("batch reset fail. Cause:{}", th.getMessage(), th);
+            super.sendPacketN(messageList);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            final Object message = dataList[i];
+            try {
+                if (!(message instanceof TBase)) {
+                    // keep request order
+                    flushBatch();
+                    sendPacket(message);
+                    continue;
+                }
+                if (batchSerializer.add((TBase<?, ?>) message)) {
+                    continue;
+                }
+                if (batchSerializer.getCount() > 0) {
+                    flushBatch();
+                    if (batchSerializer.add((TBase<?, ?>) message)) {
+                        continue;
+                    }
+                }
+                // larger than batchSize
+                sendPacket(message);
+            } catch (Throwable th) {
+                logger.warn("Unexpected Error. Cause:{}", th.getMessage(), th);
+            }
+        }
+        try {
+            flushBatch();
+        } catch (Throwable th) {
+            logger.warn("Unexpected Error. Cause:{}", th.getMessage(), th);
+        }
+    }
+
+    private void flushBatch() throws TException {
+        final int count = batchSerializer.getCount();
+        if (count == 0) {
+            return;
+        }
+        final InetSocketAddress inetSocketAddress = socketAddressProvider.resolve();
+        if (inetSocketAddress.getAddress() == null) {
+            logger.info("dns lookup fail host:{}", inetSocketAddress);
+        } else {
+            sendData(inetSocketAddress, batchSerializer.getBuffer(), batchSerializer.getSize(), count);
+        }
+        batchSerializer.reset();
+    }
+
+    private void sendData(InetSocketAddress inetSocketAddress, ByteBuffer data, Object dto) {
+        final int size = data.remaining();
+        try {
+            datagramChannel.send(data, inetSocketAddress);
+            if (isDebug) {
+                logger.debug("Data sent. size:{}, {}", size, dto);
+            }
+        } catch (PortUnreachableException pe) {
+            this.socketAddressProvider.handlePortUnreachable();
+            logger.info("packet send error. size:{}, {}", size, dto, pe);
+        } catch (IOException e) {
+            logger.info("packet send error. size:{}, {}", size, dto, e);
+        }
+    }
+
+    private void sendData(InetSocketAddress inetSocketAddress, byte[] data, int size, Object dto) {
         // it's safe to reuse because it's single threaded
-        reusePacket.setData(internalBufferData, 0, internalBufferSize);
+        reusePacket.setData(data, 0, size);
         reusePacket.setAddress(inetSocketAddress.getAddress());
         reusePacket.setPort(inetSocketAddress.getPort());
         try {
             udpSocket.send(reusePacket);
             if (isDebug) {
-                logger.debug("Data sent. size:{}, {}", internalBufferSize, dto);
+                logger.debug("Data sent. size:{}, {}", size, dto);
             }
         } catch (PortUnreachableException pe) {
             this.socketAddressProvider.handlePortUnreachable();
-            logger.info("packet send error. size:{}, {}", internalBufferSize, dto, pe);
+            logger.info("packet send error. size:{}, {}", size, dto, pe);
         } catch (IOException e) {
-            logger.info("packet send error. size:{}, {}", internalBufferSize, dto, e);
+            logger.info("packet send error. size:{}, {}", size, dto, e);
         }
-
     }
 
     @VisibleForTesting
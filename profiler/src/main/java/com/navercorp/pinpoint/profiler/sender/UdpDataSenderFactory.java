@@ -17,11 +17,16 @@
 
 package com.navercorp.pinpoint.profiler.sender;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * @author Taejin Koo
  */
 public final class UdpDataSenderFactory {
 
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
 //    String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize
 
     private final String host;
@@ -30,14 +35,29 @@ public final class UdpDataSenderFactory {
     private final int queueSize;
     private final int timeout;
     private final int sendBufferSize;
+    private final SendQueueFactory sendQueueFactory;
+    private final int batchSize;
 
     public UdpDataSenderFactory(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, SendQueueFactory.DEFAULT, 0);
+    }
+
+    public UdpDataSenderFactory(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, SendQueueFactory sendQueueFactory) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, sendQueueFactory, 0);
+    }
+
+    public UdpDataSenderFactory(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, SendQueueFactory sendQueueFactory, int batchSize) {
         this.host = host;
         this.port = port;
         this.threadName = threadName;
         this.queueSize = queueSize;
         this.timeout = timeout;
         this.sendBufferSize = sendBufferSize;
+        if (sendQueueFactory == null) {
+            throw new NullPointerException("sendQueueFactory must not be null");
+        }
+        this.sendQueueFactory = sendQueueFactory;
+        this.batchSize = batchSize;
     }
 
     public DataSender create(String typeName) {
@@ -46,9 +66,12 @@ public final class UdpDataSenderFactory {
 
     public DataSender create(UdpDataSenderType type) {
         if (type == UdpDataSenderType.NIO) {
-            return new NioUDPDataSender(host, port, threadName, queueSize, timeout, sendBufferSize);
+            if (batchSize > 0) {
+                logger.warn("NIO UdpDataSender does not support batch mode. batchSize={}", batchSize);
+            }
+            return new NioUDPDataSender(host, port, threadName, queueSize, timeout, sendBufferSize, sendQueueFactory);
         } else if (type == UdpDataSenderType.OIO) {
-            return new UdpDataSender(host, port, threadName, queueSize, timeout, sendBufferSize);
+            return new UdpDataSender(host, port, threadName, queueSize, timeout, sendBufferSize, sendQueueFactory, batchSize);
         } else {
             throw new IllegalArgumentException("Unknown type.");
         }
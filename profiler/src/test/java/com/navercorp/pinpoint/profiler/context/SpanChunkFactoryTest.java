@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.profiler.context;
 
 import com.navercorp.pinpoint.bootstrap.context.TraceId;
 import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.common.util.SpanEventColumnEncoder;
 
 import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
 import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
@@ -64,6 +65,20 @@ public class SpanChunkFactoryTest {
 
     }
 
+    @Test
+    public void createSpanEventColumns() {
+        SpanChunkFactory spanChunkFactory = new SpanChunkFactoryV2("applicationName", agentId, agentStartTime, ServiceType.STAND_ALONE, encoder, new SpanEventColumnEncoder());
+        TraceRoot internalTraceId = newInternalTraceId();
+
+        List<SpanEvent> spanEvents = new ArrayList<SpanEvent>();
+        spanEvents.add(new SpanEvent(internalTraceId));
+        spanEvents.add(new SpanEvent(internalTraceId));
+        SpanChunk spanChunk = spanChunkFactory.create(internalTraceId, spanEvents);
+
+        Assert.assertTrue(spanChunk.isSetSpanEventColumns());
+        Assert.assertFalse(spanChunk.isSetSpanEventList());
+    }
+
     private TraceRoot newInternalTraceId() {
         TraceId traceId = new DefaultTraceId(agentId, agentStartTime, 100);
         return new DefaultTraceRoot(traceId, agentId, agentStartTime, 0);
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context;
+
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpanEventPoolTest {
+
+    private final TraceRoot traceRoot = newTraceRoot(1);
+
+    private TraceRoot newTraceRoot(long localTransactionId) {
+        DefaultTraceId traceId = new DefaultTraceId("agentId", 0, localTransactionId);
+        return new DefaultTraceRoot(traceId, "agentId", System.currentTimeMillis(), localTransactionId);
+    }
+
+    @Test
+    public void reuse() {
+        SpanEventPool pool = new SpanEventPool(4);
+
+        SpanEvent spanEvent = pool.newSpanEvent(traceRoot);
+        spanEvent.setStackId(10);
+        spanEvent.setDepth(3);
+        spanEvent.setEndElapsed(20);
+        spanEvent.setApiId(5);
+        spanEvent.addAnnotation(new Annotation(1, "test"));
+        spanEvent.recycle();
+        Assert.assertEquals(1, pool.size());
+
+        TraceRoot newTraceRoot = newTraceRoot(2);
+        SpanEvent reused = pool.newSpanEvent(newTraceRoot);
+        Assert.assertSame(spanEvent, reused);
+        Assert.assertSame(newTraceRoot, reused.getTraceRoot());
+        Assert.assertEquals(0, pool.size());
+
+        // must look like a new event
+        Assert.assertEquals(new TSpanEvent(), reused);
+        Assert.assertFalse(reused.isSetDepth());
+        Assert.assertFalse(reused.isSetEndElapsed());
+        Assert.assertEquals(0, reused.getStackId());
+        Assert.assertTrue(reused.isTimeRecording());
+
+        reused.addAnnotation(new Annotation(2, "test2"));
+        Assert.assertEquals(1, reused.getAnnotationsSize());
+    }
+
+    @Test
+    public void unpooledSpanEvent() {
+        SpanEventPool pool = new SpanEventPool(4);
+
+        SpanEvent spanEvent = new SpanEvent(traceRoot);
+        spanEvent.recycle();
+        Assert.assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void full() {
+        SpanEventPool pool = new SpanEventPool(3);
+        Assert.assertEquals(4, pool.capacity());
+
+        SpanEvent[] spanEvents = new SpanEvent[6];
+        for (int i = 0; i < spanEvents.length; i++) {
+            spanEvents[i] = pool.newSpanEvent(traceRoot);
+        }
+        for (SpanEvent spanEvent : spanEvents) {
+            spanEvent.recycle();
+        }
+        Assert.assertEquals(4, pool.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidPoolSize() {
+        new SpanEventPool(0);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context.active;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public class ActiveTraceTableTest {
+
+    @Test
+    public void putAndRemove() {
+        ActiveTraceTable table = new ActiveTraceTable(100);
+        ActiveTrace trace1 = newActiveTrace(1, 1000);
+        ActiveTrace trace2 = newActiveTrace(2, 2000);
+
+        Assert.assertNull(table.put(1, trace1));
+        Assert.assertNull(table.put(2, trace2));
+        Assert.assertEquals(2, table.size());
+
+        Assert.assertTrue(table.remove(1, trace1));
+        Assert.assertFalse(table.remove(1, trace1));
+        Assert.assertEquals(1, table.size());
+
+        List<ActiveTrace> collected = new ArrayList<ActiveTrace>();
+        table.collect(collected);
+        Assert.assertEquals(1, collected.size());
+        Assert.assertSame(trace2, collected.get(0));
+    }
+
+    @Test
+    public void remove_otherTraceWithSameId() {
+        ActiveTraceTable table = new ActiveTraceTable(100);
+        ActiveTrace old = newActiveTrace(1, 1000);
+        ActiveTrace current = newActiveTrace(1, 2000);
+
+        table.put(1, old);
+        Assert.assertSame(old, table.put(1, current));
+
+        Assert.assertFalse(table.remove(1, old));
+        Assert.assertEquals(1, table.size());
+        Assert.assertTrue(table.remove(1, current));
+        Assert.assertTrue(table.isEmpty());
+    }
+
+    @Test
+    public void evictOldest() {
+        ActiveTraceTable table = new ActiveTraceTable(4, 1);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertNull(table.put(i, newActiveTrace(i, 1000 + i)));
+        }
+
+        ActiveTrace evicted = table.put(10, newActiveTrace(10, 5000));
+        Assert.assertNotNull(evicted);
+        Assert.assertEquals(0, evicted.getId());
+        Assert.assertEquals(4, table.size());
+    }
+
+    @Test
+    public void randomOperation() {
+        final int maxSize = 10000;
+        ActiveTraceTable table = new ActiveTraceTable(maxSize);
+        Map<Long, ActiveTrace> expected = new HashMap<Long, ActiveTrace>();
+        Random random = new Random(0);
+
+        for (int i = 0; i < 100000; i++) {
+            final long id = random.nextInt(maxSize / 2);
+            final ActiveTrace registered = expected.get(id);
+            if (registered == null) {
+                final ActiveTrace activeTrace = newActiveTrace(id, i + 1);
+                table.put(id, activeTrace);
+                expected.put(id, activeTrace);
+            } else {
+                Assert.assertTrue(table.remove(id, registered));
+                expected.remove(id);
+            }
+        }
+
+        Assert.assertEquals(expected.size(), table.size());
+        List<ActiveTrace> collected = new ArrayList<ActiveTrace>();
+        table.collect(collected);
+        Set<ActiveTrace> actual = new HashSet<ActiveTrace>(collected);
+        Assert.assertEquals(new HashSet<ActiveTrace>(expected.values()), actual);
+    }
+
+    private ActiveTrace newActiveTrace(long id, long startTime) {
+        return new UnsampledActiveTrace(id, startTime, Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.bootstrap.context.TraceId;
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.thrift.dto.TAnnotation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SlowSpanEventFilterTest {
+
+    private final String agentId = "agentId";
+    private final long agentStartTime = System.currentTimeMillis();
+
+    private final TraceRoot traceRoot = newTraceRoot();
+
+    private TraceRoot newTraceRoot() {
+        TraceId traceId = new DefaultTraceId(agentId, agentStartTime, 100);
+        return new DefaultTraceRoot(traceId, agentId, agentStartTime, 100);
+    }
+
+    @Test
+    public void keepSlowPath() {
+        SlowSpanEventFilter filter = new SlowSpanEventFilter(10);
+        List<SpanEvent> spanEventList = new ArrayList<SpanEvent>();
+        // 0:root(1) -> 1:fast(2) -> 2:fast(2) -> 3:parent(2) -> 4:slow(3)
+        spanEventList.add(newSpanEvent(0, 1, 1, 20));
+        spanEventList.add(newSpanEvent(1, 2, 2, 1));
+        spanEventList.add(newSpanEvent(2, 2, 2, 1));
+        spanEventList.add(newSpanEvent(3, 2, 3, 15));
+        spanEventList.add(newSpanEvent(4, 3, 4, 12));
+
+        Span span = new Span(traceRoot);
+        List<SpanEvent> result = filter.filter(span, spanEventList);
+
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals(0, result.get(0).getSequence());
+        Assert.assertEquals(3, result.get(1).getSequence());
+        Assert.assertEquals(4, result.get(2).getSequence());
+
+        TAnnotation annotation = span.getAnnotations().get(0);
+        Assert.assertEquals(AnnotationKey.DROPPED_SPAN_EVENT.getCode(), annotation.getKey());
+        Assert.assertEquals("count=2, apiId:2=2/2ms", annotation.getValue().getStringValue());
+    }
+
+    @Test
+    public void keepErrorAndRemotePath() {
+        SlowSpanEventFilter filter = new SlowSpanEventFilter(10);
+        List<SpanEvent> spanEventList = new ArrayList<SpanEvent>();
+        spanEventList.add(newSpanEvent(0, 1, 1, 2));
+        SpanEvent error = newSpanEvent(1, 2, 2, 1);
+        error.setExceptionInfo(1, "error");
+        spanEventList.add(error);
+        spanEventList.add(newSpanEvent(2, 1, 3, 2));
+        SpanEvent remote = newSpanEvent(3, 2, 4, 1);
+        remote.setNextSpanId(1234);
+        spanEventList.add(remote);
+        spanEventList.add(newSpanEvent(4, 1, 5, 1));
+
+        Span span = new Span(traceRoot);
+        List<SpanEvent> result = filter.filter(span, spanEventList);
+
+        Assert.assertEquals(4, result.size());
+        Assert.assertEquals(3, result.get(3).getSequence());
+        Assert.assertEquals("count=1, apiId:5=1/1ms", span.getAnnotations().get(0).getValue().getStringValue());
+    }
+
+    @Test
+    public void resolveCompressedDepth() {
+        SlowSpanEventFilter filter = new SlowSpanEventFilter(10);
+        List<SpanEvent> spanEventList = new ArrayList<SpanEvent>();
+        spanEventList.add(newSpanEvent(0, 1, 1, 20));
+        spanEventList.add(newSpanEvent(1, 2, 2, 1));
+        // same depth as previous event : depth unset
+        SpanEvent sibling = newSpanEvent(2, 2, 3, 15);
+        sibling.unsetDepth();
+        spanEventList.add(sibling);
+
+        Span span = new Span(traceRoot);
+        List<SpanEvent> result = filter.filter(span, spanEventList);
+
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(2, result.get(1).getSequence());
+        Assert.assertTrue(result.get(1).isSetDepth());
+        Assert.assertEquals(2, result.get(1).getDepth());
+    }
+
+    @Test
+    public void noDrop() {
+        SlowSpanEventFilter filter = new SlowSpanEventFilter(0);
+        List<SpanEvent> spanEventList = new ArrayList<SpanEvent>();
+        spanEventList.add(newSpanEvent(1, 2, 2, 0));
+        spanEventList.add(newSpanEvent(0, 1, 1, 0));
+
+        Span span = new Span(traceRoot);
+        List<SpanEvent> result = filter.filter(span, spanEventList);
+
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(0, result.get(0).getSequence());
+        Assert.assertNull(span.getAnnotations());
+    }
+
+    private SpanEvent newSpanEvent(int sequence, int depth, int apiId, final long elapsed) {
+        SpanEvent spanEvent = new SpanEvent(traceRoot) {
+            @Override
+            public long getStartTime() {
+                return 100;
+            }
+
+            @Override
+            public long getAfterTime() {
+                return 100 + elapsed;
+            }
+        };
+        spanEvent.setSequence((short) sequence);
+        spanEvent.setDepth(depth);
+        spanEvent.setApiId(apiId);
+        return spanEvent;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.instrument.transformer;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PackageNameIndexTest {
+
+    @Test
+    public void find() {
+        PackageNameIndex<String> index = new PackageNameIndex<String>();
+        index.put("com/foo/", "foo");
+        index.put("com/bar/", "bar");
+        index.put("com/foo/client/", "client");
+        index.put("com/foo/client/", "client2");
+
+        assertEquals(4, index.size());
+        assertEquals(Arrays.asList("foo"), index.find("com/foo/Server"));
+        assertEquals(Arrays.asList("bar"), index.find("com/bar/Server"));
+        assertEquals(Arrays.asList("foo", "client", "client2"), index.find("com/foo/client/Client"));
+        assertTrue(index.find("com/baz/Server").isEmpty());
+        assertTrue(index.find("com/fo").isEmpty());
+        assertTrue(index.find("java/lang/String").isEmpty());
+    }
+
+    @Test
+    public void find_prefix() {
+        PackageNameIndex<String> index = new PackageNameIndex<String>();
+        index.put("com/foo", "foo");
+
+        // same as String.startsWith()
+        assertEquals(Arrays.asList("foo"), index.find("com/foobar/Server"));
+    }
+
+    @Test
+    public void find_emptyPackage() {
+        PackageNameIndex<String> index = new PackageNameIndex<String>();
+        index.put("", "all");
+
+        assertEquals(Collections.singletonList("all"), index.find("java/lang/String"));
+    }
+
+    @Test
+    public void put_duplicate() {
+        PackageNameIndex<String> index = new PackageNameIndex<String>();
+        index.put("com/foo/", "foo");
+        index.put("com/foo/", "foo");
+
+        assertEquals(1, index.size());
+        assertEquals(Arrays.asList("foo"), index.find("com/foo/Server"));
+    }
+
+    @Test
+    public void isEmpty() {
+        PackageNameIndex<String> index = new PackageNameIndex<String>();
+        assertTrue(index.isEmpty());
+        assertTrue(index.find("com/foo/Server").isEmpty());
+    }
+}
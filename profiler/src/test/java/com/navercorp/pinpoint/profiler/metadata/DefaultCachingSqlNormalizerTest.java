@@ -60,4 +60,32 @@ public class DefaultCachingSqlNormalizerTest {
         boolean newCache_parsingResult1_recached = normalizer.normalizedSql(parsingResult1_recached);
         Assert.assertTrue(newCache_parsingResult1_recached);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testNormalizedSql_parsedSqlCache() throws Exception {
+        DefaultCachingSqlNormalizer normalizer = new DefaultCachingSqlNormalizer(10);
+        final String sql = "select * from table1 where id = 10";
+
+        ParsingResult parsingResult = normalizer.wrapSql(sql);
+        Assert.assertTrue(normalizer.normalizedSql(parsingResult));
+        Assert.assertEquals(0, normalizer.getHitCount());
+        Assert.assertEquals(1, normalizer.getMissCount());
+
+        // same instance
+        ParsingResult identical = normalizer.wrapSql(sql);
+        Assert.assertFalse(normalizer.normalizedSql(identical));
+        // equal but not the same instance
+        ParsingResult equal = normalizer.wrapSql(new String(sql));
+        Assert.assertFalse(normalizer.normalizedSql(equal));
+
+        Assert.assertEquals(2, normalizer.getHitCount());
+        Assert.assertEquals(1, normalizer.getMissCount());
+
+        Assert.assertEquals(parsingResult.getId(), identical.getId());
+        Assert.assertEquals(parsingResult.getSql(), identical.getSql());
+        Assert.assertEquals(parsingResult.getOutput(), identical.getOutput());
+        Assert.assertEquals(parsingResult.getId(), equal.getId());
+        Assert.assertEquals(parsingResult.getSql(), equal.getSql());
+        Assert.assertEquals(parsingResult.getOutput(), equal.getOutput());
+    }
+}
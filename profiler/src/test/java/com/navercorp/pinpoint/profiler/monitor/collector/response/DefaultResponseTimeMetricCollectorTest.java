@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.profiler.monitor.collector.response;
 
+import com.navercorp.pinpoint.common.trace.LogBucketHistogram;
 import com.navercorp.pinpoint.profiler.monitor.metric.response.ResponseTimeMetric;
 import com.navercorp.pinpoint.profiler.monitor.metric.response.ResponseTimeValue;
 import com.navercorp.pinpoint.thrift.dto.TResponseTime;
@@ -68,6 +69,18 @@ public class DefaultResponseTimeMetricCollectorTest {
         Assert.assertEquals(totalValue / COUNT, collect.getAvg());
     }
 
+    @Test
+    public void histogramTest() throws Exception {
+        long[] histogram = new long[LogBucketHistogram.BUCKET_COUNT];
+        histogram[LogBucketHistogram.bucketIndex(100)] = COUNT;
+        when(responseTimeValue.getHistogram()).thenReturn(histogram);
+
+        ResponseTimeMetricCollector responseTimeMetricCollector = new DefaultResponseTimeMetricCollector(responseTimeMetric);
+        TResponseTime collect = responseTimeMetricCollector.collect();
+
+        Assert.assertArrayEquals(histogram, LogBucketHistogram.decode(collect.getHistogram()));
+    }
+
     @Test(expected = NullPointerException.class)
     public void throwNPETest() throws Exception {
         ResponseTimeMetricCollector responseTimeMetricCollector = new DefaultResponseTimeMetricCollector(null);
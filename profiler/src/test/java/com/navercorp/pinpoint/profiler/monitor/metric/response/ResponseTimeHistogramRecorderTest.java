@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.metric.response;
+
+import com.navercorp.pinpoint.common.trace.LogBucketHistogram;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class ResponseTimeHistogramRecorderTest {
+
+    @Test
+    public void swapAndGet() {
+        ResponseTimeHistogramRecorder recorder = new ResponseTimeHistogramRecorder();
+        Assert.assertNull(recorder.swapAndGet());
+
+        recorder.record(10);
+        recorder.record(10);
+        recorder.record(1000);
+
+        long[] histogram = recorder.swapAndGet();
+        Assert.assertEquals(2, histogram[LogBucketHistogram.bucketIndex(10)]);
+        Assert.assertEquals(1, histogram[LogBucketHistogram.bucketIndex(1000)]);
+
+        Assert.assertNull(recorder.swapAndGet());
+        recorder.record(5);
+        Assert.assertEquals(1, recorder.swapAndGet()[5]);
+    }
+
+    @Test
+    public void concurrentRecord() throws Exception {
+        final ResponseTimeHistogramRecorder recorder = new ResponseTimeHistogramRecorder();
+        final int threadCount = 4;
+        final int recordCount = 100000;
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int j = 0; j < recordCount; j++) {
+                            recorder.record(j % 3000);
+                        }
+                        latch.countDown();
+                    }
+                });
+            }
+
+            long total = 0;
+            while (!latch.await(1, TimeUnit.MILLISECONDS)) {
+                total += sum(recorder.swapAndGet());
+            }
+            // late writers of the last swap are reported by the swap after next
+            total += sum(recorder.swapAndGet());
+            total += sum(recorder.swapAndGet());
+            Assert.assertEquals(threadCount * recordCount, total);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private long sum(long[] histogram) {
+        if (histogram == null) {
+            return 0;
+        }
+        long sum = 0;
+        for (long count : histogram) {
+            sum += count;
+        }
+        return sum;
+    }
+}
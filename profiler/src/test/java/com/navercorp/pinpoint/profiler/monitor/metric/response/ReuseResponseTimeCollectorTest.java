@@ -50,10 +50,16 @@ public class ReuseResponseTimeCollectorTest {
         ResponseTimeValue responseTimeValue = reuseResponseTimeCollector.resetAndGetValue();
         Assert.assertEquals(totalValue / count, responseTimeValue.getAvg());
         Assert.assertEquals(maxValue, responseTimeValue.getMax());
+        long histogramCount = 0;
+        for (long bucket : responseTimeValue.getHistogram()) {
+            histogramCount += bucket;
+        }
+        Assert.assertEquals(count, histogramCount);
 
         responseTimeValue = reuseResponseTimeCollector.resetAndGetValue();
         Assert.assertEquals(0, responseTimeValue.getAvg());
         Assert.assertEquals(0, responseTimeValue.getMax());
+        Assert.assertNull(responseTimeValue.getHistogram());
     }
 
 }
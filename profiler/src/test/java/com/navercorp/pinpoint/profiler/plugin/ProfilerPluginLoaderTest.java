@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.plugin;
+
+import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
+import com.navercorp.pinpoint.bootstrap.instrument.DynamicTransformTrigger;
+import com.navercorp.pinpoint.bootstrap.plugin.ProfilerPlugin;
+import com.navercorp.pinpoint.bootstrap.plugin.ProfilerPluginSetupContext;
+import com.navercorp.pinpoint.profiler.instrument.InstrumentEngine;
+import com.navercorp.pinpoint.profiler.instrument.classloading.ClassInjector;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProfilerPluginLoaderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void load_sequential() throws IOException {
+        assertLoadOrder(1);
+    }
+
+    @Test
+    public void load_concurrent() throws IOException {
+        assertLoadOrder(4);
+    }
+
+    private void assertLoadOrder(int concurrency) throws IOException {
+        final ProfilerConfig profilerConfig = mock(ProfilerConfig.class);
+        when(profilerConfig.getPluginLoadConcurrency()).thenReturn(concurrency);
+        when(profilerConfig.getDisabledPlugins()).thenReturn(Collections.<String>emptyList());
+
+        final URL[] pluginJars = new URL[8];
+        final List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < pluginJars.length; i++) {
+            final Class<?> pluginClass = i % 2 == 0 ? PluginA.class : PluginB.class;
+            pluginJars[i] = createPluginJar("plugin" + i + ".jar", pluginClass);
+            expected.add(pluginClass.getName());
+        }
+
+        final RecordingPluginSetup pluginSetup = new RecordingPluginSetup(profilerConfig);
+        final ProfilerPluginLoader loader = new ProfilerPluginLoader(profilerConfig, pluginSetup, mock(InstrumentEngine.class));
+        final List<SetupResult> setupResults = loader.load(pluginJars);
+
+        final List<String> actual = new ArrayList<String>();
+        for (SetupResult setupResult : setupResults) {
+            actual.add(pluginSetup.getPluginName(setupResult));
+        }
+        assertEquals(expected, actual);
+    }
+
+    private URL createPluginJar(String name, Class<?> pluginClass) throws IOException {
+        final File jar = temporaryFolder.newFile(name);
+        final JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            jarOutputStream.putNextEntry(new ZipEntry("META-INF/services/" + ProfilerPlugin.class.getName()));
+            jarOutputStream.write(pluginClass.getName().getBytes("UTF-8"));
+            jarOutputStream.closeEntry();
+        } finally {
+            jarOutputStream.close();
+        }
+        return jar.toURI().toURL();
+    }
+
+    private static class RecordingPluginSetup implements PluginSetup {
+        private final ProfilerConfig profilerConfig;
+        private final Map<SetupResult, String> pluginNames = Collections.synchronizedMap(new IdentityHashMap<SetupResult, String>());
+
+        private RecordingPluginSetup(ProfilerConfig profilerConfig) {
+            this.profilerConfig = profilerConfig;
+        }
+
+        @Override
+        public SetupResult setupPlugin(ProfilerPlugin profilerPlugin, ClassInjector classInjector) {
+            final SetupResult setupResult = new SetupResult(new DefaultProfilerPluginSetupContext(profilerConfig),
+                    new ClassFileTransformerLoader(profilerConfig, mock(DynamicTransformTrigger.class)));
+            pluginNames.put(setupResult, profilerPlugin.getClass().getName());
+            return setupResult;
+        }
+
+        private String getPluginName(SetupResult setupResult) {
+            return pluginNames.get(setupResult);
+        }
+    }
+
+    public static class PluginA implements ProfilerPlugin {
+        @Override
+        public void setup(ProfilerPluginSetupContext context) {
+        }
+    }
+
+    public static class PluginB implements ProfilerPlugin {
+        @Override
+        public void setup(ProfilerPluginSetupContext context) {
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.common.util.MockClock;
+import com.navercorp.pinpoint.profiler.sender.SendQueueStatus;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AdaptiveSamplerTest {
+
+    private final MockClock clock = new MockClock();
+    private final SendQueueStatus sendQueueStatus = mock(SendQueueStatus.class);
+
+    @Before
+    public void setUp() {
+        clock.setTime(10000);
+        when(sendQueueStatus.getQueueCapacity()).thenReturn(100);
+        when(sendQueueStatus.getQueueSize()).thenReturn(0);
+        when(sendQueueStatus.getDroppedCount()).thenReturn(0L);
+    }
+
+    @Test
+    public void backOffOnDrop() {
+        AdaptiveSampler sampler = new AdaptiveSampler(2, 8, sendQueueStatus, clock);
+        Assert.assertEquals(50, countSampling(sampler, 100));
+
+        when(sendQueueStatus.getDroppedCount()).thenReturn(5L);
+        nextInterval();
+        Assert.assertEquals(25, countSampling(sampler, 100));
+        Assert.assertEquals(4, sampler.getCurrentSamplingRate());
+
+        when(sendQueueStatus.getDroppedCount()).thenReturn(10L);
+        nextInterval();
+        sampler.isSampling();
+        Assert.assertEquals(8, sampler.getCurrentSamplingRate());
+
+        // capped by maxSamplingRate
+        when(sendQueueStatus.getDroppedCount()).thenReturn(15L);
+        nextInterval();
+        sampler.isSampling();
+        Assert.assertEquals(8, sampler.getCurrentSamplingRate());
+    }
+
+    @Test
+    public void backOffOnQueueUsage() {
+        AdaptiveSampler sampler = new AdaptiveSampler(1, 100, sendQueueStatus, clock);
+
+        when(sendQueueStatus.getQueueSize()).thenReturn(80);
+        nextInterval();
+        sampler.isSampling();
+        Assert.assertEquals(2, sampler.getCurrentSamplingRate());
+
+        // between the water marks : keep rate
+        when(sendQueueStatus.getQueueSize()).thenReturn(50);
+        nextInterval();
+        sampler.isSampling();
+        Assert.assertEquals(2, sampler.getCurrentSamplingRate());
+    }
+
+    @Test
+    public void recover() {
+        AdaptiveSampler sampler = new AdaptiveSampler(2, 100, sendQueueStatus, clock);
+        when(sendQueueStatus.getQueueSize()).thenReturn(90);
+        for (int i = 0; i < 3; i++) {
+            nextInterval();
+            sampler.isSampling();
+        }
+        Assert.assertEquals(16, sampler.getCurrentSamplingRate());
+
+        when(sendQueueStatus.getQueueSize()).thenReturn(0);
+        for (int i = 0; i < 5; i++) {
+            nextInterval();
+            sampler.isSampling();
+        }
+        Assert.assertEquals(2, sampler.getCurrentSamplingRate());
+    }
+
+    @Test
+    public void adjustOncePerInterval() {
+        AdaptiveSampler sampler = new AdaptiveSampler(1, 100, sendQueueStatus, clock);
+        when(sendQueueStatus.getDroppedCount()).thenReturn(1L);
+        nextInterval();
+        countSampling(sampler, 100);
+        Assert.assertEquals(2, sampler.getCurrentSamplingRate());
+    }
+
+    private void nextInterval() {
+        clock.setTime(clock.getTime() + AdaptiveSampler.ADJUST_INTERVAL);
+    }
+
+    private int countSampling(AdaptiveSampler sampler, int count) {
+        int sampled = 0;
+        for (int i = 0; i < count; i++) {
+            if (sampler.isSampling()) {
+                sampled++;
+            }
+        }
+        return sampled;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.common.util.MockClock;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RateLimitSamplerTest {
+
+    @Test
+    public void limitPerSecond() {
+        MockClock clock = new MockClock();
+        clock.setTime(10000);
+        RateLimitSampler sampler = new RateLimitSampler(10, clock);
+
+        // bucket starts empty
+        Assert.assertEquals(0, countSampling(sampler, 100));
+
+        clock.setTime(10100);
+        Assert.assertEquals(1, countSampling(sampler, 100));
+
+        clock.setTime(11000);
+        Assert.assertEquals(9, countSampling(sampler, 100));
+    }
+
+    @Test
+    public void burstIsLimitedToOneSecond() {
+        MockClock clock = new MockClock();
+        clock.setTime(10000);
+        RateLimitSampler sampler = new RateLimitSampler(10, clock);
+
+        // long idle period
+        clock.setTime(60000);
+        Assert.assertEquals(10, countSampling(sampler, 100));
+        Assert.assertEquals(0, countSampling(sampler, 100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidPermits() {
+        new RateLimitSampler(0);
+    }
+
+    private int countSampling(RateLimitSampler sampler, int count) {
+        int sampled = 0;
+        for (int i = 0; i < count; i++) {
+            if (sampler.isSampling()) {
+                sampled++;
+            }
+        }
+        return sampled;
+    }
+}
@@ -18,11 +18,14 @@ package com.navercorp.pinpoint.profiler.sampler;
 
 import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
 import com.navercorp.pinpoint.profiler.sampler.SamplerFactory;
+import com.navercorp.pinpoint.profiler.sender.SendQueueStatus;
 
 import org.junit.Assert;
 
 import org.junit.Test;
 
+import static org.mockito.Mockito.mock;
+
 /**
  * @author emeroad
  */
@@ -42,4 +45,21 @@ public class SamplerFactoryTest {
         boolean sampling = sampler.isSampling();
         Assert.assertFalse(sampling);
     }
+
+    @Test
+    public void createRateLimitSampler() {
+        SamplerFactory samplerFactory = new SamplerFactory();
+        Assert.assertTrue(samplerFactory.createRateLimitSampler(true, 10) instanceof RateLimitSampler);
+        Assert.assertTrue(samplerFactory.createRateLimitSampler(true, 0) instanceof FalseSampler);
+        Assert.assertTrue(samplerFactory.createRateLimitSampler(false, 10) instanceof FalseSampler);
+    }
+
+    @Test
+    public void createAdaptiveSampler() {
+        SamplerFactory samplerFactory = new SamplerFactory();
+        SendQueueStatus sendQueueStatus = mock(SendQueueStatus.class);
+        Assert.assertTrue(samplerFactory.createAdaptiveSampler(true, 10, 100, sendQueueStatus) instanceof AdaptiveSampler);
+        Assert.assertTrue(samplerFactory.createAdaptiveSampler(true, 10, 100, null) instanceof SamplingRateSampler);
+        Assert.assertTrue(samplerFactory.createAdaptiveSampler(false, 10, 100, sendQueueStatus) instanceof FalseSampler);
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import com.navercorp.pinpoint.thrift.dto.TSpan;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
+import org.apache.thrift.TBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class BatchPacketSerializerTest {
+
+    @Test
+    public void batch() throws Exception {
+        BatchPacketSerializer batchSerializer = new BatchPacketSerializer(1024);
+        batchSerializer.reset();
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(batchSerializer.add(newSpan("agent-" + i)));
+        }
+        Assert.assertEquals(3, batchSerializer.getCount());
+
+        HeaderTBaseDeserializer deserializer = new HeaderTBaseDeserializerFactory().createDeserializer();
+        List<TBase<?, ?>> tBaseList = deserializer.deserializeChunk(batchSerializer.getBuffer(), 0, batchSerializer.getSize());
+        Assert.assertEquals(3, tBaseList.size());
+        Assert.assertEquals("agent-2", ((TSpan) tBaseList.get(2)).getAgentId());
+    }
+
+    @Test
+    public void overflow() throws Exception {
+        BatchPacketSerializer batchSerializer = new BatchPacketSerializer(64);
+        batchSerializer.reset();
+        int added = 0;
+        while (batchSerializer.add(newSpan("agentId"))) {
+            added++;
+        }
+        Assert.assertTrue(added > 0);
+        Assert.assertEquals(added, batchSerializer.getCount());
+        Assert.assertTrue(batchSerializer.getSize() <= 64);
+
+        HeaderTBaseDeserializer deserializer = new HeaderTBaseDeserializerFactory().createDeserializer();
+        List<TBase<?, ?>> tBaseList = deserializer.deserializeChunk(batchSerializer.getBuffer(), 0, batchSerializer.getSize());
+        Assert.assertEquals(added, tBaseList.size());
+
+        batchSerializer.reset();
+        Assert.assertEquals(0, batchSerializer.getCount());
+    }
+
+    private TSpan newSpan(String agentId) {
+        TSpan span = new TSpan();
+        span.setAgentId(agentId);
+        span.setApplicationName("applicationName");
+        span.setStartTime(System.currentTimeMillis());
+        return span;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class DirectByteBufferPoolTest {
+
+    @Test
+    public void reuse() {
+        DirectByteBufferPool pool = new DirectByteBufferPool(2, 1024, 4096);
+        ByteBuffer buffer = pool.acquire();
+        Assert.assertTrue(buffer.isDirect());
+        Assert.assertEquals(1024, buffer.capacity());
+
+        buffer.put((byte) 1);
+        pool.release(buffer);
+        Assert.assertEquals(1, pool.size());
+
+        ByteBuffer reused = pool.acquire();
+        Assert.assertSame(buffer, reused);
+        Assert.assertEquals(0, reused.position());
+        Assert.assertEquals(1024, pool.getDirectBytes());
+    }
+
+    @Test
+    public void acquireSize() {
+        DirectByteBufferPool pool = new DirectByteBufferPool(2, 1024, 4096);
+        ByteBuffer small = pool.acquire(100);
+        Assert.assertEquals(100, small.capacity());
+        ByteBuffer large = pool.acquire(2048);
+        Assert.assertEquals(2048, large.capacity());
+        Assert.assertEquals(2148, pool.getDirectBytes());
+
+        // not pooled
+        pool.release(small);
+        pool.release(large);
+        Assert.assertEquals(0, pool.size());
+        Assert.assertEquals(0, pool.getDirectBytes());
+    }
+
+    @Test
+    public void maxDirectBytes() {
+        DirectByteBufferPool pool = new DirectByteBufferPool(2, 1024, 2048);
+        ByteBuffer first = pool.acquire();
+        ByteBuffer second = pool.acquire();
+        Assert.assertNull(pool.acquire());
+        Assert.assertNull(pool.acquire(1));
+
+        pool.release(first);
+        Assert.assertSame(first, pool.acquire(10));
+        pool.release(first);
+        pool.release(second);
+        Assert.assertEquals(2048, pool.getDirectBytes());
+        Assert.assertNull(pool.acquire(1025));
+    }
+
+    @Test
+    public void releaseOverPoolSize() {
+        DirectByteBufferPool pool = new DirectByteBufferPool(1, 1024, 4096);
+        ByteBuffer first = pool.acquire();
+        ByteBuffer second = pool.acquire();
+        pool.release(first);
+        pool.release(second);
+        Assert.assertEquals(1, pool.size());
+        Assert.assertEquals(1024, pool.getDirectBytes());
+    }
+}
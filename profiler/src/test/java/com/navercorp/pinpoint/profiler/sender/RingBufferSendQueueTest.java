@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class RingBufferSendQueueTest {
+
+    @Test
+    public void capacity() {
+        Assert.assertEquals(1, new RingBufferSendQueue<Object>(1).capacity());
+        Assert.assertEquals(8, new RingBufferSendQueue<Object>(5).capacity());
+        Assert.assertEquals(8192, new RingBufferSendQueue<Object>(1024 * 5).capacity());
+    }
+
+    @Test
+    public void offerFull() {
+        RingBufferSendQueue<String> queue = new RingBufferSendQueue<String>(2);
+        Assert.assertTrue(queue.offer("a"));
+        Assert.assertTrue(queue.offer("b"));
+        Assert.assertFalse(queue.offer("c"));
+        Assert.assertEquals(2, queue.size());
+
+        List<String> drain = new ArrayList<String>();
+        Assert.assertEquals(1, queue.drainTo(drain, 1));
+        Assert.assertEquals("a", drain.get(0));
+
+        Assert.assertTrue(queue.offer("c"));
+        Assert.assertEquals(2, queue.drainTo(drain, 10));
+        Assert.assertEquals("b", drain.get(1));
+        Assert.assertEquals("c", drain.get(2));
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void pollTimeout() throws InterruptedException {
+        for (RingBufferWaitStrategy waitStrategy : RingBufferWaitStrategy.values()) {
+            RingBufferSendQueue<String> queue = new RingBufferSendQueue<String>(4, waitStrategy);
+            Assert.assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+            queue.offer("a");
+            Assert.assertEquals("a", queue.poll(10, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    public void multiProducer() throws InterruptedException {
+        final RingBufferSendQueue<Integer> queue = new RingBufferSendQueue<Integer>(128, RingBufferWaitStrategy.BLOCKING);
+        final int producerCount = 4;
+        final int messageCount = 10000;
+        final CountDownLatch latch = new CountDownLatch(producerCount);
+        for (int i = 0; i < producerCount; i++) {
+            final int base = i * messageCount;
+            Thread producer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < messageCount; j++) {
+                        while (!queue.offer(base + j)) {
+                            Thread.yield();
+                        }
+                    }
+                    latch.countDown();
+                }
+            });
+            producer.start();
+        }
+
+        final BitSet received = new BitSet();
+        final List<Integer> drain = new ArrayList<Integer>();
+        int count = 0;
+        while (count < producerCount * messageCount) {
+            drain.clear();
+            if (queue.drainTo(drain, 10) == 0) {
+                Integer data = queue.poll(5000, TimeUnit.MILLISECONDS);
+                Assert.assertNotNull(data);
+                drain.add(data);
+            }
+            for (Integer data : drain) {
+                Assert.assertFalse("duplicated " + data, received.get(data));
+                received.set(data);
+                count++;
+            }
+        }
+        Assert.assertTrue(latch.await(5000, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertEquals(producerCount * messageCount, received.cardinality());
+    }
+
+    @Test
+    public void executorDropCount() {
+        SendQueueFactory sendQueueFactory = new SendQueueFactory(SendQueueType.RING_BUFFER, RingBufferWaitStrategy.BLOCKING, 10);
+        AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(1, "RingBufferSendQueueTest", sendQueueFactory);
+        final CountDownLatch blockLatch = new CountDownLatch(1);
+        executor.setListener(new AsyncQueueingExecutorListener<Object>() {
+            @Override
+            public void execute(Collection<Object> messageList) {
+                await();
+            }
+
+            @Override
+            public void execute(Object message) {
+                await();
+            }
+
+            private void await() {
+                try {
+                    blockLatch.await();
+                } catch (InterruptedException ignore) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        try {
+            for (int i = 0; i < 10; i++) {
+                executor.execute(i);
+            }
+            Assert.assertTrue(executor.getDroppedCount() > 0);
+        } finally {
+            blockLatch.countDown();
+            executor.stop();
+        }
+    }
+
+    @Test
+    public void sendQueueFactory() {
+        SendQueueFactory sendQueueFactory = SendQueueFactory.of("ring_buffer", "yielding", 0);
+        Assert.assertEquals(SendQueueType.RING_BUFFER, sendQueueFactory.getQueueType());
+        Assert.assertEquals(RingBufferWaitStrategy.YIELDING, sendQueueFactory.getWaitStrategy());
+        Assert.assertEquals(SendQueueFactory.DEFAULT_MAX_DRAIN_SIZE, sendQueueFactory.getMaxDrainSize());
+
+        SendQueueFactory unknown = SendQueueFactory.of("unknown", null, 20);
+        Assert.assertEquals(SendQueueType.LINKED, unknown.getQueueType());
+        Assert.assertEquals(20, unknown.getMaxDrainSize());
+        Assert.assertTrue(unknown.createQueue(10) instanceof LinkedBlockingSendQueue);
+    }
+}
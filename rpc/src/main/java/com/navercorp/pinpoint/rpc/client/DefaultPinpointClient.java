@@ -32,6 +32,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.SocketAddress;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -109,6 +110,12 @@ public class DefaultPinpointClient implements PinpointClient {
         return pinpointClientHandler.sendAsync(bytes);
     }
 
+    @Override
+    public Future sendAsync(ByteBuffer byteBuffer) {
+        ensureOpen();
+        return pinpointClientHandler.sendAsync(byteBuffer);
+    }
+
     @Override
     public void send(byte[] bytes) {
         ensureOpen();
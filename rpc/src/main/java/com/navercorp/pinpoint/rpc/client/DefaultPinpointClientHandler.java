@@ -27,6 +27,7 @@ import com.navercorp.pinpoint.rpc.packet.stream.StreamPacket;
 import com.navercorp.pinpoint.rpc.stream.*;
 import com.navercorp.pinpoint.rpc.util.ClassUtils;
 import com.navercorp.pinpoint.rpc.util.IDGenerator;
+import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.*;
 import org.jboss.netty.util.Timeout;
 import org.jboss.netty.util.Timer;
@@ -35,6 +36,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.SocketAddress;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -254,6 +256,21 @@ public class DefaultPinpointClientHandler extends SimpleChannelHandler implement
         return future;
     }
 
+    @Override
+    public Future sendAsync(ByteBuffer byteBuffer) {
+        if (byteBuffer == null) {
+            throw new NullPointerException("byteBuffer");
+        }
+
+        ensureOpen();
+        // wrappedBuffer does not copy. a direct buffer goes to the socket as is
+        SendPacket send = new SendPacket(ChannelBuffers.wrappedBuffer(byteBuffer));
+        ChannelFuture channelFuture = write0(send);
+        final ChannelWriteCompleteListenableFuture future = new ChannelWriteCompleteListenableFuture(clientOption.getTimeoutMillis());
+        channelFuture.addListener(future);
+        return future;
+    }
+
     @Override
     public void sendSync(byte[] bytes) {
         ChannelFuture write = send0(bytes);
@@ -19,6 +19,8 @@ package com.navercorp.pinpoint.rpc.client;
 import com.navercorp.pinpoint.rpc.*;
 import com.navercorp.pinpoint.rpc.stream.*;
 
+import java.nio.ByteBuffer;
+
 /**
  * @author emeroad
  * @author koo.taejin
@@ -41,6 +43,12 @@ public interface PinpointClient extends PinpointSocket {
 
     Future sendAsync(byte[] bytes);
 
+    /**
+     * Sends the readable bytes of byteBuffer without copying them.
+     * The buffer must not be modified until the returned future completes.
+     */
+    Future sendAsync(ByteBuffer byteBuffer);
+
     StreamChannelContext findStreamChannel(int streamChannelId);
 
     /**
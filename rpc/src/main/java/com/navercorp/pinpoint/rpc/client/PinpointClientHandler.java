@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.rpc.client;
 
 import java.net.SocketAddress;
+import java.nio.ByteBuffer;
 
 import com.navercorp.pinpoint.rpc.Future;
 import com.navercorp.pinpoint.rpc.ResponseMessage;
@@ -40,6 +41,8 @@ public interface PinpointClientHandler {
 
     Future sendAsync(byte[] bytes);
 
+    Future sendAsync(ByteBuffer byteBuffer);
+
     void close();
 
     void send(byte[] bytes);
@@ -26,6 +26,7 @@ import com.navercorp.pinpoint.rpc.common.SocketStateCode;
 import com.navercorp.pinpoint.rpc.stream.*;
 
 import java.net.SocketAddress;
+import java.nio.ByteBuffer;
 
 /**
  * @author emeroad
@@ -65,6 +66,11 @@ public class ReconnectStateClientHandler implements PinpointClientHandler {
         return reconnectFailureFuture();
     }
 
+    @Override
+    public Future sendAsync(ByteBuffer byteBuffer) {
+        return reconnectFailureFuture();
+    }
+
     private DefaultFuture<ResponseMessage> reconnectFailureFuture() {
         DefaultFuture<ResponseMessage> reconnect = new DefaultFuture<ResponseMessage>();
         reconnect.setFailure(newReconnectException());
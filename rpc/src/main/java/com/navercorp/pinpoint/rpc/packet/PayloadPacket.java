@@ -62,4 +62,10 @@ public class PayloadPacket {
         }
     }
 
+    public static ChannelBuffer appendPayload(final ChannelBuffer header, final ChannelBuffer payload) {
+        header.writeInt(payload.readableBytes());
+        // gathering write. the payload is not copied
+        return ChannelBuffers.wrappedBuffer(true, header, payload);
+    }
+
 }
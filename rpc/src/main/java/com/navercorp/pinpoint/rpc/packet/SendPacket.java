@@ -24,6 +24,8 @@ import org.jboss.netty.buffer.ChannelBuffers;
  */
 public class SendPacket extends BasicPacket {
 
+    // written as is. a direct buffer reaches the socket without a heap copy
+    private ChannelBuffer payloadBuffer;
 
     public SendPacket() {
     }
@@ -32,6 +34,23 @@ public class SendPacket extends BasicPacket {
         super(payload);
     }
 
+    public SendPacket(ChannelBuffer payloadBuffer) {
+        if (payloadBuffer == null) {
+            throw new NullPointerException("payloadBuffer");
+        }
+        this.payloadBuffer = payloadBuffer;
+    }
+
+    @Override
+    public byte[] getPayload() {
+        if (payload == null && payloadBuffer != null) {
+            final byte[] copy = new byte[payloadBuffer.readableBytes()];
+            payloadBuffer.getBytes(payloadBuffer.readerIndex(), copy);
+            return copy;
+        }
+        return payload;
+    }
+
     @Override
     public short getPacketType() {
         return PacketType.APPLICATION_SEND;
@@ -42,7 +61,9 @@ public class SendPacket extends BasicPacket {
         ChannelBuffer header = ChannelBuffers.buffer(2 + 4);
         header.writeShort(PacketType.APPLICATION_SEND);
 
-
+        if (payloadBuffer != null) {
+            return PayloadPacket.appendPayload(header, payloadBuffer);
+        }
         return PayloadPacket.appendPayload(header, payload);
     }
 
@@ -65,7 +86,10 @@ public class SendPacket extends BasicPacket {
     public String toString() {
         final StringBuilder sb = new StringBuilder(64);
         sb.append("SendPacket");
-        if (payload == null) {
+        if (payloadBuffer != null) {
+            sb.append("{payloadLength=").append(payloadBuffer.readableBytes());
+            sb.append('}');
+        } else if (payload == null) {
             sb.append("{payload=null}");
         } else {
             sb.append("{payloadLength=").append(payload.length);
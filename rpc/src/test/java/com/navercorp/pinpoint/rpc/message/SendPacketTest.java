@@ -19,9 +19,12 @@ package com.navercorp.pinpoint.rpc.message;
 import com.navercorp.pinpoint.rpc.packet.SendPacket;
 
 import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+
 /**
  * @author emeroad
  */
@@ -39,4 +42,20 @@ public class SendPacketTest {
 
 
     }
+
+    @Test
+    public void testToBuffer_directPayload() throws Exception {
+        byte[] bytes = new byte[] {1, 2, 3, 4, 5};
+        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(16);
+        byteBuffer.put(bytes);
+        byteBuffer.flip();
+        SendPacket packetSend = new SendPacket(ChannelBuffers.wrappedBuffer(byteBuffer));
+        Assert.assertArrayEquals(bytes, packetSend.getPayload());
+
+        ChannelBuffer channelBuffer = packetSend.toBuffer();
+
+        short packetType = channelBuffer.readShort();
+        SendPacket packet = (SendPacket) SendPacket.readBuffer(packetType, channelBuffer);
+        Assert.assertArrayEquals(bytes, packet.getPayload());
+    }
 }
@@ -35,6 +35,7 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
   private static final org.apache.thrift.protocol.TField APPLICATION_SERVICE_TYPE_FIELD_DESC = new org.apache.thrift.protocol.TField("applicationServiceType", org.apache.thrift.protocol.TType.I16, (short)30);
   private static final org.apache.thrift.protocol.TField LOGGING_TRANSACTION_INFO_FIELD_DESC = new org.apache.thrift.protocol.TField("loggingTransactionInfo", org.apache.thrift.protocol.TType.BYTE, (short)31);
   private static final org.apache.thrift.protocol.TField VERSION_FIELD_DESC = new org.apache.thrift.protocol.TField("version", org.apache.thrift.protocol.TType.BYTE, (short)32);
+  private static final org.apache.thrift.protocol.TField SPAN_EVENT_COLUMNS_FIELD_DESC = new org.apache.thrift.protocol.TField("spanEventColumns", org.apache.thrift.protocol.TType.STRING, (short)40);
 
   private static final org.apache.thrift.scheme.SchemeFactory STANDARD_SCHEME_FACTORY = new TSpanStandardSchemeFactory();
   private static final org.apache.thrift.scheme.SchemeFactory TUPLE_SCHEME_FACTORY = new TSpanTupleSchemeFactory();
@@ -63,6 +64,7 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
   private short applicationServiceType; // optional
   private byte loggingTransactionInfo; // optional
   private byte version; // optional
+  private java.nio.ByteBuffer spanEventColumns; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -89,7 +91,8 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
     EXCEPTION_INFO((short)26, "exceptionInfo"),
     APPLICATION_SERVICE_TYPE((short)30, "applicationServiceType"),
     LOGGING_TRANSACTION_INFO((short)31, "loggingTransactionInfo"),
-    VERSION((short)32, "version");
+    VERSION((short)32, "version"),
+    SPAN_EVENT_COLUMNS((short)40, "spanEventColumns");
 
     private static final java.util.Map<java.lang.String, _Fields> byName = new java.util.HashMap<java.lang.String, _Fields>();
 
@@ -152,6 +155,8 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
           return LOGGING_TRANSACTION_INFO;
         case 32: // VERSION
           return VERSION;
+        case 40: // SPAN_EVENT_COLUMNS
+          return SPAN_EVENT_COLUMNS;
         default:
           return null;
       }
@@ -206,7 +211,7 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
   private static final int __LOGGINGTRANSACTIONINFO_ISSET_ID = 11;
   private static final int __VERSION_ISSET_ID = 12;
   private short __isset_bitfield = 0;
-  private static final _Fields optionals[] = {_Fields.PARENT_SPAN_ID,_Fields.ELAPSED,_Fields.RPC,_Fields.END_POINT,_Fields.REMOTE_ADDR,_Fields.ANNOTATIONS,_Fields.FLAG,_Fields.ERR,_Fields.SPAN_EVENT_LIST,_Fields.PARENT_APPLICATION_NAME,_Fields.PARENT_APPLICATION_TYPE,_Fields.ACCEPTOR_HOST,_Fields.API_ID,_Fields.EXCEPTION_INFO,_Fields.APPLICATION_SERVICE_TYPE,_Fields.LOGGING_TRANSACTION_INFO,_Fields.VERSION};
+  private static final _Fields optionals[] = {_Fields.PARENT_SPAN_ID,_Fields.ELAPSED,_Fields.RPC,_Fields.END_POINT,_Fields.REMOTE_ADDR,_Fields.ANNOTATIONS,_Fields.FLAG,_Fields.ERR,_Fields.SPAN_EVENT_LIST,_Fields.PARENT_APPLICATION_NAME,_Fields.PARENT_APPLICATION_TYPE,_Fields.ACCEPTOR_HOST,_Fields.API_ID,_Fields.EXCEPTION_INFO,_Fields.APPLICATION_SERVICE_TYPE,_Fields.LOGGING_TRANSACTION_INFO,_Fields.VERSION,_Fields.SPAN_EVENT_COLUMNS};
   public static final java.util.Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     java.util.Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new java.util.EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -260,6 +265,8 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BYTE)));
     tmpMap.put(_Fields.VERSION, new org.apache.thrift.meta_data.FieldMetaData("version", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BYTE)));
+    tmpMap.put(_Fields.SPAN_EVENT_COLUMNS, new org.apache.thrift.meta_data.FieldMetaData("spanEventColumns", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING        , true)));
     metaDataMap = java.util.Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(TSpan.class, metaDataMap);
   }
@@ -357,6 +364,9 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
     this.applicationServiceType = other.applicationServiceType;
     this.loggingTransactionInfo = other.loggingTransactionInfo;
     this.version = other.version;
+    if (other.isSetSpanEventColumns()) {
+      this.spanEventColumns = org.apache.thrift.TBaseHelper.copyBinary(other.spanEventColumns);
+    }
   }
 
   public TSpan deepCopy() {
@@ -402,6 +412,7 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
     this.loggingTransactionInfo = 0;
     this.version = (byte)1;
 
+    this.spanEventColumns = null;
   }
 
   public java.lang.String getAgentId() {
@@ -982,6 +993,38 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
     __isset_bitfield = org.apache.thrift.EncodingUtils.setBit(__isset_bitfield, __VERSION_ISSET_ID, value);
   }
 
+  public byte[] getSpanEventColumns() {
+    setSpanEventColumns(org.apache.thrift.TBaseHelper.rightSize(spanEventColumns));
+    return spanEventColumns == null ? null : spanEventColumns.array();
+  }
+
+  public java.nio.ByteBuffer bufferForSpanEventColumns() {
+    return org.apache.thrift.TBaseHelper.copyBinary(spanEventColumns);
+  }
+
+  public void setSpanEventColumns(byte[] spanEventColumns) {
+    this.spanEventColumns = spanEventColumns == null ? (java.nio.ByteBuffer)null : java.nio.ByteBuffer.wrap(spanEventColumns.clone());
+  }
+
+  public void setSpanEventColumns(java.nio.ByteBuffer spanEventColumns) {
+    this.spanEventColumns = org.apache.thrift.TBaseHelper.copyBinary(spanEventColumns);
+  }
+
+  public void unsetSpanEventColumns() {
+    this.spanEventColumns = null;
+  }
+
+  /** Returns true if field spanEventColumns is set (has been assigned a value) and false otherwise */
+  public boolean isSetSpanEventColumns() {
+    return this.spanEventColumns != null;
+  }
+
+  public void setSpanEventColumnsIsSet(boolean value) {
+    if (!value) {
+      this.spanEventColumns = null;
+    }
+  }
+
   public void setFieldValue(_Fields field, java.lang.Object value) {
     switch (field) {
     case AGENT_ID:
@@ -1180,6 +1223,18 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
       }
       break;
 
+    case SPAN_EVENT_COLUMNS:
+      if (value == null) {
+        unsetSpanEventColumns();
+      } else {
+        if (value instanceof byte[]) {
+          setSpanEventColumns((byte[])value);
+        } else {
+          setSpanEventColumns((java.nio.ByteBuffer)value);
+        }
+      }
+      break;
+
     }
   }
 
@@ -1257,6 +1312,9 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
     case VERSION:
       return getVersion();
 
+    case SPAN_EVENT_COLUMNS:
+      return getSpanEventColumns();
+
     }
     throw new java.lang.IllegalStateException();
   }
@@ -1316,6 +1374,8 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
       return isSetLoggingTransactionInfo();
     case VERSION:
       return isSetVersion();
+    case SPAN_EVENT_COLUMNS:
+      return isSetSpanEventColumns();
     }
     throw new java.lang.IllegalStateException();
   }
@@ -1551,6 +1611,15 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
         return false;
     }
 
+    boolean this_present_spanEventColumns = true && this.isSetSpanEventColumns();
+    boolean that_present_spanEventColumns = true && that.isSetSpanEventColumns();
+    if (this_present_spanEventColumns || that_present_spanEventColumns) {
+      if (!(this_present_spanEventColumns && that_present_spanEventColumns))
+        return false;
+      if (!this.spanEventColumns.equals(that.spanEventColumns))
+        return false;
+    }
+
     return true;
   }
 
@@ -1646,6 +1715,10 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
     if (isSetVersion())
       hashCode = hashCode * 8191 + (int) (version);
 
+    hashCode = hashCode * 8191 + ((isSetSpanEventColumns()) ? 131071 : 524287);
+    if (isSetSpanEventColumns())
+      hashCode = hashCode * 8191 + spanEventColumns.hashCode();
+
     return hashCode;
   }
 
@@ -1897,6 +1970,16 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
         return lastComparison;
       }
     }
+    lastComparison = java.lang.Boolean.valueOf(isSetSpanEventColumns()).compareTo(other.isSetSpanEventColumns());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetSpanEventColumns()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.spanEventColumns, other.spanEventColumns);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -2090,6 +2173,16 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
       sb.append(this.version);
       first = false;
     }
+    if (isSetSpanEventColumns()) {
+      if (!first) sb.append(", ");
+      sb.append("spanEventColumns:");
+      if (this.spanEventColumns == null) {
+        sb.append("null");
+      } else {
+        org.apache.thrift.TBaseHelper.toString(this.spanEventColumns, sb);
+      }
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -2353,6 +2446,14 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 40: // SPAN_EVENT_COLUMNS
+            if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+              struct.spanEventColumns = iprot.readBinary();
+              struct.setSpanEventColumnsIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -2508,6 +2609,13 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
         oprot.writeByte(struct.version);
         oprot.writeFieldEnd();
       }
+      if (struct.spanEventColumns != null) {
+        if (struct.isSetSpanEventColumns()) {
+          oprot.writeFieldBegin(SPAN_EVENT_COLUMNS_FIELD_DESC);
+          oprot.writeBinary(struct.spanEventColumns);
+          oprot.writeFieldEnd();
+        }
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -2598,7 +2706,10 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
       if (struct.isSetVersion()) {
         optionals.set(23);
       }
-      oprot.writeBitSet(optionals, 24);
+      if (struct.isSetSpanEventColumns()) {
+        optionals.set(24);
+      }
+      oprot.writeBitSet(optionals, 25);
       if (struct.isSetAgentId()) {
         oprot.writeString(struct.agentId);
       }
@@ -2683,12 +2794,15 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
       if (struct.isSetVersion()) {
         oprot.writeByte(struct.version);
       }
+      if (struct.isSetSpanEventColumns()) {
+        oprot.writeBinary(struct.spanEventColumns);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, TSpan struct) throws org.apache.thrift.TException {
       org.apache.thrift.protocol.TTupleProtocol iprot = (org.apache.thrift.protocol.TTupleProtocol) prot;
-      java.util.BitSet incoming = iprot.readBitSet(24);
+      java.util.BitSet incoming = iprot.readBitSet(25);
       if (incoming.get(0)) {
         struct.agentId = iprot.readString();
         struct.setAgentIdIsSet(true);
@@ -2806,6 +2920,10 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
         struct.version = iprot.readByte();
         struct.setVersionIsSet(true);
       }
+      if (incoming.get(24)) {
+        struct.spanEventColumns = iprot.readBinary();
+        struct.setSpanEventColumnsIsSet(true);
+      }
     }
   }
 
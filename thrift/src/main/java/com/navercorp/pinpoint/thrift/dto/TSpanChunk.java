@@ -22,6 +22,7 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
   private static final org.apache.thrift.protocol.TField APPLICATION_SERVICE_TYPE_FIELD_DESC = new org.apache.thrift.protocol.TField("applicationServiceType", org.apache.thrift.protocol.TType.I16, (short)11);
   private static final org.apache.thrift.protocol.TField KEY_TIME_FIELD_DESC = new org.apache.thrift.protocol.TField("keyTime", org.apache.thrift.protocol.TType.I64, (short)12);
   private static final org.apache.thrift.protocol.TField VERSION_FIELD_DESC = new org.apache.thrift.protocol.TField("version", org.apache.thrift.protocol.TType.BYTE, (short)13);
+  private static final org.apache.thrift.protocol.TField SPAN_EVENT_COLUMNS_FIELD_DESC = new org.apache.thrift.protocol.TField("spanEventColumns", org.apache.thrift.protocol.TType.STRING, (short)20);
 
   private static final org.apache.thrift.scheme.SchemeFactory STANDARD_SCHEME_FACTORY = new TSpanChunkStandardSchemeFactory();
   private static final org.apache.thrift.scheme.SchemeFactory TUPLE_SCHEME_FACTORY = new TSpanChunkTupleSchemeFactory();
@@ -37,6 +38,7 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
   private short applicationServiceType; // optional
   private long keyTime; // optional
   private byte version; // optional
+  private java.nio.ByteBuffer spanEventColumns; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -50,7 +52,8 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
     SPAN_EVENT_LIST((short)10, "spanEventList"),
     APPLICATION_SERVICE_TYPE((short)11, "applicationServiceType"),
     KEY_TIME((short)12, "keyTime"),
-    VERSION((short)13, "version");
+    VERSION((short)13, "version"),
+    SPAN_EVENT_COLUMNS((short)20, "spanEventColumns");
 
     private static final java.util.Map<java.lang.String, _Fields> byName = new java.util.HashMap<java.lang.String, _Fields>();
 
@@ -87,6 +90,8 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
           return KEY_TIME;
         case 13: // VERSION
           return VERSION;
+        case 20: // SPAN_EVENT_COLUMNS
+          return SPAN_EVENT_COLUMNS;
         default:
           return null;
       }
@@ -134,7 +139,7 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
   private static final int __KEYTIME_ISSET_ID = 4;
   private static final int __VERSION_ISSET_ID = 5;
   private byte __isset_bitfield = 0;
-  private static final _Fields optionals[] = {_Fields.END_POINT,_Fields.APPLICATION_SERVICE_TYPE,_Fields.KEY_TIME,_Fields.VERSION};
+  private static final _Fields optionals[] = {_Fields.END_POINT,_Fields.APPLICATION_SERVICE_TYPE,_Fields.KEY_TIME,_Fields.VERSION,_Fields.SPAN_EVENT_COLUMNS};
   public static final java.util.Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     java.util.Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new java.util.EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -161,6 +166,8 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
     tmpMap.put(_Fields.VERSION, new org.apache.thrift.meta_data.FieldMetaData("version", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BYTE)));
+    tmpMap.put(_Fields.SPAN_EVENT_COLUMNS, new org.apache.thrift.meta_data.FieldMetaData("spanEventColumns", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING        , true)));
     metaDataMap = java.util.Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(TSpanChunk.class, metaDataMap);
   }
@@ -222,6 +229,9 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
     this.applicationServiceType = other.applicationServiceType;
     this.keyTime = other.keyTime;
     this.version = other.version;
+    if (other.isSetSpanEventColumns()) {
+      this.spanEventColumns = org.apache.thrift.TBaseHelper.copyBinary(other.spanEventColumns);
+    }
   }
 
   public TSpanChunk deepCopy() {
@@ -247,6 +257,7 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
     this.keyTime = 0;
     this.version = (byte)1;
 
+    this.spanEventColumns = null;
   }
 
   public java.lang.String getAgentId() {
@@ -525,6 +536,38 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
     __isset_bitfield = org.apache.thrift.EncodingUtils.setBit(__isset_bitfield, __VERSION_ISSET_ID, value);
   }
 
+  public byte[] getSpanEventColumns() {
+    setSpanEventColumns(org.apache.thrift.TBaseHelper.rightSize(spanEventColumns));
+    return spanEventColumns == null ? null : spanEventColumns.array();
+  }
+
+  public java.nio.ByteBuffer bufferForSpanEventColumns() {
+    return org.apache.thrift.TBaseHelper.copyBinary(spanEventColumns);
+  }
+
+  public void setSpanEventColumns(byte[] spanEventColumns) {
+    this.spanEventColumns = spanEventColumns == null ? (java.nio.ByteBuffer)null : java.nio.ByteBuffer.wrap(spanEventColumns.clone());
+  }
+
+  public void setSpanEventColumns(java.nio.ByteBuffer spanEventColumns) {
+    this.spanEventColumns = org.apache.thrift.TBaseHelper.copyBinary(spanEventColumns);
+  }
+
+  public void unsetSpanEventColumns() {
+    this.spanEventColumns = null;
+  }
+
+  /** Returns true if field spanEventColumns is set (has been assigned a value) and false otherwise */
+  public boolean isSetSpanEventColumns() {
+    return this.spanEventColumns != null;
+  }
+
+  public void setSpanEventColumnsIsSet(boolean value) {
+    if (!value) {
+      this.spanEventColumns = null;
+    }
+  }
+
   public void setFieldValue(_Fields field, java.lang.Object value) {
     switch (field) {
     case AGENT_ID:
@@ -619,6 +662,18 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
       }
       break;
 
+    case SPAN_EVENT_COLUMNS:
+      if (value == null) {
+        unsetSpanEventColumns();
+      } else {
+        if (value instanceof byte[]) {
+          setSpanEventColumns((byte[])value);
+        } else {
+          setSpanEventColumns((java.nio.ByteBuffer)value);
+        }
+      }
+      break;
+
     }
   }
 
@@ -657,6 +712,9 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
     case VERSION:
       return getVersion();
 
+    case SPAN_EVENT_COLUMNS:
+      return getSpanEventColumns();
+
     }
     throw new java.lang.IllegalStateException();
   }
@@ -690,6 +748,8 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
       return isSetKeyTime();
     case VERSION:
       return isSetVersion();
+    case SPAN_EVENT_COLUMNS:
+      return isSetSpanEventColumns();
     }
     throw new java.lang.IllegalStateException();
   }
@@ -808,6 +868,15 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
         return false;
     }
 
+    boolean this_present_spanEventColumns = true && this.isSetSpanEventColumns();
+    boolean that_present_spanEventColumns = true && that.isSetSpanEventColumns();
+    if (this_present_spanEventColumns || that_present_spanEventColumns) {
+      if (!(this_present_spanEventColumns && that_present_spanEventColumns))
+        return false;
+      if (!this.spanEventColumns.equals(that.spanEventColumns))
+        return false;
+    }
+
     return true;
   }
 
@@ -853,6 +922,10 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
     if (isSetVersion())
       hashCode = hashCode * 8191 + (int) (version);
 
+    hashCode = hashCode * 8191 + ((isSetSpanEventColumns()) ? 131071 : 524287);
+    if (isSetSpanEventColumns())
+      hashCode = hashCode * 8191 + spanEventColumns.hashCode();
+
     return hashCode;
   }
 
@@ -974,6 +1047,16 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
         return lastComparison;
       }
     }
+    lastComparison = java.lang.Boolean.valueOf(isSetSpanEventColumns()).compareTo(other.isSetSpanEventColumns());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetSpanEventColumns()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.spanEventColumns, other.spanEventColumns);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -1065,6 +1148,16 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
       sb.append(this.version);
       first = false;
     }
+    if (isSetSpanEventColumns()) {
+      if (!first) sb.append(", ");
+      sb.append("spanEventColumns:");
+      if (this.spanEventColumns == null) {
+        sb.append("null");
+      } else {
+        org.apache.thrift.TBaseHelper.toString(this.spanEventColumns, sb);
+      }
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -1209,6 +1302,14 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 20: // SPAN_EVENT_COLUMNS
+            if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+              struct.spanEventColumns = iprot.readBinary();
+              struct.setSpanEventColumnsIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -1280,6 +1381,13 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
         oprot.writeByte(struct.version);
         oprot.writeFieldEnd();
       }
+      if (struct.spanEventColumns != null) {
+        if (struct.isSetSpanEventColumns()) {
+          oprot.writeFieldBegin(SPAN_EVENT_COLUMNS_FIELD_DESC);
+          oprot.writeBinary(struct.spanEventColumns);
+          oprot.writeFieldEnd();
+        }
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -1331,7 +1439,10 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
       if (struct.isSetVersion()) {
         optionals.set(10);
       }
-      oprot.writeBitSet(optionals, 11);
+      if (struct.isSetSpanEventColumns()) {
+        optionals.set(11);
+      }
+      oprot.writeBitSet(optionals, 12);
       if (struct.isSetAgentId()) {
         oprot.writeString(struct.agentId);
       }
@@ -1371,12 +1482,15 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
       if (struct.isSetVersion()) {
         oprot.writeByte(struct.version);
       }
+      if (struct.isSetSpanEventColumns()) {
+        oprot.writeBinary(struct.spanEventColumns);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, TSpanChunk struct) throws org.apache.thrift.TException {
       org.apache.thrift.protocol.TTupleProtocol iprot = (org.apache.thrift.protocol.TTupleProtocol) prot;
-      java.util.BitSet incoming = iprot.readBitSet(11);
+      java.util.BitSet incoming = iprot.readBitSet(12);
       if (incoming.get(0)) {
         struct.agentId = iprot.readString();
         struct.setAgentIdIsSet(true);
@@ -1431,6 +1545,10 @@ public class TSpanChunk implements org.apache.thrift.TBase<TSpanChunk, TSpanChun
         struct.version = iprot.readByte();
         struct.setVersionIsSet(true);
       }
+      if (incoming.get(11)) {
+        struct.spanEventColumns = iprot.readBinary();
+        struct.setSpanEventColumnsIsSet(true);
+      }
     }
   }
 
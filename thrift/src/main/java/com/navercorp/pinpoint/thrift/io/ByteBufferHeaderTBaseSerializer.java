@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.thrift.io;
+
+import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TProtocolFactory;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes header + TBase straight into a ByteBuffer supplied by the caller.
+ * A direct buffer can be handed to the socket as is, without an intermediate heap array.
+ *
+ * Caution. not thread safe
+ */
+public class ByteBufferHeaderTBaseSerializer {
+
+    private final HeaderTBaseSerializer2 serializer;
+    private final ByteBufferWriter writer = new ByteBufferWriter();
+
+    public ByteBufferHeaderTBaseSerializer(TProtocolFactory protocolFactory, TBaseLocator tBaseLocator) {
+        if (protocolFactory == null) {
+            throw new NullPointerException("protocolFactory must not be null");
+        }
+        if (tBaseLocator == null) {
+            throw new NullPointerException("tBaseLocator must not be null");
+        }
+        this.serializer = new HeaderTBaseSerializer2(protocolFactory, tBaseLocator);
+    }
+
+    /**
+     * Writes from the current position of byteBuffer and advances it.
+     *
+     * @return written bytes
+     * @throws BufferOverflowException if base does not fit in the remaining space. the position is restored.
+     */
+    public int serialize(TBase<?, ?> base, ByteBuffer byteBuffer) throws TException {
+        if (byteBuffer == null) {
+            throw new NullPointerException("byteBuffer must not be null");
+        }
+        final int position = byteBuffer.position();
+        writer.open(byteBuffer);
+        try {
+            serializer.serialize(base, writer);
+        } catch (TException e) {
+            byteBuffer.position(position);
+            throw e;
+        } catch (RuntimeException e) {
+            byteBuffer.position(position);
+            throw e;
+        } finally {
+            writer.close();
+        }
+        return byteBuffer.position() - position;
+    }
+
+    // unlike ByteBufferOutputStream, does not own the buffer
+    private static class ByteBufferWriter extends OutputStream {
+
+        private ByteBuffer byteBuffer;
+
+        private void open(ByteBuffer byteBuffer) {
+            this.byteBuffer = byteBuffer;
+        }
+
+        @Override
+        public void write(int b) {
+            checkWriteAvailable(1);
+            byteBuffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] byteArray, int offset, int length) {
+            checkWriteAvailable(length);
+            byteBuffer.put(byteArray, offset, length);
+        }
+
+        private void checkWriteAvailable(int size) {
+            if (byteBuffer.remaining() < size) {
+                throw new BufferOverflowException("write failed remaining-size:" + byteBuffer.remaining() + ", input-size:" + size + ".");
+            }
+        }
+
+        @Override
+        public void close() {
+            this.byteBuffer = null;
+        }
+    }
+
+}
@@ -99,6 +99,42 @@ public class HeaderTBaseDeserializer {
         return tBaseList;
     }
 
+    public boolean isChunk(byte[] bytes, int offset, int length) {
+        if (bytes == null || length < Header.HEADER_SIZE) {
+            return false;
+        }
+        // fixed size regardless protocol
+        final short type = bytesToShort(bytes[offset + 2], bytes[offset + 3]);
+        return locator.isChunkHeader(type);
+    }
+
+    /**
+     * Deserialize a chunk. chunk header + (header + TBase)*
+     */
+    public List<TBase<?, ?>> deserializeChunk(byte[] bytes, int offset, int length) throws TException {
+        List<TBase<?, ?>> tBaseList = new ArrayList<TBase<?, ?>>();
+        try {
+            trans.reset(bytes, offset, length);
+            final Header chunkHeader = readHeader();
+            validate(chunkHeader);
+            if (!locator.isChunkHeader(chunkHeader.getType())) {
+                throw new TException("Invalid chunk header:" + chunkHeader);
+            }
+
+            while (trans.getBytesRemainingInBuffer() >= Header.HEADER_SIZE) {
+                final Header header = readHeader();
+                validate(header);
+                TBase<?, ?> base = locator.tBaseLookup(header.getType());
+                base.read(protocol);
+                tBaseList.add(base);
+            }
+        } finally {
+            trans.clear();
+            protocol.reset();
+        }
+        return tBaseList;
+    }
+
     private int validate(Header header) throws TException {
         final byte signature = header.getSignature();
         final int result = HeaderUtils.validateSignature(signature);
@@ -72,6 +72,14 @@ public class HeaderTBaseSerializer {
         return baos.toByteArray();
     }
     
+    /**
+     * Write the chunk header. TBase written with {@link #continueSerialize(TBase)} afterwards are read back as one chunk.
+     */
+    public byte[] continueSerializeChunkHeader() throws TException {
+        writeHeader(locator.getChunkHeader());
+        return baos.toByteArray();
+    }
+
     public void reset() {
         baos.reset();
     }
@@ -95,6 +95,8 @@ struct TActiveTrace {
 struct TResponseTime {
     1: optional i64         avg = 0
     2: optional i64         max = 0
+    // log bucketed response time counts, see LogBucketHistogram
+    3: optional binary      histogram
 }
 
 struct TDeadlock {
@@ -125,6 +125,9 @@ struct TSpan {
     31: optional i8 loggingTransactionInfo;
 
     32: optional i8 version = TRACE_V2;
+
+    // @since 1.7.4 spanEventList encoded column by column, see SpanEventColumnEncoder
+    40: optional binary spanEventColumns
 }
 
 struct TSpanChunk {
@@ -153,6 +156,9 @@ struct TSpanChunk {
     12: optional i64 keyTime;
 
     13: optional i8 version = TRACE_V2;
+
+    // @since 1.7.4 spanEventList encoded column by column, see SpanEventColumnEncoder
+    20: optional binary spanEventColumns
 }
 
 
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.thrift.io;
+
+import com.navercorp.pinpoint.thrift.dto.TAgentInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class ByteBufferHeaderTBaseSerializerTest {
+
+    @Test
+    public void serialize() throws Exception {
+        ByteBufferHeaderTBaseSerializer serializer = new ByteBufferHeaderTBaseSerializerFactory().createSerializer();
+        HeaderTBaseSerializer heapSerializer = new HeaderTBaseSerializerFactory(false).createSerializer();
+
+        TAgentInfo tAgentInfo = newAgentInfo("agentId");
+        byte[] expected = heapSerializer.serialize(tAgentInfo);
+
+        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(1024);
+        int size = serializer.serialize(tAgentInfo, byteBuffer);
+        Assert.assertEquals(expected.length, size);
+        Assert.assertEquals(size, byteBuffer.position());
+
+        byteBuffer.flip();
+        byte[] actual = new byte[byteBuffer.remaining()];
+        byteBuffer.get(actual);
+        Assert.assertTrue(Arrays.equals(expected, actual));
+
+        HeaderTBaseDeserializer deserializer = new HeaderTBaseDeserializerFactory().createDeserializer();
+        Assert.assertEquals(tAgentInfo, deserializer.deserialize(actual));
+    }
+
+    @Test
+    public void serialize_append() throws Exception {
+        ByteBufferHeaderTBaseSerializer serializer = new ByteBufferHeaderTBaseSerializerFactory().createSerializer();
+
+        ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
+        int size1 = serializer.serialize(newAgentInfo("agentId1"), byteBuffer);
+        int size2 = serializer.serialize(newAgentInfo("agentId2"), byteBuffer);
+        Assert.assertEquals(size1 + size2, byteBuffer.position());
+    }
+
+    @Test
+    public void serialize_overflow() throws Exception {
+        ByteBufferHeaderTBaseSerializer serializer = new ByteBufferHeaderTBaseSerializerFactory().createSerializer();
+
+        ByteBuffer byteBuffer = ByteBuffer.allocate(32);
+        byteBuffer.put((byte) 1);
+        try {
+            serializer.serialize(newAgentInfo("agentId-too-long-for-the-buffer"), byteBuffer);
+            Assert.fail();
+        } catch (BufferOverflowException ignore) {
+        }
+        Assert.assertEquals(1, byteBuffer.position());
+
+        // serializer is reusable after an overflow
+        ByteBuffer large = ByteBuffer.allocate(1024);
+        Assert.assertTrue(serializer.serialize(newAgentInfo("agentId"), large) > 0);
+    }
+
+    private TAgentInfo newAgentInfo(String agentId) {
+        TAgentInfo tAgentInfo = new TAgentInfo();
+        tAgentInfo.setAgentId(agentId);
+        tAgentInfo.setHostname("host");
+        tAgentInfo.setApplicationName("applicationName");
+        return tAgentInfo;
+    }
+}
@@ -23,6 +23,7 @@ import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
 
+import org.apache.thrift.TBase;
 import org.apache.thrift.TException;
 import org.junit.Assert;
 import org.junit.Test;
@@ -30,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * @author emeroad
@@ -74,6 +76,33 @@ public class HeaderTBaseSerializerTest {
         Assert.assertEquals(deserialize, tAgentInfo);
     }
 
+    @Test
+    public void testSerializeChunk() throws Exception {
+        HeaderTBaseSerializer serializer = new HeaderTBaseSerializerFactory(false).createSerializer();
+        HeaderTBaseDeserializer deserializer = new HeaderTBaseDeserializerFactory().createDeserializer();
+
+        TAgentInfo tAgentInfo1 = new TAgentInfo();
+        tAgentInfo1.setAgentId("agentId1");
+        TAgentInfo tAgentInfo2 = new TAgentInfo();
+        tAgentInfo2.setAgentId("agentId2");
+
+        serializer.reset();
+        serializer.continueSerializeChunkHeader();
+        serializer.continueSerialize(tAgentInfo1);
+        byte[] serialize = serializer.continueSerialize(tAgentInfo2);
+        int size = serializer.getInterBufferSize();
+        dump(Arrays.copyOf(serialize, size));
+
+        Assert.assertTrue(deserializer.isChunk(serialize, 0, size));
+        List<TBase<?, ?>> tBaseList = deserializer.deserializeChunk(serialize, 0, size);
+        Assert.assertEquals(2, tBaseList.size());
+        Assert.assertEquals(tAgentInfo1, tBaseList.get(0));
+        Assert.assertEquals(tAgentInfo2, tBaseList.get(1));
+
+        byte[] single = serializer.serialize(tAgentInfo1);
+        Assert.assertFalse(deserializer.isChunk(single, 0, serializer.getInterBufferSize()));
+    }
+
     public void dump(byte[] data) {
         String s = Arrays.toString(data);
         logger.debug("size:{} data:{}", data.length, s);
@@ -246,6 +246,10 @@ public class CallTreeIterator implements Iterator<CallTreeNode> {
         return nodes.get(index + 1);
     }
 
+    public CallTreeNode get(int index) {
+        return nodes.get(index);
+    }
+
     public List<SpanAlign> values() {
         List<SpanAlign> values = new ArrayList<>();
         for (CallTreeNode node : nodes) {
@@ -27,6 +27,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import com.navercorp.pinpoint.web.service.AdminService;
+import com.navercorp.pinpoint.web.service.LinkDataMapService;
 
 import java.util.List;
 import java.util.Map;
@@ -45,6 +46,9 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private LinkDataMapService linkDataMapService;
+
     @RequestMapping(value = "/removeApplicationName")
     @ResponseBody
     public String removeApplicationName(@RequestParam("applicationName") String applicationName) {
@@ -107,4 +111,10 @@ public class AdminController {
         return this.adminService.getInactiveAgents(applicationName, durationDays);
     }
 
+    @RequestMapping(value = "/linkDataMapCacheStatistics")
+    @ResponseBody
+    public Map<String, Object> linkDataMapCacheStatistics() {
+        return this.linkDataMapService.getCacheStatistics();
+    }
+
 }
\ No newline at end of file
@@ -73,6 +73,9 @@ public class BusinessTransactionController {
     @Value("#{pinpointWebProps['log.button.disable.message'] ?: ''}")
     private String disableButtonMessage;
 
+    @Value("#{pinpointWebProps['web.callstack.record.limit'] ?: 0}")
+    private int callStackRecordLimit;
+
     private SqlParser sqlParser = new DefaultSqlParser();
     private OutputParameterParser parameterParser = new OutputParameterParser();
 
@@ -89,8 +92,10 @@ public class BusinessTransactionController {
                                                     @RequestParam(value = "focusTimestamp", required = false, defaultValue = "0") long focusTimestamp,
                                                     @RequestParam(value = "agentId", required = false) String agentId,
                                                     @RequestParam(value = "spanId", required = false, defaultValue = "-1") long spanId,
-                                                    @RequestParam(value = "v", required = false, defaultValue = "0") int viewVersion) {
-        logger.debug("GET /transactionInfo params {traceId={}, focusTimestamp={}, agentId={}, spanId={}, v={}}", traceIdParam, focusTimestamp, agentId, spanId, viewVersion);
+                                                    @RequestParam(value = "v", required = false, defaultValue = "0") int viewVersion,
+                                                    @RequestParam(value = "callStackOffset", required = false, defaultValue = "0") int callStackOffset,
+                                                    @RequestParam(value = "callStackLimit", required = false, defaultValue = "0") int callStackLimit) {
+        logger.debug("GET /transactionInfo params {traceId={}, focusTimestamp={}, agentId={}, spanId={}, v={}, callStackOffset={}, callStackLimit={}}", traceIdParam, focusTimestamp, agentId, spanId, viewVersion, callStackOffset, callStackLimit);
 
         final TransactionId transactionId = TransactionIdUtils.parseTransactionId(traceIdParam);
 
@@ -100,12 +105,26 @@ public class BusinessTransactionController {
 
         // application map
         ApplicationMap map = filteredMapService.selectApplicationMap(transactionId, viewVersion);
-        RecordSet recordSet = this.transactionInfoService.createRecordSet(callTreeIterator, focusTimestamp, agentId, spanId);
+        final int limit = getCallStackLimit(callStackLimit);
+        RecordSet recordSet = this.transactionInfoService.createRecordSet(callTreeIterator, focusTimestamp, agentId, spanId, Math.max(callStackOffset, 0), limit);
 
         TransactionInfoViewModel result = new TransactionInfoViewModel(transactionId, map.getNodes(), map.getLinks(), recordSet, spanResult.getCompleteTypeString(), logLinkEnable, logButtonName, logPageUrl, disableButtonMessage);
         return result;
     }
 
+    private int getCallStackLimit(int callStackLimit) {
+        if (callStackRecordLimit > 0) {
+            if (callStackLimit <= 0) {
+                return callStackRecordLimit;
+            }
+            return Math.min(callStackLimit, callStackRecordLimit);
+        }
+        if (callStackLimit <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        return callStackLimit;
+    }
+
     @RequestMapping(value = "/sqlBind", method = RequestMethod.POST)
     @ResponseBody
     public String sqlBind(@RequestParam("sql") String sql,
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.controller;
+
+import com.navercorp.pinpoint.web.service.stat.ResponseTimePercentileService;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.stat.ResponseTimePercentiles;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+@Controller
+public class ResponseTimePercentileController {
+
+    private final ResponseTimePercentileService responseTimePercentileService;
+
+    @Autowired
+    public ResponseTimePercentileController(ResponseTimePercentileService responseTimePercentileService) {
+        this.responseTimePercentileService = responseTimePercentileService;
+    }
+
+    @RequestMapping(value = "/getAgentStat/responseTime/percentile", method = RequestMethod.GET)
+    @ResponseBody
+    public ResponseTimePercentiles getAgentPercentiles(@RequestParam("agentId") String agentId, @RequestParam("from") long from, @RequestParam("to") long to) {
+        return responseTimePercentileService.selectAgentPercentiles(agentId, new Range(from, to));
+    }
+
+    @RequestMapping(value = "/getApplicationStat/responseTime/percentile", method = RequestMethod.GET)
+    @ResponseBody
+    public ResponseTimePercentiles getApplicationPercentiles(@RequestParam("applicationName") String applicationName, @RequestParam("from") long from, @RequestParam("to") long to) {
+        return responseTimePercentileService.selectApplicationPercentiles(applicationName, new Range(from, to));
+    }
+}
@@ -19,10 +19,17 @@ package com.navercorp.pinpoint.web.dao;
 import java.util.List;
 
 import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 /**
  * @author emeroad
  */
 public interface ApiMetaDataDao {
     List<ApiMetaDataBo> getApiMetaData(String agentId, long time, int apiId);
+
+    /**
+     * selects every key with one multi-get
+     * @return metadata of each key, in keyList order
+     */
+    List<List<ApiMetaDataBo>> getApiMetaData(List<MetaDataKey> keyList);
 }
@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.web.dao;
 
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.util.TransactionId;
@@ -33,5 +34,20 @@ public interface TraceDao {
     
     List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList);
 
+    /**
+     * streaming variant of {@link #selectAllSpans(List)}.
+     * each transaction is handed to the consumer, in order, as soon as its partition is loaded.
+     */
+    void selectAllSpans(List<TransactionId> transactionIdList, Consumer<List<SpanBo>> transactionConsumer);
+
+    /**
+     * stops loading once {@code deadline}(epoch millis) has passed.
+     * Partitions still in flight are cancelled: queued selects are skipped and running multi-gets are interrupted,
+     * which the HBase client honours at its next blocking call.
+     *
+     * @return false if some transactions were skipped because of the deadline
+     */
+    boolean selectAllSpans(List<TransactionId> transactionIdList, Consumer<List<SpanBo>> transactionConsumer, long deadline);
+
 
 }
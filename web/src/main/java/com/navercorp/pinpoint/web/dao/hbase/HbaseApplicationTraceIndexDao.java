@@ -30,8 +30,8 @@ import com.navercorp.pinpoint.common.server.util.SpanUtils;
 import com.navercorp.pinpoint.common.util.TimeUtils;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.dao.ApplicationTraceIndexDao;
+import com.navercorp.pinpoint.web.mapper.ScatterDataResultExtractor;
 import com.navercorp.pinpoint.web.mapper.TraceIndexScatterMapper2;
-import com.navercorp.pinpoint.web.mapper.TraceIndexScatterMapper3;
 import com.navercorp.pinpoint.web.mapper.TransactionIdMapper;
 import com.navercorp.pinpoint.web.scatter.ScatterData;
 import com.navercorp.pinpoint.web.vo.LimitedScanResult;
@@ -40,7 +40,6 @@ import com.navercorp.pinpoint.web.vo.ResponseTimeRange;
 import com.navercorp.pinpoint.web.vo.SelectedScatterArea;
 import com.navercorp.pinpoint.web.vo.scatter.Dot;
 import com.sematext.hbase.wd.AbstractRowKeyDistributor;
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.TableName;
@@ -57,6 +56,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
@@ -91,6 +91,10 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
     @Qualifier("applicationTraceIndexDistributor")
     private AbstractRowKeyDistributor traceIdRowKeyDistributor;
 
+    // dots kept per scatter group, the rest of the group is only counted. 0 keeps every dot
+    @Value("#{pinpointWebProps['web.scatter.group.dot.limit'] ?: 10}")
+    private int scatterGroupDotLimit;
+
     private int scanCacheSize = 256;
 
     public void setScanCacheSize(int scanCacheSize) {
@@ -303,21 +307,11 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         logger.debug("scanTraceScatterDataMadeOfDotGroup");
         Scan scan = createScan(applicationName, range, scanBackward);
 
-        TraceIndexScatterMapper3 mapper = new TraceIndexScatterMapper3(range.getFrom(), range.getTo(), xGroupUnit, yGroupUnit);
+        final int maxDotSizePerGroup = scatterGroupDotLimit > 0 ? scatterGroupDotLimit : Integer.MAX_VALUE;
+        ScatterDataResultExtractor resultExtractor = new ScatterDataResultExtractor(range.getFrom(), range.getTo(), xGroupUnit, yGroupUnit, maxDotSizePerGroup, limit);
 
         TableName applicationTraceIndexTableName = tableNameProvider.getTableName(HBaseTables.APPLICATION_TRACE_INDEX_STR);
-        List<ScatterData> dotGroupList = hbaseOperations2.findParallel(applicationTraceIndexTableName, scan, traceIdRowKeyDistributor, limit, mapper, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
-
-        if (CollectionUtils.isEmpty(dotGroupList)) {
-            return new ScatterData(range.getFrom(), range.getTo(), xGroupUnit, yGroupUnit);
-        } else {
-            ScatterData firstScatterData = dotGroupList.get(0);
-            for (int i = 1; i < dotGroupList.size(); i++) {
-                firstScatterData.merge(dotGroupList.get(i));
-            }
-
-            return firstScatterData;
-        }
+        return hbaseOperations2.findParallel(applicationTraceIndexTableName, scan, traceIdRowKeyDistributor, resultExtractor, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
     }
 
     /**
@@ -20,12 +20,15 @@ import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.hbase.TableNameProvider;
+import com.navercorp.pinpoint.common.hbase.statistics.MapStatisticsResolution;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
 import com.navercorp.pinpoint.web.dao.MapResponseDao;
+import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.RangeFactory;
 import com.navercorp.pinpoint.web.vo.ResponseTime;
+import com.navercorp.pinpoint.web.vo.StatisticsRange;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 import org.apache.hadoop.hbase.TableName;
@@ -34,6 +37,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
@@ -69,6 +73,8 @@ public class HbaseMapResponseTimeDao implements MapResponseDao {
     @Qualifier("statisticsSelfRowKeyDistributor")
     private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
 
+    @Value("#{pinpointWebProps['web.servermap.statistics.rollup.enable'] ?: false}")
+    private boolean rollupEnable;
 
     @Override
     public List<ResponseTime> selectResponseTime(Application application, Range range) {
@@ -79,25 +85,34 @@ public class HbaseMapResponseTimeDao implements MapResponseDao {
             logger.debug("selectResponseTime applicationName:{}, {}", application, range);
         }
 
-        Scan scan = createScan(application, range, HBaseTables.MAP_STATISTICS_SELF_VER2_CF_COUNTER);
+        final MapStatisticsResolution resolution = getResolution(range);
 
         TableName mapStatisticsSelfTableName = tableNameProvider.getTableName(HBaseTables.MAP_STATISTICS_SELF_VER2_STR);
-        List<ResponseTime> responseTimeList = hbaseOperations2.findParallel(mapStatisticsSelfTableName, scan, rowKeyDistributorByHashPrefix, responseTimeMapper, MAP_STATISTICS_SELF_VER2_NUM_PARTITIONS);
+        final List<ResponseTime> responseTimeList = new ArrayList<>();
+        for (StatisticsRange statisticsRange : rangeFactory.createStatisticsRanges(range, resolution)) {
+            final Scan scan = createScan(application, statisticsRange);
+            responseTimeList.addAll(hbaseOperations2.findParallel(mapStatisticsSelfTableName, scan, rowKeyDistributorByHashPrefix, responseTimeMapper, MAP_STATISTICS_SELF_VER2_NUM_PARTITIONS));
+        }
         if (logger.isDebugEnabled()) {
             logger.debug("Self data {}", responseTimeList);
         }
 
-        if (!responseTimeList.isEmpty()) {
-            return responseTimeList;
-        }
+        return responseTimeList;
+    }
 
-        return new ArrayList<>();
+    private MapStatisticsResolution getResolution(Range range) {
+        if (rollupEnable) {
+            // response times are bucketed by the same down sampled window as the server map
+            return MapStatisticsResolution.getResolution(TimeWindowDownSampler.SAMPLER.getWindowSize(range));
+        }
+        return MapStatisticsResolution.ONE_MINUTE;
     }
 
-    private Scan createScan(Application application, Range range, byte[] family) {
-        range = rangeFactory.createStatisticsRange(range);
+    private Scan createScan(Application application, StatisticsRange statisticsRange) {
+        final Range range = statisticsRange.getRange();
+        final MapStatisticsResolution resolution = statisticsRange.getResolution();
         if (logger.isDebugEnabled()) {
-            logger.debug("scan time:{} ", range.prettyToString());
+            logger.debug("scan time:{} resolution:{}", range.prettyToString(), resolution);
         }
 
         // start key is replaced by end key because timestamp has been reversed
@@ -108,7 +123,7 @@ public class HbaseMapResponseTimeDao implements MapResponseDao {
         scan.setCaching(this.scanCacheSize);
         scan.setStartRow(startKey);
         scan.setStopRow(endKey);
-        scan.addFamily(family);
+        scan.addFamily(resolution.getFamily());
         scan.setId("ApplicationSelfScan");
 
         return scan;
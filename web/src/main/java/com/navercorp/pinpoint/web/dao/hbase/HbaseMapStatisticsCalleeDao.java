@@ -21,6 +21,7 @@ import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.hbase.TableNameProvider;
+import com.navercorp.pinpoint.common.hbase.statistics.MapStatisticsResolution;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
 import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
 import com.navercorp.pinpoint.web.dao.MapStatisticsCalleeDao;
@@ -30,6 +31,7 @@ import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.RangeFactory;
+import com.navercorp.pinpoint.web.vo.StatisticsRange;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 import org.apache.hadoop.hbase.TableName;
@@ -38,6 +40,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.Objects;
@@ -64,6 +67,9 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
 
     private final RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
 
+    @Value("#{pinpointWebProps['web.servermap.statistics.rollup.enable'] ?: false}")
+    private boolean rollupEnable;
+
     @Autowired
     public HbaseMapStatisticsCalleeDao(
             HbaseOperations2 hbaseTemplate,
@@ -89,11 +95,19 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
 
         final TimeWindow timeWindow = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
         // find distributed key - ver2.
-        final Scan scan = createScan(calleeApplication, range, HBaseTables.MAP_STATISTICS_CALLER_VER2_CF_COUNTER);
+        final MapStatisticsResolution resolution = getResolution(timeWindow);
+        // the reducer accumulates the rows of every scan into one LinkDataMap
         ResultsExtractor<LinkDataMap> resultExtractor = new RowMapReduceResultExtractor<>(mapStatisticsCalleeMapper, new MapStatisticsTimeWindowReducer(timeWindow));
 
         TableName mapStatisticsCallerTableName = tableNameProvider.getTableName(HBaseTables.MAP_STATISTICS_CALLER_VER2_STR);
-        LinkDataMap linkDataMap = hbaseTemplate.findParallel(mapStatisticsCallerTableName, scan, rowKeyDistributorByHashPrefix, resultExtractor, MAP_STATISTICS_CALLER_VER2_NUM_PARTITIONS);
+        LinkDataMap linkDataMap = null;
+        for (StatisticsRange statisticsRange : rangeFactory.createStatisticsRanges(range, resolution)) {
+            final Scan scan = createScan(calleeApplication, statisticsRange);
+            final LinkDataMap scanned = hbaseTemplate.findParallel(mapStatisticsCallerTableName, scan, rowKeyDistributorByHashPrefix, resultExtractor, MAP_STATISTICS_CALLER_VER2_NUM_PARTITIONS);
+            if (scanned != null) {
+                linkDataMap = scanned;
+            }
+        }
         logger.debug("Callee data. {}, {}", linkDataMap, range);
         if (linkDataMap != null && linkDataMap.size() > 0) {
             return linkDataMap;
@@ -103,11 +117,19 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
     }
 
 
-    private Scan createScan(Application application, Range range, byte[] family) {
-        range = rangeFactory.createStatisticsRange(range);
+    private MapStatisticsResolution getResolution(TimeWindow timeWindow) {
+        if (rollupEnable) {
+            return MapStatisticsResolution.getResolution(timeWindow.getWindowSlotSize());
+        }
+        return MapStatisticsResolution.ONE_MINUTE;
+    }
+
+    private Scan createScan(Application application, StatisticsRange statisticsRange) {
+        final Range range = statisticsRange.getRange();
+        final MapStatisticsResolution resolution = statisticsRange.getResolution();
 
         if (logger.isDebugEnabled()) {
-            logger.debug("scan time:{} ", range.prettyToString());
+            logger.debug("scan time:{} resolution:{}", range.prettyToString(), resolution);
         }
 
         // start key is replaced by end key because timestamp has been reversed
@@ -118,7 +140,7 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
         scan.setCaching(SCAN_CACHE_SIZE);
         scan.setStartRow(startKey);
         scan.setStopRow(endKey);
-        scan.addFamily(family);
+        scan.addFamily(resolution.getFamily());
         scan.setId("ApplicationStatisticsScan");
 
         return scan;
@@ -21,6 +21,7 @@ import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.hbase.TableNameProvider;
+import com.navercorp.pinpoint.common.hbase.statistics.MapStatisticsResolution;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
 import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
 import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
@@ -30,6 +31,7 @@ import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.RangeFactory;
+import com.navercorp.pinpoint.web.vo.StatisticsRange;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 import org.apache.hadoop.hbase.TableName;
@@ -38,6 +40,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.Objects;
@@ -65,6 +68,9 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
 
     private final RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
 
+    @Value("#{pinpointWebProps['web.servermap.statistics.rollup.enable'] ?: false}")
+    private boolean rollupEnable;
+
     @Autowired
     public HbaseMapStatisticsCallerDao(
             HbaseOperations2 hbaseTemplate,
@@ -90,11 +96,19 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
 
         final TimeWindow timeWindow = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
         // find distributed key.
-        final Scan scan = createScan(callerApplication, range, HBaseTables.MAP_STATISTICS_CALLEE_VER2_CF_COUNTER);
+        final MapStatisticsResolution resolution = getResolution(timeWindow);
+        // the reducer accumulates the rows of every scan into one LinkDataMap
         ResultsExtractor<LinkDataMap> resultExtractor = new RowMapReduceResultExtractor<>(mapStatisticsCallerMapper, new MapStatisticsTimeWindowReducer(timeWindow));
 
         TableName mapStatisticsCalleeTableName = tableNameProvider.getTableName(HBaseTables.MAP_STATISTICS_CALLEE_VER2_STR);
-        LinkDataMap linkDataMap = this.hbaseTemplate.findParallel(mapStatisticsCalleeTableName, scan, rowKeyDistributorByHashPrefix, resultExtractor, MAP_STATISTICS_CALLEE_VER2_NUM_PARTITIONS);
+        LinkDataMap linkDataMap = null;
+        for (StatisticsRange statisticsRange : rangeFactory.createStatisticsRanges(range, resolution)) {
+            final Scan scan = createScan(callerApplication, statisticsRange);
+            final LinkDataMap scanned = this.hbaseTemplate.findParallel(mapStatisticsCalleeTableName, scan, rowKeyDistributorByHashPrefix, resultExtractor, MAP_STATISTICS_CALLEE_VER2_NUM_PARTITIONS);
+            if (scanned != null) {
+                linkDataMap = scanned;
+            }
+        }
         logger.debug("Caller data. {}, {}", linkDataMap, range);
         if (linkDataMap != null && linkDataMap.size() > 0) {
             return linkDataMap;
@@ -104,11 +118,19 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
     }
 
 
-    private Scan createScan(Application application, Range range, byte[]... familyArgs) {
-        range = rangeFactory.createStatisticsRange(range);
+    private MapStatisticsResolution getResolution(TimeWindow timeWindow) {
+        if (rollupEnable) {
+            return MapStatisticsResolution.getResolution(timeWindow.getWindowSlotSize());
+        }
+        return MapStatisticsResolution.ONE_MINUTE;
+    }
+
+    private Scan createScan(Application application, StatisticsRange statisticsRange) {
+        final Range range = statisticsRange.getRange();
+        final MapStatisticsResolution resolution = statisticsRange.getResolution();
 
         if (logger.isDebugEnabled()) {
-            logger.debug("scan Time:{}", range.prettyToString());
+            logger.debug("scan time:{} resolution:{}", range.prettyToString(), resolution);
         }
 
         // start key is replaced by end key because timestamp has been reversed
@@ -119,9 +141,7 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
         scan.setCaching(SCAN_CACHE_SIZE);
         scan.setStartRow(startKey);
         scan.setStopRow(endKey);
-        for(byte[] family : familyArgs) {
-            scan.addFamily(family);
-        }
+        scan.addFamily(resolution.getFamily());
         scan.setId("ApplicationStatisticsScan");
 
         return scan;
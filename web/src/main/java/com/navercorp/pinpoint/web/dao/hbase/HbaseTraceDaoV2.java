@@ -25,9 +25,20 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 /**
  * @author Woonduk Kang(emeroad)
@@ -35,6 +46,8 @@ import java.util.List;
 @Repository
 public class HbaseTraceDaoV2 implements TraceDao {
 
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     @Autowired
@@ -57,6 +70,14 @@ public class HbaseTraceDaoV2 implements TraceDao {
     @Value("#{pinpointWebProps['web.hbase.selectAllSpans.limit'] ?: 500}")
     private int selectAllSpansLimit;
 
+    // max partitions in flight per request. 1 selects the partitions one after another on the caller thread
+    @Value("#{pinpointWebProps['web.hbase.selectSpans.parallelism'] ?: 4}")
+    private int selectSpansParallelism;
+
+    @Autowired
+    @Qualifier("traceSelectExecutor")
+    private Executor traceSelectExecutor;
+
     private final Filter spanFilter = createSpanQualifierFilter();
 
 
@@ -112,6 +133,24 @@ public class HbaseTraceDaoV2 implements TraceDao {
         return partitionSelect(partitionTransactionIdList, HBaseTables.TRACE_V2_CF_SPAN, null);
     }
 
+    @Override
+    public void selectAllSpans(List<TransactionId> transactionIdList, Consumer<List<SpanBo>> transactionConsumer) {
+        selectAllSpans(transactionIdList, transactionConsumer, NO_DEADLINE);
+    }
+
+    @Override
+    public boolean selectAllSpans(List<TransactionId> transactionIdList, Consumer<List<SpanBo>> transactionConsumer, long deadline) {
+        if (transactionConsumer == null) {
+            throw new NullPointerException("transactionConsumer must not be null");
+        }
+        if (CollectionUtils.isEmpty(transactionIdList)) {
+            return true;
+        }
+
+        List<List<TransactionId>> partitionTransactionIdList = partition(transactionIdList, selectAllSpansLimit);
+
+        return partitionSelect(partitionTransactionIdList, HBaseTables.TRACE_V2_CF_SPAN, null, transactionConsumer, deadline);
+    }
 
     private List<List<TransactionId>> partition(List<TransactionId> transactionIdList, int maxTransactionIdListSize) {
         return Lists.partition(transactionIdList, maxTransactionIdListSize);
@@ -121,16 +160,98 @@ public class HbaseTraceDaoV2 implements TraceDao {
         if (CollectionUtils.isEmpty(partitionTransactionIdList)) {
             return Collections.emptyList();
         }
+
+        final List<List<SpanBo>> spanBoList = new ArrayList<>();
+        partitionSelect(partitionTransactionIdList, columnFamily, filter, spanBoList::add, NO_DEADLINE);
+        return spanBoList;
+    }
+
+    /**
+     * Keeps up to {@code selectSpansParallelism} partitions in flight on the traceSelectExecutor.
+     * The consumer is called on the caller thread, in transactionId order, as soon as each partition returns.
+     *
+     * @return false if the deadline passed before every partition was handed to the consumer
+     */
+    private boolean partitionSelect(List<List<TransactionId>> partitionTransactionIdList, byte[] columnFamily, Filter filter,
+                                    Consumer<List<SpanBo>> transactionConsumer, long deadline) {
+        if (CollectionUtils.isEmpty(partitionTransactionIdList)) {
+            return true;
+        }
         if (columnFamily == null) {
             throw new NullPointerException("columnFamily must not be null.");
         }
 
-        List<List<SpanBo>> spanBoList = new ArrayList<>();
-        for (List<TransactionId> transactionIdList : partitionTransactionIdList) {
-            List<List<SpanBo>> partitionSpanList = select0(transactionIdList, columnFamily, filter);
-            spanBoList.addAll(partitionSpanList);
+        if (partitionTransactionIdList.size() == 1 || selectSpansParallelism <= 1) {
+            for (List<TransactionId> transactionIdList : partitionTransactionIdList) {
+                if (System.currentTimeMillis() >= deadline) {
+                    return false;
+                }
+                List<List<SpanBo>> partitionSpanList = select0(transactionIdList, columnFamily, filter);
+                partitionSpanList.forEach(transactionConsumer);
+            }
+            return true;
+        }
+
+        final Iterator<List<TransactionId>> partitionIterator = partitionTransactionIdList.iterator();
+        final Deque<Future<List<List<SpanBo>>>> inFlight = new ArrayDeque<>(selectSpansParallelism);
+        try {
+            while (inFlight.size() < selectSpansParallelism && partitionIterator.hasNext()) {
+                inFlight.add(submitSelect(partitionIterator.next(), columnFamily, filter));
+            }
+            while (!inFlight.isEmpty()) {
+                final List<List<SpanBo>> partitionSpanList = getPartition(inFlight.peek(), deadline);
+                if (partitionSpanList == null) {
+                    return false;
+                }
+                inFlight.poll();
+                if (partitionIterator.hasNext()) {
+                    inFlight.add(submitSelect(partitionIterator.next(), columnFamily, filter));
+                }
+                partitionSpanList.forEach(transactionConsumer);
+            }
+            return true;
+        } finally {
+            // only non-empty on failure or deadline. interrupts running selects, queued ones are skipped
+            for (Future<List<List<SpanBo>>> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private Future<List<List<SpanBo>>> submitSelect(List<TransactionId> transactionIdList, byte[] columnFamily, Filter filter) {
+        // FutureTask rather than CompletableFuture, cancel(true) has to interrupt the running multi-get
+        final FutureTask<List<List<SpanBo>>> selectTask = new FutureTask<>(() -> select0(transactionIdList, columnFamily, filter));
+        try {
+            traceSelectExecutor.execute(selectTask);
+        } catch (RejectedExecutionException e) {
+            logger.debug("traceSelectExecutor is busy, select on caller thread. Caused:{}", e.getMessage());
+            selectTask.run();
+        }
+        return selectTask;
+    }
+
+    private List<List<SpanBo>> getPartition(Future<List<List<SpanBo>>> future, long deadline) {
+        try {
+            if (deadline == NO_DEADLINE) {
+                return future.get();
+            }
+            final long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return null;
+            }
+            return future.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("select spans interrupted", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("select spans failed. Caused:" + cause.getMessage(), cause);
         }
-        return spanBoList;
     }
 
     private List<List<SpanBo>> select0(List<TransactionId> transactionIdList, byte[] columnFamily, Filter filter) {
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import com.navercorp.pinpoint.common.util.TimeUtils;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.scatter.ScatterData;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+
+/**
+ * Reduces scanned trace index rows into per bucket counts while the scan runs.
+ * <p>
+ * A bucket is an (xGroupUnit, yGroupUnit, success/failure) cell of the scatter chart, the same grouping as {@link ScatterData#merge(ScatterData)}.
+ * Only the first {@code maxDotSizePerGroup} dots of a bucket are decoded and kept as representatives,
+ * the remaining index cells are counted from their row key and value prefix without building a {@link Dot}.
+ */
+public class ScatterDataResultExtractor implements ResultsExtractor<ScatterData> {
+
+    private static final int ACCEPTED_TIME_OFFSET = HBaseTables.APPLICATION_NAME_MAX_LEN + HBaseTables.APPLICATION_TRACE_INDEX_ROW_DISTRIBUTE_SIZE;
+
+    private final long from;
+    private final long to;
+    private final int xGroupUnit;
+    private final int yGroupUnit;
+    private final int maxDotSizePerGroup;
+
+    private final int limit;
+
+    public ScatterDataResultExtractor(long from, long to, int xGroupUnit, int yGroupUnit, int maxDotSizePerGroup, int limit) {
+        if (maxDotSizePerGroup < 1) {
+            throw new IllegalArgumentException("maxDotSizePerGroup must be positive:" + maxDotSizePerGroup);
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("negative limit:" + limit);
+        }
+        this.from = from;
+        this.to = to;
+        this.xGroupUnit = xGroupUnit;
+        this.yGroupUnit = yGroupUnit;
+        this.maxDotSizePerGroup = maxDotSizePerGroup;
+        this.limit = limit;
+    }
+
+    @Override
+    public ScatterData extractData(ResultScanner results) throws Exception {
+        final ScatterData scatterData = new ScatterData(from, to, xGroupUnit, yGroupUnit, maxDotSizePerGroup);
+        int rowNum = 0;
+        for (Result result : results) {
+            reduce(scatterData, result);
+            if (++rowNum >= limit) {
+                break;
+            }
+        }
+        return scatterData;
+    }
+
+    private void reduce(ScatterData scatterData, Result result) {
+        if (result.isEmpty()) {
+            return;
+        }
+
+        final Cell[] rawCells = result.rawCells();
+        // every cell of a row shares the accepted time of the row key
+        final long reverseAcceptedTime = BytesUtils.bytesToLong(rawCells[0].getRowArray(), rawCells[0].getRowOffset() + ACCEPTED_TIME_OFFSET);
+        final long acceptedTime = TimeUtils.recoveryTimeMillis(reverseAcceptedTime);
+
+        for (Cell cell : rawCells) {
+            final Buffer valueBuffer = new OffsetFixedBuffer(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+            final int elapsed = valueBuffer.readVInt();
+            final int exceptionCode = valueBuffer.readSVInt();
+            if (scatterData.countDot(acceptedTime, elapsed, exceptionCode)) {
+                continue;
+            }
+
+            final String agentId = valueBuffer.readPrefixedString();
+            final TransactionId transactionId = TransactionIdMapper.parseVarTransactionId(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+            scatterData.addDot(new Dot(transactionId, acceptedTime, elapsed, exceptionCode, agentId));
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
 
 import com.navercorp.pinpoint.common.server.bo.stat.ResponseTimeBo;
+import com.navercorp.pinpoint.common.trace.LogBucketHistogram;
 import com.navercorp.pinpoint.web.vo.stat.SampledResponseTime;
 import com.navercorp.pinpoint.web.vo.stat.chart.DownSampler;
 import com.navercorp.pinpoint.web.vo.stat.chart.DownSamplers;
@@ -42,10 +43,37 @@ public class ResponseTimeSampler implements AgentStatSampler<ResponseTimeBo, Sam
         List<Long> maxs = getMax(dataPoints);
         AgentStatPoint<Long> max = createPoint(timestamp, maxs);
 
-        SampledResponseTime sampledResponseTime = new SampledResponseTime(avg, max);
+        final long[] histogram = mergeHistogram(dataPoints);
+        AgentStatPoint<Long> p95 = createPercentilePoint(timestamp, histogram, 95);
+        AgentStatPoint<Long> p99 = createPercentilePoint(timestamp, histogram, 99);
+
+        SampledResponseTime sampledResponseTime = new SampledResponseTime(avg, max, p95, p99);
         return sampledResponseTime;
     }
 
+    private long[] mergeHistogram(List<ResponseTimeBo> dataPoints) {
+        long[] merged = null;
+        for (ResponseTimeBo responseTimeBo : dataPoints) {
+            final byte[] histogram = responseTimeBo.getHistogram();
+            if (histogram == null) {
+                continue;
+            }
+            if (merged == null) {
+                merged = new long[LogBucketHistogram.BUCKET_COUNT];
+            }
+            LogBucketHistogram.merge(merged, LogBucketHistogram.decode(histogram));
+        }
+        return merged;
+    }
+
+    private AgentStatPoint<Long> createPercentilePoint(long timestamp, long[] histogram, double percentile) {
+        final long value = LogBucketHistogram.percentile(histogram, percentile);
+        if (value == -1) {
+            return SampledResponseTime.UNCOLLECTED_POINT_CREATOR.createUnCollectedPoint(timestamp);
+        }
+        return new AgentStatPoint<>(timestamp, value);
+    }
+
     private List<Long> getAvg(List<ResponseTimeBo> dataPoints) {
         List<Long> avgs = new ArrayList<>(dataPoints.size());
         for (ResponseTimeBo responseTimeBo : dataPoints) {
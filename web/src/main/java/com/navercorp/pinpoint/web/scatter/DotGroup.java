@@ -26,24 +26,53 @@ import java.util.List;
 public class DotGroup {
 
     private final Coordinates coordinates;
+    private final int maxDotSize;
     private final List<Dot> dotList = new ArrayList<>();
 
     private Dot dotLeader;
+    private int dotSize;
 
     public DotGroup(Coordinates coordinates) {
+        this(coordinates, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxDotSize dots kept as representatives of the group, the rest is only counted
+     */
+    public DotGroup(Coordinates coordinates, int maxDotSize) {
+        if (maxDotSize < 1) {
+            throw new IllegalArgumentException("maxDotSize must be positive:" + maxDotSize);
+        }
         this.coordinates = coordinates;
+        this.maxDotSize = maxDotSize;
     }
 
     public Coordinates getCoordinates() {
         return coordinates;
     }
 
-    void addDot(Dot dot) {
-        dotList.add(dot);
-
+    /**
+     * @return false if the group is full and the dot was only counted
+     */
+    boolean addDot(Dot dot) {
+        dotSize++;
         if (dotLeader == null) {
             dotLeader = dot;
         }
+
+        if (isFull()) {
+            return false;
+        }
+        dotList.add(dot);
+        return true;
+    }
+
+    boolean isFull() {
+        return dotList.size() >= maxDotSize;
+    }
+
+    void countDot() {
+        dotSize++;
     }
 
     void merge(DotGroup dotGroup) {
@@ -51,15 +80,27 @@ public class DotGroup {
             return;
         }
 
-        this.dotList.addAll(dotGroup.getDotList());
+        this.dotSize += dotGroup.getDotSize();
+        for (Dot dot : dotGroup.getDotList()) {
+            if (isFull()) {
+                break;
+            }
+            this.dotList.add(dot);
+        }
     }
 
+    /**
+     * @return the kept dots, the whole group unless it was created with a maxDotSize
+     */
     public List<Dot> getDotList() {
         return dotList;
     }
 
+    /**
+     * @return number of dots in the group, kept or only counted
+     */
     public int getDotSize() {
-        return dotList.size();
+        return dotSize;
     }
 
     public Dot getDotLeader() {
@@ -68,7 +109,7 @@ public class DotGroup {
 
     @Override
     public String toString() {
-        return "DotGroup{" + "coordinates=" + coordinates + ", dotList=" + dotList + '}';
+        return "DotGroup{" + "coordinates=" + coordinates + ", dotSize=" + dotSize + ", dotList=" + dotList + '}';
     }
 
 }
@@ -34,22 +34,43 @@ public class DotGroups {
     private static final DotComparator DOT_COMPARATOR = new DotComparator();
 
     private final long xCoordinates;
+    private final int maxDotSizePerGroup;
     private final Map<Key, DotGroup> dotGroupMap = new HashMap<>();
 
     public DotGroups(long xCoordinates) {
+        this(xCoordinates, Integer.MAX_VALUE);
+    }
+
+    public DotGroups(long xCoordinates, int maxDotSizePerGroup) {
         this.xCoordinates = xCoordinates;
+        this.maxDotSizePerGroup = maxDotSizePerGroup;
     }
 
-    void addDot(Coordinates coordinates, Dot dot) {
+    /**
+     * @return false if the group of the dot is full and the dot was only counted
+     */
+    boolean addDot(Coordinates coordinates, Dot dot) {
         Key key = new Key(coordinates, dot.getSimpleExceptionCode());
 
         DotGroup dotGroup = dotGroupMap.get(key);
         if (dotGroup == null) {
-            dotGroup = new DotGroup(coordinates);
+            dotGroup = new DotGroup(coordinates, maxDotSizePerGroup);
             dotGroupMap.put(key, dotGroup);
         }
 
-        dotGroup.addDot(dot);
+        return dotGroup.addDot(dot);
+    }
+
+    /**
+     * @return false if the group has room for the dot, it has to be added with {@link #addDot(Coordinates, Dot)}
+     */
+    boolean countDot(Coordinates coordinates, int simpleExceptionCode) {
+        DotGroup dotGroup = dotGroupMap.get(new Key(coordinates, simpleExceptionCode));
+        if (dotGroup == null || !dotGroup.isFull()) {
+            return false;
+        }
+        dotGroup.countDot();
+        return true;
     }
 
     void merge(DotGroups dotGroups) {
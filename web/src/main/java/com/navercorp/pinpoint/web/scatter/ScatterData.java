@@ -37,6 +37,7 @@ public class ScatterData {
     private final long to;
     private final int xGroupUnitMillis;
     private final int yGroupUnitMillis;
+    private final int maxDotSizePerGroup;
 
     private final ScatterAgentMetadataRepository scatterAgentMetadataRepository = new ScatterAgentMetadataRepository();
     private final Map<Long, DotGroups> scatterData = new HashMap<>();
@@ -45,17 +46,28 @@ public class ScatterData {
     private long latestAcceptedTime = Long.MIN_VALUE;
 
     public ScatterData(long from, long to, int xGroupUnitMillis, int yGroupUnitMillis) {
+        this(from, to, xGroupUnitMillis, yGroupUnitMillis, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxDotSizePerGroup dots kept per group, further dots of a full group are only counted
+     */
+    public ScatterData(long from, long to, int xGroupUnitMillis, int yGroupUnitMillis, int maxDotSizePerGroup) {
         if (from <= 0) {
             throw new IllegalArgumentException("from value must be higher than 0");
         }
         if (from > to) {
             throw new IllegalArgumentException("from value must be lower or equal to to value");
         }
+        if (maxDotSizePerGroup < 1) {
+            throw new IllegalArgumentException("maxDotSizePerGroup must be positive:" + maxDotSizePerGroup);
+        }
 
         this.from = from;
         this.to = to;
         this.xGroupUnitMillis = xGroupUnitMillis;
         this.yGroupUnitMillis = yGroupUnitMillis;
+        this.maxDotSizePerGroup = maxDotSizePerGroup;
     }
 
     public void addDot(List<Dot> dotList) {
@@ -70,30 +82,58 @@ public class ScatterData {
         }
 
         long acceptedTimeDiff = dot.getAcceptedTime() - from;
+        Coordinates coordinates = toCoordinates(acceptedTimeDiff, dot.getElapsedTime());
+        addDot(coordinates, new Dot(dot.getTransactionId(), acceptedTimeDiff, dot.getElapsedTime(), dot.getExceptionCode(), dot.getAgentId()));
+
+        updateAcceptedTime(dot.getAcceptedTime());
+    }
+
+    /**
+     * Counts a dot whose group is already full, without the caller having to build the {@link Dot}.
+     *
+     * @return false if the group still has room, the dot has to be added with {@link #addDot(Dot)}
+     */
+    public boolean countDot(long acceptedTime, int elapsedTime, int exceptionCode) {
+        Coordinates coordinates = toCoordinates(acceptedTime - from, elapsedTime);
+        DotGroups dotGroups = scatterData.get(coordinates.getX());
+        if (dotGroups == null) {
+            return false;
+        }
+        if (!dotGroups.countDot(coordinates, Dot.toSimpleExceptionCode(exceptionCode))) {
+            return false;
+        }
+
+        updateAcceptedTime(acceptedTime);
+        return true;
+    }
+
+    private Coordinates toCoordinates(long acceptedTimeDiff, int elapsedTime) {
         long x = acceptedTimeDiff - (acceptedTimeDiff  % xGroupUnitMillis);
         if (x < 0) {
             x = 0L;
         }
-        int y = dot.getElapsedTime() - (dot.getElapsedTime() % yGroupUnitMillis);
+        int y = elapsedTime - (elapsedTime % yGroupUnitMillis);
 
-        Coordinates coordinates = new Coordinates(x, y);
-        addDot(coordinates, new Dot(dot.getTransactionId(), acceptedTimeDiff, dot.getElapsedTime(), dot.getExceptionCode(), dot.getAgentId()));
+        return new Coordinates(x, y);
+    }
 
-        if (oldestAcceptedTime > dot.getAcceptedTime()) {
-            oldestAcceptedTime = dot.getAcceptedTime();
+    private void updateAcceptedTime(long acceptedTime) {
+        if (oldestAcceptedTime > acceptedTime) {
+            oldestAcceptedTime = acceptedTime;
         }
 
-        if (latestAcceptedTime < dot.getAcceptedTime()) {
-            latestAcceptedTime = dot.getAcceptedTime();
+        if (latestAcceptedTime < acceptedTime) {
+            latestAcceptedTime = acceptedTime;
         }
     }
 
     private void addDot(Coordinates coordinates, Dot dot) {
-        DotGroups dotGroups = scatterData.computeIfAbsent(coordinates.getX(), k -> new DotGroups(coordinates.getX()));
+        DotGroups dotGroups = scatterData.computeIfAbsent(coordinates.getX(), k -> new DotGroups(coordinates.getX(), maxDotSizePerGroup));
 
-        dotGroups.addDot(coordinates, dot);
-
-        scatterAgentMetadataRepository.addDotAgentInfo(new DotAgentInfo(dot));
+        if (dotGroups.addDot(coordinates, dot)) {
+            // only kept dots are written, so only their agents are needed
+            scatterAgentMetadataRepository.addDotAgentInfo(new DotAgentInfo(dot));
+        }
     }
 
     public void merge(ScatterData scatterData) {
@@ -50,6 +50,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StopWatch;
 
@@ -59,6 +60,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * @author netspider
@@ -94,6 +96,10 @@ public class FilteredMapServiceImpl implements FilteredMapService {
 
     private static final Object V = new Object();
 
+    // 0 disables the deadline
+    @Value("#{pinpointWebProps['web.servermap.filtered.select.timeout'] ?: 0}")
+    private long selectTimeout;
+
     @Override
     public LimitedScanResult<List<TransactionId>> selectTraceIdsFromApplicationTraceIndex(String applicationName, Range range, int limit) {
         return selectTraceIdsFromApplicationTraceIndex(applicationName, range, limit, true);
@@ -145,8 +151,13 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         StopWatch watch = new StopWatch();
         watch.start();
 
-        List<List<SpanBo>> originalList = this.traceDao.selectAllSpans(traceIdSet);
-        List<SpanBo> filteredTransactionList = filterList(originalList, filter);
+        // filter while partitions are still loading
+        final List<SpanBo> filteredTransactionList = new ArrayList<>();
+        this.traceDao.selectAllSpans(traceIdSet, transaction -> {
+            if (filter.include(transaction)) {
+                filteredTransactionList.addAll(transaction);
+            }
+        });
 
         LoadFactor statistics = new LoadFactor(range);
 
@@ -180,26 +191,6 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         return statistics;
     }
 
-    private List<SpanBo> filterList(List<List<SpanBo>> transactionList, Filter filter) {
-        final List<SpanBo> filteredResult = new ArrayList<>();
-        for (List<SpanBo> transaction : transactionList) {
-            if (filter.include(transaction)) {
-                filteredResult.addAll(transaction);
-            }
-        }
-        return filteredResult;
-    }
-
-    private List<List<SpanBo>> filterList2(List<List<SpanBo>> transactionList, Filter filter) {
-        final List<List<SpanBo>> filteredResult = new ArrayList<>();
-        for (List<SpanBo> transaction : transactionList) {
-            if (filter.include(transaction)) {
-                filteredResult.add(transaction);
-            }
-        }
-        return filteredResult;
-    }
-
     @Override
     public ApplicationMap selectApplicationMap(TransactionId transactionId, int version) {
         if (transactionId == null) {
@@ -209,11 +200,7 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         // FIXME from,to -1
         Range range = new Range(-1, -1);
 
-        final List<List<SpanBo>> filterList = selectFilteredSpan(transactionIdList, Filter.NONE);
-        FilteredMapBuilder filteredMapBuilder = new FilteredMapBuilder(applicationFactory, registry, range, version);
-        filteredMapBuilder.serverMapDataFilter(serverMapDataFilter);
-        filteredMapBuilder.addTransactions(filterList);
-        FilteredMap filteredMap = filteredMapBuilder.build();
+        FilteredMap filteredMap = selectFilteredMap(transactionIdList, range, Filter.NONE, version);
 
         ApplicationMap map = createMap(range, filteredMap);
         return map;
@@ -231,11 +218,7 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         StopWatch watch = new StopWatch();
         watch.start();
 
-        final List<List<SpanBo>> filterList = selectFilteredSpan(transactionIdList, filter);
-        FilteredMapBuilder filteredMapBuilder = new FilteredMapBuilder(applicationFactory, registry, originalRange, version);
-        filteredMapBuilder.serverMapDataFilter(serverMapDataFilter);
-        filteredMapBuilder.addTransactions(filterList);
-        FilteredMap filteredMap = filteredMapBuilder.build();
+        FilteredMap filteredMap = selectFilteredMap(transactionIdList, originalRange, filter, version);
 
         ApplicationMap map = createMap(originalRange, filteredMap);
 
@@ -248,15 +231,57 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         return applicationMapWithScatterData;
     }
 
-    private List<List<SpanBo>> selectFilteredSpan(List<TransactionId> transactionIdList, Filter filter) {
+    /**
+     * folds each transaction into the {@link FilteredMapBuilder} as soon as it is loaded and drops it,
+     * so memory does not grow with the number of selected transactions.
+     */
+    private FilteredMap selectFilteredMap(List<TransactionId> transactionIdList, Range range, Filter filter, int version) {
         // filters out recursive calls by looking at each objects
         // do not filter here if we change to a tree-based collision check in the future. 
         final List<TransactionId> recursiveFilterList = recursiveCallFilter(transactionIdList);
 
-        // FIXME might be better to simply traverse the List<Span> and create a process chain for execution
-        final List<List<SpanBo>> originalList = this.traceDao.selectAllSpans(recursiveFilterList);
+        final FilteredMapBuilder filteredMapBuilder = new FilteredMapBuilder(applicationFactory, registry, range, version);
+        filteredMapBuilder.serverMapDataFilter(serverMapDataFilter);
 
-        return filterList2(originalList, filter);
+        final FilteredMapTransactionConsumer transactionConsumer = new FilteredMapTransactionConsumer(filteredMapBuilder, filter);
+        final long deadline = selectTimeout > 0 ? System.currentTimeMillis() + selectTimeout : Long.MAX_VALUE;
+        final boolean complete = this.traceDao.selectAllSpans(recursiveFilterList, transactionConsumer, deadline);
+        if (!complete) {
+            logger.warn("filtered map select timeout({}ms). return partial result. selected:{}/{} included:{}",
+                    selectTimeout, transactionConsumer.getSelectedCount(), recursiveFilterList.size(), transactionConsumer.getIncludedCount());
+        }
+        return filteredMapBuilder.build();
+    }
+
+    private static class FilteredMapTransactionConsumer implements Consumer<List<SpanBo>> {
+
+        private final FilteredMapBuilder filteredMapBuilder;
+        private final Filter filter;
+
+        private int selectedCount;
+        private int includedCount;
+
+        private FilteredMapTransactionConsumer(FilteredMapBuilder filteredMapBuilder, Filter filter) {
+            this.filteredMapBuilder = filteredMapBuilder;
+            this.filter = filter;
+        }
+
+        @Override
+        public void accept(List<SpanBo> transaction) {
+            selectedCount++;
+            if (filter.include(transaction)) {
+                includedCount++;
+                filteredMapBuilder.addTransaction(transaction);
+            }
+        }
+
+        private int getSelectedCount() {
+            return selectedCount;
+        }
+
+        private int getIncludedCount() {
+            return includedCount;
+        }
     }
 
     private ApplicationMap createMap(Range range, FilteredMap filteredMap) {
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.web.applicationmap.histogram.TimeHistogram;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkCallData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Keeps the link data of closed one-minute timeslots, so that refreshing a short server map only scans
+ * the newest minutes that may still be written by the collector and merges them with the cached minutes.
+ * Ranges drawn with a coarser time window are always selected directly.
+ */
+public class LinkDataMapCache {
+
+    static final String LINK_DATA_MAP_CACHE = "linkDataMap";
+
+    private static final long ONE_MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    // null if caching is disabled
+    private final Cache cache;
+
+    // a timeslot is closed once it ended this many milliseconds ago
+    private final long closeDelay;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public LinkDataMapCache(CacheManager cacheManager, long closeDelay) {
+        if (closeDelay < 0) {
+            throw new IllegalArgumentException("negative closeDelay:" + closeDelay);
+        }
+        this.cache = cacheManager != null ? cacheManager.getCache(LINK_DATA_MAP_CACHE) : null;
+        this.closeDelay = closeDelay;
+    }
+
+    public boolean isEnable() {
+        return cache != null;
+    }
+
+    /**
+     * @param selectorName distinguishes the link data selected for the same application, e.g. caller and callee
+     * @param selector selects the link data of a range from hbase
+     */
+    public LinkDataMap select(String selectorName, Application application, Range range, Function<Range, LinkDataMap> selector) {
+        Objects.requireNonNull(selectorName, "selectorName must not be null");
+        Objects.requireNonNull(application, "application must not be null");
+        Objects.requireNonNull(range, "range must not be null");
+        Objects.requireNonNull(selector, "selector must not be null");
+
+        final TimeWindow timeWindow = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
+        if (cache == null || timeWindow.getWindowSlotSize() != ONE_MINUTE) {
+            return selector.apply(range);
+        }
+
+        final long closedTime = currentTimeMillis() - closeDelay;
+        final long lastTimeSlot = getTimeSlot(range.getTo());
+        final List<LinkDataMap> timeSlotList = new ArrayList<>();
+
+        long timeSlot = getTimeSlot(range.getFrom());
+        for (; timeSlot <= lastTimeSlot && isClosed(timeSlot, closedTime); timeSlot += ONE_MINUTE) {
+            final LinkDataMap cached = cache.get(getCacheKey(selectorName, application, timeSlot), LinkDataMap.class);
+            if (cached == null) {
+                break;
+            }
+            timeSlotList.add(cached);
+        }
+        final int hit = timeSlotList.size();
+        hitCount.add(hit);
+
+        int miss = 0;
+        if (timeSlot <= lastTimeSlot) {
+            // scan everything from the first uncached minute, the open minutes are at the end of the range
+            final Range scanRange = new Range(Math.max(timeSlot, range.getFrom()), range.getTo());
+            final Map<Long, LinkDataMap> selected = splitByTimeSlot(selector.apply(scanRange));
+            for (; timeSlot <= lastTimeSlot; timeSlot += ONE_MINUTE) {
+                LinkDataMap linkDataMap = selected.get(timeSlot);
+                if (linkDataMap == null) {
+                    linkDataMap = new LinkDataMap();
+                }
+                if (isClosed(timeSlot, closedTime)) {
+                    cache.put(getCacheKey(selectorName, application, timeSlot), linkDataMap);
+                    miss++;
+                }
+                timeSlotList.add(linkDataMap);
+            }
+            missCount.add(miss);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} {} {} cached timeslot hit:{} miss:{}", selectorName, application, range, hit, miss);
+        }
+
+        final LinkDataMap result = new LinkDataMap(timeWindow);
+        for (LinkDataMap linkDataMap : timeSlotList) {
+            result.addLinkDataMap(linkDataMap);
+        }
+        return result;
+    }
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private boolean isClosed(long timeSlot, long closedTime) {
+        return timeSlot + ONE_MINUTE <= closedTime;
+    }
+
+    private long getTimeSlot(long time) {
+        return (time / ONE_MINUTE) * ONE_MINUTE;
+    }
+
+    private String getCacheKey(String selectorName, Application application, long timeSlot) {
+        return selectorName + '.' + application.getName() + '.' + application.getServiceTypeCode() + '.' + timeSlot;
+    }
+
+    private Map<Long, LinkDataMap> splitByTimeSlot(LinkDataMap linkDataMap) {
+        final Map<Long, LinkDataMap> result = new HashMap<>();
+        for (LinkData linkData : linkDataMap.getLinkDataList()) {
+            for (LinkCallData linkCallData : linkData.getLinkCallDataMap().getLinkDataList()) {
+                for (TimeHistogram timeHistogram : linkCallData.getTimeHistogram()) {
+                    final LinkData timeSlotLinkData = new LinkData(linkData.getFromApplication(), linkData.getToApplication());
+                    timeSlotLinkData.getLinkCallDataMap().addCallData(linkCallData.getSource(), linkCallData.getSourceServiceType(),
+                            linkCallData.getTarget(), linkCallData.getTargetServiceType(), Collections.singletonList(timeHistogram));
+
+                    final LinkDataMap timeSlotLinkDataMap = result.computeIfAbsent(timeHistogram.getTimeStamp(), k -> new LinkDataMap());
+                    timeSlotLinkDataMap.addLinkData(timeSlotLinkData);
+                }
+            }
+        }
+        return result;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public Map<String, Object> getStatistics() {
+        final long hit = getHitCount();
+        final long miss = getMissCount();
+        final long total = hit + miss;
+        final Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enable", isEnable());
+        statistics.put("hitCount", hit);
+        statistics.put("missCount", miss);
+        statistics.put("hitRate", total == 0 ? 0D : (double) hit / total);
+        return statistics;
+    }
+}
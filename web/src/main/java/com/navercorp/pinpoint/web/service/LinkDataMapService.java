@@ -20,6 +20,8 @@ import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 
+import java.util.Map;
+
 /**
  * @author HyunGil Jeong
  */
@@ -28,4 +30,9 @@ public interface LinkDataMapService {
     LinkDataMap selectCallerLinkDataMap(Application application, Range range);
 
     LinkDataMap selectCalleeLinkDataMap(Application application, Range range);
+
+    /**
+     * hit/miss counts of the per-minute link data cache
+     */
+    Map<String, Object> getCacheStatistics();
 }
@@ -22,8 +22,13 @@ import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.util.Map;
+
 /**
  * @author HyunGil Jeong
  */
@@ -36,13 +41,34 @@ public class LinkDataMapServiceImpl implements LinkDataMapService {
     @Autowired
     private MapStatisticsCalleeDao mapStatisticsCalleeDao;
 
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    @Value("#{pinpointWebProps['web.servermap.linkcache.enable'] ?: true}")
+    private boolean linkCacheEnable;
+
+    @Value("#{pinpointWebProps['web.servermap.linkcache.closeDelay'] ?: 60000}")
+    private long linkCacheCloseDelay;
+
+    private LinkDataMapCache linkDataMapCache;
+
+    @PostConstruct
+    public void init() {
+        this.linkDataMapCache = new LinkDataMapCache(linkCacheEnable ? cacheManager : null, linkCacheCloseDelay);
+    }
+
     @Override
     public LinkDataMap selectCallerLinkDataMap(Application application, Range range) {
-        return mapStatisticsCallerDao.selectCaller(application, range);
+        return linkDataMapCache.select("caller", application, range, callerRange -> mapStatisticsCallerDao.selectCaller(application, callerRange));
     }
 
     @Override
     public LinkDataMap selectCalleeLinkDataMap(Application application, Range range) {
-        return mapStatisticsCalleeDao.selectCallee(application, range);
+        return linkDataMapCache.select("callee", application, range, calleeRange -> mapStatisticsCalleeDao.selectCallee(application, calleeRange));
+    }
+
+    @Override
+    public Map<String, Object> getCacheStatistics() {
+        return linkDataMapCache.getStatistics();
     }
 }
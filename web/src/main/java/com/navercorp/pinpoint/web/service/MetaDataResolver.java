@@ -0,0 +1,288 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service;
+
+import com.google.common.collect.Lists;
+import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
+import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.SqlMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.StringMetaDataBo;
+import com.navercorp.pinpoint.common.server.util.AnnotationUtils;
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.common.util.AnnotationKeyUtils;
+import com.navercorp.pinpoint.common.util.IntStringStringValue;
+import com.navercorp.pinpoint.web.calltree.span.SpanAlign;
+import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Resolves the sql, api and string metadata of a call tree in two phases.
+ * The distinct keys of every SpanAlign are collected first, then selected with multi-gets running in parallel.
+ * Selected metadata is kept in the shared metadata caches, repeated keys never reach hbase.
+ */
+public class MetaDataResolver {
+
+    // same cache as @Cacheable of HbaseApiMetaDataDao
+    static final String API_METADATA_CACHE = "apiMetaData";
+    static final String SQL_METADATA_CACHE = "sqlMetaData";
+    static final String STRING_METADATA_CACHE = "stringMetaData";
+
+    // max keys per multi-get
+    static final int MULTI_GET_SIZE = 500;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final SqlMetaDataDao sqlMetaDataDao;
+    private final ApiMetaDataDao apiMetaDataDao;
+    private final StringMetaDataDao stringMetaDataDao;
+
+    // null if caching is disabled
+    private final Cache sqlMetaDataCache;
+    private final Cache apiMetaDataCache;
+    private final Cache stringMetaDataCache;
+
+    // null selects on the caller thread
+    private final Executor executor;
+
+    /**
+     * @param cacheManager nullable
+     * @param executor nullable
+     */
+    public MetaDataResolver(SqlMetaDataDao sqlMetaDataDao, ApiMetaDataDao apiMetaDataDao, StringMetaDataDao stringMetaDataDao,
+                            CacheManager cacheManager, Executor executor) {
+        if (sqlMetaDataDao == null) {
+            throw new NullPointerException("sqlMetaDataDao must not be null");
+        }
+        if (apiMetaDataDao == null) {
+            throw new NullPointerException("apiMetaDataDao must not be null");
+        }
+        if (stringMetaDataDao == null) {
+            throw new NullPointerException("stringMetaDataDao must not be null");
+        }
+        this.sqlMetaDataDao = sqlMetaDataDao;
+        this.apiMetaDataDao = apiMetaDataDao;
+        this.stringMetaDataDao = stringMetaDataDao;
+        this.sqlMetaDataCache = getCache(cacheManager, SQL_METADATA_CACHE);
+        this.apiMetaDataCache = getCache(cacheManager, API_METADATA_CACHE);
+        this.stringMetaDataCache = getCache(cacheManager, STRING_METADATA_CACHE);
+        this.executor = executor;
+    }
+
+    private Cache getCache(CacheManager cacheManager, String name) {
+        if (cacheManager == null) {
+            return null;
+        }
+        final Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            logger.info("{} cache not found", name);
+        }
+        return cache;
+    }
+
+    public MetaDataTable resolve(List<SpanAlign> spanAlignList) {
+        if (spanAlignList == null) {
+            throw new NullPointerException("spanAlignList must not be null");
+        }
+
+        final Set<MetaDataKey> sqlKeySet = new LinkedHashSet<>();
+        final Set<MetaDataKey> apiKeySet = new LinkedHashSet<>();
+        final Set<MetaDataKey> stringKeySet = new LinkedHashSet<>();
+        for (SpanAlign spanAlign : spanAlignList) {
+            collect(spanAlign, sqlKeySet, apiKeySet, stringKeySet);
+        }
+
+        final MetaDataTable metaDataTable = new MetaDataTable();
+        final List<Future<?>> futureList = new ArrayList<>();
+        select(sqlKeySet, sqlMetaDataCache, sqlMetaDataDao::getSqlMetaData, metaDataTable.sqlMetaDataMap, futureList);
+        select(apiKeySet, apiMetaDataCache, apiMetaDataDao::getApiMetaData, metaDataTable.apiMetaDataMap, futureList);
+        select(stringKeySet, stringMetaDataCache, stringMetaDataDao::getStringMetaData, metaDataTable.stringMetaDataMap, futureList);
+        await(futureList);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("metadata resolved. sql:{}, api:{}, string:{}", sqlKeySet.size(), apiKeySet.size(), stringKeySet.size());
+        }
+        return metaDataTable;
+    }
+
+    private void collect(SpanAlign spanAlign, Set<MetaDataKey> sqlKeySet, Set<MetaDataKey> apiKeySet, Set<MetaDataKey> stringKeySet) {
+        final String agentId = spanAlign.getAgentId();
+        final long agentStartTime = spanAlign.getAgentStartTime();
+        final List<AnnotationBo> annotationBoList = spanAlign.getAnnotationBoList();
+
+        final int apiId = spanAlign.getApiId();
+        // annotation base api
+        if (!(apiId == 0 && AnnotationUtils.findApiAnnotation(annotationBoList) != null)) {
+            apiKeySet.add(new MetaDataKey(agentId, agentStartTime, apiId));
+        }
+        if (spanAlign.hasException()) {
+            stringKeySet.add(new MetaDataKey(agentId, agentStartTime, spanAlign.getExceptionId()));
+        }
+        if (annotationBoList == null) {
+            return;
+        }
+        for (AnnotationBo annotationBo : annotationBoList) {
+            final int key = annotationBo.getKey();
+            if (key == AnnotationKey.SQL_ID.getCode()) {
+                final IntStringStringValue sqlValue = (IntStringStringValue) annotationBo.getValue();
+                sqlKeySet.add(new MetaDataKey(agentId, agentStartTime, sqlValue.getIntValue()));
+            } else if (AnnotationKeyUtils.isCachedArgsKey(key)) {
+                final int stringMetaDataId = (Integer) annotationBo.getValue();
+                stringKeySet.add(new MetaDataKey(agentId, agentStartTime, stringMetaDataId));
+            }
+        }
+    }
+
+    /**
+     * serves cached keys on the caller thread and submits one multi-get per MULTI_GET_SIZE missing keys
+     */
+    private <T> void select(Set<MetaDataKey> keySet, Cache cache, Function<List<MetaDataKey>, List<List<T>>> multiGet,
+                            Map<MetaDataKey, List<T>> result, List<Future<?>> futureList) {
+        if (keySet.isEmpty()) {
+            return;
+        }
+        final List<MetaDataKey> missList = new ArrayList<>(keySet.size());
+        for (MetaDataKey key : keySet) {
+            final List<T> cached = getCached(cache, key);
+            if (cached != null) {
+                result.put(key, cached);
+            } else {
+                missList.add(key);
+            }
+        }
+        for (List<MetaDataKey> partition : Lists.partition(missList, MULTI_GET_SIZE)) {
+            final Runnable multiGetTask = () -> {
+                final List<List<T>> metaDataList = multiGet.apply(partition);
+                for (int i = 0; i < partition.size(); i++) {
+                    final MetaDataKey key = partition.get(i);
+                    final List<T> metaData = metaDataList.get(i);
+                    result.put(key, metaData);
+                    // metadata may arrive later than the trace. do not cache a miss
+                    if (cache != null && !metaData.isEmpty()) {
+                        cache.put(key.toCacheKey(), metaData);
+                    }
+                }
+            };
+            futureList.add(submit(multiGetTask));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> getCached(Cache cache, MetaDataKey key) {
+        if (cache == null) {
+            return null;
+        }
+        final Cache.ValueWrapper valueWrapper = cache.get(key.toCacheKey());
+        if (valueWrapper == null) {
+            return null;
+        }
+        return (List<T>) valueWrapper.get();
+    }
+
+    private Future<?> submit(Runnable multiGetTask) {
+        // FutureTask rather than CompletableFuture, cancel(true) has to interrupt the running multi-get
+        final FutureTask<Void> selectTask = new FutureTask<>(multiGetTask, null);
+        if (executor != null) {
+            try {
+                executor.execute(selectTask);
+                return selectTask;
+            } catch (RejectedExecutionException e) {
+                logger.debug("executor is busy, select on caller thread. Caused:{}", e.getMessage());
+            }
+        }
+        selectTask.run();
+        return selectTask;
+    }
+
+    private void await(List<Future<?>> futureList) {
+        try {
+            for (Future<?> future : futureList) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("select metadata interrupted", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("select metadata failed", cause);
+        } finally {
+            // only not done on failure. interrupts the multi-gets still running
+            for (Future<?> future : futureList) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * metadata of one call tree. a key that was not collected is selected on demand.
+     */
+    public class MetaDataTable {
+
+        private final Map<MetaDataKey, List<SqlMetaDataBo>> sqlMetaDataMap = new ConcurrentHashMap<>();
+        private final Map<MetaDataKey, List<ApiMetaDataBo>> apiMetaDataMap = new ConcurrentHashMap<>();
+        private final Map<MetaDataKey, List<StringMetaDataBo>> stringMetaDataMap = new ConcurrentHashMap<>();
+
+        private MetaDataTable() {
+        }
+
+        public List<SqlMetaDataBo> getSqlMetaData(String agentId, long agentStartTime, int sqlId) {
+            final List<SqlMetaDataBo> sqlMetaData = sqlMetaDataMap.get(new MetaDataKey(agentId, agentStartTime, sqlId));
+            if (sqlMetaData != null) {
+                return sqlMetaData;
+            }
+            return sqlMetaDataDao.getSqlMetaData(agentId, agentStartTime, sqlId);
+        }
+
+        public List<ApiMetaDataBo> getApiMetaData(String agentId, long agentStartTime, int apiId) {
+            final List<ApiMetaDataBo> apiMetaData = apiMetaDataMap.get(new MetaDataKey(agentId, agentStartTime, apiId));
+            if (apiMetaData != null) {
+                return apiMetaData;
+            }
+            return apiMetaDataDao.getApiMetaData(agentId, agentStartTime, apiId);
+        }
+
+        public List<StringMetaDataBo> getStringMetaData(String agentId, long agentStartTime, int stringId) {
+            final List<StringMetaDataBo> stringMetaData = stringMetaDataMap.get(new MetaDataKey(agentId, agentStartTime, stringId));
+            if (stringMetaData != null) {
+                return stringMetaData;
+            }
+            return stringMetaDataDao.getStringMetaData(agentId, agentStartTime, stringId);
+        }
+    }
+}
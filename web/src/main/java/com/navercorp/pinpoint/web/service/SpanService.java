@@ -16,11 +16,22 @@
 
 package com.navercorp.pinpoint.web.service;
 
+import java.util.List;
+
 import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.calltree.span.SpanAlign;
 
 /**
  * @author emeroad
  */
 public interface SpanService {
+    /**
+     * the metadata of the call tree is not resolved, see {@link #populateMetaData(List)}
+     */
     SpanResult selectSpan(TransactionId transactionId, long selectedSpanHint);
+
+    /**
+     * resolves the api, sql and string metadata of the given SpanAligns into their annotations
+     */
+    void populateMetaData(List<SpanAlign> spanAlignList);
 }
@@ -31,5 +31,11 @@ import com.navercorp.pinpoint.web.vo.callstacks.RecordSet;
 public interface TransactionInfoService {
     RecordSet createRecordSet(CallTreeIterator callTreeIterator, long focusTimestamp, String agentId, long spanId);
 
+    /**
+     * creates only the records of rows [offset, offset + limit) of the call stack
+     * and populates the metadata of their SpanAligns, the call tree is expected as returned by {@link SpanService#selectSpan}
+     */
+    RecordSet createRecordSet(CallTreeIterator callTreeIterator, long focusTimestamp, String agentId, long spanId, int offset, int limit);
+
     BusinessTransactions selectBusinessTransactions(List<TransactionId> traceIds, String applicationName, Range range, Filter filter);
 }
@@ -17,16 +17,20 @@
 package com.navercorp.pinpoint.web.service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
 import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
 import com.navercorp.pinpoint.common.server.bo.Event;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.util.AnnotationUtils;
 import com.navercorp.pinpoint.common.service.AnnotationKeyRegistryService;
 import com.navercorp.pinpoint.common.service.ServiceTypeRegistryService;
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
 import com.navercorp.pinpoint.common.trace.AnnotationKeyMatcher;
 import com.navercorp.pinpoint.common.trace.LoggingInfo;
+import com.navercorp.pinpoint.common.util.IntStringStringValue;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.calltree.span.CallTreeIterator;
 import com.navercorp.pinpoint.web.calltree.span.CallTreeNode;
@@ -39,9 +43,11 @@ import com.navercorp.pinpoint.web.vo.BusinessTransactions;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.callstacks.Record;
 import com.navercorp.pinpoint.web.vo.callstacks.RecordFactory;
+import com.navercorp.pinpoint.web.vo.callstacks.RecordIndex;
 import com.navercorp.pinpoint.web.vo.callstacks.RecordSet;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -70,6 +76,9 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
     @Autowired
     private AnnotationKeyRegistryService annotationKeyRegistryService;
 
+    @Autowired
+    private SpanService spanService;
+
     @Autowired(required=false)
     private MetaDataFilter metaDataFilter;
 
@@ -126,9 +135,20 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
 
     @Override
     public RecordSet createRecordSet(CallTreeIterator callTreeIterator, long focusTimestamp, String agentId, long spanId) {
+        return createRecordSet(callTreeIterator, focusTimestamp, agentId, spanId, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public RecordSet createRecordSet(CallTreeIterator callTreeIterator, long focusTimestamp, String agentId, long spanId, int offset, int limit) {
         if (callTreeIterator == null) {
             throw new NullPointerException("callTreeIterator must not be null");
         }
+        if (offset < 0) {
+            throw new IllegalArgumentException("negative offset:" + offset);
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive:" + limit);
+        }
 
         RecordSet recordSet = new RecordSet();
         final List<SpanAlign> spanAlignList = callTreeIterator.values();
@@ -138,6 +158,11 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
         // for cases where focus cannot be found due to an error, a separate marker is needed.
         // TODO potential error - because server time is used, there may be more than 2 focusTime due to differences in server times.
         SpanAlign viewPointSpanAlign = findViewPoint(spanAlignList, focusTimestamp, agentId, spanId);
+
+        // resolves the metadata of the requested rows and of the viewPoint
+        final SpanAlignPopulate spanAlignPopulate = new SpanAlignPopulate(offset, limit, viewPointSpanAlign);
+        List<Record> recordList = spanAlignPopulate.populateSpanRecord(callTreeIterator);
+
         // FIXME patched temporarily for cases where focusTimeSpanBo is not found. Need a more complete solution.
         if (viewPointSpanAlign != null) {
             recordSet.setAgentId(viewPointSpanAlign.getAgentId());
@@ -157,8 +182,9 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
 
         recordSet.setLoggingTransactionInfo(findIsLoggingTransactionInfo(spanAlignList));
 
-        final SpanAlignPopulate spanAlignPopulate = new SpanAlignPopulate();
-        List<Record> recordList = spanAlignPopulate.populateSpanRecord(callTreeIterator);
+        recordSet.setRecordOffset(offset);
+        recordSet.setTotalRecordCount(spanAlignPopulate.getTotalRecordCount());
+        recordSet.setFocusRecordIndex(spanAlignPopulate.getFocusRecordIndex());
         if (viewPointSpanAlign != null) {
             // mark the record to be used as focus
             long beginTimeStamp = viewPointSpanAlign.getStartTime();
@@ -330,16 +356,83 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
         return null;
     }
 
+    /**
+     * Materializes only the records of the requested row window.
+     * A {@link RecordIndex} of every node is built first, then the metadata is resolved and the records are created for the nodes of the window alone.
+     */
     private class SpanAlignPopulate {
+
+        private final int offset;
+        private final int limit;
+        private final SpanAlign viewPointSpanAlign;
+
+        private RecordIndex recordIndex;
+        private int focusRecordIndex = -1;
+
+        private SpanAlignPopulate(int offset, int limit, SpanAlign viewPointSpanAlign) {
+            this.offset = offset;
+            this.limit = limit;
+            this.viewPointSpanAlign = viewPointSpanAlign;
+        }
+
         private List<Record> populateSpanRecord(CallTreeIterator callTreeIterator) {
             if (callTreeIterator == null) {
                 throw new NullPointerException("callTreeIterator must not be null");
             }
 
-            final List<Record> recordList = new ArrayList<>(callTreeIterator.size() * 2);
             final RecordFactory factory = new RecordFactory(annotationKeyMatcherService, registry, annotationKeyRegistryService);
+            final int focusSequence = buildRecordIndex(callTreeIterator, factory);
+            if (focusSequence != -1) {
+                focusRecordIndex = recordIndex.getRowOffset(focusSequence);
+            }
 
-            // annotation id has nothing to do with spanAlign's seq and thus may be incremented as long as they don't overlap.
+            final int totalRecordCount = recordIndex.getTotalRecordCount();
+            final int endRow = (int) Math.min((long) offset + limit, totalRecordCount);
+            final int firstSequence = recordIndex.findSequence(offset);
+            if (firstSequence == -1) {
+                populateMetaData(callTreeIterator, 0, -1, focusSequence);
+                return new ArrayList<>();
+            }
+            final int lastSequence = recordIndex.findSequence(endRow - 1);
+            populateMetaData(callTreeIterator, firstSequence, lastSequence, focusSequence);
+
+            setAncestorId(callTreeIterator.get(firstSequence), firstSequence);
+            factory.seek(recordIndex.getRowOffset(firstSequence));
+
+            final List<Record> recordList = new ArrayList<>(endRow - offset);
+            for (int sequence = firstSequence; sequence <= lastSequence; sequence++) {
+                final int recordCount = recordIndex.getRecordCount(sequence);
+                if (recordCount == 0) {
+                    continue;
+                }
+
+                final CallTreeNode node = callTreeIterator.get(sequence);
+                final List<Record> nodeRecordList = createRecordList(node, factory);
+                if (nodeRecordList.size() != recordCount) {
+                    logger.warn("Record count changed after populating metadata. expected:{}, actual:{}, spanAlign:{}", recordCount, nodeRecordList.size(), node.getValue());
+                    if (sequence < lastSequence) {
+                        factory.seek(recordIndex.getRowOffset(sequence + 1));
+                    }
+                }
+
+                // the records of a node may straddle the window
+                int row = recordIndex.getRowOffset(sequence);
+                for (int i = 0; i < recordCount && i < nodeRecordList.size(); i++, row++) {
+                    if (offset <= row && row < endRow) {
+                        recordList.add(nodeRecordList.get(i));
+                    }
+                }
+            }
+
+            return recordList;
+        }
+
+        /**
+         * @return sequence of the viewPoint, -1 if not found
+         */
+        private int buildRecordIndex(CallTreeIterator callTreeIterator, RecordFactory factory) {
+            this.recordIndex = new RecordIndex(callTreeIterator.size());
+            int focusSequence = -1;
             while (callTreeIterator.hasNext()) {
                 final CallTreeNode node = callTreeIterator.next();
                 if (node == null) {
@@ -347,44 +440,131 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
                     throw new IllegalStateException("CallTree corrupted");
                 }
                 final SpanAlign align = node.getValue();
+                final int sequence = recordIndex.add(node.getDepth(), getRecordCount(align, factory));
+                if (align == viewPointSpanAlign) {
+                    focusSequence = sequence;
+                }
+            }
+            return focusSequence;
+        }
 
-                if (metaDataFilter != null && metaDataFilter.filter(align, MetaData.API)) {
-                    if (align.isSpan()) {
-                        Record record = metaDataFilter.createRecord(node, factory);
-                        recordList.add(record);
-                    }
+        private void populateMetaData(CallTreeIterator callTreeIterator, int firstSequence, int lastSequence, int focusSequence) {
+            final List<SpanAlign> spanAlignList = new ArrayList<>(lastSequence - firstSequence + 2);
+            for (int sequence = firstSequence; sequence <= lastSequence; sequence++) {
+                spanAlignList.add(callTreeIterator.get(sequence).getValue());
+            }
+            // the argument of the viewPoint is the application name of the record set
+            if (focusSequence != -1 && (focusSequence < firstSequence || focusSequence > lastSequence)) {
+                spanAlignList.add(viewPointSpanAlign);
+            }
+            spanService.populateMetaData(spanAlignList);
+        }
+
+        /**
+         * Sets the ids of the ancestors outside the window, the parent of a node being the closest preceding node of a lower depth.
+         */
+        private void setAncestorId(CallTreeNode node, int sequence) {
+            CallTreeNode parent = node.getParent();
+            int depth = recordIndex.getDepth(sequence);
+            for (int ancestor = sequence - 1; ancestor >= 0 && parent != null; ancestor--) {
+                if (recordIndex.getDepth(ancestor) >= depth) {
                     continue;
                 }
+                if (recordIndex.getRecordCount(ancestor) > 0) {
+                    parent.getValue().setId(RecordFactory.getRecordId(recordIndex.getRowOffset(ancestor)));
+                }
+                depth = recordIndex.getDepth(ancestor);
+                parent = parent.getParent();
+            }
+        }
 
-                if (metaDataFilter != null && metaDataFilter.filter(align, MetaData.PARAM)) {
-                    metaDataFilter.replaceAnnotationBo(align, MetaData.PARAM);
+        private List<Record> createRecordList(CallTreeNode node, RecordFactory factory) {
+            final SpanAlign align = node.getValue();
+            if (metaDataFilter != null && metaDataFilter.filter(align, MetaData.API)) {
+                if (align.isSpan()) {
+                    Record record = metaDataFilter.createRecord(node, factory);
+                    return Collections.singletonList(record);
                 }
+                return Collections.emptyList();
+            }
 
-                final Record record = factory.get(node);
-                recordList.add(record);
+            if (metaDataFilter != null && metaDataFilter.filter(align, MetaData.PARAM)) {
+                metaDataFilter.replaceAnnotationBo(align, MetaData.PARAM);
+            }
 
-                // add exception record.
-                if (align.hasException()) {
-                    final Record exceptionRecord = factory.getException(record.getTab() + 1, record.getId(), align);
-                    if(exceptionRecord != null) {
-                        recordList.add(exceptionRecord);
-                    }
-                }
+            final List<Record> nodeRecordList = new ArrayList<>();
+            final Record record = factory.get(node);
+            nodeRecordList.add(record);
 
-                // add annotation record.
-                if (!align.getAnnotationBoList().isEmpty()) {
-                    final List<Record> annotations = factory.getAnnotations(record.getTab() + 1, record.getId(), align);
-                    recordList.addAll(annotations);
+            // add exception record.
+            if (align.hasException()) {
+                final Record exceptionRecord = factory.getException(record.getTab() + 1, record.getId(), align);
+                if(exceptionRecord != null) {
+                    nodeRecordList.add(exceptionRecord);
                 }
+            }
 
-                // add remote record.(span only)
-                if (align.getRemoteAddr() != null) {
-                    final Record remoteAddressRecord = factory.getParameter(record.getTab() + 1, record.getId(), "REMOTE_ADDRESS", align.getRemoteAddr());
-                    recordList.add(remoteAddressRecord);
-                }
+            // add annotation record.
+            if (!align.getAnnotationBoList().isEmpty()) {
+                final List<Record> annotations = factory.getAnnotations(record.getTab() + 1, record.getId(), align);
+                nodeRecordList.addAll(annotations);
             }
 
-            return recordList;
+            // add remote record.(span only)
+            if (align.getRemoteAddr() != null) {
+                final Record remoteAddressRecord = factory.getParameter(record.getTab() + 1, record.getId(), "REMOTE_ADDRESS", align.getRemoteAddr());
+                nodeRecordList.add(remoteAddressRecord);
+            }
+            return nodeRecordList;
+        }
+
+        /**
+         * Counts the rows of a node before its metadata is resolved.
+         */
+        private int getRecordCount(SpanAlign align, RecordFactory factory) {
+            if (metaDataFilter != null && metaDataFilter.filter(align, MetaData.API)) {
+                return align.isSpan() ? 1 : 0;
+            }
+
+            int count = 1;
+            if (align.hasException()) {
+                count++;
+            }
+            final List<AnnotationBo> annotationBoList = align.getAnnotationBoList();
+            if (CollectionUtils.isNotEmpty(annotationBoList)) {
+                count += factory.getAnnotationCount(align);
+                count += getSqlRecordCount(annotationBoList);
+            }
+            if (align.getRemoteAddr() != null) {
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * Rows the SQL_ID annotation turns into once resolved, see SpanServiceImpl#transitionSqlId.
+         */
+        private int getSqlRecordCount(List<AnnotationBo> annotationBoList) {
+            final AnnotationBo sqlIdAnnotation = AnnotationUtils.findAnnotationBo(annotationBoList, AnnotationKey.SQL_ID);
+            if (sqlIdAnnotation == null) {
+                return 0;
+            }
+            // SQL
+            int count = 1;
+            final Object value = sqlIdAnnotation.getValue();
+            if (value instanceof IntStringStringValue && StringUtils.isNotEmpty(((IntStringStringValue) value).getStringValue2())) {
+                // SQL_BINDVALUE
+                count++;
+            }
+            return count;
+        }
+
+        private int getTotalRecordCount() {
+            return recordIndex.getTotalRecordCount();
+        }
+
+        private int getFocusRecordIndex() {
+            return focusRecordIndex;
         }
     }
 }
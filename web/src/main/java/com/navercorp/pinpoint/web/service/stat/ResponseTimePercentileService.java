@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service.stat;
+
+import com.navercorp.pinpoint.common.server.bo.stat.ResponseTimeBo;
+import com.navercorp.pinpoint.common.trace.LogBucketHistogram;
+import com.navercorp.pinpoint.web.dao.stat.ResponseTimeDao;
+import com.navercorp.pinpoint.web.service.AgentInfoService;
+import com.navercorp.pinpoint.web.vo.AgentInfo;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.stat.ResponseTimePercentiles;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Merges the response time histograms sent with agent stats and computes percentiles per agent or per application.
+ */
+@Service
+public class ResponseTimePercentileService {
+
+    private final ResponseTimeDao responseTimeDao;
+    private final AgentInfoService agentInfoService;
+
+    @Autowired
+    public ResponseTimePercentileService(@Qualifier("responseTimeDaoFactory") ResponseTimeDao responseTimeDao, AgentInfoService agentInfoService) {
+        this.responseTimeDao = Objects.requireNonNull(responseTimeDao, "responseTimeDao must not be null");
+        this.agentInfoService = Objects.requireNonNull(agentInfoService, "agentInfoService must not be null");
+    }
+
+    public ResponseTimePercentiles selectAgentPercentiles(String agentId, Range range) {
+        Objects.requireNonNull(agentId, "agentId must not be null");
+        Objects.requireNonNull(range, "range must not be null");
+
+        final long[] histogram = new long[LogBucketHistogram.BUCKET_COUNT];
+        mergeHistogram(histogram, agentId, range);
+        return new ResponseTimePercentiles(histogram);
+    }
+
+    public ResponseTimePercentiles selectApplicationPercentiles(String applicationName, Range range) {
+        Objects.requireNonNull(applicationName, "applicationName must not be null");
+        Objects.requireNonNull(range, "range must not be null");
+
+        final long[] histogram = new long[LogBucketHistogram.BUCKET_COUNT];
+        final Set<AgentInfo> agentInfos = agentInfoService.getAgentsByApplicationNameWithoutStatus(applicationName, range.getTo());
+        for (AgentInfo agentInfo : agentInfos) {
+            mergeHistogram(histogram, agentInfo.getAgentId(), range);
+        }
+        return new ResponseTimePercentiles(histogram);
+    }
+
+    private void mergeHistogram(long[] histogram, String agentId, Range range) {
+        final List<ResponseTimeBo> responseTimeBoList = responseTimeDao.getAgentStatList(agentId, range);
+        for (ResponseTimeBo responseTimeBo : responseTimeBoList) {
+            final byte[] encoded = responseTimeBo.getHistogram();
+            if (encoded != null) {
+                LogBucketHistogram.merge(histogram, LogBucketHistogram.decode(encoded));
+            }
+        }
+    }
+}
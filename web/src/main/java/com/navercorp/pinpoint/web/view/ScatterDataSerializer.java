@@ -65,15 +65,20 @@ public class ScatterDataSerializer extends JsonSerializer<ScatterData> {
 
         Set<Dot> dotSet = dotGroups.getSortedDotSet();
         for (Dot dot : dotSet) {
-            if (dotGroupLeaders.containsKey(dot)) {
-                writeDot(dot, dotGroupLeaders.get(dot).getDotSize(), metaData, jgen);
+            DotGroup dotGroup = dotGroupLeaders.get(dot);
+            if (dotGroup != null) {
+                int hiddenDotSize = dotGroup.getDotSize() - dotGroup.getDotList().size();
+                writeDot(dot, dotGroup.getDotSize(), hiddenDotSize, metaData, jgen);
             } else {
-                writeDot(dot, 0, metaData, jgen);
+                writeDot(dot, 0, 0, metaData, jgen);
             }
         }
     }
 
-    private void writeDot(Dot dot, int thick, ScatterAgentMetaData metaData, JsonGenerator jgen) throws IOException {
+    /**
+     * @param hiddenDotSize dots of the group that were only counted, written only when there are some
+     */
+    private void writeDot(Dot dot, int thick, int hiddenDotSize, ScatterAgentMetaData metaData, JsonGenerator jgen) throws IOException {
         jgen.writeStartArray();
 
         jgen.writeNumber(dot.getAcceptedTime());
@@ -90,6 +95,9 @@ public class ScatterDataSerializer extends JsonSerializer<ScatterData> {
 
         jgen.writeNumber(dot.getSimpleExceptionCode());
         jgen.writeNumber(thick);
+        if (hiddenDotSize > 0) {
+            jgen.writeNumber(hiddenDotSize);
+        }
 
         jgen.writeEndArray();
     }
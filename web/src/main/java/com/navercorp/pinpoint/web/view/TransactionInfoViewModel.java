@@ -139,12 +139,35 @@ public class TransactionInfoViewModel {
         return index;
     }
 
+    @JsonProperty("callStackOffset")
+    public int getCallStackOffset() {
+        return recordSet.getRecordOffset();
+    }
+
+    @JsonProperty("callStackTotalCount")
+    public int getCallStackTotalCount() {
+        return recordSet.getTotalRecordCount();
+    }
+
+    @JsonProperty("callStackFocusIndex")
+    public int getCallStackFocusIndex() {
+        return recordSet.getFocusRecordIndex();
+    }
+
     @JsonProperty("callStack")
     public List<CallStack> getCallStack() {
 
         List<CallStack> list = new ArrayList<CallStack>();
         boolean first = true;
         long barRatio = 0;
+        if (recordSet.getRecordOffset() > 0) {
+            // the root record is on the first page, use the call stack time range instead
+            long elapsed = recordSet.getEndTime() - recordSet.getStartTime();
+            if (elapsed > 0) {
+                barRatio = 100 / elapsed;
+            }
+            first = false;
+        }
         for(Record record : recordSet.getRecordList()) {
             if(first) {
                 if(record.isMethod()) {
@@ -16,10 +16,15 @@
 
 package com.navercorp.pinpoint.web.vo;
 
+import com.navercorp.pinpoint.common.hbase.statistics.MapStatisticsResolution;
 import com.navercorp.pinpoint.common.util.TimeSlot;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * @author emeroad
  */
@@ -37,6 +42,19 @@ public class RangeFactory {
         if (range == null) {
             throw new NullPointerException("range must not be null");
         }
+        return createStatisticsRange(range, timeSlot);
+    }
+
+    /**
+     * Create reversed Range for statistics rows written at the given timeslot resolution
+     */
+    public Range createStatisticsRange(Range range, TimeSlot timeSlot) {
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (timeSlot == null) {
+            throw new NullPointerException("timeSlot must not be null");
+        }
         // HBase scanner does not include endTime when scanning, so 1 is usually added to the endTime.
         // In this case, the Range is reversed, so we instead subtract 1 from the startTime.
         final long startTime = timeSlot.getTimeSlot(range.getFrom()) - 1;
@@ -44,4 +62,50 @@ public class RangeFactory {
         return Range.createUncheckedRange(startTime, endTime);
     }
 
+    /**
+     * Splits range into reversed statistics ranges giving the same counts as the one-minute rows.
+     * Rollup rows are scanned only for the rollup timeslots lying entirely inside range,
+     * the partial timeslots at both edges are filled from one-minute rows.
+     */
+    public List<StatisticsRange> createStatisticsRanges(Range range, MapStatisticsResolution resolution) {
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (resolution == null) {
+            throw new NullPointerException("resolution must not be null");
+        }
+        final MapStatisticsResolution oneMinute = MapStatisticsResolution.ONE_MINUTE;
+        final long firstTimeSlot = oneMinute.getTimeSlot(range.getFrom());
+        final long lastTimeSlot = oneMinute.getTimeSlot(range.getTo());
+        if (!resolution.isRollup()) {
+            return Collections.singletonList(createStatisticsRange(firstTimeSlot, lastTimeSlot, oneMinute));
+        }
+
+        final long rollupSize = resolution.getResolution();
+        // first rollup timeslot starting at or after firstTimeSlot
+        final long firstRollup = resolution.getTimeSlot(firstTimeSlot + rollupSize - 1);
+        // last rollup timeslot ending at or before the end of lastTimeSlot
+        final long lastRollup = resolution.getTimeSlot(lastTimeSlot + oneMinute.getResolution()) - rollupSize;
+        if (firstRollup > lastRollup) {
+            return Collections.singletonList(createStatisticsRange(firstTimeSlot, lastTimeSlot, oneMinute));
+        }
+
+        final List<StatisticsRange> result = new ArrayList<>(3);
+        if (firstTimeSlot < firstRollup) {
+            result.add(createStatisticsRange(firstTimeSlot, firstRollup - oneMinute.getResolution(), oneMinute));
+        }
+        result.add(createStatisticsRange(firstRollup, lastRollup, resolution));
+        final long afterLastRollup = lastRollup + rollupSize;
+        if (afterLastRollup <= lastTimeSlot) {
+            result.add(createStatisticsRange(afterLastRollup, lastTimeSlot, oneMinute));
+        }
+        return result;
+    }
+
+    // timeslots from firstTimeSlot to lastTimeSlot inclusive. see createStatisticsRange(Range, TimeSlot)
+    private StatisticsRange createStatisticsRange(long firstTimeSlot, long lastTimeSlot, MapStatisticsResolution resolution) {
+        final Range range = Range.createUncheckedRange(firstTimeSlot - 1, lastTimeSlot);
+        return new StatisticsRange(range, resolution);
+    }
+
 }
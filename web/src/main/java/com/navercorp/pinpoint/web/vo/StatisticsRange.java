@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo;
+
+import com.navercorp.pinpoint.common.hbase.statistics.MapStatisticsResolution;
+
+/**
+ * Reversed statistics Range and the resolution of the rows to scan in it.
+ */
+public final class StatisticsRange {
+
+    private final Range range;
+    private final MapStatisticsResolution resolution;
+
+    public StatisticsRange(Range range, MapStatisticsResolution resolution) {
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (resolution == null) {
+            throw new NullPointerException("resolution must not be null");
+        }
+        this.range = range;
+        this.resolution = resolution;
+    }
+
+    public Range getRange() {
+        return range;
+    }
+
+    public MapStatisticsResolution getResolution() {
+        return resolution;
+    }
+
+    @Override
+    public String toString() {
+        return "StatisticsRange{" +
+                "range=" + range.prettyToString() +
+                ", resolution=" + resolution +
+                '}';
+    }
+}
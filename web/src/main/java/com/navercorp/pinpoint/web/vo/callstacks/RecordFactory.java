@@ -44,7 +44,9 @@ public class RecordFactory {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     // spans with id = 0 are regarded as root - start at 1
-    private int idGen = 1;
+    private static final int FIRST_ID = 1;
+
+    private int idGen = FIRST_ID;
     private AnnotationKeyMatcherService annotationKeyMatcherService;
     private ServiceTypeRegistryService registry;
     private AnnotationKeyRegistryService annotationKeyRegistryService;
@@ -191,6 +193,31 @@ public class RecordFactory {
         return list;
     }
 
+    public int getAnnotationCount(SpanAlign align) {
+        int count = 0;
+        for (AnnotationBo annotation : align.getAnnotationBoList()) {
+            final AnnotationKey key = findAnnotationKey(annotation.getKey());
+            if (key.isViewInRecordSet()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Continues the ids from the given row of the call stack, so that the records of a row window get the ids they have in the whole call stack.
+     */
+    public void seek(final int row) {
+        this.idGen = getRecordId(row);
+    }
+
+    public static int getRecordId(final int row) {
+        if (row < 0) {
+            throw new IllegalArgumentException("negative row:" + row);
+        }
+        return FIRST_ID + row;
+    }
+
     public Record getParameter(final int depth, final int parentId, final String method, final String argument) {
         return new ParameterRecord(depth, getNextId(), parentId, method, argument);
     }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.vo.callstacks;
+
+import java.util.Arrays;
+
+/**
+ * Row layout of a call stack, built before any {@link Record} is created.
+ * Keeps the depth and the first row of every call tree node in call tree order, the sequence of a node being its position.
+ * A node takes no row when it is hidden from the call stack.
+ */
+public class RecordIndex {
+
+    private int[] depth;
+    // rowOffset[sequence] is the first row of the node, rowOffset[size] the total record count
+    private int[] rowOffset;
+    private int size;
+
+    public RecordIndex(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("negative capacity:" + capacity);
+        }
+        this.depth = new int[capacity];
+        this.rowOffset = new int[capacity + 1];
+    }
+
+    /**
+     * @return sequence of the added node
+     */
+    public int add(int depth, int recordCount) {
+        if (recordCount < 0) {
+            throw new IllegalArgumentException("negative recordCount:" + recordCount);
+        }
+        if (size == this.depth.length) {
+            final int newCapacity = Math.max(size * 2, 16);
+            this.depth = Arrays.copyOf(this.depth, newCapacity);
+            this.rowOffset = Arrays.copyOf(this.rowOffset, newCapacity + 1);
+        }
+        final int sequence = size++;
+        this.depth[sequence] = depth;
+        this.rowOffset[size] = rowOffset[sequence] + recordCount;
+        return sequence;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getDepth(int sequence) {
+        checkSequence(sequence);
+        return depth[sequence];
+    }
+
+    public int getRowOffset(int sequence) {
+        checkSequence(sequence);
+        return rowOffset[sequence];
+    }
+
+    public int getRecordCount(int sequence) {
+        checkSequence(sequence);
+        return rowOffset[sequence + 1] - rowOffset[sequence];
+    }
+
+    public int getTotalRecordCount() {
+        return rowOffset[size];
+    }
+
+    /**
+     * @return sequence of the node the row belongs to, -1 if the row is out of the call stack
+     */
+    public int findSequence(int row) {
+        if (row < 0 || row >= getTotalRecordCount()) {
+            return -1;
+        }
+        // last node starting at or before the row. nodes without rows share the offset of the next node and are passed over.
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (rowOffset[mid] <= row) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private void checkSequence(int sequence) {
+        if (sequence < 0 || sequence >= size) {
+            throw new IndexOutOfBoundsException("sequence:" + sequence + " size:" + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RecordIndex{" +
+                "size=" + size +
+                ", totalRecordCount=" + getTotalRecordCount() +
+                '}';
+    }
+}
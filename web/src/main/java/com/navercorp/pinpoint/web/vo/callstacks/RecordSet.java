@@ -36,6 +36,11 @@ public class RecordSet {
     
     private boolean loggingTransactionInfo;
 
+    // row window of recordList within the whole call stack
+    private int recordOffset;
+    private int totalRecordCount;
+    private int focusRecordIndex = -1;
+
     public RecordSet() {
     }
 
@@ -111,4 +116,28 @@ public class RecordSet {
     public void setLoggingTransactionInfo(boolean loggingTransactionInfo) {
         this.loggingTransactionInfo = loggingTransactionInfo;
     }
+
+    public int getRecordOffset() {
+        return recordOffset;
+    }
+
+    public void setRecordOffset(int recordOffset) {
+        this.recordOffset = recordOffset;
+    }
+
+    public int getTotalRecordCount() {
+        return totalRecordCount;
+    }
+
+    public void setTotalRecordCount(int totalRecordCount) {
+        this.totalRecordCount = totalRecordCount;
+    }
+
+    public int getFocusRecordIndex() {
+        return focusRecordIndex;
+    }
+
+    public void setFocusRecordIndex(int focusRecordIndex) {
+        this.focusRecordIndex = focusRecordIndex;
+    }
 }
@@ -73,7 +73,11 @@ public class Dot {
      * @return
      */
     public int getSimpleExceptionCode() {
-        if (getExceptionCode() == Dot.EXCEPTION_NONE) {
+        return toSimpleExceptionCode(getExceptionCode());
+    }
+
+    public static int toSimpleExceptionCode(int exceptionCode) {
+        if (exceptionCode == Dot.EXCEPTION_NONE) {
             // feels like a failure should be a value greater 1
             return Dot.SUCCESS_STATE;
         } else {
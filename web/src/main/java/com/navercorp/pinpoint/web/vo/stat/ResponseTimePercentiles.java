@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.vo.stat;
+
+import com.navercorp.pinpoint.common.trace.LogBucketHistogram;
+
+/**
+ * Response time percentiles computed from the agents' {@link LogBucketHistogram}.
+ * Each value is the upper bound of its histogram bucket, -1 if nothing was recorded.
+ */
+public class ResponseTimePercentiles {
+
+    private final long count;
+    private final long p50;
+    private final long p90;
+    private final long p95;
+    private final long p99;
+    private final long p999;
+
+    public ResponseTimePercentiles(long[] histogram) {
+        this.count = count(histogram);
+        this.p50 = LogBucketHistogram.percentile(histogram, 50);
+        this.p90 = LogBucketHistogram.percentile(histogram, 90);
+        this.p95 = LogBucketHistogram.percentile(histogram, 95);
+        this.p99 = LogBucketHistogram.percentile(histogram, 99);
+        this.p999 = LogBucketHistogram.percentile(histogram, 99.9);
+    }
+
+    private static long count(long[] histogram) {
+        if (histogram == null) {
+            return 0;
+        }
+        long count = 0;
+        for (long bucket : histogram) {
+            count += bucket;
+        }
+        return count;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP95() {
+        return p95;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ResponseTimePercentiles{");
+        sb.append("count=").append(count);
+        sb.append(", p50=").append(p50);
+        sb.append(", p90=").append(p90);
+        sb.append(", p95=").append(p95);
+        sb.append(", p99=").append(p99);
+        sb.append(", p999=").append(p999);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -36,10 +36,14 @@ public class SampledResponseTime implements SampledAgentStatDataPoint {
 
     private final AgentStatPoint<Long> avg;
     private final AgentStatPoint<Long> max;
+    private final AgentStatPoint<Long> p95;
+    private final AgentStatPoint<Long> p99;
 
-    public SampledResponseTime(AgentStatPoint<Long> avg, AgentStatPoint<Long> max) {
+    public SampledResponseTime(AgentStatPoint<Long> avg, AgentStatPoint<Long> max, AgentStatPoint<Long> p95, AgentStatPoint<Long> p99) {
         this.avg = Objects.requireNonNull(avg, "avg must not be null");
         this.max = Objects.requireNonNull(max, "max must not be null");
+        this.p95 = Objects.requireNonNull(p95, "p95 must not be null");
+        this.p99 = Objects.requireNonNull(p99, "p99 must not be null");
     }
 
     public AgentStatPoint<Long> getAvg() {
@@ -50,6 +54,14 @@ public class SampledResponseTime implements SampledAgentStatDataPoint {
         return max;
     }
 
+    public AgentStatPoint<Long> getP95() {
+        return p95;
+    }
+
+    public AgentStatPoint<Long> getP99() {
+        return p99;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -58,7 +70,9 @@ public class SampledResponseTime implements SampledAgentStatDataPoint {
         SampledResponseTime that = (SampledResponseTime) o;
 
         if (avg != null ? !avg.equals(that.avg) : that.avg != null) return false;
-        return max != null ? max.equals(that.max) : that.max == null;
+        if (max != null ? !max.equals(that.max) : that.max != null) return false;
+        if (p95 != null ? !p95.equals(that.p95) : that.p95 != null) return false;
+        return p99 != null ? p99.equals(that.p99) : that.p99 == null;
 
     }
 
@@ -66,6 +80,8 @@ public class SampledResponseTime implements SampledAgentStatDataPoint {
     public int hashCode() {
         int result = avg != null ? avg.hashCode() : 0;
         result = 31 * result + (max != null ? max.hashCode() : 0);
+        result = 31 * result + (p95 != null ? p95.hashCode() : 0);
+        result = 31 * result + (p99 != null ? p99.hashCode() : 0);
         return result;
     }
 
@@ -74,6 +90,8 @@ public class SampledResponseTime implements SampledAgentStatDataPoint {
         final StringBuilder sb = new StringBuilder("SampledResponseTime{");
         sb.append("avg=").append(avg);
         sb.append(", max=").append(max);
+        sb.append(", p95=").append(p95);
+        sb.append(", p99=").append(p99);
         sb.append('}');
         return sb.toString();
     }
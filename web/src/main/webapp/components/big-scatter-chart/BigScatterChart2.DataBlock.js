@@ -37,7 +37,7 @@
 			maxY = Math.max( aValue[1], maxY );
 			aValue[0] += self._from;
 			self._oAgentData[ agentName ].push( aValue );
-			self._oCountOfType[agentName][ oTypeInfo[aValue[oPropertyIndex.type] + "" ][0] ]++;
+			self._oCountOfType[agentName][ oTypeInfo[aValue[oPropertyIndex.type] + "" ][0] ] += self._getDotCount( aValue );
 
 		});
 		this._minX = this._bLoadComplete ? this._from : this._resultFrom;
@@ -45,6 +45,10 @@
 		this._minY = minY;
 		this._maxY = maxY;
 	};
+	// a group leader also stands for the dots the server only counted
+	DataBlock.prototype._getDotCount = function( aValue ) {
+		return 1 + ( aValue[ this._oPropertyIndex.hiddenCount ] || 0 );
+	};
 	DataBlock.prototype._getAgentName = function( key ) {
 		return this._oAgentMetaInfo[ key ][0];
 	};
@@ -97,7 +101,7 @@
 			if ( agentName === this._getAgentName( aValue[ metaIndex ] + "" ) ) {
 				if (type === this._oTypeInfo[ aValue[ typeIndex ] + "" ][0]) {
 					if ( aValue[ xIndex ] <= maxX ) {
-						sum++;
+						sum += this._getDotCount( aValue );
 					}
 				}
 			}
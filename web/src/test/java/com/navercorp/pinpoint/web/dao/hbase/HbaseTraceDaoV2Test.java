@@ -0,0 +1,193 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.hbase.TableNameProvider;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HbaseTraceDaoV2Test {
+
+    private static final int PARTITION_SIZE = 10;
+
+    @Mock
+    private HbaseOperations2 template2;
+
+    @Spy
+    private TableNameProvider tableNameProvider = new TableNameProvider() {
+        @Override
+        public TableName getTableName(String tableName) {
+            return TableName.valueOf(tableName);
+        }
+    };
+
+    @Mock
+    private RowKeyEncoder<TransactionId> rowKeyEncoder;
+
+    @Mock
+    private RowMapper<List<SpanBo>> spanMapper;
+
+    @InjectMocks
+    private HbaseTraceDaoV2 traceDao = new HbaseTraceDaoV2();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private final Random random = new Random();
+
+    private final AtomicInteger concurrentSelect = new AtomicInteger();
+    private final AtomicInteger maxConcurrentSelect = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(traceDao, "spanMapperV2", spanMapper);
+        ReflectionTestUtils.setField(traceDao, "traceSelectExecutor", executor);
+        ReflectionTestUtils.setField(traceDao, "selectAllSpansLimit", PARTITION_SIZE);
+        ReflectionTestUtils.setField(traceDao, "selectSpansParallelism", 3);
+
+        when(rowKeyEncoder.encodeRowKey(any(TransactionId.class))).then(invocation -> {
+            TransactionId transactionId = invocation.getArgument(0);
+            return Bytes.toBytes(transactionId.getTransactionSequence());
+        });
+        when(template2.get(any(TableName.class), anyList(), any(RowMapper.class))).then(invocation -> {
+            final int concurrent = concurrentSelect.incrementAndGet();
+            maxConcurrentSelect.accumulateAndGet(concurrent, Math::max);
+            try {
+                // shuffle the completion order of the partitions
+                Thread.sleep(random.nextInt(20));
+                List<Get> multiGet = invocation.getArgument(1);
+                List<List<SpanBo>> result = new ArrayList<>(multiGet.size());
+                for (Get get : multiGet) {
+                    SpanBo spanBo = new SpanBo();
+                    spanBo.setSpanId(Bytes.toLong(get.getRow()));
+                    result.add(Collections.singletonList(spanBo));
+                }
+                return result;
+            } finally {
+                concurrentSelect.decrementAndGet();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void selectAllSpans_keepsOrder() {
+        List<TransactionId> transactionIdList = newTransactionIdList(95);
+
+        List<List<SpanBo>> result = traceDao.selectAllSpans(transactionIdList);
+
+        assertOrder(transactionIdList.size(), result);
+        verify(template2, times(10)).get(any(TableName.class), anyList(), any(RowMapper.class));
+        Assert.assertTrue(maxConcurrentSelect.get() <= 3);
+    }
+
+    @Test
+    public void selectAllSpans_streaming() {
+        List<TransactionId> transactionIdList = newTransactionIdList(95);
+
+        final List<List<SpanBo>> result = new ArrayList<>();
+        final Thread callerThread = Thread.currentThread();
+        traceDao.selectAllSpans(transactionIdList, transaction -> {
+            Assert.assertSame("consumer must be called on the caller thread", callerThread, Thread.currentThread());
+            result.add(transaction);
+        });
+
+        assertOrder(transactionIdList.size(), result);
+    }
+
+    @Test
+    public void selectAllSpans_sequential() {
+        ReflectionTestUtils.setField(traceDao, "selectSpansParallelism", 1);
+        List<TransactionId> transactionIdList = newTransactionIdList(25);
+
+        List<List<SpanBo>> result = traceDao.selectAllSpans(transactionIdList);
+
+        assertOrder(transactionIdList.size(), result);
+        Assert.assertEquals(1, maxConcurrentSelect.get());
+    }
+
+    @Test
+    public void selectAllSpans_deadline() {
+        List<TransactionId> transactionIdList = newTransactionIdList(95);
+
+        final List<List<SpanBo>> result = new ArrayList<>();
+        boolean complete = traceDao.selectAllSpans(transactionIdList, result::add, System.currentTimeMillis() - 1);
+
+        Assert.assertFalse(complete);
+        Assert.assertTrue(result.size() < transactionIdList.size());
+        // whatever was loaded is still a prefix in transactionId order
+        assertOrder(result.size(), result);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void selectAllSpans_failure() {
+        doThrow(new IllegalStateException("test")).when(template2).get(any(TableName.class), anyList(), any(RowMapper.class));
+
+        traceDao.selectAllSpans(newTransactionIdList(25));
+    }
+
+    private List<TransactionId> newTransactionIdList(int size) {
+        List<TransactionId> transactionIdList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            transactionIdList.add(new TransactionId("agent", 1L, i));
+        }
+        return transactionIdList;
+    }
+
+    private void assertOrder(int expectedSize, List<List<SpanBo>> result) {
+        Assert.assertEquals(expectedSize, result.size());
+        for (int i = 0; i < expectedSize; i++) {
+            Assert.assertEquals(i, result.get(i).get(0).getSpanId());
+        }
+    }
+}
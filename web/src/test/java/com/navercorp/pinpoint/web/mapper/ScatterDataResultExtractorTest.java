@@ -0,0 +1,247 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import com.navercorp.pinpoint.common.util.TimeUtils;
+import com.navercorp.pinpoint.web.scatter.DotGroup;
+import com.navercorp.pinpoint.web.scatter.DotGroups;
+import com.navercorp.pinpoint.web.scatter.ScatterData;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.DotAgentInfo;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScatterDataResultExtractorTest {
+
+    private static final long FROM = 1000;
+    private static final long TO = 100000;
+    private static final int X_GROUP_UNIT = 1000;
+    private static final int Y_GROUP_UNIT = 100;
+
+    private static final int ROW_SIZE = 200;
+
+    @Test
+    public void extractData_unlimitedGroupEqualsMerge() throws Exception {
+        List<Result> results = createResults(ROW_SIZE);
+
+        ScatterDataResultExtractor extractor = new ScatterDataResultExtractor(FROM, TO, X_GROUP_UNIT, Y_GROUP_UNIT, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        ScatterData actual = extractor.extractData(createScanner(results));
+
+        ScatterData expected = merge(results, results.size());
+
+        assertReduced(expected, actual, Integer.MAX_VALUE);
+        Assert.assertEquals(toAgentInfoSet(expected), toAgentInfoSet(actual));
+    }
+
+    @Test
+    public void extractData_limitedGroup() throws Exception {
+        List<Result> results = createResults(ROW_SIZE);
+        ScatterData expected = merge(results, results.size());
+
+        for (int maxDotSizePerGroup : new int[] {1, 3, 10}) {
+            ScatterDataResultExtractor extractor = new ScatterDataResultExtractor(FROM, TO, X_GROUP_UNIT, Y_GROUP_UNIT, maxDotSizePerGroup, Integer.MAX_VALUE);
+            ScatterData actual = extractor.extractData(createScanner(results));
+
+            assertReduced(expected, actual, maxDotSizePerGroup);
+            Assert.assertEquals(keptAgentInfoSet(actual), toAgentInfoSet(actual));
+            Assert.assertTrue(actual.getDotSize() > keptDotSize(actual));
+        }
+    }
+
+    @Test
+    public void extractData_rowLimit() throws Exception {
+        List<Result> results = createResults(ROW_SIZE);
+
+        ScatterDataResultExtractor extractor = new ScatterDataResultExtractor(FROM, TO, X_GROUP_UNIT, Y_GROUP_UNIT, 3, 10);
+        ScatterData actual = extractor.extractData(createScanner(results));
+
+        ScatterData expected = merge(results, 10);
+
+        assertReduced(expected, actual, 3);
+    }
+
+    @Test
+    public void serialize_countsCountedOnlyDots() throws Exception {
+        List<Result> results = createResults(ROW_SIZE);
+
+        ScatterDataResultExtractor extractor = new ScatterDataResultExtractor(FROM, TO, X_GROUP_UNIT, Y_GROUP_UNIT, 3, Integer.MAX_VALUE);
+        ScatterData actual = extractor.extractData(createScanner(results));
+        ScatterData expected = merge(results, results.size());
+
+        JsonNode dotList = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(actual)).get("dotList");
+        Assert.assertEquals(keptDotSize(actual), dotList.size());
+
+        // [x, y, agent, transactionSequence, type, groupCount, hiddenCount]
+        int dotSize = 0;
+        for (JsonNode dot : dotList) {
+            dotSize += 1;
+            if (dot.size() > 6) {
+                dotSize += dot.get(6).asInt();
+            }
+        }
+        Assert.assertEquals(expected.getDotSize(), dotSize);
+    }
+
+    private List<Result> createResults(int size) {
+        Random random = new Random(size);
+        List<Result> results = new ArrayList<>(size);
+        long sequence = 0;
+        for (int row = 0; row < size; row++) {
+            long acceptedTime = FROM + random.nextInt((int) (TO - FROM));
+            byte[] rowKey = createRowKey(acceptedTime);
+
+            int cellSize = 1 + random.nextInt(30);
+            List<Cell> cells = new ArrayList<>(cellSize);
+            for (int i = 0; i < cellSize; i++) {
+                // dense enough for most groups to overflow a small limit
+                int elapsed = random.nextInt(500);
+                int exceptionCode = random.nextInt(4) == 0 ? 1 : 0;
+                String agentId = "agent" + random.nextInt(3);
+                byte[] qualifier = createQualifier("txAgent" + random.nextInt(2), 1, sequence++);
+                cells.add(new KeyValue(rowKey, HBaseTables.APPLICATION_TRACE_INDEX_CF_TRACE, qualifier, acceptedTime, createValue(elapsed, exceptionCode, agentId)));
+            }
+            results.add(Result.create(cells));
+        }
+        return results;
+    }
+
+    private byte[] createRowKey(long acceptedTime) {
+        byte[] rowKey = new byte[HBaseTables.APPLICATION_TRACE_INDEX_ROW_DISTRIBUTE_SIZE + HBaseTables.APPLICATION_NAME_MAX_LEN + BytesUtils.LONG_BYTE_LENGTH];
+        BytesUtils.writeLong(TimeUtils.reverseTimeMillis(acceptedTime), rowKey, HBaseTables.APPLICATION_TRACE_INDEX_ROW_DISTRIBUTE_SIZE + HBaseTables.APPLICATION_NAME_MAX_LEN);
+        return rowKey;
+    }
+
+    private byte[] createQualifier(String transactionAgentId, long agentStartTime, long sequence) {
+        Buffer buffer = new AutomaticBuffer(32);
+        buffer.putPrefixedString(transactionAgentId);
+        buffer.putSVLong(agentStartTime);
+        buffer.putVLong(sequence);
+        return buffer.getBuffer();
+    }
+
+    private byte[] createValue(int elapsed, int exceptionCode, String agentId) {
+        Buffer buffer = new AutomaticBuffer(32);
+        buffer.putVInt(elapsed);
+        buffer.putSVInt(exceptionCode);
+        buffer.putPrefixedString(agentId);
+        return buffer.getBuffer();
+    }
+
+    private ResultScanner createScanner(List<Result> results) {
+        ResultScanner scanner = mock(ResultScanner.class);
+        when(scanner.iterator()).thenReturn(results.iterator());
+        return scanner;
+    }
+
+    /**
+     * what scanTraceScatterData used to return, one ScatterData per row merged into the first
+     */
+    private ScatterData merge(List<Result> results, int limit) throws Exception {
+        TraceIndexScatterMapper3 mapper = new TraceIndexScatterMapper3(FROM, TO, X_GROUP_UNIT, Y_GROUP_UNIT);
+        ScatterData merged = null;
+        for (int i = 0; i < limit; i++) {
+            ScatterData scatterData = mapper.mapRow(results.get(i), i);
+            if (merged == null) {
+                merged = scatterData;
+            } else {
+                merged.merge(scatterData);
+            }
+        }
+        return merged;
+    }
+
+    private void assertReduced(ScatterData expected, ScatterData actual, int maxDotSizePerGroup) {
+        Assert.assertEquals(expected.getOldestAcceptedTime(), actual.getOldestAcceptedTime());
+        Assert.assertEquals(expected.getLatestAcceptedTime(), actual.getLatestAcceptedTime());
+        Assert.assertEquals(expected.getDotSize(), actual.getDotSize());
+
+        Map<String, DotGroup> expectedGroups = toGroupMap(expected);
+        Map<String, DotGroup> actualGroups = toGroupMap(actual);
+        Assert.assertEquals(expectedGroups.keySet(), actualGroups.keySet());
+
+        for (Map.Entry<String, DotGroup> entry : expectedGroups.entrySet()) {
+            DotGroup expectedGroup = entry.getValue();
+            DotGroup actualGroup = actualGroups.get(entry.getKey());
+
+            Assert.assertEquals(expectedGroup.getDotSize(), actualGroup.getDotSize());
+            Assert.assertEquals(expectedGroup.getDotLeader().toString(), actualGroup.getDotLeader().toString());
+
+            List<Dot> expectedDotList = expectedGroup.getDotList();
+            List<Dot> representatives = expectedDotList.subList(0, Math.min(maxDotSizePerGroup, expectedDotList.size()));
+            Assert.assertEquals(representatives.toString(), actualGroup.getDotList().toString());
+        }
+    }
+
+    private Map<String, DotGroup> toGroupMap(ScatterData scatterData) {
+        Map<String, DotGroup> groupMap = new TreeMap<>();
+        for (DotGroups dotGroups : scatterData.getScatterDataMap().values()) {
+            for (DotGroup dotGroup : dotGroups.getDotGroupMap().values()) {
+                String key = dotGroup.getCoordinates() + ":" + dotGroup.getDotLeader().getSimpleExceptionCode();
+                Assert.assertNull(groupMap.put(key, dotGroup));
+            }
+        }
+        return groupMap;
+    }
+
+    private int keptDotSize(ScatterData scatterData) {
+        int keptDotSize = 0;
+        for (DotGroup dotGroup : toGroupMap(scatterData).values()) {
+            keptDotSize += dotGroup.getDotList().size();
+        }
+        return keptDotSize;
+    }
+
+    private Set<DotAgentInfo> keptAgentInfoSet(ScatterData scatterData) {
+        Set<DotAgentInfo> agentInfoSet = new HashSet<>();
+        for (DotGroup dotGroup : toGroupMap(scatterData).values()) {
+            for (Dot dot : dotGroup.getDotList()) {
+                agentInfoSet.add(new DotAgentInfo(dot));
+            }
+        }
+        return agentInfoSet;
+    }
+
+    private Set<DotAgentInfo> toAgentInfoSet(ScatterData scatterData) {
+        Set<DotAgentInfo> agentInfoSet = new HashSet<>();
+        for (Map.Entry<Integer, DotAgentInfo> entry : scatterData.getScatterAgentMetadata().entrySet()) {
+            agentInfoSet.add(entry.getValue());
+        }
+        return agentInfoSet;
+    }
+}
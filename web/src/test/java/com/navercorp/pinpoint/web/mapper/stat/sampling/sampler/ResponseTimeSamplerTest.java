@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
+
+import com.navercorp.pinpoint.common.server.bo.stat.ResponseTimeBo;
+import com.navercorp.pinpoint.common.trace.LogBucketHistogram;
+import com.navercorp.pinpoint.web.vo.stat.SampledResponseTime;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ResponseTimeSamplerTest {
+
+    private final ResponseTimeSampler sampler = new ResponseTimeSampler();
+
+    @Test
+    public void percentile() {
+        List<ResponseTimeBo> responseTimeBoList = new ArrayList<>();
+        // 90 fast + 10 slow transactions split over 2 data points
+        responseTimeBoList.add(createResponseTimeBo(10, 90, 100, 0));
+        responseTimeBoList.add(createResponseTimeBo(10, 0, 5000, 10));
+
+        SampledResponseTime sampledResponseTime = sampler.sampleDataPoints(0, 1000L, responseTimeBoList, null);
+
+        long slowBucketValue = LogBucketHistogram.highestValue(LogBucketHistogram.bucketIndex(5000));
+        assertEquals(slowBucketValue, sampledResponseTime.getP95().getMaxYVal().longValue());
+        assertEquals(slowBucketValue, sampledResponseTime.getP99().getMaxYVal().longValue());
+    }
+
+    @Test
+    public void percentile_noHistogram() {
+        List<ResponseTimeBo> responseTimeBoList = new ArrayList<>();
+        ResponseTimeBo responseTimeBo = new ResponseTimeBo();
+        responseTimeBo.setAvg(100);
+        responseTimeBo.setMax(200);
+        responseTimeBoList.add(responseTimeBo);
+
+        SampledResponseTime sampledResponseTime = sampler.sampleDataPoints(0, 1000L, responseTimeBoList, null);
+
+        assertEquals(SampledResponseTime.UNCOLLECTED_RESPONSE_TIME, sampledResponseTime.getP95().getMaxYVal().longValue());
+        assertEquals(SampledResponseTime.UNCOLLECTED_RESPONSE_TIME, sampledResponseTime.getP99().getMaxYVal().longValue());
+    }
+
+    private ResponseTimeBo createResponseTimeBo(long fastValue, long fastCount, long slowValue, long slowCount) {
+        long[] histogram = new long[LogBucketHistogram.BUCKET_COUNT];
+        histogram[LogBucketHistogram.bucketIndex(fastValue)] += fastCount;
+        histogram[LogBucketHistogram.bucketIndex(slowValue)] += slowCount;
+
+        ResponseTimeBo responseTimeBo = new ResponseTimeBo();
+        responseTimeBo.setAvg(fastValue);
+        responseTimeBo.setMax(slowCount > 0 ? slowValue : fastValue);
+        responseTimeBo.setHistogram(LogBucketHistogram.encode(histogram));
+        return responseTimeBo;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.service.ServiceTypeRegistryService;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.web.TestTraceUtils;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public class LinkDataMapCacheTest {
+
+    private static final long ONE_MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long FROM = 1514764800000L;
+
+    private final ServiceTypeRegistryService registry = TestTraceUtils.mockServiceTypeRegistryService();
+    private final ServiceType serviceType = registry.findServiceType(TestTraceUtils.TEST_STAND_ALONE_TYPE_CODE);
+
+    private final Application caller = new Application("caller", serviceType);
+    private final Application callee = new Application("callee", serviceType);
+
+    private final List<Range> selectedRanges = new ArrayList<>();
+
+    // one call per minute
+    private final Function<Range, LinkDataMap> selector = range -> {
+        selectedRanges.add(range);
+        final LinkDataMap linkDataMap = new LinkDataMap();
+        for (long timeSlot = (range.getFrom() / ONE_MINUTE) * ONE_MINUTE; timeSlot <= range.getTo(); timeSlot += ONE_MINUTE) {
+            linkDataMap.addLinkData(caller, "agent", callee, "callee", timeSlot, (short) 1000, 1);
+        }
+        return linkDataMap;
+    };
+
+    @Test
+    public void closedTimeSlot() {
+        final Range range = new Range(FROM, FROM + 4 * ONE_MINUTE);
+        final LinkDataMapCache cache = newLinkDataMapCache(FROM + ONE_MINUTE * 10);
+
+        Assert.assertEquals(5, cache.select("caller", caller, range, selector).getTotalCount());
+        Assert.assertEquals(5, cache.select("caller", caller, range, selector).getTotalCount());
+
+        Assert.assertEquals(1, selectedRanges.size());
+        Assert.assertEquals(5, cache.getHitCount());
+        Assert.assertEquals(5, cache.getMissCount());
+    }
+
+    @Test
+    public void openTimeSlot() {
+        final Range range = new Range(FROM, FROM + 4 * ONE_MINUTE);
+        // the last two minutes are still open
+        final LinkDataMapCache cache = newLinkDataMapCache(FROM + 4 * ONE_MINUTE);
+
+        Assert.assertEquals(5, cache.select("caller", caller, range, selector).getTotalCount());
+        Assert.assertEquals(5, cache.select("caller", caller, range, selector).getTotalCount());
+
+        Assert.assertEquals(2, selectedRanges.size());
+        Assert.assertEquals(new Range(FROM + 3 * ONE_MINUTE, FROM + 4 * ONE_MINUTE), selectedRanges.get(1));
+        Assert.assertEquals(3, cache.getHitCount());
+    }
+
+    @Test
+    public void selectorName() {
+        final Range range = new Range(FROM, FROM + 4 * ONE_MINUTE);
+        final LinkDataMapCache cache = newLinkDataMapCache(FROM + ONE_MINUTE * 10);
+
+        cache.select("caller", caller, range, selector);
+        cache.select("callee", caller, range, selector);
+
+        Assert.assertEquals(2, selectedRanges.size());
+    }
+
+    @Test
+    public void coarseTimeWindow() {
+        final Range range = new Range(FROM, FROM + TimeUnit.HOURS.toMillis(3));
+        final LinkDataMapCache cache = newLinkDataMapCache(FROM + TimeUnit.DAYS.toMillis(1));
+
+        cache.select("caller", caller, range, selector);
+        cache.select("caller", caller, range, selector);
+
+        Assert.assertEquals(2, selectedRanges.size());
+        Assert.assertEquals(0, cache.getHitCount());
+    }
+
+    private LinkDataMapCache newLinkDataMapCache(final long currentTimeMillis) {
+        final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(LinkDataMapCache.LINK_DATA_MAP_CACHE);
+        return new LinkDataMapCache(cacheManager, ONE_MINUTE) {
+            @Override
+            long currentTimeMillis() {
+                return currentTimeMillis;
+            }
+        };
+    }
+}
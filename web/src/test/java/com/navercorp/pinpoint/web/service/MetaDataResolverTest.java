@@ -0,0 +1,196 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
+import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.server.bo.SqlMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.StringMetaDataBo;
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.common.util.IntStringStringValue;
+import com.navercorp.pinpoint.web.calltree.span.SpanAlign;
+import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
+import com.navercorp.pinpoint.web.service.MetaDataResolver.MetaDataTable;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MetaDataResolverTest {
+
+    private static final String AGENT_ID = "agentId";
+    private static final long AGENT_START_TIME = 1000;
+
+    private SqlMetaDataDao sqlMetaDataDao;
+    private ApiMetaDataDao apiMetaDataDao;
+    private StringMetaDataDao stringMetaDataDao;
+
+    @Before
+    public void setUp() {
+        sqlMetaDataDao = mock(SqlMetaDataDao.class);
+        when(sqlMetaDataDao.getSqlMetaData(anyList())).then(invocation -> {
+            List<MetaDataKey> keyList = invocation.getArgument(0);
+            List<List<SqlMetaDataBo>> result = new ArrayList<>();
+            for (MetaDataKey key : keyList) {
+                SqlMetaDataBo sqlMetaDataBo = new SqlMetaDataBo(key.getAgentId(), key.getAgentStartTime(), key.getId());
+                sqlMetaDataBo.setSql("sql" + key.getId());
+                result.add(Collections.singletonList(sqlMetaDataBo));
+            }
+            return result;
+        });
+        apiMetaDataDao = mock(ApiMetaDataDao.class);
+        when(apiMetaDataDao.getApiMetaData(anyList())).then(invocation -> {
+            List<MetaDataKey> keyList = invocation.getArgument(0);
+            List<List<ApiMetaDataBo>> result = new ArrayList<>();
+            for (MetaDataKey key : keyList) {
+                ApiMetaDataBo apiMetaDataBo = new ApiMetaDataBo(key.getAgentId(), key.getAgentStartTime(), key.getId());
+                apiMetaDataBo.setApiInfo("api" + key.getId());
+                result.add(Collections.singletonList(apiMetaDataBo));
+            }
+            return result;
+        });
+        stringMetaDataDao = mock(StringMetaDataDao.class);
+        when(stringMetaDataDao.getStringMetaData(anyList())).then(invocation -> {
+            List<MetaDataKey> keyList = invocation.getArgument(0);
+            List<List<StringMetaDataBo>> result = new ArrayList<>();
+            for (MetaDataKey key : keyList) {
+                // not found
+                result.add(Collections.<StringMetaDataBo>emptyList());
+            }
+            return result;
+        });
+    }
+
+    @Test
+    public void resolve() {
+        MetaDataResolver resolver = new MetaDataResolver(sqlMetaDataDao, apiMetaDataDao, stringMetaDataDao, null, null);
+
+        List<SpanAlign> spanAlignList = newSpanAlignList(2000);
+        MetaDataTable metaDataTable = resolver.resolve(spanAlignList);
+
+        // 2000 sql annotations, 10 distinct sql
+        verify(sqlMetaDataDao, times(1)).getSqlMetaData(anyList());
+        verify(apiMetaDataDao, times(1)).getApiMetaData(anyList());
+        verify(stringMetaDataDao, times(1)).getStringMetaData(anyList());
+
+        Assert.assertEquals("sql3", metaDataTable.getSqlMetaData(AGENT_ID, AGENT_START_TIME, 3).get(0).getSql());
+        Assert.assertEquals("api2", metaDataTable.getApiMetaData(AGENT_ID, AGENT_START_TIME, 2).get(0).getApiInfo());
+        Assert.assertTrue(metaDataTable.getStringMetaData(AGENT_ID, AGENT_START_TIME, 7).isEmpty());
+        verify(sqlMetaDataDao, never()).getSqlMetaData(anyString(), anyLong(), anyInt());
+        verify(apiMetaDataDao, never()).getApiMetaData(anyString(), anyLong(), anyInt());
+        verify(stringMetaDataDao, never()).getStringMetaData(anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    public void resolve_partition() {
+        MetaDataResolver resolver = new MetaDataResolver(sqlMetaDataDao, apiMetaDataDao, stringMetaDataDao, null, Runnable::run);
+
+        List<SpanAlign> spanAlignList = new ArrayList<>();
+        SpanBo spanBo = newSpanBo();
+        for (int i = 0; i < MetaDataResolver.MULTI_GET_SIZE + 1; i++) {
+            spanAlignList.add(new SpanAlign(spanBo, newSqlSpanEvent(i)));
+        }
+        MetaDataTable metaDataTable = resolver.resolve(spanAlignList);
+
+        verify(sqlMetaDataDao, times(2)).getSqlMetaData(anyList());
+        Assert.assertEquals("sql" + MetaDataResolver.MULTI_GET_SIZE, metaDataTable.getSqlMetaData(AGENT_ID, AGENT_START_TIME, MetaDataResolver.MULTI_GET_SIZE).get(0).getSql());
+    }
+
+    @Test
+    public void resolve_cache() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(MetaDataResolver.SQL_METADATA_CACHE,
+                MetaDataResolver.API_METADATA_CACHE, MetaDataResolver.STRING_METADATA_CACHE);
+        MetaDataResolver resolver = new MetaDataResolver(sqlMetaDataDao, apiMetaDataDao, stringMetaDataDao, cacheManager, null);
+
+        List<SpanAlign> spanAlignList = newSpanAlignList(100);
+        resolver.resolve(spanAlignList);
+        MetaDataTable metaDataTable = resolver.resolve(spanAlignList);
+
+        verify(sqlMetaDataDao, times(1)).getSqlMetaData(anyList());
+        verify(apiMetaDataDao, times(1)).getApiMetaData(anyList());
+        // a miss is not cached
+        verify(stringMetaDataDao, times(2)).getStringMetaData(anyList());
+        Assert.assertEquals("sql3", metaDataTable.getSqlMetaData(AGENT_ID, AGENT_START_TIME, 3).get(0).getSql());
+    }
+
+    @Test
+    public void uncollectedKey() {
+        MetaDataResolver resolver = new MetaDataResolver(sqlMetaDataDao, apiMetaDataDao, stringMetaDataDao, null, null);
+        when(sqlMetaDataDao.getSqlMetaData(any(String.class), anyLong(), anyInt())).thenReturn(Collections.<SqlMetaDataBo>emptyList());
+
+        MetaDataTable metaDataTable = resolver.resolve(Collections.<SpanAlign>emptyList());
+        Assert.assertTrue(metaDataTable.getSqlMetaData(AGENT_ID, AGENT_START_TIME, 1).isEmpty());
+
+        verify(sqlMetaDataDao, never()).getSqlMetaData(anyList());
+        verify(sqlMetaDataDao, times(1)).getSqlMetaData(AGENT_ID, AGENT_START_TIME, 1);
+    }
+
+    private List<SpanAlign> newSpanAlignList(int spanEventCount) {
+        SpanBo spanBo = newSpanBo();
+        List<SpanAlign> spanAlignList = new ArrayList<>();
+        spanAlignList.add(new SpanAlign(spanBo));
+        for (int i = 0; i < spanEventCount; i++) {
+            SpanEventBo spanEventBo = newSqlSpanEvent(i % 10);
+            spanEventBo.setApiId(i % 5);
+            if (i % 100 == 0) {
+                spanEventBo.setExceptionInfo(7, "exception");
+            }
+            spanAlignList.add(new SpanAlign(spanBo, spanEventBo));
+        }
+        return spanAlignList;
+    }
+
+    private SpanBo newSpanBo() {
+        SpanBo spanBo = new SpanBo();
+        spanBo.setAgentId(AGENT_ID);
+        spanBo.setAgentStartTime(AGENT_START_TIME);
+        spanBo.setApiId(1);
+        return spanBo;
+    }
+
+    private SpanEventBo newSqlSpanEvent(int sqlId) {
+        SpanEventBo spanEventBo = new SpanEventBo();
+        spanEventBo.setApiId(1);
+        AnnotationBo sqlAnnotation = new AnnotationBo();
+        sqlAnnotation.setKey(AnnotationKey.SQL_ID.getCode());
+        sqlAnnotation.setValue(new IntStringStringValue(sqlId, null, null));
+        spanEventBo.setAnnotationBoList(new ArrayList<>(Arrays.asList(sqlAnnotation)));
+        return spanEventBo;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.service.AnnotationKeyRegistryService;
+import com.navercorp.pinpoint.common.service.ServiceTypeRegistryService;
+import com.navercorp.pinpoint.common.server.util.AnnotationUtils;
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.common.util.IntStringStringValue;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.calltree.span.SpanAlign;
+import com.navercorp.pinpoint.web.calltree.span.SpanCallTree;
+import com.navercorp.pinpoint.web.vo.callstacks.Record;
+import com.navercorp.pinpoint.web.vo.callstacks.RecordSet;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TransactionInfoServiceImplTest {
+
+    private static final int DEPTH = 3;
+    private static final int SPAN_EVENT_COUNT = 40;
+
+    @Mock
+    private AnnotationKeyMatcherService annotationKeyMatcherService;
+
+    @Mock
+    private ServiceTypeRegistryService registry;
+
+    @Mock
+    private AnnotationKeyRegistryService annotationKeyRegistryService;
+
+    @Mock
+    private SpanService spanService;
+
+    @InjectMocks
+    private TransactionInfoServiceImpl transactionInfoService;
+
+    private final List<SpanAlign> populatedSpanAlignList = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        when(annotationKeyRegistryService.findAnnotationKey(AnnotationKey.HTTP_PARAM.getCode())).thenReturn(AnnotationKey.HTTP_PARAM);
+        when(annotationKeyRegistryService.findAnnotationKey(AnnotationKey.RETURN_DATA.getCode())).thenReturn(AnnotationKey.RETURN_DATA);
+        when(annotationKeyRegistryService.findAnnotationKey(AnnotationKey.SQL.getCode())).thenReturn(AnnotationKey.SQL);
+        when(annotationKeyRegistryService.findAnnotationKey(AnnotationKey.SQL_BINDVALUE.getCode())).thenReturn(AnnotationKey.SQL_BINDVALUE);
+        // not shown in the record set
+        when(annotationKeyRegistryService.findAnnotationKey(AnnotationKey.HTTP_URL.getCode())).thenReturn(AnnotationKey.HTTP_URL);
+        when(annotationKeyRegistryService.findAnnotationKey(AnnotationKey.SQL_ID.getCode())).thenReturn(AnnotationKey.SQL_ID);
+
+        // same rows as SpanServiceImpl resolving a sql
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                List<SpanAlign> spanAlignList = invocation.getArgument(0);
+                for (SpanAlign spanAlign : spanAlignList) {
+                    final List<AnnotationBo> annotationBoList = spanAlign.getAnnotationBoList();
+                    final AnnotationBo sqlId = AnnotationUtils.findAnnotationBo(annotationBoList, AnnotationKey.SQL_ID);
+                    if (sqlId != null) {
+                        final IntStringStringValue sqlValue = (IntStringStringValue) sqlId.getValue();
+                        annotationBoList.add(newAnnotationBo(AnnotationKey.SQL, "select " + sqlValue.getIntValue()));
+                        if (sqlValue.getStringValue2() != null) {
+                            annotationBoList.add(newAnnotationBo(AnnotationKey.SQL_BINDVALUE, sqlValue.getStringValue2()));
+                        }
+                    }
+                    populatedSpanAlignList.add(spanAlign);
+                }
+                return null;
+            }
+        }).when(spanService).populateMetaData(anyList());
+    }
+
+    private SpanCallTree createCallTree() {
+        final SpanBo spanBo = new SpanBo();
+        spanBo.setTransactionId(new TransactionId("agentId", 1000L, 1L));
+        spanBo.setAgentId("agentId");
+        spanBo.setSpanId(1L);
+        spanBo.setStartTime(1000L);
+        spanBo.setElapsed(SPAN_EVENT_COUNT * 10);
+        spanBo.setRpc("/paging");
+        spanBo.setRemoteAddr("127.0.0.1");
+
+        final SpanCallTree callTree = new SpanCallTree(new SpanAlign(spanBo));
+        for (int i = 0; i < SPAN_EVENT_COUNT; i++) {
+            final SpanEventBo spanEventBo = new SpanEventBo();
+            spanEventBo.setSequence((short) i);
+            // 1, 2, 3, 1, 2, 3 ...
+            spanEventBo.setDepth(i % DEPTH + 1);
+            spanEventBo.setStartElapsed(i * 10);
+            spanEventBo.setEndElapsed(5);
+
+            // nodes with 1 to 5 records
+            final List<AnnotationBo> annotationBoList = new ArrayList<>();
+            if (i % 2 == 0) {
+                annotationBoList.add(newAnnotationBo(AnnotationKey.HTTP_PARAM, "param" + i));
+            }
+            if (i % 5 == 0) {
+                annotationBoList.add(newAnnotationBo(AnnotationKey.RETURN_DATA, "return" + i));
+                annotationBoList.add(newAnnotationBo(AnnotationKey.HTTP_URL, "/url" + i));
+            }
+            if (i % 4 == 0) {
+                final String bindValue = i % 8 == 0 ? "bind" + i : null;
+                annotationBoList.add(newAnnotationBo(AnnotationKey.SQL_ID, new IntStringStringValue(i, null, bindValue)));
+            }
+            spanEventBo.setAnnotationBoList(annotationBoList);
+            if (i % 3 == 0) {
+                spanEventBo.setExceptionInfo(i, "exception" + i);
+            }
+            callTree.add(spanEventBo.getDepth(), new SpanAlign(spanBo, spanEventBo));
+        }
+        return callTree;
+    }
+
+    private AnnotationBo newAnnotationBo(AnnotationKey annotationKey, Object value) {
+        final AnnotationBo annotationBo = new AnnotationBo();
+        annotationBo.setKey(annotationKey.getCode());
+        annotationBo.setValue(value);
+        return annotationBo;
+    }
+
+    @Test
+    public void createRecordSet_paging() {
+        final RecordSet unpaged = transactionInfoService.createRecordSet(createCallTree().iterator(), 0, null, -1);
+        final List<Record> expected = unpaged.getRecordList();
+        final int totalRecordCount = expected.size();
+        // span, remote address and the records of every span event
+        Assert.assertTrue(totalRecordCount > SPAN_EVENT_COUNT + 2);
+        Assert.assertEquals(totalRecordCount, unpaged.getTotalRecordCount());
+        // rows of the sql resolved after the index was built
+        Assert.assertEquals(SPAN_EVENT_COUNT / 4, countRecord(expected, AnnotationKey.SQL.getName()));
+        Assert.assertEquals(SPAN_EVENT_COUNT / 8, countRecord(expected, AnnotationKey.SQL_BINDVALUE.getName()));
+
+        for (int limit = 1; limit <= 8; limit++) {
+            for (int offset = 0; offset < totalRecordCount; offset += limit) {
+                final RecordSet page = transactionInfoService.createRecordSet(createCallTree().iterator(), 0, null, -1, offset, limit);
+                Assert.assertEquals(offset, page.getRecordOffset());
+                Assert.assertEquals(totalRecordCount, page.getTotalRecordCount());
+
+                final List<Record> slice = expected.subList(offset, Math.min(offset + limit, totalRecordCount));
+                assertRecordList("offset:" + offset + " limit:" + limit, slice, page.getRecordList());
+            }
+        }
+    }
+
+    @Test
+    public void createRecordSet_offsetOverTotal() {
+        final RecordSet unpaged = transactionInfoService.createRecordSet(createCallTree().iterator(), 0, null, -1);
+        final int totalRecordCount = unpaged.getTotalRecordCount();
+
+        populatedSpanAlignList.clear();
+        final RecordSet page = transactionInfoService.createRecordSet(createCallTree().iterator(), 0, null, -1, totalRecordCount, 10);
+        Assert.assertTrue(page.getRecordList().isEmpty());
+        Assert.assertEquals(totalRecordCount, page.getTotalRecordCount());
+        // the view point only
+        Assert.assertEquals(1, populatedSpanAlignList.size());
+        Assert.assertTrue(populatedSpanAlignList.get(0).isSpan());
+    }
+
+    @Test
+    public void createRecordSet_populateMetaDataOfWindow() {
+        final int offset = 30;
+        final int limit = 6;
+        final RecordSet page = transactionInfoService.createRecordSet(createCallTree().iterator(), 0, null, -1, offset, limit);
+        Assert.assertEquals(limit, page.getRecordList().size());
+
+        final Set<Integer> recordIdSet = new HashSet<>();
+        for (Record record : page.getRecordList()) {
+            recordIdSet.add(record.getId());
+        }
+        int windowSpanAlignCount = 0;
+        for (SpanAlign spanAlign : populatedSpanAlignList) {
+            if (spanAlign.isSpan()) {
+                // the view point, its row is out of the window
+                Assert.assertEquals(0, page.getFocusRecordIndex());
+                continue;
+            }
+            // the node record may precede the window when the window starts with its annotations
+            Assert.assertTrue(recordIdSet.contains(spanAlign.getId()) || spanAlign.getId() < page.getRecordList().get(0).getId());
+            windowSpanAlignCount++;
+        }
+        Assert.assertTrue(windowSpanAlignCount <= limit);
+        Assert.assertEquals(windowSpanAlignCount + 1, populatedSpanAlignList.size());
+    }
+
+    private int countRecord(List<Record> recordList, String title) {
+        int count = 0;
+        for (Record record : recordList) {
+            if (title.equals(record.getTitle())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void assertRecordList(String message, List<Record> expected, List<Record> actual) {
+        Assert.assertEquals(message, expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final Record expectedRecord = expected.get(i);
+            final Record actualRecord = actual.get(i);
+            Assert.assertEquals(message, expectedRecord.getId(), actualRecord.getId());
+            Assert.assertEquals(message, expectedRecord.getParentId(), actualRecord.getParentId());
+            Assert.assertEquals(message, expectedRecord.getTab(), actualRecord.getTab());
+            Assert.assertEquals(message, expectedRecord.getTitle(), actualRecord.getTitle());
+            Assert.assertEquals(message, expectedRecord.getArguments(), actualRecord.getArguments());
+            Assert.assertEquals(message, expectedRecord.isMethod(), actualRecord.isMethod());
+            Assert.assertEquals(message, expectedRecord.getBegin(), actualRecord.getBegin());
+        }
+    }
+}
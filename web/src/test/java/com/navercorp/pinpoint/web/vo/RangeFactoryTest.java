@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.vo;
+
+import com.navercorp.pinpoint.common.hbase.statistics.MapStatisticsResolution;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class RangeFactoryTest {
+
+    private static final long FROM = 1514764800000L; // 2018-01-01T00:00:00Z
+
+    private final RangeFactory rangeFactory = new RangeFactory();
+
+    @Test
+    public void createStatisticsRange_oneHour() {
+        assertScannedTimeSlot(TimeUnit.HOURS.toMillis(1), MapStatisticsResolution.ONE_MINUTE, 61);
+    }
+
+    @Test
+    public void createStatisticsRange_oneDay() {
+        // 1,441 one-minute rows per link without rollups. 288 rollups and the one-minute row of the last minute
+        assertScannedTimeSlot(TimeUnit.DAYS.toMillis(1), MapStatisticsResolution.FIVE_MINUTES, 289);
+    }
+
+    @Test
+    public void createStatisticsRange_twoDays() {
+        // 2,881 one-minute rows per link without rollups
+        assertScannedTimeSlot(TimeUnit.DAYS.toMillis(2), MapStatisticsResolution.FIVE_MINUTES, 577);
+    }
+
+    @Test
+    public void createStatisticsRange_threeDays() {
+        assertScannedTimeSlot(TimeUnit.DAYS.toMillis(3), MapStatisticsResolution.ONE_HOUR, 73);
+    }
+
+    @Test
+    public void createStatisticsRange_unalignedFrom() {
+        final long from = FROM + TimeUnit.MINUTES.toMillis(3);
+        final Range range = new Range(from, from + TimeUnit.HOURS.toMillis(3));
+
+        final List<StatisticsRange> statisticsRanges = rangeFactory.createStatisticsRanges(range, MapStatisticsResolution.FIVE_MINUTES);
+        Assert.assertEquals(3, statisticsRanges.size());
+
+        // 00:03 ~ 00:04 from one-minute rows
+        assertStatisticsRange(statisticsRanges.get(0), MapStatisticsResolution.ONE_MINUTE, from, FROM + TimeUnit.MINUTES.toMillis(4));
+        // 00:05 ~ 02:55 rollups, the last one ends at 02:59
+        assertStatisticsRange(statisticsRanges.get(1), MapStatisticsResolution.FIVE_MINUTES, FROM + TimeUnit.MINUTES.toMillis(5), FROM + TimeUnit.MINUTES.toMillis(175));
+        // 03:00 ~ 03:03 from one-minute rows
+        assertStatisticsRange(statisticsRanges.get(2), MapStatisticsResolution.ONE_MINUTE, FROM + TimeUnit.MINUTES.toMillis(180), range.getTo());
+
+        Assert.assertEquals(coveredMinutes(oneMinuteRanges(range)), coveredMinutes(statisticsRanges));
+    }
+
+    @Test
+    public void createStatisticsRange_shorterThanRollup() {
+        final long from = FROM + TimeUnit.MINUTES.toMillis(1);
+        final Range range = new Range(from, from + TimeUnit.MINUTES.toMillis(3));
+
+        final List<StatisticsRange> statisticsRanges = rangeFactory.createStatisticsRanges(range, MapStatisticsResolution.FIVE_MINUTES);
+        Assert.assertEquals(1, statisticsRanges.size());
+        assertStatisticsRange(statisticsRanges.get(0), MapStatisticsResolution.ONE_MINUTE, from, range.getTo());
+    }
+
+    @Test
+    public void createStatisticsRange_sameMinutesAsOneMinuteRows() {
+        final Random random = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            final long from = FROM + random.nextInt((int) TimeUnit.DAYS.toMillis(1));
+            final long to = from + random.nextInt((int) TimeUnit.DAYS.toMillis(3));
+            final Range range = new Range(from, to);
+            final Set<Long> expected = coveredMinutes(oneMinuteRanges(range));
+            for (MapStatisticsResolution resolution : MapStatisticsResolution.values()) {
+                Assert.assertEquals(range + " " + resolution, expected, coveredMinutes(rangeFactory.createStatisticsRanges(range, resolution)));
+            }
+        }
+    }
+
+    private void assertStatisticsRange(StatisticsRange statisticsRange, MapStatisticsResolution expectedResolution, long firstTimeSlot, long lastTimeSlot) {
+        Assert.assertEquals(expectedResolution, statisticsRange.getResolution());
+        // reversed scan. see RangeFactory.createStatisticsRange()
+        Assert.assertEquals(firstTimeSlot - 1, statisticsRange.getRange().getFrom());
+        Assert.assertEquals(lastTimeSlot, statisticsRange.getRange().getTo());
+    }
+
+    private List<StatisticsRange> oneMinuteRanges(Range range) {
+        final Range statisticsRange = rangeFactory.createStatisticsRange(range, MapStatisticsResolution.ONE_MINUTE);
+        return Collections.singletonList(new StatisticsRange(statisticsRange, MapStatisticsResolution.ONE_MINUTE));
+    }
+
+    // one-minute timeslots counted by the rows scanned in statisticsRanges, each exactly once
+    private Set<Long> coveredMinutes(List<StatisticsRange> statisticsRanges) {
+        final long oneMinute = MapStatisticsResolution.ONE_MINUTE.getResolution();
+        final Set<Long> minutes = new HashSet<>();
+        for (StatisticsRange statisticsRange : statisticsRanges) {
+            final long resolution = statisticsRange.getResolution().getResolution();
+            final Range range = statisticsRange.getRange();
+            for (long timeSlot = range.getFrom() + 1; timeSlot <= range.getTo(); timeSlot += resolution) {
+                for (long minute = timeSlot; minute < timeSlot + resolution; minute += oneMinute) {
+                    Assert.assertTrue("overlap " + minute, minutes.add(minute));
+                }
+            }
+        }
+        return minutes;
+    }
+
+    private void assertScannedTimeSlot(long rangeSize, MapStatisticsResolution expectedResolution, long expectedTimeSlotCount) {
+        final Range range = new Range(FROM, FROM + rangeSize);
+        final TimeWindow timeWindow = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
+
+        final MapStatisticsResolution resolution = MapStatisticsResolution.getResolution(timeWindow.getWindowSlotSize());
+        Assert.assertEquals(expectedResolution, resolution);
+        // every rollup row must fall into exactly one window slot
+        Assert.assertEquals(0, timeWindow.getWindowSlotSize() % resolution.getResolution());
+
+        long timeSlotCount = 0;
+        for (StatisticsRange statisticsRange : rangeFactory.createStatisticsRanges(range, resolution)) {
+            final Range scanRange = statisticsRange.getRange();
+            timeSlotCount += (scanRange.getTo() - (scanRange.getFrom() + 1)) / statisticsRange.getResolution().getResolution() + 1;
+        }
+        Assert.assertEquals(expectedTimeSlotCount, timeSlotCount);
+    }
+}
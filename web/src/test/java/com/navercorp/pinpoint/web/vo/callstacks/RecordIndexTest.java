@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.vo.callstacks;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RecordIndexTest {
+
+    @Test
+    public void findSequence() {
+        // grows past the initial capacity
+        final RecordIndex recordIndex = new RecordIndex(1);
+        Assert.assertEquals(0, recordIndex.add(0, 2));
+        Assert.assertEquals(1, recordIndex.add(1, 3));
+        // hidden node
+        Assert.assertEquals(2, recordIndex.add(2, 0));
+        Assert.assertEquals(3, recordIndex.add(2, 1));
+        Assert.assertEquals(4, recordIndex.add(1, 0));
+
+        Assert.assertEquals(5, recordIndex.size());
+        Assert.assertEquals(6, recordIndex.getTotalRecordCount());
+        Assert.assertEquals(5, recordIndex.getRowOffset(3));
+        Assert.assertEquals(2, recordIndex.getDepth(3));
+        Assert.assertEquals(0, recordIndex.getRecordCount(2));
+
+        final int[] expected = {0, 0, 1, 1, 1, 3};
+        for (int row = 0; row < expected.length; row++) {
+            Assert.assertEquals("row:" + row, expected[row], recordIndex.findSequence(row));
+        }
+        Assert.assertEquals(-1, recordIndex.findSequence(-1));
+        Assert.assertEquals(-1, recordIndex.findSequence(6));
+    }
+
+    @Test
+    public void findSequence_empty() {
+        final RecordIndex recordIndex = new RecordIndex(0);
+        Assert.assertEquals(0, recordIndex.getTotalRecordCount());
+        Assert.assertEquals(-1, recordIndex.findSequence(0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getRowOffset_outOfIndex() {
+        final RecordIndex recordIndex = new RecordIndex(4);
+        recordIndex.add(0, 1);
+        recordIndex.getRowOffset(1);
+    }
+}